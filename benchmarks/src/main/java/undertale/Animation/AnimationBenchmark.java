@@ -0,0 +1,58 @@
+package undertale.Animation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import undertale.Texture.BenchmarkTextures;
+import undertale.Texture.Texture;
+
+/**
+ * 每帧推进 count 个动画(Animation.updateAnimation), 帧时长各不相同, 循环与非循环各半
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AnimationBenchmark {
+    private static final float DELTA_TIME = 1.0f / 60.0f;
+
+    @Param({"100", "1000", "10000"})
+    public int count;
+
+    private Animation[] animations;
+
+    @Setup
+    public void setup() {
+        Texture[] frames = new Texture[7];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = BenchmarkTextures.sized(32, 32);
+        }
+        animations = new Animation[count];
+        for (int i = 0; i < count; i++) {
+            animations[i] = new Animation(0.05f + (i % 8) * 0.025f, i % 2 == 0, frames);
+        }
+    }
+
+    @Benchmark
+    public int updateAnimation() {
+        int frameSum = 0;
+        for (Animation animation : animations) {
+            animation.updateAnimation(DELTA_TIME);
+            frameSum += animation.getCurrentFrameIndex();
+        }
+        return frameSum;
+    }
+}
@@ -0,0 +1,73 @@
+package undertale.GameObject.Bullets;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import undertale.Animation.Animation;
+import undertale.Texture.BenchmarkTextures;
+import undertale.Texture.Texture;
+
+/**
+ * TitanSnake 的追踪和跟随: 蛇头朝目标加速, 各节依次跟随前一节
+ * 没有 player, 目标点在屏幕中央绕圈代替玩家的位置, 不触发光圈接触和死亡。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TitanSnakeBenchmark {
+    private static final float DELTA_TIME = 1.0f / 60.0f;
+
+    @Param({"1", "10", "100"})
+    public int snakeCount;
+
+    // 与 RoundSnake 中最长的蛇相同
+    @Param({"4"})
+    public int bodyCount;
+
+    private TitanSnake[] snakes;
+    private float time;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        Texture frame = BenchmarkTextures.sized(32, 32);
+        Animation head = new Animation(0.1f, true, frame, frame);
+        Animation body = new Animation(0.1f, true, frame, frame);
+        Animation tail = new Animation(0.1f, true, frame, frame);
+        Random random = new Random(42);
+        snakes = new TitanSnake[snakeCount];
+        for (int i = 0; i < snakeCount; i++) {
+            snakes[i] = new TitanSnake(random.nextFloat() * 640.0f, random.nextFloat() * 480.0f, bodyCount, 5, head, body, tail);
+        }
+        time = 0;
+    }
+
+    @Benchmark
+    public float update() {
+        time += DELTA_TIME;
+        float targetX = 320.0f + (float) Math.cos(time) * 100.0f;
+        float targetY = 240.0f + (float) Math.sin(time) * 100.0f;
+        float sum = 0;
+        for (TitanSnake snake : snakes) {
+            snake.steerHead(targetX, targetY);
+            snake.update(DELTA_TIME);
+            sum += snake.getX();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,103 @@
+package undertale.GameObject;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import undertale.GameObject.Bullets.Bullet;
+import undertale.Texture.BenchmarkTextures;
+
+/**
+ * CollisionDetector 的精确检测和 SpatialHash broadphase
+ * 子弹随机分布在 640x480 的战斗区域内, probe 代替玩家的判定区。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollisionBenchmark {
+    @Param({"100", "1000", "5000"})
+    public int bulletCount;
+
+    private Bullet[] bullets;
+    private Bullet probe;
+    private SpatialHash broadphase;
+    private final ArrayList<Bullet> candidates = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        bullets = new Bullet[bulletCount];
+        for (int i = 0; i < bulletCount; i++) {
+            int size = 8 + random.nextInt(24);
+            bullets[i] = new Bullet(random.nextFloat() * 640.0f, random.nextFloat() * 480.0f,
+                0f, 0f, 0f, 1, BenchmarkTextures.sized(size, size));
+        }
+        probe = new Bullet(312.0f, 232.0f, 0f, 0f, 0f, 1, BenchmarkTextures.sized(16, 16));
+        // 与 ObjectManager 相同的格子大小
+        broadphase = new SpatialHash(64.0f, 1024);
+    }
+
+    // 玩家对每颗子弹做一次精确检测(原 updateFightScene 的做法)
+    @Benchmark
+    public int circleVsAll() {
+        int hits = 0;
+        for (Bullet bullet : bullets) {
+            if (CollisionDetector.checkCircleCollision(probe, bullet)) hits++;
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int rectCircleVsAll() {
+        int hits = 0;
+        for (Bullet bullet : bullets) {
+            if (CollisionDetector.checkRectCircleCollision(probe, bullet)) hits++;
+        }
+        return hits;
+    }
+
+    // 子弹两两检测, 作为 broadphase 的对照
+    @Benchmark
+    public int bruteForcePairs() {
+        int hits = 0;
+        for (int i = 0; i < bullets.length; i++) {
+            for (int j = i + 1; j < bullets.length; j++) {
+                if (CollisionDetector.checkCircleCollision(bullets[i], bullets[j])) hits++;
+            }
+        }
+        return hits;
+    }
+
+    // 每帧重建空间哈希, 再对每颗子弹只检测附近的候选
+    @Benchmark
+    public int broadphasePairs() {
+        broadphase.clear();
+        for (Bullet bullet : bullets) {
+            broadphase.insert(bullet);
+        }
+        int hits = 0;
+        for (Bullet bullet : bullets) {
+            candidates.clear();
+            CollisionDetector.queryCandidates(broadphase, bullet, 0f, Bullet.class, candidates);
+            for (int i = 0; i < candidates.size(); i++) {
+                if (CollisionDetector.checkCircleCollision(bullet, candidates.get(i))) hits++;
+            }
+        }
+        return hits;
+    }
+}
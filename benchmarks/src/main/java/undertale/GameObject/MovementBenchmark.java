@@ -0,0 +1,67 @@
+package undertale.GameObject;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import undertale.GameObject.Bullets.Bullet;
+
+/**
+ * GameObject.updatePosition: 积分速度和位置, limited 为 true 时每次都经过 limitSpeed 的限速
+ * 子弹带有加速度, 限速时速度很快达到上限并一直被钳制。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MovementBenchmark {
+    private static final float DELTA_TIME = 1.0f / 60.0f;
+
+    @Param({"100", "1000", "10000"})
+    public int count;
+
+    @Param({"false", "true"})
+    public boolean limited;
+
+    private Bullet[] bullets;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        Random random = new Random(42);
+        bullets = new Bullet[count];
+        for (int i = 0; i < count; i++) {
+            float angle = random.nextFloat() * 360.0f;
+            Bullet bullet = new Bullet(random.nextFloat() * 640.0f, random.nextFloat() * 480.0f,
+                angle, angle, 50.0f, 1, (undertale.Texture.Texture) null);
+            bullet.setAccelerateX(random.nextFloat() * 20.0f - 10.0f);
+            bullet.setAccelerateY(random.nextFloat() * 20.0f - 10.0f);
+            bullet.setNavi(true);
+            if (limited) bullet.setMaxSpeed(120.0f);
+            bullets[i] = bullet;
+        }
+    }
+
+    @Benchmark
+    public float updatePosition() {
+        float sum = 0;
+        for (Bullet bullet : bullets) {
+            bullet.updatePosition(DELTA_TIME);
+            sum += bullet.getX();
+        }
+        return sum;
+    }
+}
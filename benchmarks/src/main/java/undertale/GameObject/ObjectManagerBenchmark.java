@@ -0,0 +1,90 @@
+package undertale.GameObject;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import undertale.GameObject.Bullets.Bullet;
+import undertale.Texture.BenchmarkTextures;
+import undertale.Texture.Texture;
+
+/**
+ * 一个 tick 的 ObjectManager.updateFightScene: 插值位置记录、子弹移动、涟漪和粒子更新
+ * 没有 player(Player 依赖窗口、纹理和音频), 与玩家相关的碰撞分支由 CollisionBenchmark 单独测量。
+ * 子弹不做越界销毁(bound = false), 飞出屏幕后从另一侧绕回, 保证每次调用都更新 bulletCount 颗子弹;
+ * 每轮迭代结束时检查子弹数量没有变化。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ObjectManagerBenchmark {
+    private static final float DELTA_TIME = 1.0f / 60.0f;
+    private static final float WIDTH = 640.0f;
+    private static final float HEIGHT = 480.0f;
+
+    // 在屏幕范围内绕回的子弹, 数量在整个测量期间保持不变
+    private static final class WrappingBullet extends Bullet {
+        WrappingBullet(float x, float y, float angle, float speed, Texture texture) {
+            super(x, y, angle, angle, speed, 1, texture);
+            this.bound = false;
+        }
+
+        @Override
+        public void update(float deltaTime) {
+            super.update(deltaTime);
+            float x = getX();
+            float y = getY();
+            if (x < 0 || x >= WIDTH || y < 0 || y >= HEIGHT) {
+                setPosition(((x % WIDTH) + WIDTH) % WIDTH, ((y % HEIGHT) + HEIGHT) % HEIGHT);
+            }
+        }
+    }
+
+    @Param({"100", "1000", "5000"})
+    public int bulletCount;
+
+    private ObjectManager manager;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        Texture texture = BenchmarkTextures.sized(16, 16);
+        Random random = new Random(42);
+        manager = new ObjectManager();
+        for (int i = 0; i < bulletCount; i++) {
+            float angle = random.nextFloat() * 360.0f;
+            manager.addBullet(new WrappingBullet(random.nextFloat() * WIDTH, random.nextFloat() * HEIGHT,
+                angle, 20.0f + random.nextFloat() * 100.0f, texture));
+        }
+        // 把 pending 子弹加入层
+        manager.updateFightScene(DELTA_TIME);
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkPopulation() {
+        if (manager.getBulletsCount() != bulletCount) {
+            throw new IllegalStateException("Expected " + bulletCount + " bullets, found " + manager.getBulletsCount());
+        }
+    }
+
+    @Benchmark
+    public int updateFightScene() {
+        manager.updateFightScene(DELTA_TIME);
+        return manager.getBulletsCount();
+    }
+}
@@ -0,0 +1,14 @@
+package undertale.Texture;
+
+/**
+ * 基准测试用的纹理句柄: 只有尺寸, 不创建 GL 纹理
+ * 子弹、动画的尺寸由纹理决定, 用它们可以在没有 OpenGL 上下文时构造游戏对象。
+ */
+public final class BenchmarkTextures {
+    private BenchmarkTextures() {
+    }
+
+    public static Texture sized(int width, int height) {
+        return new Texture(width, height);
+    }
+}
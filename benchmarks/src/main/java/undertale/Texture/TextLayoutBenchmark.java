@@ -0,0 +1,69 @@
+package undertale.Texture;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * TypeWriter 的换行排版: FontManager.getLayout() 缓存未命中时执行的 TextLayout.build()
+ * 字形由合成的 rasterizer 生成(不调用 stb), 预热后字形表已满, 只测排版本身。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TextLayoutBenchmark {
+    private static final String SENTENCE = "* You feel your sins crawling on your back. ";
+
+    // 文字长度(字符数)
+    @Param({"64", "512", "4096"})
+    public int length;
+
+    private String text;
+    private GlyphCache glyphs;
+
+    @Setup
+    public void setup() {
+        StringBuilder builder = new StringBuilder(length);
+        while (builder.length() < length) {
+            builder.append(SENTENCE);
+            if (builder.length() % 3 == 0) builder.append('\n');
+        }
+        builder.setLength(length);
+        text = builder.toString();
+        // 8x16 的字形, 字距 9, 与游戏字体的尺寸相近
+        glyphs = new GlyphCache((codepoint, metrics) -> {
+            metrics[0] = 9f;
+            if (codepoint == ' ') return null;
+            metrics[2] = -12f;
+            metrics[3] = 8f;
+            metrics[4] = 16f;
+            return ByteBuffer.allocate(8 * 16);
+        }, 512);
+        TextLayout.build(text, 1f, 0f, 37f, 1, glyphs);
+    }
+
+    @Benchmark
+    public TextLayout wrap() {
+        // 与对话框相同的换行宽度
+        return TextLayout.build(text, 1f, 520f, 37f, 1, glyphs);
+    }
+
+    @Benchmark
+    public TextLayout singleLine() {
+        return TextLayout.build(text, 1f, 0f, 37f, 1, glyphs);
+    }
+}
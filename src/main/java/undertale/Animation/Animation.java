@@ -3,6 +3,7 @@ package undertale.Animation;
 import java.util.ArrayList;
 import java.util.function.Consumer;
 
+import undertale.Shaders.ShaderProgram;
 import undertale.Texture.Texture;
 import undertale.Texture.TextureBuilder;
 
@@ -54,6 +55,13 @@ public class Animation {
         this(frameDuration, loop, new ArrayList<Texture>(), false, false);
     }
 
+    /**
+     * 复制播放状态独立的动画, 帧列表与 source 共享(不再拷贝), 用于每个子弹各自持有的动画
+     */
+    public Animation(Animation source) {
+        this(source.frameDuration, source.loop, source.frames, source.horizontalReverse, source.verticalReverse);
+    }
+
     public Texture getCurrentFrame() {
         if (frameCount == 0) return null;
         return frames.get(currentFrame);
@@ -91,6 +99,8 @@ public class Animation {
                 }
             }
         }
+        // 是否播放到最后一帧在 update 中判断, 逻辑(如攻击结算)不依赖绘制
+        isEnd = !loop && currentFrame == frameCount - 1;
     }
 
     public float getFrameWidth() {
@@ -103,7 +113,11 @@ public class Animation {
         return frames.get(0).getHeight();
     }
 
-    public void renderCurrentFrame(float x, float y, float scaleX, float scaleY, float angle, float r, float g, float b, float a, String shaderName, Consumer<Integer> uniformSetter) {
+    public void renderCurrentFrame(float x, float y, float scaleX, float scaleY, float angle, float r, float g, float b, float a, String shaderName, Consumer<ShaderProgram> uniformSetter) {
+        renderCurrentFrame(x, y, scaleX, scaleY, angle, r, g, b, a, shaderName, uniformSetter, 0f);
+    }
+
+    public void renderCurrentFrame(float x, float y, float scaleX, float scaleY, float angle, float r, float g, float b, float a, String shaderName, Consumer<ShaderProgram> uniformSetter, float shaderParam) {
         if(isEnd && disappearAfterEnds) return;
         Texture currentTexture = getCurrentFrame();
         if (currentTexture != null) {
@@ -112,21 +126,16 @@ public class Animation {
             float u0 = horizontalReverse ? 1.0f : 0.0f;
             float v0 = verticalReverse ? 0.0f : 1.0f;
 
-            TextureBuilder builder = new TextureBuilder().textureId(currentTexture.getId())
+            TextureBuilder builder = new TextureBuilder().texture(currentTexture)
                 .position(x, y)
                 .size(currentWidth, currentHeight)
                 .rotation(angle)
                 .rgba(r, g, b, a)
                 .uv(u0, 1 - u0, v0, 1 - v0);
             if(shaderName != null) {
-                builder.shaderName(shaderName).uniformSetter(uniformSetter);
+                builder.shaderName(shaderName).uniformSetter(uniformSetter).shaderParam(shaderParam);
             }
             builder.draw();
-            if (!loop && currentFrame == frameCount - 1) {
-                isEnd = true;
-            } else {
-                isEnd = false;
-            }
         }
     }
 
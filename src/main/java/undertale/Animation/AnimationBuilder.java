@@ -2,6 +2,8 @@ package undertale.Animation;
 
 import java.util.function.Consumer;
 
+import undertale.Shaders.ShaderProgram;
+
 public class AnimationBuilder {
     private Animation anim;
     private float x;
@@ -11,7 +13,8 @@ public class AnimationBuilder {
     private float rotation;
     private float rgba[] = new float[] {1.0f, 1.0f, 1.0f, 1.0f};
     private String shaderName = null;
-    private Consumer<Integer> uniformSetter = null;
+    private Consumer<ShaderProgram> uniformSetter = null;
+    private float shaderParam = 0f;
     public AnimationBuilder(Animation anim) {
         this.anim = anim;
         this.x = 0f;
@@ -54,12 +57,17 @@ public class AnimationBuilder {
         return this;
     }
 
-    public AnimationBuilder uniformSetter(Consumer<Integer> uniformSetter) {
+    public AnimationBuilder uniformSetter(Consumer<ShaderProgram> uniformSetter) {
         this.uniformSetter = uniformSetter;
         return this;
     }
 
+    public AnimationBuilder shaderParam(float shaderParam) {
+        this.shaderParam = shaderParam;
+        return this;
+    }
+
     public void draw() {
-        anim.renderCurrentFrame(x, y, scaleX, scaleY, rotation, rgba[0], rgba[1], rgba[2], rgba[3], shaderName, uniformSetter);
+        anim.renderCurrentFrame(x, y, scaleX, scaleY, rotation, rgba[0], rgba[1], rgba[2], rgba[3], shaderName, uniformSetter, shaderParam);
     }
 }
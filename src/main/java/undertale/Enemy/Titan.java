@@ -9,8 +9,11 @@ import undertale.Scene.BattleFightScene;
 import undertale.Scene.Scene;
 import undertale.Sound.SoundManager;
 import undertale.Utils.ConfigManager;
+import undertale.Utils.GameRandom;
+import undertale.Utils.RandomStream;
 
 public class Titan extends Enemy {
+    private static final RandomStream RANDOM = GameRandom.stream(GameRandom.Stream.COMBAT);
     private boolean weakened;
     private int weakenTurns;
     private SoundManager soundManager;
@@ -75,7 +78,7 @@ public class Titan extends Enemy {
             "costs 4 tp, heals a small amount of hp",
             () -> (player.getTensionPoints() >= 4),
             () -> {
-                int healAmount = 8 + (int)(Math.random() * 16);
+                int healAmount = 8 + RANDOM.nextInt(16);
                 player.heal(healAmount);
                 player.updateTensionPoints(-4);
             }
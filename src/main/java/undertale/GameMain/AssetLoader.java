@@ -0,0 +1,63 @@
+package undertale.GameMain;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+import undertale.Sound.SoundManager;
+import undertale.Texture.FontManager;
+import undertale.Texture.TextureManager;
+import undertale.Utils.PhaseTimer;
+
+/**
+ * 启动时的资源加载流程
+ * 创建窗口之前先把图片、字体、音效的读取和解码提交到工作线程池, 与窗口创建、shader 编译并行进行;
+ * GL 线程随后只需等待解码完成并执行 glTexImage2D 上传。每个阶段的耗时记录在 PhaseTimer 中并在结束时输出。
+ */
+class AssetLoader {
+    private final ForkJoinPool pool = new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+    private final PhaseTimer timer = new PhaseTimer();
+    private CompletableFuture<?> textures;
+    private CompletableFuture<?> fonts;
+    private CompletableFuture<?> sounds;
+
+    /**
+     * 提交所有解码任务, 不调用 GL, 可在创建窗口之前调用
+     */
+    void startDecoding() {
+        textures = timer.track("decode textures", TextureManager.prepareAsync(pool));
+        fonts = timer.track("decode fonts", FontManager.prepareAsync(pool));
+        // SoundManager 的构造(打开音频输出线路)也放到工作线程上
+        sounds = timer.track("decode sounds", CompletableFuture
+            .supplyAsync(SoundManager::getInstance, pool)
+            .thenCompose(soundManager -> soundManager.preloadAllAsync(pool)));
+    }
+
+    /**
+     * GL 线程: 等待图集解码完成并上传
+     */
+    TextureManager uploadTextures() {
+        timer.time("wait textures", () -> { textures.join(); });
+        return timer.time("upload textures", TextureManager::getInstance);
+    }
+
+    /**
+     * GL 线程: 等待字体解码完成并上传
+     */
+    FontManager uploadFonts() {
+        timer.time("wait fonts", () -> { fonts.join(); });
+        return timer.time("upload fonts", FontManager::getInstance);
+    }
+
+    PhaseTimer getTimer() {
+        return timer;
+    }
+
+    /**
+     * 等待剩余的解码任务, 关闭线程池并输出各阶段耗时
+     */
+    void finish() {
+        timer.time("wait sounds", () -> { sounds.join(); });
+        pool.shutdown();
+        System.out.println("Startup: " + timer.report());
+    }
+}
@@ -1,6 +1,10 @@
 package undertale.GameMain;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+
 import undertale.Interfaces.InputObserver;
+import undertale.Utils.FrameProfiler;
 import static org.lwjgl.glfw.GLFW.*;
 
 // 输入调试观察者
@@ -11,15 +15,32 @@ public class DebugInputObserver implements InputObserver {
         this.allowDebug = allowDebug;
     }
     @Override
-    public void processInput(boolean[] preKeyStates, boolean[] currKeyStates) {
+    public void onKeyPressed(int key) {
         if(!allowDebug) return;
         // 按下f12切换debug模式
-        if(DEBUG && currKeyStates[GLFW_KEY_F12] && !preKeyStates[GLFW_KEY_F12]) {
-            DEBUG = false;
-            System.out.println("Debug mode OFF");
-        } else if(!DEBUG && currKeyStates[GLFW_KEY_F12] && !preKeyStates[GLFW_KEY_F12]) {
-            DEBUG = true;
-            System.out.println("Debug mode ON");
+        if(key == GLFW_KEY_F12) {
+            DEBUG = !DEBUG;
+            System.out.println(DEBUG ? "Debug mode ON" : "Debug mode OFF");
+            return;
+        }
+        if(!DEBUG) return;
+        switch (key) {
+            // debug模式下按f3输出帧节奏统计
+            case GLFW_KEY_F3 -> System.out.println(Game.getTimestep());
+            // debug模式下按f4开关性能叠加层, f5把最近的帧计时导出为csv
+            case GLFW_KEY_F4 -> {
+                FrameProfiler profiler = FrameProfiler.getInstance();
+                profiler.setEnabled(!profiler.isEnabled());
+                System.out.println("Profiler " + (profiler.isEnabled() ? "ON" : "OFF"));
+            }
+            case GLFW_KEY_F5 -> {
+                try {
+                    System.out.println("Profile written to " + FrameProfiler.getInstance().exportToFile(Paths.get(".")));
+                } catch (IOException e) {
+                    System.err.println("Failed to export profile: " + e.getMessage());
+                }
+            }
+            default -> {}
         }
     }
 }
@@ -22,7 +22,8 @@ public class EscapeInputObserver implements InputObserver {
                 escapeTimer.setTimerStart();
             }
             // 按住ESCAPE键超过2秒则退出
-            if(escapeTimer.isTimeElapsed(ESCAPE_HOLD_TIME)) {
+            // 无窗口模式下 window 为 null
+            if(escapeTimer.isTimeElapsed(ESCAPE_HOLD_TIME) && window != null) {
                 glfwSetWindowShouldClose(window.getWindow(), true);
                 return;
             }
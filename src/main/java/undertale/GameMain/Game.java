@@ -2,6 +2,15 @@ package undertale.GameMain;
 
 import static org.lwjgl.glfw.GLFW.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import undertale.Animation.AnimationManager;
+import undertale.Enemy.Enemy;
 import undertale.Enemy.EnemyManager;
 import undertale.Sound.SoundManager;
 import undertale.GameObject.ObjectManager;
@@ -12,12 +21,20 @@ import undertale.Scene.SceneFactory;
 import undertale.Scene.SceneManager;
 import undertale.Shaders.ShaderManager;
 import undertale.Texture.FontManager;
+import undertale.Texture.RenderSnapshot;
+import undertale.Texture.SpriteBatch;
 import undertale.Texture.Texture;
 import undertale.Texture.TextureManager;
+import undertale.UI.LoadingScreen;
+import undertale.UI.ProfilerOverlay;
 import undertale.UI.UIManager;
 import undertale.UI.state.MenuStateType;
 import undertale.Utils.ConfigManager;
-import undertale.Utils.Timer;
+import undertale.Utils.FixedTimestep;
+import undertale.Utils.FrameProfiler;
+import undertale.Utils.GameRandom;
+import undertale.Utils.PhaseTimer;
+import undertale.Utils.TripleBuffer;
 import undertale.UI.ScreenFadeManager;
 
 public class Game {
@@ -28,11 +45,24 @@ public class Game {
     private static Game instance;
 
     private boolean allowDebug = true;
+    // 每帧用于上传场景资源包的时间预算
+    private static final long ASSET_UPLOAD_BUDGET_NANOS = 4_000_000L;
+    private static final FrameProfiler profiler = FrameProfiler.getInstance();
+    private static final int PROFILE_UPDATE = profiler.scope("Game.update");
+    private static final int PROFILE_SCENE = profiler.scope("Scene.update");
 
     private Window gameWindow;
 
     private ConfigManager configManager;
     private Renderer renderer;
+    // 每帧画面的输出方式, 有窗口时即 renderer
+    private RenderBackend renderBackend;
+    // 无窗口模式: 不创建窗口和 GL 上下文
+    private boolean headless = false;
+    private boolean recordFrames = false;
+    // 按键录制的输出文件 / 正在回放的按键日志
+    private Path inputRecordFile = null;
+    private InputReplay inputReplay = null;
 	private Player player;
     private SceneManager sceneManager;
     private ObjectManager objectManager;
@@ -43,6 +73,7 @@ public class Game {
     private FontManager fontManager;
     private ScreenFadeManager screenFadeManager;
     private ShaderManager shaderManager;
+    private FixedTimestep timestep;
 
     public Game() {
     }
@@ -56,23 +87,84 @@ public class Game {
 
     public void run() {
 		init();
-		loop();
+        if (configManager.THREADED_UPDATE) {
+            loopThreaded();
+        } else {
+            loop();
+        }
         destroy();
 	}
 
+    // 重构内容: 无窗口模式 (Main 的 --headless 参数)。不创建窗口和 GL 上下文, 纹理只读取尺寸, 字体只在 CPU 端生成字形;
+    //          渲染后端换成 NullRenderBackend, 或用 RecordingRenderBackend 把每帧的绘制录制到快照后丢弃。
+    //          主循环不等待, 以固定的 deltaTime 尽快推进 ticks 个 tick, 结束时输出模拟速度。
+    // 作用: 没有 GPU 的 CI 上也能长时间运行回合、跑 benchmark, 或批量模拟战斗用于调整数值。
+    /**
+     * @param ticks 推进的 tick 数
+     * @param recordFrames 每个 tick 之后录制一帧绘制(不输出画面)
+     */
+    public void runHeadless(long ticks, boolean recordFrames) {
+        headless = true;
+        this.recordFrames = recordFrames;
+        init();
+        loopHeadless(ticks);
+        destroy();
+    }
+
+    // 重构内容: 按键录制与回放 (Main 的 --record-input / --replay-input 参数)。InputRecorder 把每个输入 tick 的按键变化
+    //          连同第一场战斗的随机种子写成紧凑的二进制日志; 回放时 InputManager 的按键状态来自日志而不是 GLFW, 并使用相同的种子。
+    // 作用: 模拟以固定步长推进、随机数按战斗播种, 同一份日志可以在无窗口模式下复现整场战斗, 用作性能测试的负载和回归测试。
+    /**
+     * 运行期间把按键写入 file, 退出时关闭
+     */
+    public void recordInput(Path file) {
+        inputRecordFile = file;
+    }
+
+    /**
+     * 按键改由日志提供, 并使用录制时的随机种子
+     */
+    public void replayInput(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            inputReplay = new InputReplay(in);
+        }
+        GameRandom.getInstance().setSeed(inputReplay.getSeed());
+    }
+
     private void destroy() {
+        try {
+            inputManager.stopRecording();
+        } catch (IOException e) {
+            System.err.println("Failed to save input recording: " + e.getMessage());
+        }
+        renderBackend.destroy();
         textureManager.destroyAll();
         fontManager.destroy();
         objectManager.destroy();
+        if (headless) return;
+        SpriteBatch.getInstance().destroy();
         shaderManager.dispose();
 		gameWindow.destroyWindow();
     }
 
+    // 重构内容: 启动时的资源加载改为并行流水线 (AssetLoader)。图片、字体、音效在工作线程池上读取和解码，
+    //          与窗口创建、shader 编译同时进行；GL 线程只负责等待解码结果并上传纹理。
+    // 作用: 缩短启动时间，并按阶段输出耗时，便于定位启动瓶颈。
 	private void init() {
         configManager = ConfigManager.getInstance();
-        gameWindow = new Window(configManager.WINDOW_WIDTH, configManager.WINDOW_HEIGHT, "Undertale");
-        shaderManager = ShaderManager.getInstance();
-        textureManager = TextureManager.getInstance();
+        TextureManager.setHeadless(headless);
+        FontManager.setHeadless(headless);
+        AssetLoader assetLoader = new AssetLoader();
+        assetLoader.startDecoding();
+        PhaseTimer startup = assetLoader.getTimer();
+        if (!headless) {
+            gameWindow = startup.time("window", () -> new Window(configManager.WINDOW_WIDTH, configManager.WINDOW_HEIGHT, "Undertale"));
+            shaderManager = startup.time("shaders", ShaderManager::getInstance);
+        }
+        textureManager = assetLoader.uploadTextures();
+        if (!headless) Texture.initGL();
+        fontManager = assetLoader.uploadFonts();
+        startup.time("animations", AnimationManager::getInstance);
         sceneManager = SceneManager.getInstance();
         
         player = new Player("Frisk");
@@ -83,7 +175,16 @@ public class Game {
         inputManager = new InputManager(gameWindow);
         inputManager.addObserver(escapeObserver);
         inputManager.addObserver(new DebugInputObserver(allowDebug));
-        fontManager = FontManager.getInstance();
+        // 在第一场战斗开始(切换到初始场景)之前接上录制或回放
+        if (inputReplay != null) {
+            inputManager.startReplay(inputReplay);
+        } else if (inputRecordFile != null) {
+            try {
+                inputManager.startRecording(new InputRecorder(Files.newOutputStream(inputRecordFile), GameRandom.getInstance().getNextBattleSeed()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open input recording " + inputRecordFile, e);
+            }
+        }
         
         ScreenFadeManager.init(configManager.WINDOW_WIDTH, configManager.WINDOW_HEIGHT);
         screenFadeManager = ScreenFadeManager.getInstance();
@@ -106,24 +207,142 @@ public class Game {
         sceneManager.switchScene(SceneEnum.START_MENU, true);
         
         // 初始化渲染器
-        renderer = new Renderer(escapeObserver, sceneManager, fontManager, screenFadeManager, gameWindow, configManager.WINDOW_WIDTH, configManager.WINDOW_HEIGHT);
+        LoadingScreen loadingScreen = new LoadingScreen(fontManager, textureManager, configManager.WINDOW_WIDTH, configManager.WINDOW_HEIGHT);
+        ProfilerOverlay profilerOverlay = new ProfilerOverlay(fontManager, profiler);
+        SceneRenderer sceneRenderer = new SceneRenderer(escapeObserver, sceneManager, fontManager, SpriteBatch.getInstance(), screenFadeManager, loadingScreen, profilerOverlay);
+        if (headless) {
+            renderBackend = recordFrames ? new RecordingRenderBackend(sceneRenderer) : new NullRenderBackend();
+        } else {
+            renderer = new Renderer(sceneRenderer, fontManager, SpriteBatch.getInstance(), gameWindow, configManager.WINDOW_WIDTH, configManager.WINDOW_HEIGHT);
+            renderBackend = renderer;
+        }
+        assetLoader.finish();
 	}
 
+    // 重构内容: 纹理按场景拆分为资源包 (config.json 的 asset_bundles / scene_assets)。切换场景时引用新场景的资源包、
+    //          释放旧场景的，并在后台预取下一个可能进入的场景；主循环每帧在 GL 线程上按时间预算分块上传，期间显示加载画面。
+    // 作用: 显存中只保留当前场景需要的图集，启动只上传常驻的 UI 图集，切换场景不再一帧内上传整页纹理。
+	// 重构内容: 主循环改为固定步长 (fixed timestep)，模拟以固定的 deltaTime 按 tick 推进，渲染帧率与 tick 率解耦。
+    // 作用: 运动不再受帧时间抖动影响，卡顿后按 tick 追赶而不是一次走一大步；渲染时对位置插值保持画面平滑。
 	private void loop() {
-        Timer timer = new Timer();
+        timestep = new FixedTimestep(configManager.TICK_RATE, configManager.MAX_CATCH_UP_STEPS);
+        // 每帧处理一次窗口事件, 资源包加载期间不更新输入, 窗口也能响应关闭、移动和缩放
+        inputManager.enableMainThreadPolling();
 		while ( !glfwWindowShouldClose(gameWindow.getWindow()) ) {
-            timer.setTimerStart();
-			update(timer.getDeltaTime());
+            inputManager.pollEvents();
+            int steps = timestep.beginFrame();
+            for (int i = 0; i < steps; i++) {
+                update(timestep.getStepSeconds());
+            }
+            objectManager.setInterpolationAlpha(timestep.getAlpha());
+            textureManager.pumpUploads(ASSET_UPLOAD_BUDGET_NANOS);
 			render();
-			timer.delayIfNeeded();
+			timestep.paceFrame(configManager.MAX_FPS);
 		}
 	}
 
+    // 重构内容: 可选的独立更新线程模式 (loop.threaded_update)。更新线程按 tick 推进场景、回合、ObjectManager 和 UI，
+    //          每批 tick 之后把场景的绘制录制为 RenderSnapshot，通过三缓冲发布；主线程(GL 线程)只处理窗口事件、回放最新快照。
+    // 作用: 模拟的耗时尖峰不再直接拉长渲染帧；两个线程之间只有一次原子交换，没有锁。
+    //       快照以 tick 为单位录制，此模式下不做渲染插值。
+    private void loopThreaded() {
+        timestep = new FixedTimestep(configManager.TICK_RATE, configManager.MAX_CATCH_UP_STEPS);
+        TripleBuffer<RenderSnapshot> snapshots = new TripleBuffer<>(RenderSnapshot::new);
+        AtomicBoolean running = new AtomicBoolean(true);
+        inputManager.enableMainThreadPolling();
+
+        Thread updateThread = new Thread(() -> {
+            try {
+                while (running.get()) {
+                    int steps = timestep.beginFrame();
+                    for (int i = 0; i < steps; i++) {
+                        update(timestep.getStepSeconds());
+                    }
+                    if (steps > 0) {
+                        RenderSnapshot snapshot = snapshots.getWriteBuffer();
+                        renderer.record(snapshot);
+                        snapshot.setSequence(textureManager.frameRecorded());
+                        snapshots.publish();
+                    }
+                    // 按 tick 率休眠, 避免空转
+                    timestep.paceFrame(configManager.TICK_RATE);
+                }
+            } catch (Throwable t) {
+                t.printStackTrace();
+                glfwSetWindowShouldClose(gameWindow.getWindow(), true);
+            }
+        }, "update");
+        updateThread.setDaemon(true);
+        updateThread.start();
+
+        while ( !glfwWindowShouldClose(gameWindow.getWindow()) ) {
+            inputManager.pollEvents();
+            snapshots.update();
+            RenderSnapshot snapshot = snapshots.getReadBuffer();
+            // 已释放的资源包等到呈现释放之后录制的快照时再卸载
+            textureManager.pumpUploads(ASSET_UPLOAD_BUDGET_NANOS, snapshot.getSequence());
+            renderer.present(snapshot);
+        }
+
+        running.set(false);
+        try {
+            updateThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void loopHeadless(long ticks) {
+        timestep = new FixedTimestep(configManager.TICK_RATE, configManager.MAX_CATCH_UP_STEPS);
+        float step = timestep.getStepSeconds();
+        // 不插值, 录制的是每个 tick 结束时的状态
+        objectManager.setInterpolationAlpha(1.0f);
+        long start = System.nanoTime();
+        long tick = 0;
+        // 回放按键日志时在日志结束后停止
+        for (; tick < ticks && !inputManager.isReplayFinished(); tick++) {
+            update(step);
+            renderBackend.render();
+            profiler.endFrame();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("Headless: %d ticks in %.2fs (%.0f ticks/s, %.1fx real time)",
+            tick, seconds, tick / seconds, tick * step / seconds));
+        if (recordFrames) {
+            System.out.println("Headless: " + renderBackend);
+        }
+        // 结束时的战斗状态, 回放同一份按键日志应得到相同的结果
+        StringBuilder state = new StringBuilder();
+        state.append("Headless: scene=").append(sceneManager.getCurrentScene().getCurrentScene())
+            .append(", battle seed=").append(GameRandom.getInstance().getBattleSeed())
+            .append(", player hp=").append(player.getCurrentHealth()).append('/').append(player.getMaxHealth());
+        for (Enemy enemy : enemyManager.getEnemies()) {
+            state.append(", ").append(enemy.getName()).append(" hp=").append(enemy.currentHealth);
+        }
+        System.out.println(state);
+    }
+
+    // 重构内容: 加入逐帧分层计时 (FrameProfiler)。更新、场景、碰撞、渲染提交、交换缓冲各自计时, GPU 耗时由 GL 计时查询得到;
+    //          调试模式下 F4 显示叠加层 (ProfilerOverlay), F5 把最近的帧导出为 CSV。
+    // 作用: 直接在游戏内看出一帧的时间花在哪个子系统, 不需要外部 profiler。
     private void update(float deltaTime) {
+        profiler.begin(PROFILE_UPDATE);
+        updateFrame(deltaTime);
+        profiler.end(PROFILE_UPDATE);
+    }
+
+    private void updateFrame(float deltaTime) {
+        // 场景资源包加载期间只推进屏幕淡入淡出, 场景、输入和 UI 暂停
+        if (sceneManager.isLoading()) {
+            screenFadeManager.update(deltaTime);
+            return;
+        }
         // 场景更新
         Scene currentScene = sceneManager.getCurrentScene();
         if (currentScene != null) {
+            profiler.begin(PROFILE_SCENE);
             currentScene.update(deltaTime);
+            profiler.end(PROFILE_SCENE);
         }
         // 输入处理
 		inputManager.processInput();
@@ -134,7 +353,7 @@ public class Game {
     }
 
     private void render() {
-        renderer.render();
+        renderBackend.render();
     }
     
     public static Window getWindow() {
@@ -149,6 +368,16 @@ public class Game {
         return getInstance().configManager.WINDOW_HEIGHT;
     }
 
+    /**
+     * 主循环计时器, 可读取帧率、tick 率和帧时间等统计
+     */
+    public static FixedTimestep getTimestep() {
+        return getInstance().timestep;
+    }
+
+    /**
+     * @return OpenGL 渲染器, 无窗口模式下为 null
+     */
     public static Renderer getRenderer() {
         return getInstance().renderer;
     }
@@ -190,6 +419,7 @@ public class Game {
     }
 
     public static void resetGame(MenuStateType menuStateType) {
+        GameRandom.getInstance().newBattle();
         getInstance().objectManager.resetGame();
         getInstance().uiManager.resetVars(menuStateType);
         getInstance().sceneManager.reset();
@@ -0,0 +1,51 @@
+package undertale.GameMain;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL33.*;
+
+/**
+ * 用 GL_TIME_ELAPSED 计时查询测量每帧 GPU 耗时
+ * 查询结果要等 GPU 执行完才可读, 这里轮流使用 QUERIES 个查询对象, 每帧结束时读取
+ * 最早一个已完成的结果(通常落后几帧), 读取前先检查是否可用, 不会阻塞 CPU。
+ */
+final class GpuFrameTimer {
+    private static final int QUERIES = 4;
+
+    private final int[] queries = new int[QUERIES];
+    private final boolean[] pending = new boolean[QUERIES];
+    private int current = 0;
+    private boolean running = false;
+
+    GpuFrameTimer() {
+        glGenQueries(queries);
+    }
+
+    void begin() {
+        pending[current] = false;
+        glBeginQuery(GL_TIME_ELAPSED, queries[current]);
+        running = true;
+    }
+
+    /**
+     * 结束本帧的查询
+     * @return 最早一个已完成查询的 GPU 耗时(纳秒), 还没有可读结果时返回 -1
+     */
+    long end() {
+        if (!running) return -1;
+        glEndQuery(GL_TIME_ELAPSED);
+        running = false;
+        pending[current] = true;
+        current = (current + 1) % QUERIES;
+        // 下一帧将复用的查询即最早提交的那个
+        int oldest = queries[current];
+        if (pending[current] && glGetQueryObjecti(oldest, GL_QUERY_RESULT_AVAILABLE) != 0) {
+            pending[current] = false;
+            return glGetQueryObjecti64(oldest, GL_QUERY_RESULT);
+        }
+        return -1;
+    }
+
+    void destroy() {
+        glDeleteQueries(queries);
+    }
+}
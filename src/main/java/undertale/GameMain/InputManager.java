@@ -2,21 +2,47 @@ package undertale.GameMain;
 
 import static org.lwjgl.glfw.GLFW.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import undertale.Interfaces.InputObserver;
 
 // 使用observer模式重构输入管理
+// 按键由 glfwSetKeyCallback 推送到无锁队列, 每个 tick 只处理这期间发生的事件, 不再逐个查询整个键盘;
+// 状态翻转的按键以 onKeyPressed / onKeyReleased 通知观察者, 同时仍提供上一帧和当前帧的按键状态。
 public class InputManager {
+    private static final int KEY_COUNT = GLFW_KEY_LAST + 1;
+    private static final int QUEUE_CAPACITY = 1024;
+
     private Window window;
-    private boolean[] keyStates = new boolean[GLFW_KEY_LAST + 1];
-    private boolean[] wasKeyPressed = new boolean[GLFW_KEY_LAST + 1];
+    private boolean[] keyStates = new boolean[KEY_COUNT];
+    private boolean[] wasKeyPressed = new boolean[KEY_COUNT];
     // 观察者列表
     private List<InputObserver> observers = new ArrayList<>();
-    
+    // GLFW 按键回调 -> 处理输入的线程
+    private final KeyEventQueue events = new KeyEventQueue(QUEUE_CAPACITY);
+    // 本 tick 状态翻转的按键, 每个按键每 tick 最多翻转一次
+    private final int[] changedKeys = new int[KEY_COUNT];
+    private final boolean[] changedThisTick = new boolean[KEY_COUNT];
+    private int changedCount = 0;
+    // 已在本 tick 翻转过的按键的后续事件推迟到下一 tick, 按下又松开不到一帧的按键也会保持按下一个 tick
+    private int[] deferred = new int[QUEUE_CAPACITY];
+    private int[] deferredSwap = new int[QUEUE_CAPACITY];
+    private int deferredCount = 0;
+    // 主循环每帧在主线程调用 pollEvents(), 不依赖是否有 tick 在处理输入(资源包加载期间); 独立更新线程模式下回调产生的事件经队列交给更新线程
+    private boolean mainThreadPolling = false;
+    // 录制: 每个 tick 的按键变化写入日志; 回放: 按键变化来自日志而不是键盘
+    private InputRecorder recorder = null;
+    private InputReplay replay = null;
+
     InputManager(Window window) {
         this.window = window;
+        // 无窗口模式下没有按键输入
+        if (window != null) {
+            glfwSetKeyCallback(window.getWindow(), (handle, key, scancode, action, mods) -> onKey(key, action));
+        }
     }
 
     public void addObserver(InputObserver observer) {
@@ -29,25 +55,127 @@ public class InputManager {
         observers.remove(observer);
     }
 
-    private void updateKeyState() {
+    /**
+     * GLFW 按键回调(主线程): 只记录按下和松开, 忽略长按重复和未知按键
+     */
+    void onKey(int key, int action) {
+        if (key < GLFW_KEY_SPACE || key > GLFW_KEY_LAST || action == GLFW_REPEAT) return;
+        events.offer(key, action == GLFW_PRESS);
+    }
+
+    /**
+     * 切换为由主线程调用 pollEvents() 处理窗口事件, processInput() 只读取队列中的按键事件
+     */
+    void enableMainThreadPolling() {
+        mainThreadPolling = true;
+    }
+
+    /**
+     * 之后每个 tick 的按键变化都写入 recorder, 由调用方在结束时 stopRecording()
+     */
+    void startRecording(InputRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    void stopRecording() throws IOException {
+        if (recorder == null) return;
+        recorder.close();
+        recorder = null;
+    }
+
+    /**
+     * 之后的按键状态由 replay 提供, 不再读取键盘; 需在第一次 processInput() 之前调用
+     */
+    void startReplay(InputReplay replay) {
+        this.replay = replay;
+    }
+
+    /**
+     * @return 正在回放且日志已回放完
+     */
+    public boolean isReplayFinished() {
+        return replay != null && replay.isFinished();
+    }
+
+    /**
+     * 主线程: 处理窗口事件, 按键回调在此期间触发
+     */
+    void pollEvents() {
         glfwPollEvents();
-        // 先保存上一帧状态
-        for (int key = GLFW_KEY_SPACE; key <= GLFW_KEY_LAST; key++) {
+    }
+
+    private void updateKeyState() {
+        // 先保存上一帧状态: 只有上一 tick 翻转的按键两帧不同
+        for (int i = 0; i < changedCount; i++) {
+            int key = changedKeys[i];
             wasKeyPressed[key] = keyStates[key];
+            changedThisTick[key] = false;
+        }
+        changedCount = 0;
+        if (window != null && !mainThreadPolling) glfwPollEvents();
+
+        if (replay != null) {
+            // 按键只来自日志, 丢弃键盘事件
+            while (events.poll() != KeyEventQueue.EMPTY) {}
+            changedCount = replay.next(changedKeys);
+            for (int i = 0; i < changedCount; i++) {
+                keyStates[changedKeys[i]] = !keyStates[changedKeys[i]];
+            }
+            return;
         }
-        // 再更新当前帧状态
-        for (int key = GLFW_KEY_SPACE; key <= GLFW_KEY_LAST; key++) {
-            keyStates[key] = (glfwGetKey(window.getWindow(), key) == GLFW_PRESS);
+
+        // 再更新当前帧状态: 先处理上一 tick 推迟的事件, 再处理新事件
+        int[] pending = deferred;
+        int pendingCount = deferredCount;
+        deferred = deferredSwap;
+        deferredSwap = pending;
+        deferredCount = 0;
+        for (int i = 0; i < pendingCount; i++) {
+            applyEvent(pending[i]);
+        }
+        int event;
+        while ((event = events.poll()) != KeyEventQueue.EMPTY) {
+            applyEvent(event);
+        }
+
+        if (recorder != null) {
+            try {
+                recorder.record(changedKeys, changedCount);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to record input", e);
+            }
+        }
+    }
+
+    private void applyEvent(int event) {
+        int key = KeyEventQueue.key(event);
+        if (changedThisTick[key]) {
+            // 推迟时保持同一按键事件的顺序; 超出容量的事件丢弃
+            if (deferredCount < deferred.length) deferred[deferredCount++] = event;
+            return;
         }
+        boolean pressed = KeyEventQueue.pressed(event);
+        if (keyStates[key] == pressed) return;
+        keyStates[key] = pressed;
+        changedThisTick[key] = true;
+        changedKeys[changedCount++] = key;
     }
 
     public void processInput() {
         updateKeyState();
 
-        // 当前帧和上一帧的按键状态传递给观察者
+        // 先通知本 tick 翻转的按键, 再把当前帧和上一帧的按键状态传递给观察者
         for(InputObserver observer : observers) {
+            for (int i = 0; i < changedCount; i++) {
+                int key = changedKeys[i];
+                if (keyStates[key]) {
+                    observer.onKeyPressed(key);
+                } else {
+                    observer.onKeyReleased(key);
+                }
+            }
             observer.processInput(wasKeyPressed, keyStates);
         }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package undertale.GameMain;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 把每个输入 tick 的按键变化写成紧凑的二进制日志, 由 InputReplay 回放
+ * 格式: 文件头 MAGIC(int) VERSION(byte) 第一场战斗的随机种子(long);
+ * 之后每条记录为 varint(距上一条记录的 tick 数) varint(变化的按键数 n) n 个 varint(按键码),
+ * 即只记录有按键按下或松开的 tick, 以及本 tick 翻转的那些按键; n 为 0 的记录表示日志结束, 其 tick 为总 tick 数。
+ * tick 按 InputManager.processInput 的调用次数计, 场景资源加载期间不计。
+ */
+public final class InputRecorder implements Closeable {
+    static final int MAGIC = 0x5554494E; // "UTIN"
+    static final int VERSION = 1;
+
+    private final DataOutputStream out;
+    private long tick = 0;
+    private long lastRecordTick = 0;
+    private boolean closed = false;
+
+    /**
+     * @param seed 第一场战斗的随机种子, 回放时用它复现随机数
+     */
+    public InputRecorder(OutputStream out, long seed) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.out.writeInt(MAGIC);
+        this.out.writeByte(VERSION);
+        this.out.writeLong(seed);
+    }
+
+    /**
+     * 记录一个 tick 的按键变化, 每个输入 tick 调用一次
+     * @param changedKeys 本 tick 按下或松开的按键, 前 count 个有效
+     */
+    public void record(int[] changedKeys, int count) throws IOException {
+        if (count > 0) {
+            writeRecord(changedKeys, count);
+        }
+        tick++;
+    }
+
+    public long getTickCount() {
+        return tick;
+    }
+
+    private void writeRecord(int[] keys, int count) throws IOException {
+        writeVarLong(tick - lastRecordTick);
+        writeVarLong(count);
+        for (int i = 0; i < count; i++) {
+            writeVarLong(keys[i]);
+        }
+        lastRecordTick = tick;
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int)(value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int)value);
+    }
+
+    /**
+     * 写入结束标记并关闭, 重复调用无效
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        writeRecord(null, 0);
+        out.close();
+    }
+}
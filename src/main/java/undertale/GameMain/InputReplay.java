@@ -0,0 +1,107 @@
+package undertale.GameMain;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * 回放 InputRecorder 录制的按键日志(格式见 InputRecorder)
+ * 日志在构造时一次读入内存, next() 每个输入 tick 调用一次, 给出本 tick 按下或松开的按键, 回放期间不读文件、不分配。
+ */
+public final class InputReplay {
+    private final long seed;
+    // 第 i 条记录的 tick, 其翻转的按键为 keys[keyStart[i], keyStart[i + 1])
+    private final long[] recordTicks;
+    private final int[] keyStart;
+    private final int[] keys;
+    private final long tickCount;
+    private int record = 0;
+    private long tick = 0;
+
+    public InputReplay(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != InputRecorder.MAGIC) {
+            throw new IOException("Not an input log");
+        }
+        int version = data.readUnsignedByte();
+        if (version != InputRecorder.VERSION) {
+            throw new IOException("Unsupported input log version: " + version);
+        }
+        seed = data.readLong();
+
+        long[] ticks = new long[64];
+        int[] starts = new int[65];
+        int[] codes = new int[256];
+        int records = 0;
+        int keyCount = 0;
+        long at = 0;
+        while (true) {
+            at += readVarLong(data);
+            int count = (int)readVarLong(data);
+            if (count == 0) break;
+            if (records + 1 == ticks.length) {
+                ticks = Arrays.copyOf(ticks, ticks.length * 2);
+                starts = Arrays.copyOf(starts, ticks.length + 1);
+            }
+            if (keyCount + count > codes.length) {
+                codes = Arrays.copyOf(codes, Math.max(codes.length * 2, keyCount + count));
+            }
+            for (int i = 0; i < count; i++) {
+                codes[keyCount++] = (int)readVarLong(data);
+            }
+            ticks[records++] = at;
+            starts[records] = keyCount;
+        }
+        recordTicks = Arrays.copyOf(ticks, records);
+        keyStart = Arrays.copyOf(starts, records + 1);
+        keys = Arrays.copyOf(codes, keyCount);
+        tickCount = at;
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long)(b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new EOFException("Malformed varint in input log");
+    }
+
+    /**
+     * 推进一个 tick: 把本 tick 状态翻转的按键写入 changedKeys
+     * @return 翻转的按键数
+     */
+    public int next(int[] changedKeys) {
+        int count = 0;
+        if (record < recordTicks.length && recordTicks[record] == tick) {
+            for (int i = keyStart[record]; i < keyStart[record + 1]; i++) {
+                changedKeys[count++] = keys[i];
+            }
+            record++;
+        }
+        tick++;
+        return count;
+    }
+
+    /**
+     * @return 已回放完录制的所有 tick
+     */
+    public boolean isFinished() {
+        return tick >= tickCount;
+    }
+
+    /**
+     * @return 录制开始时第一场战斗的随机种子
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+}
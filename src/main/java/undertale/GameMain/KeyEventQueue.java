@@ -0,0 +1,69 @@
+package undertale.GameMain;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁单生产者单消费者的按键事件队列
+ * 生产者为 GLFW 按键回调(主线程, glfwPollEvents 期间), 消费者为处理输入的线程(独立更新线程模式下为更新线程)。
+ * 事件打包为一个 int: 按键码左移一位, 最低位为是否按下。队列满时丢弃新事件并计数。
+ */
+final class KeyEventQueue {
+    static final int EMPTY = -1;
+
+    private final int[] events;
+    private final int mask;
+    // head 只由消费者推进, tail 只由生产者推进; lazySet 保证事件内容先于位置对另一方可见
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private int dropped = 0; // 仅生产者线程访问
+
+    /**
+     * @param capacity 容量, 须为 2 的幂
+     */
+    KeyEventQueue(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        events = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * 生产者: 加入一个事件
+     * @return 队列已满时为 false
+     */
+    boolean offer(int key, boolean pressed) {
+        long t = tail.get();
+        if (t - head.get() == events.length) {
+            dropped++;
+            return false;
+        }
+        events[(int)(t & mask)] = key << 1 | (pressed ? 1 : 0);
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * 消费者: 取出最早的事件
+     * @return 打包的事件, 队列为空时为 EMPTY
+     */
+    int poll() {
+        long h = head.get();
+        if (h == tail.get()) return EMPTY;
+        int event = events[(int)(h & mask)];
+        head.lazySet(h + 1);
+        return event;
+    }
+
+    static int key(int event) {
+        return event >>> 1;
+    }
+
+    static boolean pressed(int event) {
+        return (event & 1) != 0;
+    }
+
+    int getDroppedCount() {
+        return dropped;
+    }
+}
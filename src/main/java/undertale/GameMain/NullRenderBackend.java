@@ -0,0 +1,14 @@
+package undertale.GameMain;
+
+/**
+ * 不输出任何画面, 无窗口模式下只推进模拟
+ */
+class NullRenderBackend implements RenderBackend {
+    @Override
+    public void render() {
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
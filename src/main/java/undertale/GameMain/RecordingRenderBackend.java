@@ -0,0 +1,39 @@
+package undertale.GameMain;
+
+import undertale.Texture.RenderSnapshot;
+
+/**
+ * 每帧把场景的绘制录制到快照后丢弃, 不调用 GL
+ * 无窗口模式下用来覆盖各场景的绘制代码(排版、合批、录制), 并统计每帧提交的绘制命令数。
+ */
+class RecordingRenderBackend implements RenderBackend {
+    private final SceneRenderer sceneRenderer;
+    private final RenderSnapshot snapshot = new RenderSnapshot();
+    private long frames = 0;
+    private long commands = 0;
+    private int maxCommands = 0;
+
+    RecordingRenderBackend(SceneRenderer sceneRenderer) {
+        this.sceneRenderer = sceneRenderer;
+    }
+
+    @Override
+    public void render() {
+        sceneRenderer.record(snapshot);
+        int count = snapshot.getCommandCount();
+        frames++;
+        commands += count;
+        maxCommands = Math.max(maxCommands, count);
+    }
+
+    @Override
+    public void destroy() {
+        snapshot.clear();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("recorded %d frames, %.1f draw commands/frame (max %d)",
+            frames, frames == 0 ? 0.0 : (double)commands / frames, maxCommands);
+    }
+}
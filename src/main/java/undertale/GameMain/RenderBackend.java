@@ -0,0 +1,14 @@
+package undertale.GameMain;
+
+/**
+ * 每帧画面的输出方式
+ * Renderer 用 OpenGL 绘制到窗口; 无窗口模式下使用 NullRenderBackend 或 RecordingRenderBackend。
+ */
+interface RenderBackend {
+    /**
+     * 输出一帧
+     */
+    void render();
+
+    void destroy();
+}
@@ -3,30 +3,40 @@ package undertale.GameMain;
 import static org.lwjgl.glfw.GLFW.*;
 import static org.lwjgl.opengl.GL11.*;
 
-import undertale.Scene.SceneManager;
+import undertale.Shaders.GLState;
 import undertale.Texture.FontManager;
-import undertale.UI.ScreenFadeManager;
+import undertale.Texture.RenderSnapshot;
+import undertale.Texture.SpriteBatch;
+import undertale.Texture.StreamBuffer;
+import undertale.Utils.FrameProfiler;
 
-public class Renderer {
-    private SceneManager sceneManager;
+/**
+ * OpenGL 渲染后端: 由 SceneRenderer 提交场景的绘制, 负责清屏、提交合批、GPU 计时和交换缓冲区
+ */
+public class Renderer implements RenderBackend {
+    private static final FrameProfiler profiler = FrameProfiler.getInstance();
+    private static final int PROFILE_RENDER = profiler.scope("Renderer.render");
+    private static final int PROFILE_SWAP = profiler.scope("Swap");
+    private static final int PROFILE_GPU = profiler.scope("GPU");
+
+    private SceneRenderer sceneRenderer;
     private FontManager fontManager;
-    private ScreenFadeManager screenFadeManager;
-    private EscapeInputObserver escapeObserver;
+    private SpriteBatch spriteBatch;
+    private GpuFrameTimer gpuTimer;
+    // 本帧是否开启了 GPU 计时查询, 帧中途切换 profiler 时保证 begin / end 成对
+    private boolean gpuTiming = false;
     private Window window;
 
-    private final int ESCAPING_X = 50;
-    private final int ESCAPING_Y = 50;
-
     private int width;
     private int height;
     
-    // 重构内容: 构造函数改为接收 SceneManager、FontManager、ScreenFadeManager、Window 以及窗口宽高作为参数。
+    // 重构内容: 构造函数改为接收 SceneRenderer、FontManager、Window 以及窗口宽高作为参数。
     // 作用: 移除了对 Game.getWindow() 和各 Manager getInstance() 的直接静态调用，使得 Renderer 的依赖关系清晰可见，便于测试和维护。
-    Renderer(EscapeInputObserver escapeObserver, SceneManager sceneManager, FontManager fontManager, ScreenFadeManager screenFadeManager, Window window, int width, int height) {
-        this.escapeObserver = escapeObserver;
-        this.sceneManager = sceneManager;
+    //       场景遍历放在不调用 GL 的 SceneRenderer 中, 无窗口模式可以不创建 Renderer。
+    Renderer(SceneRenderer sceneRenderer, FontManager fontManager, SpriteBatch spriteBatch, Window window, int width, int height) {
+        this.sceneRenderer = sceneRenderer;
         this.fontManager = fontManager;
-        this.screenFadeManager = screenFadeManager;
+        this.spriteBatch = spriteBatch;
         this.window = window;
         this.width = width;
         this.height = height;
@@ -37,27 +47,79 @@ public class Renderer {
         // 开启混合(透明度)
         glEnable(GL_BLEND);
         // 计算方式: 源颜色的alpha值决定源颜色的贡献度, (1 - 源颜色的alpha)决定目标颜色的贡献度
-        glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+        GLState.getInstance().blendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
         // 设置视口为窗口大小, 左下角为(0,0)
         glViewport(0, 0, width, height);
+        gpuTimer = new GpuFrameTimer();
     }
 
+    @Override
     public void render() {
-        glClearColor(0.0f, 0.0f, 0.0f, 0.0f);
-        glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT); 
-        // render
-        renderEscaping();
-        sceneManager.getCurrentScene().render();
-        screenFadeManager.render(); // 屏幕淡入淡出覆盖层
+        beginGpuTiming();
+        clear();
+        profiler.begin(PROFILE_RENDER);
+        sceneRenderer.render();
+        // 提交本帧剩余的合批精灵
+        spriteBatch.endFrame();
+        profiler.end(PROFILE_RENDER);
+        StreamBuffer.endFrame();
+        GLState.getInstance().endFrame();
+        endGpuTiming();
         // render ends
+        swapBuffers();
+    }
+
+    /**
+     * 录制一帧到快照(更新线程)
+     */
+    void record(RenderSnapshot snapshot) {
+        sceneRenderer.record(snapshot);
+    }
+
+    /**
+     * 绘制更新线程发布的快照并交换缓冲区(GL 线程)
+     */
+    void present(RenderSnapshot snapshot) {
+        beginGpuTiming();
+        clear();
+        profiler.begin(PROFILE_RENDER);
+        // 快照中的文字可能用到更新线程刚生成的字形
+        fontManager.uploadPendingGlyphs();
+        snapshot.replay();
+        profiler.end(PROFILE_RENDER);
+        spriteBatch.resetFrameStats();
+        StreamBuffer.endFrame();
+        GLState.getInstance().endFrame();
+        endGpuTiming();
+        swapBuffers();
+    }
+
+    private void swapBuffers() {
+        profiler.begin(PROFILE_SWAP);
         glfwSwapBuffers(window.getWindow());
+        profiler.end(PROFILE_SWAP);
+        profiler.endFrame();
+    }
+
+    private void beginGpuTiming() {
+        gpuTiming = profiler.isEnabled();
+        if (gpuTiming) gpuTimer.begin();
+    }
+
+    private void endGpuTiming() {
+        if (!gpuTiming) return;
+        long nanos = gpuTimer.end();
+        if (nanos >= 0) profiler.record(PROFILE_GPU, nanos);
+        gpuTiming = false;
+    }
+
+    @Override
+    public void destroy() {
+        gpuTimer.destroy();
     }
 
-    private void renderEscaping() {
-        if (escapeObserver.isEscaping()) {
-            // 按下1/3的结束时间内，透明度从0渐变到1
-            float alpha = Math.min(1.0f, escapeObserver.getEscapeAlpha());
-            fontManager.drawText("ESCAPING...", ESCAPING_X, ESCAPING_Y, 1.0f, 1.0f, 1.0f, alpha);
-        }
+    private void clear() {
+        glClearColor(0.0f, 0.0f, 0.0f, 0.0f);
+        glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
     }
 }
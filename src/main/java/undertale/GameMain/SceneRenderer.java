@@ -0,0 +1,71 @@
+package undertale.GameMain;
+
+import undertale.Scene.SceneManager;
+import undertale.Texture.FontManager;
+import undertale.Texture.RenderSnapshot;
+import undertale.Texture.SpriteBatch;
+import undertale.UI.LoadingScreen;
+import undertale.UI.ProfilerOverlay;
+import undertale.UI.ScreenFadeManager;
+
+/**
+ * 遍历当前场景和各覆盖层提交绘制, 本身不调用 GL
+ * 提交的精灵和几何进入 SpriteBatch: 由 Renderer 直接绘制, 或在录制模式下写入 RenderSnapshot。
+ */
+class SceneRenderer {
+    private final EscapeInputObserver escapeObserver;
+    private final SceneManager sceneManager;
+    private final FontManager fontManager;
+    private final SpriteBatch spriteBatch;
+    private final ScreenFadeManager screenFadeManager;
+    private final LoadingScreen loadingScreen;
+    private final ProfilerOverlay profilerOverlay;
+
+    private final int ESCAPING_X = 50;
+    private final int ESCAPING_Y = 50;
+
+    SceneRenderer(EscapeInputObserver escapeObserver, SceneManager sceneManager, FontManager fontManager, SpriteBatch spriteBatch,
+                  ScreenFadeManager screenFadeManager, LoadingScreen loadingScreen, ProfilerOverlay profilerOverlay) {
+        this.escapeObserver = escapeObserver;
+        this.sceneManager = sceneManager;
+        this.fontManager = fontManager;
+        this.spriteBatch = spriteBatch;
+        this.screenFadeManager = screenFadeManager;
+        this.loadingScreen = loadingScreen;
+        this.profilerOverlay = profilerOverlay;
+    }
+
+    /**
+     * 提交一帧的绘制: 单线程模式下由 Renderer.render() 调用; 录制时在更新线程上调用
+     */
+    void render() {
+        renderEscaping();
+        // 场景资源包上传期间绘制加载画面
+        if (sceneManager.isLoading()) {
+            loadingScreen.render();
+        } else {
+            loadingScreen.reset();
+            sceneManager.getCurrentScene().render();
+        }
+        screenFadeManager.render(); // 屏幕淡入淡出覆盖层
+        profilerOverlay.render(); // 性能叠加层, 调试模式下 F4 开关
+    }
+
+    /**
+     * 录制一帧到快照
+     */
+    void record(RenderSnapshot snapshot) {
+        snapshot.clear();
+        spriteBatch.beginRecording(snapshot);
+        render();
+        spriteBatch.endRecording();
+    }
+
+    private void renderEscaping() {
+        if (escapeObserver.isEscaping()) {
+            // 按下1/3的结束时间内，透明度从0渐变到1
+            float alpha = Math.min(1.0f, escapeObserver.getEscapeAlpha());
+            fontManager.drawText("ESCAPING...", ESCAPING_X, ESCAPING_Y, 1.0f, 1.0f, 1.0f, alpha);
+        }
+    }
+}
@@ -103,14 +103,14 @@ public class BallBlast extends Bullet {
             float trailWhiteX = trail.x + this.getWidth() / 2 - whiteEdgeTexture.getWidth() / 2 * whiteScale;
             float trailWhiteY = trail.y + this.getHeight() / 2 - whiteEdgeTexture.getHeight() / 2 * whiteScale;
             // 白色边缘
-            new TextureBuilder().textureId(whiteEdgeTexture.getId())
+            new TextureBuilder().texture(whiteEdgeTexture)
                 .position(trailWhiteX, trailWhiteY)
                 .size(whiteEdgeTexture.getWidth() * whiteScale, whiteEdgeTexture.getHeight() * whiteScale)
                 .rotation(this.getSelfAngle())
                 .rgba(1.0f, 1.0f, 1.0f, trail.alpha)
                 .draw();
             // 黑色主体
-            new TextureBuilder().textureId(getTexture().getId())
+            new TextureBuilder().texture(getTexture())
                 .position(trail.x, trail.y)
                 .size(this.getWidth(), this.getHeight())
                 .rotation(this.getSelfAngle())
@@ -121,7 +121,7 @@ public class BallBlast extends Bullet {
         float whiteX = this.x + this.getWidth() / 2 - whiteEdgeTexture.getWidth() / 2 * whiteScale;
         float whiteY = this.y + this.getHeight() / 2 - whiteEdgeTexture.getHeight() / 2 * whiteScale;
         // 先渲染白色边缘
-        new TextureBuilder().textureId(whiteEdgeTexture.getId())
+        new TextureBuilder().texture(whiteEdgeTexture)
             .position(whiteX, whiteY)
             .size(whiteEdgeTexture.getWidth() * whiteScale, whiteEdgeTexture.getHeight() * whiteScale)
             .rotation(this.getSelfAngle())
@@ -1,8 +1,11 @@
 package undertale.GameObject.Bullets;
 
 import undertale.Texture.TextureManager;
+import undertale.Utils.GameRandom;
+import undertale.Utils.RandomStream;
 
 public class BallSmall extends Bullet {
+    private static final RandomStream RANDOM = GameRandom.stream(GameRandom.Stream.BULLETS);
     private float waitTimer;
     private float maxSpeed;
     private float accelTime;
@@ -16,6 +19,19 @@ public class BallSmall extends Bullet {
 
     public BallSmall(float x, float y, float speedAngle, float waitTime, float maxSpeed, float accelTime, float initialScale, float extendedScale, float scaleSwitchInterval, int damage) {
         super(x, y, 0, speedAngle, 0, damage, TextureManager.getInstance().getTexture("ball_small"));
+        initState(speedAngle, waitTime, maxSpeed, accelTime, initialScale, extendedScale, scaleSwitchInterval);
+    }
+
+    /**
+     * 从对象池取出后重新初始化, 参数与构造函数相同
+     */
+    public void reset(float x, float y, float speedAngle, float waitTime, float maxSpeed, float accelTime, float initialScale, float extendedScale, float scaleSwitchInterval, int damage) {
+        reset(x, y, 0, speedAngle, 0, damage, TextureManager.getInstance().getTexture("ball_small"));
+        this.isColli = true;
+        initState(speedAngle, waitTime, maxSpeed, accelTime, initialScale, extendedScale, scaleSwitchInterval);
+    }
+
+    private void initState(float speedAngle, float waitTime, float maxSpeed, float accelTime, float initialScale, float extendedScale, float scaleSwitchInterval) {
         this.speedAngle = speedAngle;
         this.waitTimer = waitTime;
         this.maxSpeed = maxSpeed;
@@ -24,7 +40,7 @@ public class BallSmall extends Bullet {
         this.initialScale = initialScale;
         this.extendedScale = extendedScale;
         this.scaleSwitchInterval = scaleSwitchInterval;
-        this.scaleTimer = (float) (Math.random() * 0.3f);
+        this.scaleTimer = (float) (RANDOM.nextDouble() * 0.3f);
         this.isExtended = false;
         this.hScale = initialScale;
         this.vScale = initialScale;
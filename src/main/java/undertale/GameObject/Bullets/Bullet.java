@@ -4,6 +4,7 @@ import undertale.Animation.Animation;
 import undertale.GameObject.CollisionDetector;
 import undertale.GameObject.GameObject;
 import undertale.GameObject.Player;
+import undertale.GameObject.SpatialHash;
 import undertale.Texture.Texture;
 import undertale.Texture.TextureBuilder;
 
@@ -21,6 +22,8 @@ public class Bullet extends GameObject{
     protected float[] rgba;
     public boolean bound;
     public boolean destroyableOnHit;
+    // 等于 ObjectManager 本 tick 的编号时表示在 player 附近, 需要做精确碰撞检测
+    public int playerCandidateStamp;
     protected Texture texture;
     protected Animation animation;
 
@@ -82,7 +85,7 @@ public class Bullet extends GameObject{
     public void render(){
         Texture currentTexture = getCurrentTexture();
         if (currentTexture != null) {
-            new TextureBuilder().textureId(currentTexture.getId())
+            new TextureBuilder().texture(currentTexture)
                 .position(this.x, this.y)
                 .size(hScale * currentTexture.getWidth(), vScale * currentTexture.getHeight())
                 .rotation(getSelfAngle())
@@ -147,7 +150,7 @@ public class Bullet extends GameObject{
     }
 
     public void reset(float x, float y, float selfAngle, float speedAngle, float speed, int damage, Texture texture) {
-        this.rgba = new float[]{1.0f, 1.0f, 1.0f, 1.0f}; // 默认白色不透明
+        setColor(1.0f, 1.0f, 1.0f, 1.0f); // 默认白色不透明, 复用数组避免分配
         this.x = x;
         this.y = y;
         setSelfAngle(selfAngle);
@@ -163,7 +166,7 @@ public class Bullet extends GameObject{
     }
 
     public void reset(float x, float y, float selfAngle, float speedAngle, float speed, int damage, Animation animation) {
-        this.rgba = new float[]{1.0f, 1.0f, 1.0f, 1.0f}; // 默认白色不透明
+        setColor(1.0f, 1.0f, 1.0f, 1.0f); // 默认白色不透明, 复用数组避免分配
         this.x = x;
         this.y = y;
         setSelfAngle(selfAngle);
@@ -186,6 +189,13 @@ public class Bullet extends GameObject{
         return CollisionDetector.checkCircleCollision(this, player, padding);
     }
 
+    /**
+     * 登记到碰撞 broadphase, 包围盒须覆盖 checkCollisionWithPlayer 的检测范围
+     */
+    public void insertInto(SpatialHash hash) {
+        hash.insert(this);
+    }
+
     public boolean hasAnimation() {
         return animation != null;
     }
@@ -1,7 +1,5 @@
 package undertale.GameObject.Bullets;
 
-import static org.lwjgl.opengl.GL20.*;
-
 import java.util.ArrayList;
 import java.util.List;
 
@@ -9,15 +7,18 @@ import undertale.Animation.Animation;
 import undertale.Animation.AnimationBuilder;
 import undertale.Animation.AnimationManager;
 import undertale.GameMain.Game;
+import undertale.GameObject.CollisionDetector;
 import undertale.GameObject.Player;
-import undertale.GameObject.Collectables.TensionPoint;
-import undertale.GameObject.Effects.TitanSpawnParticle;
+import undertale.GameObject.SpatialHash;
 import undertale.Sound.SoundManager;
 import undertale.Texture.Texture;
 import undertale.Texture.TextureBuilder;
 import undertale.Texture.TextureManager;
+import undertale.Utils.GameRandom;
+import undertale.Utils.RandomStream;
 
 public class TitanFingers extends Bullet{
+    private static final RandomStream RANDOM = GameRandom.stream(GameRandom.Stream.BULLETS);
     class TitanSingleFinger extends Bullet{
         private boolean isContacting = false;
         private float contactTimer = 0.0f;
@@ -85,16 +86,7 @@ public class TitanFingers extends Bullet{
                 .rotation(this.getSelfAngle())
                 .rgba(rgba[0], rgba[1], rgba[2], rgba[3])
                 .shaderName("titan_spawn_shader")
-                .uniformSetter(program -> {
-                    int locScreenSize = glGetUniformLocation(program, "uScreenSize");
-                    int locColor = glGetUniformLocation(program, "uColor");
-                    int locTexture = glGetUniformLocation(program, "uTexture");
-                    int locScale = glGetUniformLocation(program, "uScale");
-                    glUniform2i(locScreenSize, Game.getWindowWidth(), Game.getWindowHeight());
-                    glUniform4f(locColor, rgba[0], rgba[1], rgba[2], rgba[3]);
-                    glUniform1i(locTexture, 0);
-                    glUniform1f(locScale, (contactDisappearTime - contactTimer) / contactDisappearTime);
-                })
+                .shaderParam((contactDisappearTime - contactTimer) / contactDisappearTime)
                 .draw();
         }
 
@@ -151,18 +143,8 @@ public class TitanFingers extends Bullet{
         }
 
         private boolean checkContactWithPlayer(Player player) {
-            float px = player.getX() + player.getWidth() / 2.0f;
-            float py = player.getY() + player.getHeight() / 2.0f;
-            float dx = px - (this.x + this.getWidth() / 2.0f);
-            float dy = py - (this.y + this.getHeight() / 2.0f);
-            float dist = (float) Math.sqrt(dx * dx + dy * dy);
-            float outer = player.getCurrentLightRadius();
-            float amp = player.getLightOscAmplitude();
             float paddingSize = Math.max(this.getHeight(), this.getWidth()) / 5.0f;
-            if (dist <= outer + amp + paddingSize) {
-                return true;
-            }
-            return false;
+            return CollisionDetector.checkLightContact(this, player, paddingSize);
         }
 
         private void spawnParticle(float deltaTime, Player player) {
@@ -180,17 +162,16 @@ public class TitanFingers extends Bullet{
                     float dirX = ddx / distance;
                     float dirY = ddy / distance;
                     float awayAngle = (float) Math.toDegrees(Math.atan2(ddy, ddx));
-                    float randomOffset = (float) ((Math.random() - 0.5) * 20);
+                    float randomOffset = (float) ((RANDOM.nextDouble() - 0.5) * 20);
                     float spawnAngle = awayAngle + randomOffset;
                     float halfW = this.getWidth() / 2.0f;
                     float halfH = this.getHeight() / 2.0f;
-                    float randomDist = (float) Math.random() * Math.max(halfW, halfH);
+                    float randomDist = (float) RANDOM.nextDouble() * Math.max(halfW, halfH);
                     float spawnX = cx - dirX * randomDist;
                     float spawnY = cy - dirY * randomDist;
                     spawnX = Math.max(cx - halfW, Math.min(cx + halfW, spawnX));
                     spawnY = Math.max(cy - halfH, Math.min(cy + halfH, spawnY));
-                    TitanSpawnParticle particle = new TitanSpawnParticle(spawnX, spawnY, spawnAngle);
-                    Game.getObjectManager().addTitanSpawnParticle(particle);
+                    Game.getObjectManager().spawnTitanSpawnParticle(spawnX, spawnY, spawnAngle);
                 }
             }
         }
@@ -203,8 +184,7 @@ public class TitanFingers extends Bullet{
                 for (int i = 0; i < 4; i++) {
                     float tx = x + (i + 0.5f) * width / 4;
                     float ty = y + height / 2;
-                    TensionPoint tp = new TensionPoint(tx, ty, 1.6f);
-                    Game.getObjectManager().addCollectable(tp);
+                    Game.getObjectManager().spawnTensionPoint(tx, ty, 1.6f);
                 }
             }
         }
@@ -220,9 +200,8 @@ public class TitanFingers extends Bullet{
                 float offset = t * spreadLength;
                 float tx = (direction == 1) ? tipX - offset : tipX + offset;
                 float ty = y + height / 2;
-                float speedAngle = (float) (Math.random() * 360);
-                BallSmall ball = new BallSmall(tx, ty, speedAngle, 1.0f, 70.0f, 3.0f, 0.9f, 1.1f, 0.2f, damage);
-                Game.getObjectManager().addBullet(ball);
+                float speedAngle = (float) (RANDOM.nextDouble() * 360);
+                Game.getObjectManager().spawnBallSmall(tx, ty, speedAngle, 1.0f, 70.0f, 3.0f, 0.9f, 1.1f, 0.2f, damage);
             }
         }
     }
@@ -448,8 +427,8 @@ public class TitanFingers extends Bullet{
             if (pauseTimer < 0.5f) {
                 // 抖动
                 float shakeAmp = 5.0f;
-                float shakeX = (float) ((Math.random() - 0.5) * 2 * shakeAmp);
-                float shakeY = (float) ((Math.random() - 0.5) * 2 * shakeAmp);
+                float shakeX = (float) ((RANDOM.nextDouble() - 0.5) * 2 * shakeAmp);
+                float shakeY = (float) ((RANDOM.nextDouble() - 0.5) * 2 * shakeAmp);
                 this.x = pauseBaseX + shakeX;
                 this.y = pauseBaseY + shakeY;
                 for (TitanSingleFinger finger : fingers) {
@@ -555,7 +534,7 @@ public class TitanFingers extends Bullet{
             for (PalmTrail trail : palmTrails) {
                 float trailWidth = hScale * currentTexture.getWidth();
                 float trailHeight = vScale * currentTexture.getHeight();
-                new TextureBuilder().textureId(currentTexture.getId())
+                new TextureBuilder().texture(currentTexture)
                     .position(trail.x, trail.y)
                     .size(trailWidth, trailHeight)
                     .rotation(getSelfAngle())
@@ -567,7 +546,7 @@ public class TitanFingers extends Bullet{
             float currentWidth = hScale * currentTexture.getWidth();
             float currentHeight = vScale * currentTexture.getHeight();
             
-            new TextureBuilder().textureId(currentTexture.getId())
+            new TextureBuilder().texture(currentTexture)
                 .position(this.x, this.y)
                 .size(currentWidth, currentHeight)
                 .rotation(getSelfAngle())
@@ -591,6 +570,41 @@ public class TitanFingers extends Bullet{
         return false;
     }
 
+    // 手指不在 bulletsLayer 中, 按所有手指的并集登记
+    @Override
+    public void insertInto(SpatialHash hash) {
+        hash.beginUnion();
+        for (TitanSingleFinger finger : fingers) {
+            hash.includeInUnion(finger);
+        }
+        hash.endUnion(this);
+    }
+
+    // 手指不在 bulletsLayer 中, 插值时一并处理
+    @Override
+    public void storePreviousPosition() {
+        super.storePreviousPosition();
+        for (TitanSingleFinger finger : fingers) {
+            finger.storePreviousPosition();
+        }
+    }
+
+    @Override
+    public void beginInterpolation(float alpha) {
+        super.beginInterpolation(alpha);
+        for (TitanSingleFinger finger : fingers) {
+            finger.beginInterpolation(alpha);
+        }
+    }
+
+    @Override
+    public void endInterpolation() {
+        super.endInterpolation();
+        for (TitanSingleFinger finger : fingers) {
+            finger.endInterpolation();
+        }
+    }
+
     @Override
     public boolean hasAnimation() {
         return true;
@@ -9,14 +9,14 @@ import undertale.Animation.AnimationManager;
 import undertale.GameMain.Game;
 import undertale.GameObject.CollisionDetector;
 import undertale.GameObject.Player;
-import undertale.GameObject.Collectables.TensionPoint;
+import undertale.GameObject.SpatialHash;
 import undertale.Utils.GameUtilities;
-import undertale.GameObject.Effects.TitanSpawnParticle;
 import undertale.Sound.SoundManager;
-
-import static org.lwjgl.opengl.GL20.*;
+import undertale.Utils.GameRandom;
+import undertale.Utils.RandomStream;
 
 public class TitanSnake extends Bullet {
+    private static final RandomStream RANDOM = GameRandom.stream(GameRandom.Stream.BULLETS);
     private static class SnakePart extends Bullet{
         Animation animation;
         float initialScale;
@@ -53,36 +53,19 @@ public class TitanSnake extends Bullet {
                 .rotation(this.getSelfAngle())
                 .rgba(rgba[0], rgba[1], rgba[2], rgba[3])
                 .shaderName("titan_spawn_shader")
-                .uniformSetter(program -> {
-                    int locScreenSize = glGetUniformLocation(program, "uScreenSize");
-                    int locColor = glGetUniformLocation(program, "uColor");
-                    int locTexture = glGetUniformLocation(program, "uTexture");
-                    int locScale = glGetUniformLocation(program, "uScale");
-                    glUniform2i(locScreenSize, Game.getWindowWidth(), Game.getWindowHeight());
-                    glUniform4f(locColor, rgba[0], rgba[1], rgba[2], rgba[3]);
-                    glUniform1i(locTexture, 0);
-                    glUniform1f(locScale, (getHScale() + getVScale()) / initialScale / 2.0f);
-                })
+                .shaderParam((getHScale() + getVScale()) / initialScale / 2.0f)
                 .draw();
         }
 
         boolean checkContactLight(Player player) {
-            float px = player.getX() + player.getWidth() / 2.0f;
-            float py = player.getY() + player.getHeight() / 2.0f;
-            float dx = px - (this.x + animation.getCurrentFrame().getWidth() / 2.0f);
-            float dy = py - (this.y + animation.getCurrentFrame().getHeight() / 2.0f);
-            float dist = (float) Math.sqrt(dx * dx + dy * dy);
-
-            float outer = player.getCurrentLightRadius();
-            float amp = player.getLightOscAmplitude();
-            float halfSize = Math.max(animation.getCurrentFrame().getHeight(), animation.getCurrentFrame().getWidth()) / 2.0f;
-
-            return dist <= outer + amp + halfSize;
+            float frameW = animation.getCurrentFrame().getWidth();
+            float frameH = animation.getCurrentFrame().getHeight();
+            float halfSize = Math.max(frameH, frameW) / 2.0f;
+            return CollisionDetector.checkLightContact(this.x + frameW / 2.0f, this.y + frameH / 2.0f, player, halfSize);
         }
 
         public void giveTensionPoints() {
-            TensionPoint tp = new TensionPoint(this.x + this.getWidth() / 2.0f, this.y + this.getHeight() / 2.0f, 2.4f, 2);
-            Game.getObjectManager().addCollectable(tp);
+            Game.getObjectManager().spawnTensionPoint(this.x + this.getWidth() / 2.0f, this.y + this.getHeight() / 2.0f, 2.4f, 2);
         }
 
         @Override
@@ -105,8 +88,8 @@ public class TitanSnake extends Bullet {
                 if(timer % shakeInterval < shakeInterval) {
                     // 在当前位置基础上抖动
                     float shakeAmount = 2.0f;
-                    float offsetX = (float)(Math.random() * 2 - 1) * shakeAmount;
-                    float offsetY = (float)(Math.random() * 2 - 1) * shakeAmount;
+                    float offsetX = (float)(RANDOM.nextDouble() * 2 - 1) * shakeAmount;
+                    float offsetY = (float)(RANDOM.nextDouble() * 2 - 1) * shakeAmount;
                     this.x = originalX + offsetX;
                     this.y = originalY + offsetY;
                 }
@@ -139,17 +122,22 @@ public class TitanSnake extends Bullet {
     private boolean markedForRemoval = false;
 
     public TitanSnake(float x, float y, int bodyCount, int damage) {
+        this(x, y, bodyCount, damage,
+            AnimationManager.getInstance().getAnimation("titan_snake_head"),
+            AnimationManager.getInstance().getAnimation("titan_snake_body"),
+            AnimationManager.getInstance().getAnimation("titan_snake_tail"));
+    }
+
+    /**
+     * 直接传入各部分的动画, 不经过 AnimationManager(不需要加载纹理, 供 benchmark 使用)
+     */
+    TitanSnake(float x, float y, int bodyCount, int damage, Animation headAnim, Animation bodyAnim, Animation tailAnim) {
         super(x, y, 0, 0, 80.0f, damage, (Animation) null); // 不使用super的animation
         this.rgba[3] = 0.0f; // 初始透明
         this.isColli = false;
         this.destroyableOnHit = false;
         this.bound = false;
 
-        // 获取动画
-        Animation headAnim = AnimationManager.getInstance().getAnimation("titan_snake_head");
-        Animation bodyAnim = AnimationManager.getInstance().getAnimation("titan_snake_body");
-        Animation tailAnim = AnimationManager.getInstance().getAnimation("titan_snake_tail");
-
         // 初始化部分
         float angleToPlayer = 0.0f;
         Player player = Game.getPlayer();
@@ -158,7 +146,7 @@ public class TitanSnake extends Bullet {
             float dy = player.getY() + player.getHeight() / 2.0f - y;
             angleToPlayer = (float) Math.toDegrees(Math.atan2(dy, dx));
         }
-        int rDir = Math.random() < 0.5 ? -1 : 1;
+        int rDir = RANDOM.nextSign();
         head = new SnakePart(x, y, initialScale, angleToPlayer + 90 * rDir, maxSpeed, damage, headAnim);
         float dirX = (float) Math.cos(Math.toRadians(angleToPlayer + 90 * rDir));
         float dirY = (float) Math.sin(Math.toRadians(angleToPlayer + 90 * rDir));
@@ -189,6 +177,49 @@ public class TitanSnake extends Bullet {
         return tail.checkCollisionWithPlayer(player);
     }
 
+    // 各节不在 bulletsLayer 中, 按所有节的并集登记
+    @Override
+    public void insertInto(SpatialHash hash) {
+        hash.beginUnion();
+        hash.includeInUnion(head);
+        for (SnakePart body : bodies) {
+            hash.includeInUnion(body);
+        }
+        hash.includeInUnion(tail);
+        hash.endUnion(this);
+    }
+
+    // 蛇的各节不在 bulletsLayer 中, 插值时一并处理
+    @Override
+    public void storePreviousPosition() {
+        super.storePreviousPosition();
+        head.storePreviousPosition();
+        for (SnakePart body : bodies) {
+            body.storePreviousPosition();
+        }
+        tail.storePreviousPosition();
+    }
+
+    @Override
+    public void beginInterpolation(float alpha) {
+        super.beginInterpolation(alpha);
+        head.beginInterpolation(alpha);
+        for (SnakePart body : bodies) {
+            body.beginInterpolation(alpha);
+        }
+        tail.beginInterpolation(alpha);
+    }
+
+    @Override
+    public void endInterpolation() {
+        super.endInterpolation();
+        head.endInterpolation();
+        for (SnakePart body : bodies) {
+            body.endInterpolation();
+        }
+        tail.endInterpolation();
+    }
+
     @Override
     public boolean hasAnimation() {
         return true;
@@ -212,16 +243,7 @@ public class TitanSnake extends Bullet {
         if(!dying) {
             Player player = Game.getPlayer();
             if (player != null) {
-                float dx = player.getX() + player.getWidth() / 2.0f - head.getX();
-                float dy = player.getY() + player.getHeight() / 2.0f - head.getY();
-                float dist = (float) Math.sqrt(dx * dx + dy * dy);
-                float targetAngle = (float) Math.toDegrees(Math.atan2(dy, dx));
-
-                float acceleration = initialHeadAcceleration + (150.0f / (0.5f + dist)); // 距离越近加速度越大
-                float accelX = (float) Math.cos(Math.toRadians(targetAngle)) * acceleration;
-                float accelY = (float) Math.sin(Math.toRadians(targetAngle)) * acceleration;
-                head.setAccelerateX(accelX);
-                head.setAccelerateY(accelY);
+                steerHead(player.getX() + player.getWidth() / 2.0f, player.getY() + player.getHeight() / 2.0f);
             }
 
             // 更新body跟随head
@@ -235,11 +257,13 @@ public class TitanSnake extends Bullet {
 
             // 检查碰撞
             boolean anyContact = false;
-            if (head.checkContactLight(player)) anyContact = true;
-            for (SnakePart body : bodies) {
-                if (body.checkContactLight(player)) anyContact = true;
+            if (player != null) {
+                if (head.checkContactLight(player)) anyContact = true;
+                for (SnakePart body : bodies) {
+                    if (body.checkContactLight(player)) anyContact = true;
+                }
+                if (tail.checkContactLight(player)) anyContact = true;
             }
-            if (tail.checkContactLight(player)) anyContact = true;
 
             if (anyContact) {
                 contacting = true;
@@ -297,6 +321,22 @@ public class TitanSnake extends Bullet {
         tail.update(deltaTime);
     }
 
+    /**
+     * 让蛇头朝 (targetX, targetY) 加速, 加速度保持到下一次调用
+     */
+    void steerHead(float targetX, float targetY) {
+        float dx = targetX - head.getX();
+        float dy = targetY - head.getY();
+        float dist = (float) Math.sqrt(dx * dx + dy * dy);
+        float targetAngle = (float) Math.toDegrees(Math.atan2(dy, dx));
+
+        float acceleration = initialHeadAcceleration + (150.0f / (0.5f + dist)); // 距离越近加速度越大
+        float accelX = (float) Math.cos(Math.toRadians(targetAngle)) * acceleration;
+        float accelY = (float) Math.sin(Math.toRadians(targetAngle)) * acceleration;
+        head.setAccelerateX(accelX);
+        head.setAccelerateY(accelY);
+    }
+
     private void follow(SnakePart leader, SnakePart follower, float deltaTime) {
         float dx = leader.getX() - follower.getX();
         float dy = leader.getY() - follower.getY();
@@ -313,23 +353,20 @@ public class TitanSnake extends Bullet {
     private void emitParticles() {
         // 为head散发粒子
         for (int i = 0; i < 3; i++) {
-            float angle = (float) (Math.random() * 360);
-            TitanSpawnParticle particle = new TitanSpawnParticle(head.getX() + head.getWidth() / 2.0f, head.getY() + head.getHeight() / 2.0f, angle);
-            Game.getObjectManager().addTitanSpawnParticle(particle);
+            float angle = (float) (RANDOM.nextDouble() * 360);
+            Game.getObjectManager().spawnTitanSpawnParticle(head.getX() + head.getWidth() / 2.0f, head.getY() + head.getHeight() / 2.0f, angle);
         }
         // 为bodies散发粒子
         for (SnakePart body : bodies) {
             for (int i = 0; i < 3; i++) {
-                float angle = (float) (Math.random() * 360);
-                TitanSpawnParticle particle = new TitanSpawnParticle(body.getX() + body.getWidth() / 2.0f, body.getY() + body.getHeight() / 2.0f, angle);
-                Game.getObjectManager().addTitanSpawnParticle(particle);
+                float angle = (float) (RANDOM.nextDouble() * 360);
+                Game.getObjectManager().spawnTitanSpawnParticle(body.getX() + body.getWidth() / 2.0f, body.getY() + body.getHeight() / 2.0f, angle);
             }
         }
         // 为tail散发粒子
         for (int i = 0; i < 3; i++) {
-            float angle = (float) (Math.random() * 360);
-            TitanSpawnParticle particle = new TitanSpawnParticle(tail.getX() + tail.getWidth() / 2.0f, tail.getY() + tail.getHeight() / 2.0f, angle);
-            Game.getObjectManager().addTitanSpawnParticle(particle);
+            float angle = (float) (RANDOM.nextDouble() * 360);
+            Game.getObjectManager().spawnTitanSpawnParticle(tail.getX() + tail.getWidth() / 2.0f, tail.getY() + tail.getHeight() / 2.0f, angle);
         }
     }
 
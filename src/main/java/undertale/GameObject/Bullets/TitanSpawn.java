@@ -1,17 +1,16 @@
 package undertale.GameObject.Bullets;
 
-import static org.lwjgl.opengl.GL20.*;
-
 import undertale.Animation.Animation;
 import undertale.Animation.AnimationBuilder;
 import undertale.Utils.GameUtilities;
 import undertale.GameMain.Game;
 import undertale.GameObject.CollisionDetector;
 import undertale.GameObject.Player;
-import undertale.GameObject.Collectables.TensionPoint;
-import undertale.GameObject.Effects.TitanSpawnParticle;
+import undertale.Utils.GameRandom;
+import undertale.Utils.RandomStream;
 
 public class TitanSpawn extends Bullet{
+    private static final RandomStream RANDOM = GameRandom.stream(GameRandom.Stream.BULLETS);
     private float maxSpeed;
 
     private float cycleTimerSec = 0f;
@@ -23,6 +22,8 @@ public class TitanSpawn extends Bullet{
     private boolean noTP = false;
     private float initialHScale;
     private float initialVScale;
+    // 动画副本的来源, 用于对象池复用时判断是否可以直接重置副本
+    private Animation sourceAnimation;
 
     private float cycleDuration = 2.5f; // 每个周期持续时间
     private float speedDuration = 2.0f; // 速度变化持续时间
@@ -35,13 +36,40 @@ public class TitanSpawn extends Bullet{
 
     public TitanSpawn(float x, float y, float maxSpeed, float contactDisapperTime, int damage, Animation animation) {
         super(x, y, 0, 0, 0, damage, animation);
+        // 创建动画副本，避免多个实例共享同一个动画状态
+        this.sourceAnimation = animation;
+        this.animation = new Animation(animation);
+        initState(maxSpeed, contactDisapperTime);
+    }
+
+    /**
+     * 从对象池取出后重新初始化, 参数与构造函数相同; 来源动画不变时复用已有的动画副本
+     */
+    public void reset(float x, float y, float maxSpeed, float contactDisapperTime, int damage, Animation animation) {
+        Animation copy = this.animation;
+        reset(x, y, 0, 0, 0, damage, animation);
+        if (animation == sourceAnimation && copy != null) {
+            copy.reset();
+            this.animation = copy;
+        } else {
+            this.sourceAnimation = animation;
+            this.animation = new Animation(animation);
+        }
+        initState(maxSpeed, contactDisapperTime);
+    }
+
+    private void initState(float maxSpeed, float contactDisapperTime) {
         setNavi(false);
         this.destroyableOnHit = false;
         this.maxSpeed = maxSpeed;
         this.contactDisapperTime = contactDisapperTime;
         this.bound = false;
-        // 创建动画副本，避免多个实例共享同一个动画状态
-        this.animation = new Animation(animation.getFrameDuration(), animation.isLoop(), animation.getFrames());
+        this.cycleTimerSec = 0f;
+        this.contactTimer = 0f;
+        this.contacting = false;
+        this.markedForRemoval = false;
+        this.noTP = false;
+        this.particleSpawnTimer = 0.0f;
 
         this.rgba[3] = 0.0f; // 初始透明
         this.isColli = false; // 初始无判定
@@ -110,22 +138,9 @@ public class TitanSpawn extends Bullet{
 
         // 检测是否与player任意光圈环接触（renderLight绘制了多圈）
         if (player != null && player.isAlive() && this.isColli) {
-            float px = player.getX() + player.getWidth() / 2.0f;
-            float py = player.getY() + player.getHeight() / 2.0f;
-            float dx = px - (this.x + this.getWidth() / 2.0f);
-            float dy = py - (this.y + this.getHeight() / 2.0f);
-            float dist = (float)Math.sqrt(dx * dx + dy * dy);
-
-            float outer = player.getCurrentLightRadius();
-            float amp = player.getLightOscAmplitude();
-
-            boolean touch = false;
-            float halfSize = Math.max(this.getHeight(), this.getWidth()) / 2.0f;
-
             // player与titan_spawn的中心距离 <= 外光圈半径 + 震动幅度 + titan_spawn半径
-            if (dist <= outer + amp + halfSize) {
-                touch = true;
-            }
+            float halfSize = Math.max(this.getHeight(), this.getWidth()) / 2.0f;
+            boolean touch = CollisionDetector.checkLightContact(this, player, halfSize);
 
             if (touch) {
                 contactTimer += deltaTime;
@@ -160,20 +175,19 @@ public class TitanSpawn extends Bullet{
                 float dirY = ddy / distance;
                 float awayAngle = (float) Math.toDegrees(Math.atan2(ddy, ddx));
                 // 随机角度偏移 +-10度
-                float randomOffset = (float) ((Math.random() - 0.5) * 20);
+                float randomOffset = (float) ((RANDOM.nextDouble() - 0.5) * 20);
                 float spawnAngle = awayAngle + randomOffset;
                 // 随机距离从中心到边缘
                 float halfW = this.getWidth() / 2.0f;
                 float halfH = this.getHeight() / 2.0f;
-                float randomDist = (float) Math.random() * Math.max(halfW, halfH);
+                float randomDist = (float) RANDOM.nextDouble() * Math.max(halfW, halfH);
                 float spawnX = cx - dirX * randomDist;
                 float spawnY = cy - dirY * randomDist;
                 // 确保在边界内
                 spawnX = Math.max(cx - halfW, Math.min(cx + halfW, spawnX));
                 spawnY = Math.max(cy - halfH, Math.min(cy + halfH, spawnY));
                 // 创建粒子
-                TitanSpawnParticle particle = new TitanSpawnParticle(spawnX, spawnY, spawnAngle);
-                Game.getObjectManager().addTitanSpawnParticle(particle);
+                Game.getObjectManager().spawnTitanSpawnParticle(spawnX, spawnY, spawnAngle);
             }
         }
  
@@ -189,8 +203,7 @@ public class TitanSpawn extends Bullet{
             markedForRemoval = true;
             // 创建一个tension point
             if (!noTP) {
-                TensionPoint tp = new TensionPoint(this.x + this.getWidth() / 2.0f, this.y + this.getHeight() / 2.0f, 1.6f);
-                Game.getObjectManager().addCollectable(tp);
+                Game.getObjectManager().spawnTensionPoint(this.x + this.getWidth() / 2.0f, this.y + this.getHeight() / 2.0f, 1.6f);
             }
         }
     }
@@ -204,18 +217,7 @@ public class TitanSpawn extends Bullet{
             .rgba(rgba[0], rgba[1], rgba[2], rgba[3])
             .rotation(this.getSelfAngle())
             .shaderName(shaderName)
-            .uniformSetter(program -> {
-                int locScreenSize = glGetUniformLocation(program, "uScreenSize");
-                int locColor = glGetUniformLocation(program, "uColor");
-                int locTexture = glGetUniformLocation(program, "uTexture");
-                glUniform2i(locScreenSize, Game.getWindowWidth(), Game.getWindowHeight());
-                glUniform4f(locColor, rgba[0], rgba[1], rgba[2], rgba[3]);
-                glUniform1i(locTexture, 0);
-                if (shaderName.equals("titan_spawn_shader")) {
-                    int locScale = glGetUniformLocation(program, "uScale");
-                    glUniform1f(locScale, (getHScale() + getVScale()) / 2.0f);
-                }
-            })
+            .shaderParam((getHScale() + getVScale()) / 2.0f)
             .draw();
     }
 
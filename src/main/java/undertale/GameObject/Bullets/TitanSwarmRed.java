@@ -7,11 +7,14 @@ import undertale.Texture.TextureBuilder;
 import undertale.Texture.TextureManager;
 import java.util.ArrayList;
 import java.util.List;
+import undertale.Utils.GameRandom;
+import undertale.Utils.RandomStream;
 
 public class TitanSwarmRed extends Bullet{
+    private static final RandomStream RANDOM = GameRandom.stream(GameRandom.Stream.BULLETS);
     private Texture redEye;
     private float maxSpeed = 200.0f;
-    private float rotateDir = Math.random() < 0.5 ? -1.0f : 1.0f;
+    private float rotateDir = RANDOM.nextSign();
     private float rotationSpeed = 150.0f; // degrees per second
     private float appearTime = 1.0f;
     private float appearTimer = 0.0f;
@@ -34,7 +37,7 @@ public class TitanSwarmRed extends Bullet{
     private List<Trail> trails = new ArrayList<>();
 
     public TitanSwarmRed(float x, float y, int damage) {
-        super(x, y, 360 * (float)Math.random(), 0, 0, damage, TextureManager.getInstance().getTexture("spawn_red"));
+        super(x, y, 360 * (float)RANDOM.nextDouble(), 0, 0, damage, TextureManager.getInstance().getTexture("spawn_red"));
 
         redEye = TextureManager.getInstance().getTexture("spawn_red_eye");
         setNavi(false);
@@ -116,7 +119,7 @@ public class TitanSwarmRed extends Bullet{
             float bodyWidth = getHScale() * getTexture().getWidth();
             float bodyHeight = getVScale() * getTexture().getHeight();
             // render body trail
-            new TextureBuilder().textureId(getTexture().getId())
+            new TextureBuilder().texture(getTexture())
                 .position(t.x, t.y)
                 .size(bodyWidth, bodyHeight)
                 .rotation(t.angle)
@@ -129,7 +132,7 @@ public class TitanSwarmRed extends Bullet{
             float eyeY = t.y + this.getHeight() / 2 - redEye.getHeight() / 2 * eyeScale * targetScale;
             float eyeWidth = targetScale * eyeScale * redEye.getWidth();
             float eyeHeight = targetScale * eyeScale * redEye.getHeight();
-            new TextureBuilder().textureId(redEye.getId())
+            new TextureBuilder().texture(redEye)
                 .position(eyeX, eyeY)
                 .size(eyeWidth, eyeHeight)
                 .rgba(1, 0, 0, t.alpha)
@@ -145,7 +148,7 @@ public class TitanSwarmRed extends Bullet{
         float eyeY = this.y + this.getHeight() / 2 - redEye.getHeight() / 2 * eyeScale * targetScale;
         float eyeWidth = targetScale * eyeScale * redEye.getWidth();
         float eyeHeight = targetScale * eyeScale * redEye.getHeight();
-        new TextureBuilder().textureId(redEye.getId())
+        new TextureBuilder().texture(redEye)
             .position(eyeX, eyeY)
             .size(eyeWidth, eyeHeight)
             .rgba(1, 0, 0, rgba[3])
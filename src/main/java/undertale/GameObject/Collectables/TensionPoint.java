@@ -1,21 +1,23 @@
 package undertale.GameObject.Collectables;
 
-import static org.lwjgl.opengl.GL20.*;
-
 import undertale.GameMain.Game;
 import undertale.GameObject.Player;
 import undertale.Sound.SoundManager;
 import undertale.Texture.Texture;
 import undertale.Texture.TextureBuilder;
+import undertale.Utils.GameRandom;
+import undertale.Utils.RandomStream;
 
 public class TensionPoint extends Collectable{
+    private static final RandomStream RANDOM = GameRandom.stream(GameRandom.Stream.COLLECTABLES);
     private boolean turn = false;
     private Texture tpTexture;
     private float currentScale;
     private float initialScale;
     private float targetScale;
     private float scaleSpeed;
-    private float rotationSpeed = (Math.random() >= 0.5 ? -1 : 1) * (float) (580 + Math.random() * 20);
+    private float rotationSpeed;
+    private int value;
     private float shrinkDuration = 0.8f;
     
     // 移动相关
@@ -24,20 +26,10 @@ public class TensionPoint extends Collectable{
     private float initialAngle = 0.0f;
 
     public TensionPoint(float x, float y, float initialScale, int value) {
-        super(x, y, () -> {
-            // 玩家tp+1
-            Game.getPlayer().updateTensionPoints(value);
-        });
-        this.currentScale = initialScale;
-        this.initialScale = initialScale;
-        this.targetScale = initialScale / 2;
-        this.scaleSpeed = (initialScale - targetScale) / shrinkDuration; // shrinkDuration秒内缩放到targetScale
-        this.canCollect = false;
-        this.isNavi = false;
-        this.setSpeed(initialSpeed); // 初始速度
-        // 随机起始角度
-        setSelfAngle((float)(Math.random() * 360));
-        init();
+        super(x, y, null);
+        // 拾取时玩家tp增加value
+        this.onCollect = () -> Game.getPlayer().updateTensionPoints(this.value);
+        reset(x, y, initialScale, value);
     }
 
     public TensionPoint(float x, float y, float initialScale) {
@@ -113,22 +105,13 @@ public class TensionPoint extends Collectable{
     @Override
     public void render() {
         if (tpTexture != null && currentScale > 0) {
-            new TextureBuilder().textureId(tpTexture.getId())
+            new TextureBuilder().texture(tpTexture)
                 .position(x, y)
                 .size(currentScale * tpTexture.getWidth(), currentScale * tpTexture.getHeight())
                 .rotation(getSelfAngle())
                 .rgba(1.0f, 1.0f, 0.0f, 1.0f)
                 .shaderName("tp_shader")
-                .uniformSetter(program -> {
-                    int locScreenSize = glGetUniformLocation(program, "uScreenSize");
-                    int locColor = glGetUniformLocation(program, "uColor");
-                    int locTexture = glGetUniformLocation(program, "uTexture");
-                    int locWhiteStrength = glGetUniformLocation(program, "uWhiteStrength");
-                    glUniform2i(locScreenSize, Game.getWindowWidth(), Game.getWindowHeight());
-                    glUniform4f(locColor, 1.0f , 1.0f, 0.0f, 1.0f);
-                    glUniform1i(locTexture, 0);
-                    glUniform1f(locWhiteStrength, (currentScale - targetScale) / (initialScale - targetScale));
-                })
+                .shaderParam((currentScale - targetScale) / (initialScale - targetScale))
                 .draw();
         }
     }
@@ -154,18 +137,28 @@ public class TensionPoint extends Collectable{
     }
 
     public void reset(float x, float y, float initialScale) {
+        reset(x, y, initialScale, 1);
+    }
+
+    /**
+     * 从对象池取出后重新初始化, 参数与构造函数相同
+     */
+    public void reset(float x, float y, float initialScale, int value) {
         this.x = x;
         this.y = y;
-        this.initialScale = initialScale;
+        this.value = value;
         this.currentScale = initialScale;
+        this.initialScale = initialScale;
         this.targetScale = initialScale / 2;
+        this.scaleSpeed = (initialScale - targetScale) / shrinkDuration; // shrinkDuration秒内缩放到targetScale
         this.canCollect = false;
+        this.isCollected = false;
         this.turn = false;
-        this.setSpeed(initialSpeed); // 重置初始速度
+        this.isNavi = false;
+        this.setSpeed(initialSpeed); // 初始速度
         // 随机起始角度
-        setSelfAngle((float)(Math.random() * 360));
-        // 随机旋转速度 (-180 到 180 度/秒)
-        rotationSpeed = (Math.random() >= 0.5 ? -1 : 1) * (float) (160 + Math.random() * 20);
-
+        setSelfAngle((float)(RANDOM.nextDouble() * 360));
+        rotationSpeed = RANDOM.nextSign() * (float) (580 + RANDOM.nextDouble() * 20);
+        init();
     }
 }
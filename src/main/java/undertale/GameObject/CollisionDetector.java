@@ -1,5 +1,7 @@
 package undertale.GameObject;
 
+import java.util.List;
+
 import undertale.Utils.GameUtilities;
 
 public class CollisionDetector {
@@ -23,8 +25,9 @@ public class CollisionDetector {
      * @return
      */
     public static boolean checkCircleCollision(GameObject obj1, GameObject obj2, float padding) {
-        float distance = (float) Math.sqrt(GameUtilities.getDistSquared(obj1, obj2));
-        return distance < (obj1.getWidth() / 2 + obj2.getWidth() / 2 + padding);
+        // 比较距离平方, 省去开方
+        float reach = obj1.getWidth() / 2 + obj2.getWidth() / 2 + padding;
+        return reach > 0 && GameUtilities.getDistSquared(obj1, obj2) < reach * reach;
     }
 
     public static boolean checkCircleCollision(GameObject obj1, GameObject obj2) {
@@ -49,6 +52,38 @@ public class CollisionDetector {
         return checkRectCircleCollision(rectObj, circleObj, 0f);
     }
 
+    /**
+     * 检测以 (cx, cy) 为中心的物体是否接触到 player 的光圈
+     * player 与物体的中心距离 <= 外光圈半径 + 震动幅度 + padding 即视为接触
+     * @param padding : 物体自身的接触半径
+     */
+    public static boolean checkLightContact(float cx, float cy, Player player, float padding) {
+        float dx = player.getX() + player.getWidth() / 2.0f - cx;
+        float dy = player.getY() + player.getHeight() / 2.0f - cy;
+        float reach = player.getCurrentLightRadius() + player.getLightOscAmplitude() + padding;
+        return dx * dx + dy * dy <= reach * reach;
+    }
+
+    public static boolean checkLightContact(GameObject obj, Player player, float padding) {
+        return checkLightContact(obj.getX() + obj.getWidth() / 2.0f, obj.getY() + obj.getHeight() / 2.0f, player, padding);
+    }
+
+    /**
+     * broadphase: 从空间哈希中取出可能与 obj 圆形碰撞的 type 类型物体(不含 obj 自身)
+     * 只返回候选, 需要再用 checkCircleCollision 等做精确检测
+     * @param padding : 与 checkCircleCollision 的 padding 含义相同
+     */
+    public static <T extends GameObject> int queryCandidates(SpatialHash hash, GameObject obj, float padding,
+                                                             Class<T> type, List<T> out) {
+        float cx = obj.getX() + obj.getWidth() / 2.0f;
+        float cy = obj.getY() + obj.getHeight() / 2.0f;
+        float radius = Math.max(obj.getWidth(), obj.getHeight()) / 2.0f + Math.max(0f, padding);
+        int start = out.size();
+        hash.queryCircle(cx, cy, radius, type, out);
+        out.remove(obj);
+        return out.size() - start;
+    }
+
     private static float clamp(float value, float min, float max) {
         return Math.max(min, Math.min(max, value));
     }
@@ -0,0 +1,109 @@
+package undertale.GameObject.Effects;
+
+import undertale.GameObject.GameObject;
+
+/**
+ * 粒子系统基类(struct-of-arrays)
+ * 所有粒子的数据存放在固定容量的 float 数组中, 而不是每个粒子一个对象:
+ * 发射只是在数组末尾写入一组数值, 粒子死亡时把最后一个粒子拷贝到它的位置(swap-remove), 数组始终紧凑。
+ * 更新和渲染都是对 [0, count) 的一次循环, 不产生任何对象分配。
+ * 粒子系统本身作为一个 GameObject 加入 effectsLayer, 由子类实现具体的运动与绘制。
+ * 容量满时新的粒子直接丢弃并计数, 用于调整容量。
+ */
+public abstract class ParticleSystem extends GameObject {
+    protected final int capacity;
+    protected int count = 0;
+
+    protected final float[] px;
+    protected final float[] py;
+    protected final float[] vx;
+    protected final float[] vy;
+    protected final float[] rotation;
+    protected final float[] rotationSpeed;
+    protected final float[] scale;
+    protected final float[] age;
+
+    private int highWater = 0;
+    private int dropped = 0;
+
+    protected ParticleSystem(int capacity) {
+        this.capacity = capacity;
+        px = new float[capacity];
+        py = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        rotation = new float[capacity];
+        rotationSpeed = new float[capacity];
+        scale = new float[capacity];
+        age = new float[capacity];
+    }
+
+    /**
+     * 分配一个新粒子的下标, 容量已满时返回 -1
+     */
+    protected int allocate() {
+        if (count == capacity) {
+            dropped++;
+            return -1;
+        }
+        int i = count++;
+        if (count > highWater) highWater = count;
+        age[i] = 0.0f;
+        return i;
+    }
+
+    /**
+     * 移除下标为 i 的粒子: 用最后一个粒子覆盖它
+     * 在倒序或 "不自增下标" 的循环中调用, 保证被换过来的粒子也会被处理
+     */
+    protected void kill(int i) {
+        int last = --count;
+        if (i == last) return;
+        px[i] = px[last];
+        py[i] = py[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        rotation[i] = rotation[last];
+        rotationSpeed[i] = rotationSpeed[last];
+        scale[i] = scale[last];
+        age[i] = age[last];
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getHighWater() {
+        return highWater;
+    }
+
+    public int getDropped() {
+        return dropped;
+    }
+
+    float getParticleX(int i) {
+        return px[i];
+    }
+
+    float getParticleY(int i) {
+        return py[i];
+    }
+
+    float getParticleScale(int i) {
+        return scale[i];
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + ": count=" + count + ", capacity=" + capacity
+            + ", highWater=" + highWater + ", dropped=" + dropped;
+    }
+}
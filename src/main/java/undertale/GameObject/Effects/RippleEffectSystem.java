@@ -0,0 +1,50 @@
+package undertale.GameObject.Effects;
+
+import undertale.Texture.Texture;
+
+/**
+ * 收集 tension point 时的涟漪效果
+ * 每个涟漪以 (x, y) 为圆心, 在 DURATION 内半径从 0 扩大到 MAX_RADIUS, 同时透明度从 1 降到 0。
+ */
+public class RippleEffectSystem extends ParticleSystem {
+    private static final float MAX_RADIUS = 20.0f;
+    private static final float DURATION = 0.4f; // 0.4秒
+
+    public RippleEffectSystem(int capacity) {
+        super(capacity);
+    }
+
+    public void emit(float x, float y) {
+        int i = allocate();
+        if (i < 0) return;
+        px[i] = x;
+        py[i] = y;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        int i = 0;
+        while (i < count) {
+            float a = age[i] + deltaTime;
+            if (a >= DURATION) {
+                kill(i);
+                continue;
+            }
+            age[i] = a;
+            i++;
+        }
+    }
+
+    @Override
+    public void render() {
+        for (int i = 0; i < count; i++) {
+            float progress = age[i] / DURATION; // 0.0 到 1.0
+            float currentRadius = MAX_RADIUS * progress;
+            float alpha = 1.0f - progress; // 从1.0渐变到0.0
+
+            // 金黄色涟漪，线宽根据半径调整
+            float lineWidth = Math.max(1.0f, currentRadius * 0.1f);
+            Texture.drawHollowCircle(px[i], py[i], currentRadius, 1.0f, 1.0f, 0.0f, alpha, lineWidth);
+        }
+    }
+}
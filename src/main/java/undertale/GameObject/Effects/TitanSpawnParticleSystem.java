@@ -0,0 +1,85 @@
+package undertale.GameObject.Effects;
+
+import undertale.GameMain.Game;
+import undertale.Texture.Texture;
+import undertale.Utils.GameRandom;
+import undertale.Utils.RandomStream;
+
+/**
+ * Titan spawn 接触光圈时散出的粒子
+ * 每个粒子沿发射方向匀速飞出, 同时随机旋转并在 DURATION 内缩小到 0;
+ * 全部粒子使用同一张 tension_point 纹理和 tp_shader, 在 SpriteBatch 中合并为一次 draw call。
+ */
+public class TitanSpawnParticleSystem extends ParticleSystem {
+    private static final RandomStream RANDOM = GameRandom.stream(GameRandom.Stream.EFFECTS);
+    private static final float SPEED = 100.0f;
+    private static final float DURATION = 0.5f; // 0.5秒内消失
+    private static final float INITIAL_SCALE = 0.6f;
+    private static final float TARGET_SCALE = 0.0f;
+    private static final float SCALE_SPEED = (INITIAL_SCALE - TARGET_SCALE) / DURATION;
+
+    private Texture tpTexture;
+
+    public TitanSpawnParticleSystem(int capacity) {
+        super(capacity);
+    }
+
+    /**
+     * 发射一个粒子
+     * @param angleDeg 飞行方向, 同时作为初始旋转角
+     */
+    public void emit(float x, float y, float angleDeg) {
+        int i = allocate();
+        if (i < 0) return;
+        double rad = Math.toRadians(angleDeg);
+        px[i] = x;
+        py[i] = y;
+        vx[i] = (float) Math.cos(rad) * SPEED;
+        vy[i] = (float) Math.sin(rad) * SPEED;
+        rotation[i] = angleDeg;
+        rotationSpeed[i] = (float) (RANDOM.nextDouble() * 360);
+        scale[i] = INITIAL_SCALE;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        int i = 0;
+        while (i < count) {
+            float a = age[i] + deltaTime;
+            if (a >= DURATION) {
+                kill(i);
+                continue;
+            }
+            age[i] = a;
+            scale[i] = Math.max(TARGET_SCALE, scale[i] - SCALE_SPEED * deltaTime);
+            rotation[i] += rotationSpeed[i] * deltaTime;
+            px[i] += vx[i] * deltaTime;
+            py[i] += vy[i] * deltaTime;
+            i++;
+        }
+    }
+
+    @Override
+    public void render() {
+        if (count == 0) return;
+        if (tpTexture == null) {
+            tpTexture = Game.getTexture("tension_point");
+        }
+        int textureId = tpTexture.getId();
+        float texW = tpTexture.getWidth();
+        float texH = tpTexture.getHeight();
+        float u0 = tpTexture.getRegionU0();
+        float u1 = tpTexture.getRegionU1();
+        // 与 TextureBuilder 默认的 v = {1, 0} 一致
+        float v0 = tpTexture.getRegionV1();
+        float v1 = tpTexture.getRegionV0();
+        for (int i = 0; i < count; i++) {
+            float s = scale[i];
+            if (s <= 0) continue;
+            // 黄白色: RGB(1.0, 1.0, 0.7)
+            Texture.drawTexture(textureId, px[i], py[i], s * texW, s * texH, rotation[i],
+                1.0f, 1.0f, 0.7f, 1.0f, u0, v0, u1, v1,
+                "tp_shader", (s - TARGET_SCALE) / (INITIAL_SCALE - TARGET_SCALE));
+        }
+    }
+}
@@ -76,6 +76,42 @@ public abstract class GameObject {
         }
     }
 
+    // --- Render interpolation ----------------------------------------------
+    // 固定步长模拟下, 渲染时的位置在上一 tick 与当前 tick 之间插值, 子节点递归处理
+    private float prevX, prevY;
+    private float simX, simY;
+
+    /** 每个 tick 更新之前调用, 记录上一 tick 的位置; 新加入场景的对象也需调用一次 */
+    public void storePreviousPosition() {
+        prevX = x;
+        prevY = y;
+        if (children == null) return;
+        for (GameObject c : children) {
+            c.storePreviousPosition();
+        }
+    }
+
+    /** 渲染前把位置替换为插值位置, 渲染后必须调用 endInterpolation() 恢复模拟位置 */
+    public void beginInterpolation(float alpha) {
+        simX = x;
+        simY = y;
+        x = prevX + (x - prevX) * alpha;
+        y = prevY + (y - prevY) * alpha;
+        if (children == null) return;
+        for (GameObject c : children) {
+            c.beginInterpolation(alpha);
+        }
+    }
+
+    public void endInterpolation() {
+        x = simX;
+        y = simY;
+        if (children == null) return;
+        for (GameObject c : children) {
+            c.endInterpolation();
+        }
+    }
+
     public void updatePosition(float deltaTime) {
         speedX += accelerateX * deltaTime;
         speedY += accelerateY * deltaTime;
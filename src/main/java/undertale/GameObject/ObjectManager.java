@@ -1,20 +1,23 @@
 package undertale.GameObject;
 
 import java.util.ArrayList;
-import java.util.Timer;
-import java.util.TimerTask;
 
+import undertale.Animation.Animation;
 import undertale.Enemy.EnemyManager;
 import undertale.GameMain.Game;
 import undertale.GameObject.Bullets.Bullet;
+import undertale.GameObject.Bullets.BallSmall;
 import undertale.GameObject.Bullets.BallBlast;
 import undertale.GameObject.Bullets.TitanSpawn;
 import undertale.GameObject.Bullets.TitanSnake;
 import undertale.GameObject.Collectables.Collectable;
 import undertale.GameObject.Collectables.TensionPoint;
-import undertale.GameObject.Effects.RippleEffect;
-import undertale.GameObject.Effects.TitanSpawnParticle;
+import undertale.GameObject.Effects.RippleEffectSystem;
+import undertale.GameObject.Effects.TitanSpawnParticleSystem;
 import undertale.GameObject.Player.LightLevel;
+import undertale.Texture.SpriteBatch;
+import undertale.Utils.FrameProfiler;
+import undertale.Utils.ObjectPool;
 
 /**
  * ObjectManager 管理游戏对象生命周期与分层（layers）。
@@ -24,22 +27,30 @@ import undertale.GameObject.Player.LightLevel;
  * 并由对象自身负责 render()/update()，不再通过集中式渲染器强制渲染所有对象。
  */
 public class ObjectManager {
+    private static final float BROADPHASE_CELL_SIZE = 64.0f;
+    private static final FrameProfiler profiler = FrameProfiler.getInstance();
+    private static final int PROFILE_UPDATE = profiler.scope("ObjectManager.updateFightScene");
+    private static final int PROFILE_COLLISION = profiler.scope("Collision");
     private Player player;
     // active bullets are held in bulletsLayer (composite) — do not maintain a separate list
     private ArrayList<Bullet> pendingBullets;
 
     // 声明为成员变量避免频繁创建临时列表
     private ArrayList<Bullet> toRemove;
+    // 子弹碰撞的 broadphase, 每帧重建
+    private SpatialHash broadphase;
+    private ArrayList<BallBlast> blastCandidates;
+    // player 附近的子弹, 只对它们做与 player 的精确碰撞检测; 以每 tick 递增的编号标记
+    private ArrayList<Bullet> playerCandidates;
+    private int collisionStamp = 0;
 
     // 可拾取物
     private ArrayList<Collectable> collectables;
     private ArrayList<Collectable> collectablesToRemove;
 
-    // 涟漪效果
-    private ArrayList<RippleEffect> rippleEffects;
-
-    // TitanSpawn 粒子
-    private ArrayList<TitanSpawnParticle> titanSpawnParticles;
+    // 涟漪效果和 TitanSpawn 粒子: 数组存储的粒子系统, 各自作为一个节点挂在 effectsLayer 上
+    private RippleEffectSystem rippleEffects;
+    private TitanSpawnParticleSystem titanSpawnParticles;
 
     // Composite root and layers (POC)
     private GameObjectComposite root;
@@ -49,6 +60,15 @@ public class ObjectManager {
 
     private EnemyManager enemyManager;
 
+    // 渲染插值: 上一 tick 位置有效时才插值
+    private float interpolationAlpha = 1.0f;
+    private boolean interpolationReady = false;
+
+    // 对象池: 高频生成/销毁的对象在移除时回收, 通过 spawnXxx 方法复用
+    private ObjectPool<TitanSpawn> titanSpawnPool;
+    private ObjectPool<BallSmall> ballSmallPool;
+    private ObjectPool<TensionPoint> tensionPointPool;
+
     public ObjectManager(Player player, EnemyManager enemyManager){
         init(player, enemyManager);
     }
@@ -63,10 +83,13 @@ public class ObjectManager {
         // bullets list removed; bulletsLayer will hold active bullets
         pendingBullets = new ArrayList<>();
         toRemove = new ArrayList<>();
+        broadphase = new SpatialHash(BROADPHASE_CELL_SIZE, 1024);
+        blastCandidates = new ArrayList<>();
+        playerCandidates = new ArrayList<>();
         collectables = new ArrayList<>();
         collectablesToRemove = new ArrayList<>();
-        rippleEffects = new ArrayList<>();
-        titanSpawnParticles = new ArrayList<>();
+        rippleEffects = new RippleEffectSystem(128);
+        titanSpawnParticles = new TitanSpawnParticleSystem(1024);
         // create composite root and layers
         root = new GameObjectComposite();
         bulletsLayer = new GameObjectComposite();
@@ -75,6 +98,97 @@ public class ObjectManager {
         root.addChild(bulletsLayer);
         root.addChild(collectablesLayer);
         root.addChild(effectsLayer);
+        effectsLayer.addChild(rippleEffects);
+        effectsLayer.addChild(titanSpawnParticles);
+        // object pools
+        titanSpawnPool = new ObjectPool<>("TitanSpawn", 128);
+        ballSmallPool = new ObjectPool<>("BallSmall", 256);
+        tensionPointPool = new ObjectPool<>("TensionPoint", 64);
+    }
+
+    /**
+     * 从对象池取出(或新建)一个 TitanSpawn 并加入待添加子弹列表
+     */
+    public TitanSpawn spawnTitanSpawn(float x, float y, float maxSpeed, float contactDisappearTime, int damage, Animation animation) {
+        TitanSpawn spawn = titanSpawnPool.acquire();
+        if (spawn == null) {
+            spawn = new TitanSpawn(x, y, maxSpeed, contactDisappearTime, damage, animation);
+        } else {
+            spawn.reset(x, y, maxSpeed, contactDisappearTime, damage, animation);
+        }
+        addBullet(spawn);
+        return spawn;
+    }
+
+    public TitanSpawn spawnTitanSpawn(float x, float y, float maxSpeed, int damage, Animation animation) {
+        return spawnTitanSpawn(x, y, maxSpeed, 1.0f, damage, animation);
+    }
+
+    public BallSmall spawnBallSmall(float x, float y, float speedAngle, float waitTime, float maxSpeed, float accelTime, float initialScale, float extendedScale, float scaleSwitchInterval, int damage) {
+        BallSmall ball = ballSmallPool.acquire();
+        if (ball == null) {
+            ball = new BallSmall(x, y, speedAngle, waitTime, maxSpeed, accelTime, initialScale, extendedScale, scaleSwitchInterval, damage);
+        } else {
+            ball.reset(x, y, speedAngle, waitTime, maxSpeed, accelTime, initialScale, extendedScale, scaleSwitchInterval, damage);
+        }
+        addBullet(ball);
+        return ball;
+    }
+
+    public TensionPoint spawnTensionPoint(float x, float y, float initialScale, int value) {
+        TensionPoint tp = tensionPointPool.acquire();
+        if (tp == null) {
+            tp = new TensionPoint(x, y, initialScale, value);
+        } else {
+            tp.reset(x, y, initialScale, value);
+        }
+        addCollectable(tp);
+        return tp;
+    }
+
+    public TensionPoint spawnTensionPoint(float x, float y, float initialScale) {
+        return spawnTensionPoint(x, y, initialScale, 1);
+    }
+
+    public void spawnTitanSpawnParticle(float x, float y, float angleDeg) {
+        titanSpawnParticles.emit(x, y, angleDeg);
+    }
+
+    void spawnRippleEffect(float x, float y) {
+        rippleEffects.emit(x, y);
+    }
+
+    /**
+     * 已从层中移除的子弹回收到对应的对象池, 没有对应池的类型交给 GC
+     */
+    private void recycleBullet(Bullet bullet) {
+        if (bullet.getClass() == TitanSpawn.class) {
+            titanSpawnPool.release((TitanSpawn) bullet);
+        } else if (bullet.getClass() == BallSmall.class) {
+            ballSmallPool.release((BallSmall) bullet);
+        }
+    }
+
+    private void recycleCollectable(Collectable collectable) {
+        if (collectable.getClass() == TensionPoint.class) {
+            tensionPointPool.release((TensionPoint) collectable);
+        }
+    }
+
+    /**
+     * 对象池及粒子系统的统计信息, 每个一行
+     */
+    public String getPoolStats() {
+        return titanSpawnPool + "\n" + ballSmallPool + "\n" + tensionPointPool + "\n"
+            + rippleEffects + "\n" + titanSpawnParticles;
+    }
+
+    /**
+     * 当前帧子弹的空间哈希, 可用于按区域和类型查询附近的子弹
+     * 在 updateFightScene 中子弹移动之后重建, player 不存在或死亡时为空
+     */
+    public SpatialHash getBroadphase() {
+        return broadphase;
     }
 
     public void addBullet(Bullet bullet) {
@@ -86,29 +200,16 @@ public class ObjectManager {
     public void addCollectable(Collectable collectable) {
         if (collectable != null) {
             collectables.add(collectable);
+            // 在 tick 中途加入, 以当前位置作为插值起点
+            collectable.storePreviousPosition();
             if (collectablesLayer != null) collectablesLayer.addChild(collectable);
         }
     }
 
-    public void addTitanSpawnParticle(TitanSpawnParticle particle) {
-        if (particle != null) {
-            titanSpawnParticles.add(particle);
-            if (effectsLayer != null) effectsLayer.addChild(particle);
-        }
-    }
-
-    // Test helper: add a ripple effect to the manager and layer
-    void addRippleEffect(RippleEffect ripple) {
-        if (ripple != null) {
-            rippleEffects.add(ripple);
-            if (effectsLayer != null) effectsLayer.addChild(ripple);
-        }
-    }
-
     // Package-private accessors used by unit tests to verify layer contents
     GameObjectComposite getEffectsLayer() { return effectsLayer; }
-    int getTitanSpawnParticlesCount() { return titanSpawnParticles.size(); }
-    int getRippleEffectsCount() { return rippleEffects.size(); }
+    int getTitanSpawnParticlesCount() { return titanSpawnParticles.getCount(); }
+    int getRippleEffectsCount() { return rippleEffects.getCount(); }
     int getBulletsCount() {
         if (bulletsLayer == null) return 0;
         int count = 0;
@@ -126,6 +227,7 @@ public class ObjectManager {
     }
 
     public void updateFightScene(float deltaTime){
+        profiler.begin(PROFILE_UPDATE);
         // 先添加 pending bullets -> add each to bulletsLayer (composite authoritative)
         if (bulletsLayer != null) {
             for (Bullet b : pendingBullets) {
@@ -134,6 +236,11 @@ public class ObjectManager {
         }
         pendingBullets.clear();
 
+        // 记录上一 tick 的位置, 供渲染插值
+        root.storePreviousPosition();
+        if (player != null) player.storePreviousPosition();
+        interpolationReady = true;
+
         // enemy
         if (enemyManager != null) enemyManager.update(deltaTime);
         // player
@@ -143,11 +250,30 @@ public class ObjectManager {
         toRemove.clear();
         if (bulletsLayer != null) {
             java.util.List<GameObject> bulletChildren = bulletsLayer.getChildren();
+            // 先全部移动, 再用移动后的位置重建 broadphase
+            for (int i = 0; i < bulletChildren.size(); i++) {
+                GameObject go = bulletChildren.get(i);
+                if (go instanceof Bullet) ((Bullet) go).update(deltaTime);
+            }
+            profiler.begin(PROFILE_COLLISION);
+            broadphase.clear();
+            if (player != null && player.isAlive()) {
+                for (int i = 0; i < bulletChildren.size(); i++) {
+                    GameObject go = bulletChildren.get(i);
+                    if (go instanceof Bullet) ((Bullet) go).insertInto(broadphase);
+                }
+                // 各子弹的检测半径不超过其登记的包围盒, 查询 player 的包围盒即可得到所有可能命中的子弹
+                collisionStamp++;
+                playerCandidates.clear();
+                CollisionDetector.queryCandidates(broadphase, player, 0f, Bullet.class, playerCandidates);
+                for (int i = 0; i < playerCandidates.size(); i++) {
+                    playerCandidates.get(i).playerCandidateStamp = collisionStamp;
+                }
+            }
             for (int i = 0; i < bulletChildren.size(); i++) {
                 GameObject go = bulletChildren.get(i);
                 if (!(go instanceof Bullet)) continue;
                 Bullet bullet = (Bullet) go;
-                bullet.update(deltaTime);
                 if (player == null || !player.isAlive())
                     continue;
 
@@ -167,15 +293,12 @@ public class ObjectManager {
                 }
             }
 
-            // 检查TitanSpawn与BallBlast的碰撞
+            // 检查TitanSpawn与BallBlast的碰撞, 只对 broadphase 给出的附近 BallBlast 做精确检测
             if (bullet instanceof TitanSpawn && bullet.isColli) {
-                // check collision against other bullets in the layer
-                for (int j = 0; j < bulletChildren.size(); j++) {
-                    GameObject otherGo = bulletChildren.get(j);
-                    if (!(otherGo instanceof BallBlast)) continue;
-                    Bullet other = (Bullet) otherGo;
-                    if (other == bullet) continue;
-                    if (CollisionDetector.checkCircleCollision(bullet, other)) {
+                blastCandidates.clear();
+                CollisionDetector.queryCandidates(broadphase, bullet, 0f, BallBlast.class, blastCandidates);
+                for (int j = 0; j < blastCandidates.size(); j++) {
+                    if (CollisionDetector.checkCircleCollision(bullet, blastCandidates.get(j))) {
                         ((TitanSpawn) bullet).markForRemovalWithoutTP();
                         toRemove.add(bullet);
                         break;
@@ -190,15 +313,20 @@ public class ObjectManager {
                 continue;
             }
 
-            // 子弹开启命中销毁 且 子弹与玩家碰撞
-            if (checkPlayerBulletCollisionReturnHit(bullet) && bullet.destroyableOnHit) {
+            // 子弹开启命中销毁 且 子弹与玩家碰撞(只检测 broadphase 给出的 player 附近的子弹)
+            if (bullet.playerCandidateStamp == collisionStamp && checkPlayerBulletCollisionReturnHit(bullet) && bullet.destroyableOnHit) {
                 toRemove.add(bullet);
             }
         }
+            profiler.end(PROFILE_COLLISION);
         }
         // 将要移除的子弹回收到对象池
         for (Bullet bullet : toRemove) {
-            if (bulletsLayer != null) bulletsLayer.removeChild(bullet);
+            // 同一帧内可能被重复加入 toRemove, 只回收仍在层中的子弹
+            if (bulletsLayer != null && bullet.getParent() == bulletsLayer) {
+                bulletsLayer.removeChild(bullet);
+                recycleBullet(bullet);
+            }
         }
 
         // Collectables
@@ -214,9 +342,7 @@ public class ObjectManager {
             if(collectable.isCollected()) {
                 // 如果是TensionPoint，创建涟漪效果
                 if (collectable instanceof TensionPoint) {
-                            RippleEffect ripple = new RippleEffect(collectable.getX(), collectable.getY());
-                            rippleEffects.add(ripple);
-                            if (effectsLayer != null) effectsLayer.addChild(ripple);
+                    spawnRippleEffect(collectable.getX(), collectable.getY());
                 }
                     collectablesToRemove.add(collectable);
                 continue;
@@ -226,27 +352,13 @@ public class ObjectManager {
         for (Collectable collectable : collectablesToRemove) {
             collectables.remove(collectable);
             if (collectablesLayer != null) collectablesLayer.removeChild(collectable);
+            recycleCollectable(collectable);
         }
 
-        // 更新涟漪效果
-        for (int i = rippleEffects.size() - 1; i >= 0; i--) {
-            RippleEffect effect = rippleEffects.get(i);
-            effect.update(deltaTime);
-            if (!effect.isActive()) {
-                rippleEffects.remove(i);
-                if (effectsLayer != null) effectsLayer.removeChild(effect);
-            }
-        }
-
-        // 更新 TitanSpawn 粒子
-        for (int i = titanSpawnParticles.size() - 1; i >= 0; i--) {
-            TitanSpawnParticle particle = titanSpawnParticles.get(i);
-            particle.update(deltaTime);
-            if (!particle.isActive()) {
-                titanSpawnParticles.remove(i);
-                if (effectsLayer != null) effectsLayer.removeChild(particle);
-            }
-        }
+        // 更新涟漪效果和 TitanSpawn 粒子
+        rippleEffects.update(deltaTime);
+        titanSpawnParticles.update(deltaTime);
+        profiler.end(PROFILE_UPDATE);
     }
 
     private boolean isOutOfBounds(GameObject obj, float margin) {
@@ -267,43 +379,41 @@ public class ObjectManager {
             if (!player.isHurt()) {
                 // 玩家受伤
                 player.takeDamage(bullet.getDamage());
+                // 无敌时间在 Player.update 中按模拟时间结束
                 player.setHurt(true);
-                // 使用定时器恢复
-                scheduleHurtRecovery();
             }
             return true;
         }
         return false;
     }
 
-    private void scheduleHurtRecovery() {
-        // 使用单线程定时器池
-        Timer timer = new Timer();
-        timer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                player.setHurt(false);
-                timer.cancel();
-            }
-        }, player.getInvisibleTime());
-    }
-
     public void renderFightScene(){
         renderFightScene(true, true, true);
     }
 
     public void renderFightScene(boolean renderBullets, boolean renderPlayer, boolean renderCollectables){
         // Render using composite layers so objects render themselves and groups
+        // 每一层渲染结束后提交 SpriteBatch, 层内的同纹理精灵合并为一次 draw call
+        SpriteBatch spriteBatch = SpriteBatch.getInstance();
+        // 渲染插值位置, 渲染结束后恢复模拟位置
+        boolean interpolate = interpolationReady && player != null;
+        if (interpolate) {
+            root.beginInterpolation(interpolationAlpha);
+            player.beginInterpolation(interpolationAlpha);
+        }
         if (renderCollectables && collectablesLayer != null) {
             collectablesLayer.render();
+            spriteBatch.flush();
         }
         // effects layer (ripples, titan spawn particles, etc.)
         if (effectsLayer != null) {
             effectsLayer.render();
+            spriteBatch.flush();
         }
         // bullets layer
         if (renderBullets && bulletsLayer != null) {
             bulletsLayer.render();
+            spriteBatch.flush();
         }
 
         //player
@@ -311,6 +421,17 @@ public class ObjectManager {
             player.renderLight();
             player.render();
         }
+        if (interpolate) {
+            root.endInterpolation();
+            player.endInterpolation();
+        }
+    }
+
+    /**
+     * 设置渲染插值系数, 由主循环在渲染前传入 FixedTimestep.getAlpha()
+     */
+    public void setInterpolationAlpha(float alpha) {
+        this.interpolationAlpha = alpha;
     }
 
     // Start player's light expansion effect (call at round start)
@@ -321,6 +442,8 @@ public class ObjectManager {
     }
 
     public void renderBattleMenuScene(boolean renderPlayer){
+        // 菜单阶段不记录上一 tick 位置, 回到战斗后第一个 tick 之前不做插值
+        interpolationReady = false;
         // player
         if(renderPlayer) {
             player.render();
@@ -328,28 +451,26 @@ public class ObjectManager {
     }
 
     public void clearBullets() {
-        if (bulletsLayer != null) bulletsLayer.clearChildren();
+        if (bulletsLayer != null) {
+            for (GameObject go : bulletsLayer.getChildren()) {
+                if (go instanceof Bullet) recycleBullet((Bullet) go);
+            }
+            bulletsLayer.clearChildren();
+        }
     }
 
     public void clearRipples() {
-        if (effectsLayer != null) {
-            for (RippleEffect r : rippleEffects) {
-                effectsLayer.removeChild(r);
-            }
-        }
         rippleEffects.clear();
     }
 
     public void clearTitanSpawnParticles() {
-        if (effectsLayer != null) {
-            for (TitanSpawnParticle p : titanSpawnParticles) {
-                effectsLayer.removeChild(p);
-            }
-        }
         titanSpawnParticles.clear();
     }
 
     public void clearCollectables() {
+        for (Collectable c : collectables) {
+            recycleCollectable(c);
+        }
         collectables.clear();
         if (collectablesLayer != null) collectablesLayer.clearChildren();
     }
@@ -384,6 +505,7 @@ public class ObjectManager {
         enemyManager.resetEnemies();
         // 清空子弹
         clearBullets();
+        interpolationReady = false;
     }
 
     public void destroy() {
@@ -395,4 +517,6 @@ public class ObjectManager {
     }
 
     GameObjectComposite getBulletsLayer() { return bulletsLayer; }
+    RippleEffectSystem getRippleEffects() { return rippleEffects; }
+    TitanSpawnParticleSystem getTitanSpawnParticles() { return titanSpawnParticles; }
 }
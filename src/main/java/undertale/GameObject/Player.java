@@ -1,7 +1,6 @@
 package undertale.GameObject;
 
 import static org.lwjgl.glfw.GLFW.*;
-import static org.lwjgl.opengl.GL11.*;
 import java.util.HashMap;
 
 import undertale.GameMain.Game;
@@ -53,7 +52,8 @@ public class Player extends GameObject implements InputObserver {
     private boolean isHurt = false;
     public boolean isMovable = true;
 
-    private long hurtStartTime = 0;
+    // 剩余无敌时间(秒), 由 update(deltaTime) 按模拟时间递减, 归零时结束受伤状态
+    private float hurtTimeLeft = 0f;
 
     private Texture heartTexture;
 
@@ -125,6 +125,7 @@ public class Player extends GameObject implements InputObserver {
         }
         updatePosition(deltaTime);
         updateLight(deltaTime);
+        updateHurt(deltaTime);
         handlePlayerOutBound(0, Game.getWindowWidth(), 0, Game.getWindowHeight());
     }
 
@@ -137,6 +138,15 @@ public class Player extends GameObject implements InputObserver {
         this.lightOscTime = 0f;
     }
 
+    private void updateHurt(float deltaTime) {
+        if (!isHurt) return;
+        hurtTimeLeft -= deltaTime;
+        if (hurtTimeLeft <= 0f) {
+            hurtTimeLeft = 0f;
+            isHurt = false;
+        }
+    }
+
     private void updateLight(float deltaTime) {
         if (lightExpanding) {
             // 光圈扩展动画
@@ -187,7 +197,7 @@ public class Player extends GameObject implements InputObserver {
                 if (ox == 0 && oy == 0) continue;
                 float px = this.x + ox * thickness;
                 float py = this.y + oy * thickness;
-                new TextureBuilder().textureId(heartTexture.getId())
+                new TextureBuilder().texture(heartTexture)
                     .position(px, py)
                     .size(w, h)
                     .rgba(0.0f, 0.0f, 0.0f, outlineAlpha)
@@ -196,15 +206,15 @@ public class Player extends GameObject implements InputObserver {
         }
 
         // 主贴图（保留受伤闪烁色调）
-        if(isHurt && ((System.currentTimeMillis() - hurtStartTime) / flashTime) % 2 == 0) {
+        if(isHurt && (int)((invisibleTime / 1000.0f - hurtTimeLeft) * 1000.0f / flashTime) % 2 == 0) {
             
-            new TextureBuilder().textureId(heartTexture.getId())
+            new TextureBuilder().texture(heartTexture)
                     .position(this.x, this.y)
                     .size(w, h)
                     .rgba(rgba[0]/3, rgba[1]/3, rgba[2]/3, rgba[3])
                     .draw();
         } else{
-            new TextureBuilder().textureId(heartTexture.getId())
+            new TextureBuilder().texture(heartTexture)
                     .position(this.x, this.y)
                     .size(w, h)
                     .rgba(rgba[0], rgba[1], rgba[2], rgba[3])
@@ -222,19 +232,11 @@ public class Player extends GameObject implements InputObserver {
         // 每个圈的基础alpha, 内圈由所有圈的alpha叠加而成
         float baseAlpha = maxAlpha / rings;
 
-        for (int i = 0; i < rings; i++) {
-            float frac = (i + 1) / (float) rings; // 0..1
-            // 利用sqrt使小i(内圈)变化快, 大i(外圈)变化慢, 即内圈稀疏, 外圈密集
-            float radius = currentLightRadius * (float)Math.sqrt(frac);
-
-            // 光圈振荡偏移 (所有环振幅相同, 但相位不同)
-            float phase = i * 0.35f;
-            float osc = (float)Math.sin(lightOscTime * lightOscSpeed + phase) * lightOscAmplitude;
+        // 原先逐圈绘制的 6 个圆合并为一个径向渐变的四边形, 各圈不同相位的振荡取中间相位
+        float phase = (rings - 1) * 0.35f / 2.0f;
+        float osc = (float)Math.sin(lightOscTime * lightOscSpeed + phase) * lightOscAmplitude;
 
-            float drawRadius = radius + osc;
-
-            Texture.drawCircle(cx, cy, drawRadius, 1.0f, 1.0f, 1.0f, baseAlpha);
-        }
+        Texture.drawRadialLight(cx, cy, currentLightRadius + osc, 1.0f, 1.0f, 1.0f, baseAlpha, rings);
     }
 
     public String getName() {
@@ -355,9 +357,7 @@ public class Player extends GameObject implements InputObserver {
 
     public void setHurt(boolean isHurt) {
         this.isHurt = isHurt;
-        if (isHurt) {
-            hurtStartTime = System.currentTimeMillis();
-        }
+        hurtTimeLeft = isHurt ? invisibleTime / 1000.0f : 0f;
     }
 
     public int getInvisibleTime() {
@@ -377,7 +377,7 @@ public class Player extends GameObject implements InputObserver {
     }
 
     public void destroyTexture() {
-        glDeleteTextures(heartTexture.getId());
+        heartTexture.destroy();
     }
 
     public int getItemNumber() {
@@ -462,6 +462,7 @@ public class Player extends GameObject implements InputObserver {
     public void reset() {
         this.currentHealth = this.maxHealth;
         this.isHurt = false;
+        this.hurtTimeLeft = 0f;
         this.isMovable = true;
         this.tensionPoints = 20;
         this.x = Game.getWindowWidth() / 2 - (hScale * heartTexture.getWidth()) / 2;
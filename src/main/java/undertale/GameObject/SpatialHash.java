@@ -0,0 +1,192 @@
+package undertale.GameObject;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 空间哈希(碰撞检测的 broadphase)
+ * 把平面划分为 cellSize x cellSize 的格子, 每个物体按包围盒登记到它覆盖的所有格子中,
+ * 查询时只遍历查询区域覆盖的格子, 从而把 "每个子弹和所有子弹比较" 的 O(n^2) 降为只和附近的物体比较。
+ * 格子坐标经过哈希映射到固定数量的桶, 屏幕外的物体也能登记; 不同格子哈希冲突只会多出候选, 由包围盒过滤。
+ * 每帧 clear() 后重新 insert, 内部数组只在容量不足时扩容, 稳定运行时不产生垃圾。
+ * 登记的包围盒为以物体中心为圆心、max(宽, 高) / 2 为半径的圆的外接正方形, 覆盖 CollisionDetector 的圆形检测范围。
+ */
+public class SpatialHash {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final float invCellSize;
+    private final int bucketMask;
+    private final int[] bucketHead;
+
+    // 登记项(物体 x 格子), 以链表形式挂在桶上
+    private int[] entryObject;
+    private int[] entryNext;
+    private int entryCount = 0;
+
+    // 物体及其包围盒
+    private GameObject[] objects;
+    private float[] minX, minY, maxX, maxY;
+    // 同一物体可能登记在多个格子, 用查询编号去重
+    private int[] queryStamp;
+    private int objectCount = 0;
+    private int currentQuery = 0;
+    // beginUnion / includeInUnion 累积的包围盒
+    private float unionLeft, unionTop, unionRight, unionBottom;
+
+    /**
+     * @param cellSize 格子边长(像素), 取常见子弹尺寸的 1~2 倍较合适
+     * @param bucketCount 桶数量, 向上取整为 2 的幂
+     */
+    public SpatialHash(float cellSize, int bucketCount) {
+        this.invCellSize = 1.0f / cellSize;
+        int buckets = Integer.highestOneBit(Math.max(1, bucketCount - 1)) << 1;
+        this.bucketMask = buckets - 1;
+        this.bucketHead = new int[buckets];
+        Arrays.fill(bucketHead, -1);
+        entryObject = new int[INITIAL_CAPACITY];
+        entryNext = new int[INITIAL_CAPACITY];
+        objects = new GameObject[INITIAL_CAPACITY];
+        minX = new float[INITIAL_CAPACITY];
+        minY = new float[INITIAL_CAPACITY];
+        maxX = new float[INITIAL_CAPACITY];
+        maxY = new float[INITIAL_CAPACITY];
+        queryStamp = new int[INITIAL_CAPACITY];
+    }
+
+    public void clear() {
+        Arrays.fill(bucketHead, -1);
+        Arrays.fill(objects, 0, objectCount, null);
+        entryCount = 0;
+        objectCount = 0;
+    }
+
+    public void insert(GameObject obj) {
+        float half = Math.max(obj.getWidth(), obj.getHeight()) / 2.0f;
+        float cx = obj.getX() + obj.getWidth() / 2.0f;
+        float cy = obj.getY() + obj.getHeight() / 2.0f;
+        insert(obj, cx - half, cy - half, cx + half, cy + half);
+    }
+
+    /**
+     * 开始累积一个由多个部分组成的物体的包围盒, 之后 includeInUnion 各部分, 最后 endUnion 登记
+     * 用于碰撞范围由若干不在层中的部分组成的物体(如 TitanSnake 的各节), 部分本身不登记
+     */
+    public void beginUnion() {
+        unionLeft = unionTop = Float.POSITIVE_INFINITY;
+        unionRight = unionBottom = Float.NEGATIVE_INFINITY;
+    }
+
+    public void includeInUnion(GameObject part) {
+        float half = Math.max(part.getWidth(), part.getHeight()) / 2.0f;
+        float cx = part.getX() + part.getWidth() / 2.0f;
+        float cy = part.getY() + part.getHeight() / 2.0f;
+        unionLeft = Math.min(unionLeft, cx - half);
+        unionTop = Math.min(unionTop, cy - half);
+        unionRight = Math.max(unionRight, cx + half);
+        unionBottom = Math.max(unionBottom, cy + half);
+    }
+
+    /**
+     * 以累积的包围盒登记 obj, 没有包含任何部分时不登记
+     */
+    public void endUnion(GameObject obj) {
+        if (unionLeft > unionRight) return;
+        insert(obj, unionLeft, unionTop, unionRight, unionBottom);
+    }
+
+    /**
+     * 以指定包围盒登记物体
+     */
+    public void insert(GameObject obj, float left, float top, float right, float bottom) {
+        if (objectCount == objects.length) growObjects();
+        int index = objectCount++;
+        objects[index] = obj;
+        minX[index] = left;
+        minY[index] = top;
+        maxX[index] = right;
+        maxY[index] = bottom;
+        queryStamp[index] = currentQuery;
+
+        int cx0 = cell(left), cx1 = cell(right);
+        int cy0 = cell(top), cy1 = cell(bottom);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                if (entryCount == entryObject.length) growEntries();
+                int bucket = hash(cx, cy);
+                entryObject[entryCount] = index;
+                entryNext[entryCount] = bucketHead[bucket];
+                bucketHead[bucket] = entryCount;
+                entryCount++;
+            }
+        }
+    }
+
+    /**
+     * 查询包围盒与给定区域相交的物体
+     * @param type 只返回该类型(含子类)的物体, 为 null 时不过滤
+     * @param out 结果追加到该列表(不会先清空)
+     * @return 本次追加的数量
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends GameObject> int query(float left, float top, float right, float bottom, Class<T> type, List<? super T> out) {
+        if (objectCount == 0) return 0;
+        currentQuery++;
+        int found = 0;
+        int cx0 = cell(left), cx1 = cell(right);
+        int cy0 = cell(top), cy1 = cell(bottom);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                for (int e = bucketHead[hash(cx, cy)]; e != -1; e = entryNext[e]) {
+                    int index = entryObject[e];
+                    if (queryStamp[index] == currentQuery) continue;
+                    queryStamp[index] = currentQuery;
+                    if (maxX[index] < left || minX[index] > right || maxY[index] < top || minY[index] > bottom) continue;
+                    GameObject obj = objects[index];
+                    if (type != null && !type.isInstance(obj)) continue;
+                    out.add((T) obj);
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 查询与以 (cx, cy) 为圆心、radius 为半径的圆的外接正方形相交的物体
+     */
+    public <T extends GameObject> int queryCircle(float cx, float cy, float radius, Class<T> type, List<? super T> out) {
+        return query(cx - radius, cy - radius, cx + radius, cy + radius, type, out);
+    }
+
+    public int getObjectCount() {
+        return objectCount;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    private int cell(float coord) {
+        return (int) Math.floor(coord * invCellSize);
+    }
+
+    private int hash(int cx, int cy) {
+        return (cx * 73856093 ^ cy * 19349663) & bucketMask;
+    }
+
+    private void growEntries() {
+        int capacity = entryObject.length * 2;
+        entryObject = Arrays.copyOf(entryObject, capacity);
+        entryNext = Arrays.copyOf(entryNext, capacity);
+    }
+
+    private void growObjects() {
+        int capacity = objects.length * 2;
+        objects = Arrays.copyOf(objects, capacity);
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        queryStamp = Arrays.copyOf(queryStamp, capacity);
+    }
+}
@@ -1,6 +1,12 @@
 package undertale.Interfaces;
 
 // 使用observer模式重构输入处理
+// 每个 tick 先对状态翻转的按键调用 onKeyPressed / onKeyReleased, 再调用 processInput;
+// 只关心按下瞬间的观察者实现 onKeyPressed 即可, 需要持续按住状态的(如移动)读取 processInput 的当前帧状态。
 public interface InputObserver {
-    public void processInput(boolean[] preKeyStates, boolean[] currKeyStates);
+    public default void processInput(boolean[] preKeyStates, boolean[] currKeyStates) {}
+
+    public default void onKeyPressed(int key) {}
+
+    public default void onKeyReleased(int key) {}
 }
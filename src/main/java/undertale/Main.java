@@ -1,11 +1,68 @@
 package undertale;
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 
 import undertale.GameMain.Game;
+import undertale.Utils.GameRandom;
 
 public class Main {
+	   // 无窗口模式默认推进的 tick 数(60 tick/s 下为 10 分钟)
+	   private static final long DEFAULT_HEADLESS_TICKS = 36_000;
+
+	   /**
+	    * 参数:
+	    * --headless        不创建窗口, 以最快速度推进模拟
+	    * --ticks N         无窗口模式推进的 tick 数
+	    * --record-frames   无窗口模式下每个 tick 录制一帧绘制(不输出画面)
+	    * --seed N          第一场战斗的随机种子(每场战斗开始时打印的 Battle seed), 用于复现
+	    * --record-input F  把按键录制到文件 F
+	    * --replay-input F  按键改为回放文件 F(连同录制时的随机种子); 无窗口模式下逐 tick 录制绘制, 未指定 --ticks 时回放完即停止
+	    */
 	   public static void main(String[] args) {
 		   System.setProperty("org.lwjgl.librarypath", new File("natives").getAbsolutePath());
-		   Game.getInstance().run();
+		   boolean headless = false;
+		   boolean recordFrames = false;
+		   long ticks = -1;
+		   String replayFile = null;
+		   for (int i = 0; i < args.length; i++) {
+			   switch (args[i]) {
+				   case "--headless" -> headless = true;
+				   case "--record-frames" -> recordFrames = true;
+				   case "--ticks" -> {
+					   if (i + 1 >= args.length) throw new IllegalArgumentException("--ticks requires a value");
+					   ticks = Long.parseLong(args[++i]);
+				   }
+				   case "--seed" -> {
+					   if (i + 1 >= args.length) throw new IllegalArgumentException("--seed requires a value");
+					   GameRandom.getInstance().setSeed(Long.parseLong(args[++i]));
+				   }
+				   case "--record-input" -> {
+					   if (i + 1 >= args.length) throw new IllegalArgumentException("--record-input requires a file");
+					   Game.getInstance().recordInput(Path.of(args[++i]));
+				   }
+				   case "--replay-input" -> {
+					   if (i + 1 >= args.length) throw new IllegalArgumentException("--replay-input requires a file");
+					   replayFile = args[++i];
+				   }
+				   default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+			   }
+		   }
+		   if (replayFile != null) {
+			   try {
+				   Game.getInstance().replayInput(Path.of(replayFile));
+			   } catch (IOException e) {
+				   throw new UncheckedIOException("Failed to read input replay " + replayFile, e);
+			   }
+		   }
+		   if (ticks < 0) {
+			   ticks = replayFile != null ? Long.MAX_VALUE : DEFAULT_HEADLESS_TICKS;
+		   }
+		   if (headless) {
+			   Game.getInstance().runHeadless(ticks, recordFrames);
+		   } else {
+			   Game.getInstance().run();
+		   }
 	   }
 }
\ No newline at end of file
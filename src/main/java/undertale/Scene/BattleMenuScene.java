@@ -53,6 +53,7 @@ public class BattleMenuScene extends Scene {
         // 开始1s, BattleFrame恢复到原来位置
         resetBattleFrame(deltaTime);
         uiManager.updatePlayerMenuPosition();
+        uiManager.updateFrameContents(roundMessage);
         objectManager.updateMenuScene(deltaTime);
         SceneEnum nextScene = SceneEnum.BATTLE_FIGHT;
         if(enemyManager.isAllEnemiesDefeated()) {
@@ -139,24 +140,15 @@ public class BattleMenuScene extends Scene {
     }
 
     @Override
-    public void processInput(boolean[] preKeyStates, boolean[] currKeyStates) {
-        if(currKeyStates[GLFW_KEY_RIGHT] && !preKeyStates[GLFW_KEY_RIGHT]) {
-            uiManager.selectMoveRight();
-        }
-        if(currKeyStates[GLFW_KEY_LEFT] && !preKeyStates[GLFW_KEY_LEFT]) {
-            uiManager.selectMoveLeft();
-        }
-        if(currKeyStates[GLFW_KEY_Z] && !preKeyStates[GLFW_KEY_Z]) {
-            uiManager.handleMenuSelect();
-        }
-        if(currKeyStates[GLFW_KEY_X] && !preKeyStates[GLFW_KEY_X]) {
-            uiManager.handleMenuCancel();
-        }
-        if(currKeyStates[GLFW_KEY_UP] && !preKeyStates[GLFW_KEY_UP]) {
-            uiManager.menuSelectUp();
-        }
-        if(currKeyStates[GLFW_KEY_DOWN] && !preKeyStates[GLFW_KEY_DOWN]) {
-            uiManager.menuSelectDown();
+    public void onKeyPressed(int key) {
+        switch (key) {
+            case GLFW_KEY_RIGHT -> uiManager.selectMoveRight();
+            case GLFW_KEY_LEFT -> uiManager.selectMoveLeft();
+            case GLFW_KEY_Z -> uiManager.handleMenuSelect();
+            case GLFW_KEY_X -> uiManager.handleMenuCancel();
+            case GLFW_KEY_UP -> uiManager.menuSelectUp();
+            case GLFW_KEY_DOWN -> uiManager.menuSelectDown();
+            default -> {}
         }
     }
 }
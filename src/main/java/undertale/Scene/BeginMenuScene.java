@@ -4,6 +4,7 @@ import undertale.GameMain.InputManager;
 import undertale.GameObject.ObjectManager;
 import undertale.UI.UIManager;
 import undertale.UI.state.MenuStateType;
+import undertale.Utils.GameRandom;
 import static org.lwjgl.glfw.GLFW.*;
 
 public class BeginMenuScene extends Scene {
@@ -23,6 +24,7 @@ public class BeginMenuScene extends Scene {
             soundManager.playMusic("main_menu");
         }
         // 确保UI处于BEGIN状态并重置Begin Menu相关变量
+        GameRandom.getInstance().newBattle();
         objectManager.resetGame();
         uiManager.resetVars(MenuStateType.BEGIN);
         uiManager.resetBeginMenu();
@@ -49,16 +51,13 @@ public class BeginMenuScene extends Scene {
     }
 
     @Override
-    public void processInput(boolean[] preKeyStates, boolean[] currKeyStates) {
+    public void onKeyPressed(int key) {
         if(uiManager.getMenuStateType() != MenuStateType.BEGIN) return;
-        if(currKeyStates[GLFW_KEY_UP] && !preKeyStates[GLFW_KEY_UP]) {
-            uiManager.beginMenuSelectUp();
-        }
-        if(currKeyStates[GLFW_KEY_DOWN] && !preKeyStates[GLFW_KEY_DOWN]) {
-            uiManager.beginMenuSelectDown();
-        }
-        if(currKeyStates[GLFW_KEY_Z] && !preKeyStates[GLFW_KEY_Z]) {
-            uiManager.handleBeginMenuSelect();
+        switch (key) {
+            case GLFW_KEY_UP -> uiManager.beginMenuSelectUp();
+            case GLFW_KEY_DOWN -> uiManager.beginMenuSelectDown();
+            case GLFW_KEY_Z -> uiManager.handleBeginMenuSelect();
+            default -> {}
         }
     }
 }
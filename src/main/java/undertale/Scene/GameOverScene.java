@@ -62,14 +62,13 @@ public class GameOverScene extends Scene {
     }
 
     @Override
-    public void processInput(boolean[] preKeyStates, boolean[] currKeyStates) {
-        // 当文字输出完毕后按下Z键确认
-        if(currKeyStates[GLFW_KEY_Z] && !preKeyStates[GLFW_KEY_Z]) {
-            uiManager.handleGameOverConfirm();
-        }
-        // 按下X键全部显示
-        if(currKeyStates[GLFW_KEY_X] && !preKeyStates[GLFW_KEY_X]) {
-            uiManager.handleGameOverSkip();
+    public void onKeyPressed(int key) {
+        switch (key) {
+            // 当文字输出完毕后按下Z键确认
+            case GLFW_KEY_Z -> uiManager.handleGameOverConfirm();
+            // 按下X键全部显示
+            case GLFW_KEY_X -> uiManager.handleGameOverSkip();
+            default -> {}
         }
     }
 }
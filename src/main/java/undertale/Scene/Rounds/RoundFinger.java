@@ -4,8 +4,11 @@ import undertale.GameMain.Game;
 import undertale.GameObject.Bullets.TitanFingers;
 import undertale.Texture.TextureManager;
 import undertale.UI.UIManager;
+import undertale.Utils.GameRandom;
+import undertale.Utils.RandomStream;
 
 public class RoundFinger extends Round {
+    private static final RandomStream RANDOM = GameRandom.stream(GameRandom.Stream.ROUNDS);
     private int intensity;
     private boolean spawnedFinger = false;
     private final float edge;
@@ -32,12 +35,12 @@ public class RoundFinger extends Round {
             spawnedFinger = true;
             // spawn titan fingers
             float scale = 3.4f;
-            float randomTime = 0.3f + (float)(Math.random() * 0.6f); // +-0.3秒随机时间
+            float randomTime = 0.3f + (float)(RANDOM.nextDouble() * 0.6f); // +-0.3秒随机时间
             float palmHeight = TextureManager.getInstance().getTexture("titan_palm").getHeight() * scale;
             float palmY = Game.getWindowHeight() / 2 - palmHeight / 2;
-            float randomY = (float)(Math.random() * 6.0f) * scale;
+            float randomY = (float)(RANDOM.nextDouble() * 6.0f) * scale;
             titanFingers[0] = new TitanFingers(0.0f, palmY + randomY, intensity, 5, 1, scale, randomTime);
-            randomY = (float)(Math.random() * 6.0f) * scale;
+            randomY = (float)(RANDOM.nextDouble() * 6.0f) * scale;
             titanFingers[1] = new TitanFingers(Game.getWindowWidth() - 250.0f, palmY + randomY, intensity, 5, -1, scale, randomTime);
             objectManager.addBullet(titanFingers[0]);
             objectManager.addBullet(titanFingers[1]);
@@ -7,8 +7,11 @@ import undertale.GameObject.Bullets.TitanSnake;
 import undertale.GameObject.Bullets.TitanSpawn;
 import undertale.GameMain.Game;
 import undertale.UI.UIManager;
+import undertale.Utils.GameRandom;
+import undertale.Utils.RandomStream;
 
 public class RoundSnake extends Round{
+    private static final RandomStream RANDOM = GameRandom.stream(GameRandom.Stream.ROUNDS);
     private float spawnTimer = 0f;
     private float snakeSpawnTimer = 0f;
     private final float SPAWN_INTERVAL;
@@ -86,17 +89,15 @@ public class RoundSnake extends Round{
         if (player == null) return;
 
         // 随机角度和半径
-        float baseAngle = (float)(Math.random() * 2 * Math.PI);
-        float radius = MIN_RADIUS + (float)(Math.random() * (MAX_RADIUS - MIN_RADIUS));
+        float baseAngle = (float)(RANDOM.nextDouble() * 2 * Math.PI);
+        float radius = RANDOM.nextFloat(MIN_RADIUS, MAX_RADIUS);
 
         float spawnX = player.getX() + player.getWidth() / 2.0f + (float)(Math.cos(baseAngle) * radius);
         float spawnY = player.getY() + player.getHeight() / 2.0f + (float)(Math.sin(baseAngle) * radius);
         // 创建TitanSpawn
-        TitanSpawn spawn = new TitanSpawn(spawnX, spawnY, 110f, 0.6f, 5, titanSpawnAnimation);
+        // 从对象池创建TitanSpawn并添加到objectManager的bullets列表中
+        TitanSpawn spawn = objectManager.spawnTitanSpawn(spawnX, spawnY, 110f, 0.6f, 5, titanSpawnAnimation);
         spawn.setNavi(true);
-
-        // 将spawn添加到objectManager的bullets列表中
-        objectManager.addBullet(spawn);
     }
 
     private void spawnAllSnakes() {
@@ -104,8 +105,8 @@ public class RoundSnake extends Round{
         if (player == null) return;
 
         // 随机角度和半径
-        float baseAngle = (float)(Math.random() * 2 * Math.PI);
-        float radius = MIN_RADIUS + (float)(Math.random() * (MAX_RADIUS - MIN_RADIUS));
+        float baseAngle = (float)(RANDOM.nextDouble() * 2 * Math.PI);
+        float radius = RANDOM.nextFloat(MIN_RADIUS, MAX_RADIUS);
 
         for(int i = 0; i < SNAKE_NUM; i++) {
             float angle = baseAngle + i * (float)(2 * Math.PI / SNAKE_NUM);
@@ -124,8 +125,8 @@ public class RoundSnake extends Round{
         if (player == null) return;
 
         // 随机角度和半径
-        float angle = (float)(Math.random() * 2 * Math.PI);
-        float radius = MIN_RADIUS + (float)(Math.random() * (MAX_RADIUS - MIN_RADIUS));
+        float angle = (float)(RANDOM.nextDouble() * 2 * Math.PI);
+        float radius = RANDOM.nextFloat(MIN_RADIUS, MAX_RADIUS);
 
         // 计算生成位置（以玩家中心为圆心）
         float spawnX = player.getX() + player.getWidth() / 2.0f + (float)(Math.cos(angle) * radius);
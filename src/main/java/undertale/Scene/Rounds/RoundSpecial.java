@@ -7,7 +7,6 @@ import undertale.Animation.AnimationManager;
 import undertale.Enemy.Titan;
 import undertale.GameMain.Game;
 import undertale.GameObject.Player;
-import undertale.GameObject.Bullets.TitanSpawn;
 import undertale.Sound.SoundManager;
 import undertale.GameObject.Bullets.BallBlast;
 import undertale.Texture.Texture;
@@ -15,8 +14,11 @@ import undertale.Texture.TextureBuilder;
 import undertale.Texture.TextureManager;
 import undertale.Enemy.EnemyManager;
 import undertale.UI.UIManager;
+import undertale.Utils.GameRandom;
+import undertale.Utils.RandomStream;
 
 public class RoundSpecial extends Round {
+    private static final RandomStream RANDOM = GameRandom.stream(GameRandom.Stream.ROUNDS);
     private float frameLeft = 400;
     private float frameBottom = Game.getWindowHeight() - 10;
     private float frameWidth = Game.getWindowWidth() - frameLeft * 2;
@@ -117,10 +119,10 @@ public class RoundSpecial extends Round {
             if (lineSpawnTimer >= 0.1f) {
                 lineSpawnTimer -= 0.1f;
                 float[] center = Titan.getCentralPosition();
-                int numLines = 3 + (int) (Math.random() * 3); // 3-5条
+                int numLines = 3 + RANDOM.nextInt(3); // 3-5条
                 for (int i = 0; i < numLines; i++) {
-                    float angle = (float) (Math.random() * 2 * Math.PI);
-                    float dist = 400 + (float) Math.random() * 200;
+                    float angle = (float) (RANDOM.nextDouble() * 2 * Math.PI);
+                    float dist = 400 + (float) RANDOM.nextDouble() * 200;
                     float sx = center[0] + (float) Math.cos(angle) * dist;
                     float sy = center[1] + (float) Math.sin(angle) * dist;
                     chargeLines.add(new ChargeLine(sx, sy, center[0], center[1]));
@@ -174,21 +176,19 @@ public class RoundSpecial extends Round {
 
         // 随机角度和半径
         // angle: -60 ~ 60, 120 ~ 240 度范围内
-        float angle = (float)(Math.random() * 120.0f - 60.0f);
-        if (Math.random() < 0.5f) {
+        float angle = (float)(RANDOM.nextDouble() * 120.0f - 60.0f);
+        if (RANDOM.nextDouble() < 0.5f) {
             angle += 180.0f;
         }
         angle = (float)Math.toRadians(angle);
-        float radius = MIN_RADIUS + (float)(Math.random() * (MAX_RADIUS - MIN_RADIUS));
+        float radius = RANDOM.nextFloat(MIN_RADIUS, MAX_RADIUS);
 
         // 计算生成位置（以玩家中心为圆心）
         float spawnX = player.getX() + player.getWidth() / 2.0f + (float)(Math.cos(angle) * radius);
         float spawnY = player.getY() + player.getHeight() / 2.0f + (float)(Math.sin(angle) * radius);
 
-        // 创建TitanSpawn
-        TitanSpawn spawn = new TitanSpawn(spawnX, spawnY, 120f, 5, titanSpawnAnimation);
-        // 将spawn添加到objectManager的bullets列表中
-        objectManager.addBullet(spawn);
+        // 从对象池创建TitanSpawn并添加到objectManager的bullets列表中
+        objectManager.spawnTitanSpawn(spawnX, spawnY, 120f, 5, titanSpawnAnimation);
     }
 
     @Override
@@ -3,12 +3,14 @@ package undertale.Scene.Rounds;
 import undertale.Animation.Animation;
 import undertale.Animation.AnimationManager;
 import undertale.GameObject.Player;
-import undertale.GameObject.Bullets.TitanSpawn;
 import undertale.GameObject.Bullets.TitanSwarmRed;
 import undertale.GameMain.Game;
 import undertale.UI.UIManager;
+import undertale.Utils.GameRandom;
+import undertale.Utils.RandomStream;
 
 public class RoundSwarm extends Round{
+    private static final RandomStream RANDOM = GameRandom.stream(GameRandom.Stream.ROUNDS);
 
 
     private float spawnTimer = 0f;
@@ -89,8 +91,8 @@ public class RoundSwarm extends Round{
         if (player == null) return;
 
         // 随机角度和半径
-        float angle = (float)(Math.random() * 2 * Math.PI);
-        float radius = MIN_RADIUS + (float)(Math.random() * (MAX_RADIUS - MIN_RADIUS));
+        float angle = (float)(RANDOM.nextDouble() * 2 * Math.PI);
+        float radius = RANDOM.nextFloat(MIN_RADIUS, MAX_RADIUS);
 
         // 计算生成位置（以玩家中心为圆心）
         float spawnX = player.getX() + player.getWidth() / 2.0f + (float)(Math.cos(angle) * radius);
@@ -107,17 +109,15 @@ public class RoundSwarm extends Round{
         if (player == null) return;
 
         // 随机角度和半径
-        float angle = (float)(Math.random() * 2 * Math.PI);
-        float radius = MIN_RADIUS + (float)(Math.random() * (MAX_RADIUS - MIN_RADIUS));
+        float angle = (float)(RANDOM.nextDouble() * 2 * Math.PI);
+        float radius = RANDOM.nextFloat(MIN_RADIUS, MAX_RADIUS);
 
         // 计算生成位置（以玩家中心为圆心）
         float spawnX = player.getX() + player.getWidth() / 2.0f + (float)(Math.cos(angle) * radius);
         float spawnY = player.getY() + player.getHeight() / 2.0f + (float)(Math.sin(angle) * radius);
 
-        // 创建TitanSpawn
-        TitanSpawn spawn = new TitanSpawn(spawnX, spawnY, 120f, 5, titanSpawnAnimation[type]);
-        // 将spawn添加到objectManager的bullets列表中
-        objectManager.addBullet(spawn);
+        // 从对象池创建TitanSpawn并添加到objectManager的bullets列表中
+        objectManager.spawnTitanSpawn(spawnX, spawnY, 120f, 5, titanSpawnAnimation[type]);
     }
 
     @Override
@@ -1,8 +1,13 @@
 package undertale.Scene;
 
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 
 import undertale.Scene.Scene.SceneEnum;
+import undertale.Texture.TextureManager;
+import undertale.Utils.ConfigManager;
 
 // 新增场景管理器
 public class SceneManager {
@@ -10,12 +15,22 @@ public class SceneManager {
     private HashMap<SceneEnum, Scene> scenes = new HashMap<>();
     private Scene currentScene;
     public boolean shouldSwitch = false;
+    // 场景资源清单(config.json 的 scene_assets): 场景需要驻留的资源包, 以及进入后在后台预取的资源包
+    private final EnumMap<SceneEnum, List<String>> sceneBundles = new EnumMap<>(SceneEnum.class);
+    private final EnumMap<SceneEnum, List<String>> scenePrefetch = new EnumMap<>(SceneEnum.class);
+    private SceneEnum currentType;
 
     static {
         instance = new SceneManager();
     }
 
-    private SceneManager() {}
+    private SceneManager() {
+        ConfigManager config = ConfigManager.getInstance();
+        for (SceneEnum type : SceneEnum.values()) {
+            sceneBundles.put(type, config.sceneBundles.getOrDefault(type.name(), Collections.emptyList()));
+            scenePrefetch.put(type, config.scenePrefetch.getOrDefault(type.name(), Collections.emptyList()));
+        }
+    }
 
     public static SceneManager getInstance() {
         if(instance == null) {
@@ -37,6 +52,8 @@ public class SceneManager {
         if (currentScene != null) {
             currentScene.onExit(); // 退出当前场景
         }
+        switchAssets(currentType, type);
+        currentType = type;
         currentScene = scenes.get(type);
         if (currentScene != null) {
             currentScene.onEnter(); // 进入新场景
@@ -44,6 +61,30 @@ public class SceneManager {
         shouldSwitch = false;
     }
 
+    /**
+     * 先引用新场景的资源包再释放旧场景的, 两个场景共用的资源包不会被卸载;
+     * 随后在后台预取新场景之后可能切换到的场景所需的资源包。上传在 GL 线程按时间片进行, 期间 isLoading() 为 true
+     */
+    private void switchAssets(SceneEnum from, SceneEnum to) {
+        TextureManager textureManager = TextureManager.getInstance();
+        for (String bundle : sceneBundles.get(to)) {
+            textureManager.acquireBundle(bundle);
+        }
+        if (from != null) {
+            for (String bundle : sceneBundles.get(from)) {
+                textureManager.releaseBundle(bundle);
+            }
+        }
+        textureManager.prefetchBundles(scenePrefetch.get(to));
+    }
+
+    /**
+     * @return 当前场景的资源包是否仍在加载, 加载期间不更新场景, 渲染加载画面
+     */
+    public boolean isLoading() {
+        return TextureManager.getInstance().isLoading();
+    }
+
     public void switchScene(SceneEnum type) {
         switchScene(type, false);
     }
@@ -0,0 +1,220 @@
+package undertale.Shaders;
+
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL13.*;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL31.*;
+
+/**
+ * GL 绑定状态缓存
+ * program、纹理、VAO、缓冲区和混合函数的绑定都经过这里, 只有状态真正变化时才调用驱动;
+ * 绘制结束后不再把各绑定恢复为 0, 下一次绘制使用相同对象时直接跳过。
+ * 删除对象也要经过这里, 避免 GL 复用对象名后缓存误判为已绑定。
+ * 只能在 GL 线程使用; 每帧统计实际发出和被跳过的调用次数。
+ */
+public final class GLState {
+    private static final GLState instance = new GLState(new Driver() {
+        public void useProgram(int program) { glUseProgram(program); }
+        public void activeTexture(int unit) { glActiveTexture(GL_TEXTURE0 + unit); }
+        public void bindTexture(int target, int texture) { glBindTexture(target, texture); }
+        public void bindVertexArray(int vao) { glBindVertexArray(vao); }
+        public void bindBuffer(int target, int buffer) { glBindBuffer(target, buffer); }
+        public void bindBufferBase(int target, int index, int buffer) { glBindBufferBase(target, index, buffer); }
+        public void blendFunc(int src, int dst) { glBlendFunc(src, dst); }
+    });
+
+    private static final int MAX_TEXTURE_UNITS = 16;
+    // 未知状态(启动时或 invalidate() 之后), 下一次设置一定发出调用
+    private static final int UNKNOWN = -1;
+
+    /**
+     * 实际的 GL 调用, 测试中可以替换
+     */
+    interface Driver {
+        void useProgram(int program);
+        void activeTexture(int unit);
+        void bindTexture(int target, int texture);
+        void bindVertexArray(int vao);
+        void bindBuffer(int target, int buffer);
+        void bindBufferBase(int target, int index, int buffer);
+        void blendFunc(int src, int dst);
+    }
+
+    private final Driver driver;
+    private int program;
+    private int activeUnit;
+    // 每个纹理单元上绑定的 GL_TEXTURE_2D
+    private final int[] textures = new int[MAX_TEXTURE_UNITS];
+    private int vertexArray;
+    private int arrayBuffer;
+    private int uniformBuffer;
+    private int blendSrc;
+    private int blendDst;
+
+    private int issued;
+    private int avoided;
+    private int lastIssued;
+    private int lastAvoided;
+
+    GLState(Driver driver) {
+        this.driver = driver;
+        invalidate();
+    }
+
+    public static GLState getInstance() {
+        return instance;
+    }
+
+    /**
+     * 丢弃缓存, 用于外部代码(或上下文重建)绕过本类改变了绑定之后
+     */
+    public void invalidate() {
+        program = UNKNOWN;
+        activeUnit = UNKNOWN;
+        Arrays.fill(textures, UNKNOWN);
+        vertexArray = UNKNOWN;
+        arrayBuffer = UNKNOWN;
+        uniformBuffer = UNKNOWN;
+        blendSrc = UNKNOWN;
+        blendDst = UNKNOWN;
+    }
+
+    public void useProgram(int id) {
+        if (program == id) { avoided++; return; }
+        program = id;
+        issued++;
+        driver.useProgram(id);
+    }
+
+    /**
+     * 选择纹理单元, unit 从 0 开始(对应 GL_TEXTURE0)
+     */
+    public void activeTexture(int unit) {
+        if (activeUnit == unit) { avoided++; return; }
+        activeUnit = unit;
+        issued++;
+        driver.activeTexture(unit);
+    }
+
+    /**
+     * 在当前纹理单元上绑定 GL_TEXTURE_2D
+     */
+    public void bindTexture(int id) {
+        if (activeUnit == UNKNOWN) {
+            activeTexture(0);
+        }
+        if (textures[activeUnit] == id) { avoided++; return; }
+        textures[activeUnit] = id;
+        issued++;
+        driver.bindTexture(GL_TEXTURE_2D, id);
+    }
+
+    /**
+     * 在指定纹理单元上绑定 GL_TEXTURE_2D
+     */
+    public void bindTexture(int unit, int id) {
+        if (textures[unit] == id) { avoided++; return; }
+        activeTexture(unit);
+        bindTexture(id);
+    }
+
+    public void bindVertexArray(int id) {
+        if (vertexArray == id) { avoided++; return; }
+        vertexArray = id;
+        issued++;
+        driver.bindVertexArray(id);
+    }
+
+    /**
+     * 绑定 GL_ARRAY_BUFFER 或 GL_UNIFORM_BUFFER; 其他目标(如属于 VAO 状态的 GL_ELEMENT_ARRAY_BUFFER)不缓存
+     */
+    public void bindBuffer(int target, int id) {
+        if (target == GL_ARRAY_BUFFER) {
+            if (arrayBuffer == id) { avoided++; return; }
+            arrayBuffer = id;
+        } else if (target == GL_UNIFORM_BUFFER) {
+            if (uniformBuffer == id) { avoided++; return; }
+            uniformBuffer = id;
+        }
+        issued++;
+        driver.bindBuffer(target, id);
+    }
+
+    /**
+     * glBindBufferBase 同时会改变 target 的通用绑定点; 索引绑定本身不缓存
+     */
+    public void bindBufferBase(int target, int index, int id) {
+        issued++;
+        driver.bindBufferBase(target, index, id);
+        if (target == GL_UNIFORM_BUFFER) {
+            uniformBuffer = id;
+        }
+    }
+
+    public void blendFunc(int src, int dst) {
+        if (blendSrc == src && blendDst == dst) { avoided++; return; }
+        blendSrc = src;
+        blendDst = dst;
+        issued++;
+        driver.blendFunc(src, dst);
+    }
+
+    public void deleteTexture(int id) {
+        for (int unit = 0; unit < MAX_TEXTURE_UNITS; unit++) {
+            if (textures[unit] == id) textures[unit] = 0;
+        }
+        glDeleteTextures(id);
+    }
+
+    public void deleteBuffer(int id) {
+        if (arrayBuffer == id) arrayBuffer = 0;
+        if (uniformBuffer == id) uniformBuffer = 0;
+        glDeleteBuffers(id);
+    }
+
+    public void deleteVertexArray(int id) {
+        if (vertexArray == id) vertexArray = 0;
+        glDeleteVertexArrays(id);
+    }
+
+    public void deleteProgram(int id) {
+        if (program == id) program = 0;
+        glDeleteProgram(id);
+    }
+
+    /**
+     * 帧结束: 保存本帧统计并清零
+     */
+    public void endFrame() {
+        lastIssued = issued;
+        lastAvoided = avoided;
+        issued = 0;
+        avoided = 0;
+    }
+
+    /**
+     * @return 上一帧实际发出的绑定调用次数
+     */
+    public int getBindsIssued() {
+        return lastIssued;
+    }
+
+    /**
+     * @return 上一帧因状态未变化而跳过的绑定调用次数
+     */
+    public int getBindsAvoided() {
+        return lastAvoided;
+    }
+
+    int getCurrentBindsIssued() {
+        return issued;
+    }
+
+    int getCurrentBindsAvoided() {
+        return avoided;
+    }
+}
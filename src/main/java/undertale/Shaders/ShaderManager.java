@@ -9,17 +9,24 @@ import java.util.Map;
 import undertale.Utils.ConfigManager;
 
 import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL15.*;
 import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL31.*;
 
 /**
  * 负责从 resources 中加载以单文件形式存放的 shader(使用 @shader vertex / @shader fragment 标记)，
  * 将其编译并缓存为 GL Program，按 config.json 中的 "shaders" 键进行初始化。
+ * 所有 program 共享的 uScreenSize 放在 std140 uniform block "Screen" 中, 由一个 UBO 提供, 不再逐次绘制上传。
  */
 public class ShaderManager {
     private static volatile ShaderManager instance;
+    // Screen uniform block 的绑定点
+    public static final int SCREEN_BLOCK_BINDING = 0;
 
     private Map<String, Integer> shaders = new HashMap<>();
-    private Map<String, Integer> programs = new HashMap<>();
+    private Map<String, ShaderProgram> programs = new HashMap<>();
+    private int screenUbo = 0;
 
     private ShaderManager() {
         ConfigManager configManager = ConfigManager.getInstance();
@@ -34,9 +41,36 @@ public class ShaderManager {
             linkShaderPrograms();
             // delete shader
             deleteShaders();
+            // 共享的屏幕尺寸 UBO
+            initScreenBlock(configManager.WINDOW_WIDTH, configManager.WINDOW_HEIGHT);
         }
     }
 
+    private void initScreenBlock(int width, int height) {
+        GLState glState = GLState.getInstance();
+        screenUbo = glGenBuffers();
+        glState.bindBuffer(GL_UNIFORM_BUFFER, screenUbo);
+        // std140 下 ivec2 占 8 字节, block 大小按 16 字节对齐
+        glBufferData(GL_UNIFORM_BUFFER, 16L, GL_DYNAMIC_DRAW);
+        glState.bindBufferBase(GL_UNIFORM_BUFFER, SCREEN_BLOCK_BINDING, screenUbo);
+        for (ShaderProgram program : programs.values()) {
+            program.bindUniformBlock("Screen", SCREEN_BLOCK_BINDING);
+            // 采样器固定使用 0 号纹理单元, 链接后设置一次
+            glState.useProgram(program.getId());
+            program.setInt("uTexture", 0);
+        }
+        glState.useProgram(0);
+        setScreenSize(width, height);
+    }
+
+    /**
+     * 更新所有 program 共享的屏幕尺寸
+     */
+    public void setScreenSize(int width, int height) {
+        GLState.getInstance().bindBuffer(GL_UNIFORM_BUFFER, screenUbo);
+        glBufferSubData(GL_UNIFORM_BUFFER, 0, new int[]{width, height});
+    }
+
     private void loadShaders(Map<String, String> shaderMap, int shaderType) {
         for (Map.Entry<String, String> entry : shaderMap.entrySet()) {
             String k = entry.getKey();
@@ -54,17 +88,29 @@ public class ShaderManager {
      * 获取已编译好的 program id；找不到返回 0。
      */
     public int getProgram(String key) {
-        return programs.getOrDefault(key, 0);
+        ShaderProgram program = programs.get(key);
+        return program != null ? program.getId() : 0;
+    }
+
+    /**
+     * 获取带 uniform 缓存的 program；找不到返回 null。
+     */
+    public ShaderProgram getShaderProgram(String key) {
+        return programs.get(key);
     }
 
     /**
      * 释放所有程序
      */
     public void dispose() {
-        for (int prog : programs.values()) {
-            if (prog != 0) glDeleteProgram(prog);
+        for (ShaderProgram program : programs.values()) {
+            program.delete();
         }
         programs.clear();
+        if (screenUbo != 0) {
+            GLState.getInstance().deleteBuffer(screenUbo);
+            screenUbo = 0;
+        }
     }
 
     public void deleteShaders() {
@@ -113,18 +159,49 @@ public class ShaderManager {
     }
 
     private void linkShaderPrograms() {
-        programs.put("texture_shader", linkShader(
+        putProgram("texture_shader", linkShader(
             shaders.get("texture_vertex_shader"),
             shaders.get("texture_fragment_shader")
         ));
-        programs.put("titan_spawn_shader", linkShader(
+        putProgram("titan_spawn_shader", linkShader(
             shaders.get("texture_vertex_shader"),
             shaders.get("titan_spawn_fragment_shader")
         ));
-        programs.put("tp_shader", linkShader(
+        putProgram("tp_shader", linkShader(
             shaders.get("texture_vertex_shader"),
             shaders.get("tp_fragment_shader")
         ));
+        // FontManager 的距离场文字
+        putProgram("text_shader", linkShader(
+            shaders.get("texture_vertex_shader"),
+            shaders.get("text_fragment_shader")
+        ));
+        // SpriteBatch 使用的实例化 shader, 颜色和 shader 参数为逐实例属性
+        putProgram("sprite_shader", linkShader(
+            shaders.get("sprite_vertex_shader"),
+            shaders.get("sprite_fragment_shader")
+        ));
+        putProgram("sprite_titan_spawn_shader", linkShader(
+            shaders.get("sprite_vertex_shader"),
+            shaders.get("sprite_titan_spawn_fragment_shader")
+        ));
+        putProgram("sprite_tp_shader", linkShader(
+            shaders.get("sprite_vertex_shader"),
+            shaders.get("sprite_tp_fragment_shader")
+        ));
+        // 圆/圆环和光晕: 单个四边形在 fragment shader 中按距离场计算覆盖率, 只有实例化版本
+        putProgram("sprite_circle_shader", linkShader(
+            shaders.get("sprite_vertex_shader"),
+            shaders.get("sprite_circle_fragment_shader")
+        ));
+        putProgram("sprite_light_shader", linkShader(
+            shaders.get("sprite_vertex_shader"),
+            shaders.get("sprite_light_fragment_shader")
+        ));
+    }
+
+    private void putProgram(String key, int programId) {
+        programs.put(key, new ShaderProgram(key, programId));
     }
 
     // 链接 shader program
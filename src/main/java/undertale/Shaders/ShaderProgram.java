@@ -0,0 +1,128 @@
+package undertale.Shaders;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.lwjgl.system.MemoryStack;
+
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL31.*;
+
+/**
+ * 链接好的 GL program
+ * 链接后用 glGetActiveUniform 枚举一次全部 uniform 并缓存 location, 之后按名字或句柄设置, 不再调用 glGetUniformLocation;
+ * 每个 uniform 保留上次上传的值, 相同的值不重复上传。uniform block(Screen)中的成员不在此列, 由 ShaderManager 的 UBO 提供。
+ * 只能在 GL 线程使用。
+ */
+public final class ShaderProgram {
+    private final String name;
+    private final int id;
+    // uniform 名 -> 句柄(下标)
+    private final HashMap<String, Integer> handles = new HashMap<>();
+    private final int[] locations;
+    private final UniformCache cache;
+
+    ShaderProgram(String name, int id) {
+        this.name = name;
+        this.id = id;
+        int count = glGetProgrami(id, GL_ACTIVE_UNIFORMS);
+        int[] found = new int[count];
+        int n = 0;
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer size = stack.mallocInt(1);
+            IntBuffer type = stack.mallocInt(1);
+            for (int i = 0; i < count; i++) {
+                String uniform = glGetActiveUniform(id, i, size, type);
+                // 数组 uniform 的名字带有 "[0]" 后缀
+                if (uniform.endsWith("[0]")) {
+                    uniform = uniform.substring(0, uniform.length() - 3);
+                }
+                int location = glGetUniformLocation(id, uniform);
+                // uniform block 的成员没有 location
+                if (location < 0) continue;
+                handles.put(uniform, n);
+                found[n++] = location;
+            }
+        }
+        locations = Arrays.copyOf(found, n);
+        cache = new UniformCache(n);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return uniform 的句柄, program 中不存在(或被编译器优化掉)时返回 -1
+     */
+    public int getUniform(String uniform) {
+        return handles.getOrDefault(uniform, -1);
+    }
+
+    public boolean hasUniform(String uniform) {
+        return handles.containsKey(uniform);
+    }
+
+    /**
+     * 以下 setter 要求 program 已通过 GLState.useProgram 绑定; 句柄为 -1 时忽略
+     */
+    public void setInt(int handle, int value) {
+        if (handle >= 0 && cache.update(handle, value, 0f, 0f, 0f)) {
+            glUniform1i(locations[handle], value);
+        }
+    }
+
+    public void setFloat(int handle, float value) {
+        if (handle >= 0 && cache.update(handle, value, 0f, 0f, 0f)) {
+            glUniform1f(locations[handle], value);
+        }
+    }
+
+    public void setFloat2(int handle, float x, float y) {
+        if (handle >= 0 && cache.update(handle, x, y, 0f, 0f)) {
+            glUniform2f(locations[handle], x, y);
+        }
+    }
+
+    public void setFloat4(int handle, float x, float y, float z, float w) {
+        if (handle >= 0 && cache.update(handle, x, y, z, w)) {
+            glUniform4f(locations[handle], x, y, z, w);
+        }
+    }
+
+    public void setInt(String uniform, int value) {
+        setInt(getUniform(uniform), value);
+    }
+
+    public void setFloat(String uniform, float value) {
+        setFloat(getUniform(uniform), value);
+    }
+
+    public void setFloat2(String uniform, float x, float y) {
+        setFloat2(getUniform(uniform), x, y);
+    }
+
+    public void setFloat4(String uniform, float x, float y, float z, float w) {
+        setFloat4(getUniform(uniform), x, y, z, w);
+    }
+
+    /**
+     * 把名为 blockName 的 uniform block 绑定到 bindingPoint, program 中没有该 block 时忽略
+     */
+    void bindUniformBlock(String blockName, int bindingPoint) {
+        int index = glGetUniformBlockIndex(id, blockName);
+        if (index != GL_INVALID_INDEX) {
+            glUniformBlockBinding(id, index, bindingPoint);
+        }
+    }
+
+    void delete() {
+        GLState.getInstance().deleteProgram(id);
+        cache.invalidate();
+    }
+}
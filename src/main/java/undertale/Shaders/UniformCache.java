@@ -0,0 +1,41 @@
+package undertale.Shaders;
+
+import java.util.Arrays;
+
+/**
+ * uniform 当前值的影子拷贝, 每个 uniform 最多 4 个分量
+ * 值与上次上传的相同时跳过 glUniform* 调用; 不调用 GL, 由 ShaderProgram 使用
+ */
+final class UniformCache {
+    private final float[] values;
+    private final boolean[] valid;
+
+    UniformCache(int uniformCount) {
+        values = new float[uniformCount * 4];
+        valid = new boolean[uniformCount];
+    }
+
+    /**
+     * 记录新值
+     * @return 与影子值不同(需要上传)时返回 true
+     */
+    boolean update(int index, float x, float y, float z, float w) {
+        int base = index * 4;
+        if (valid[index] && values[base] == x && values[base + 1] == y && values[base + 2] == z && values[base + 3] == w) {
+            return false;
+        }
+        values[base] = x;
+        values[base + 1] = y;
+        values[base + 2] = z;
+        values[base + 3] = w;
+        valid[index] = true;
+        return true;
+    }
+
+    /**
+     * 丢弃影子值, 下次设置时一定上传(例如 program 被重新链接)
+     */
+    void invalidate() {
+        Arrays.fill(valid, false);
+    }
+}
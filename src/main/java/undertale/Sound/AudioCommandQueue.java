@@ -0,0 +1,96 @@
+package undertale.Sound;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 游戏线程 -> 混音线程的无锁有界命令队列(多生产者, 单消费者)
+ * 命令字段存放在预分配的并行数组里, 每个槽位用一个序号标记是否可写/可读:
+ * 生产者 CAS 抢占 tail 后写入字段, 再发布序号; 消费者按序号读取, 读完把槽位还给下一轮生产者。
+ * offer() 不加锁也不分配内存, 队列满时直接返回 false(丢弃这次命令)。
+ */
+final class AudioCommandQueue {
+    static final int PLAY = 0;
+    static final int STOP = 1;
+    static final int STOP_ALL = 2;
+    static final int MUSIC_PLAY = 3;
+    static final int MUSIC_VOLUME = 4;
+    static final int MUSIC_STOP = 5;
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final int[] types;
+    private final int[] soundIds;
+    private final float[] gains;
+    private final float[] params;
+
+    private final AtomicLong tail = new AtomicLong(0);
+    private long head = 0; // 仅消费者线程访问
+
+    // poll() 成功后读出的命令, 仅消费者线程访问
+    // param: PLAY 命令为声像, 音乐命令为渐变时长(秒)
+    int polledType;
+    int polledSoundId;
+    float polledGain;
+    float polledParam;
+
+    /**
+     * @param capacity 容量, 向上取整为 2 的幂
+     */
+    AudioCommandQueue(int capacity) {
+        int size = 2;
+        while (size < capacity) size <<= 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.types = new int[size];
+        this.soundIds = new int[size];
+        this.gains = new float[size];
+        this.params = new float[size];
+    }
+
+    boolean offer(int type, int soundId, float gain, float param) {
+        long pos;
+        while (true) {
+            pos = tail.get();
+            long diff = sequences.get((int) (pos & mask)) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) break;
+            } else if (diff < 0) {
+                return false; // 队列已满
+            }
+            // diff > 0: 其他生产者已抢先占用该槽位, 重试
+        }
+        int index = (int) (pos & mask);
+        types[index] = type;
+        soundIds[index] = soundId;
+        gains[index] = gain;
+        params[index] = param;
+        sequences.set(index, pos + 1); // 发布, 之前的普通写入对消费者可见
+        return true;
+    }
+
+    /**
+     * 取出一条命令到 polledXxx 字段
+     * @return 队列为空时返回 false
+     */
+    boolean poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) return false;
+        polledType = types[index];
+        polledSoundId = soundIds[index];
+        polledGain = gains[index];
+        polledParam = params[index];
+        sequences.set(index, head + capacity);
+        head++;
+        return true;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+}
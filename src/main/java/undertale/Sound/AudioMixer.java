@@ -0,0 +1,404 @@
+package undertale.Sound;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * 软件混音器: 固定数量的 voice 共享常驻内存的 SoundBuffer, 混合后写入唯一的 SourceDataLine
+ * 游戏线程只通过 AudioCommandQueue 投递播放/停止命令(无锁、无分配), 不接触任何音频设备;
+ * 专用的混音线程每次取出全部命令, 把活跃 voice 按各自的增益和声像累加到浮点缓冲,
+ * 截断为 16 位后写入输出线路, line.write() 的阻塞即是混音线程的节拍。
+ * voice 用完时抢占最早开始播放的那个(voice stealing)。
+ * 音乐由 MusicStream 流式提供, 混音器同时持有当前曲目和正在淡出的上一曲目, 用于交叉淡入淡出和音量渐变。
+ */
+class AudioMixer {
+    static final float SAMPLE_RATE = 44100.0f;
+    static final int CHANNELS = 2;
+    static final int BLOCK_FRAMES = 512; // 约 11.6ms
+    private static final int LINE_BUFFER_BLOCKS = 4;
+
+    private final AudioCommandQueue commands;
+    private final int maxSounds;
+    // 已注册的音效, 写时复制, 混音线程只读
+    private volatile SoundBuffer[] sounds = new SoundBuffer[0];
+    // 每个音效已投递但未结束的播放数: 投递时加一, 混音线程丢弃命令或 voice 结束时减一, 任意线程可读
+    private final AtomicIntegerArray activeCounts;
+
+    // voice 状态, 仅混音线程访问; voiceSound 为 -1 表示空闲
+    private final int[] voiceSound;
+    private final int[] voicePosition;
+    private final float[] voiceGainLeft;
+    private final float[] voiceGainRight;
+    private final long[] voiceStamp;
+    private long nextStamp = 0;
+    private float[] mixBuffer = new float[BLOCK_FRAMES * CHANNELS];
+
+    // 音乐: 新曲目经 pendingMusic 交给混音线程, 其余状态仅混音线程访问
+    private final AtomicReference<MusicStream> pendingMusic = new AtomicReference<>();
+    private MusicStream music;
+    private float musicGain;
+    private float musicTarget;
+    private float musicStep;
+    private MusicStream fadingMusic;
+    private float fadingGain;
+    private float fadingStep;
+    private short[] musicScratch = new short[BLOCK_FRAMES * CHANNELS];
+    private volatile long musicUnderruns = 0;
+
+    private volatile boolean running = false;
+    private Thread thread;
+    private SourceDataLine line;
+
+    AudioMixer(int voiceCount, int maxSounds, int commandCapacity) {
+        this.commands = new AudioCommandQueue(commandCapacity);
+        this.maxSounds = maxSounds;
+        this.activeCounts = new AtomicIntegerArray(maxSounds);
+        this.voiceSound = new int[voiceCount];
+        this.voicePosition = new int[voiceCount];
+        this.voiceGainLeft = new float[voiceCount];
+        this.voiceGainRight = new float[voiceCount];
+        this.voiceStamp = new long[voiceCount];
+        Arrays.fill(voiceSound, -1);
+    }
+
+    /**
+     * 注册一段解码好的音效
+     * @return 音效 id, 超出容量时返回 -1
+     */
+    synchronized int register(SoundBuffer buffer) {
+        SoundBuffer[] current = sounds;
+        if (current.length >= maxSounds) return -1;
+        SoundBuffer[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = buffer;
+        sounds = next;
+        return current.length;
+    }
+
+    /**
+     * 投递播放命令, 可在任意线程调用, 不阻塞、不分配内存
+     * @param pan 声像, -1 为最左, 0 为居中, 1 为最右
+     * @return 命令队列已满时返回 false
+     */
+    boolean play(int soundId, float gain, float pan) {
+        if (soundId < 0 || soundId >= maxSounds) return false;
+        // 先计数再投递, 混音线程取出命令时计数已可见; 投递失败则撤销
+        activeCounts.incrementAndGet(soundId);
+        if (!commands.offer(AudioCommandQueue.PLAY, soundId, gain, pan)) {
+            activeCounts.decrementAndGet(soundId);
+            return false;
+        }
+        return true;
+    }
+
+    boolean stop(int soundId) {
+        if (soundId < 0) return false;
+        return commands.offer(AudioCommandQueue.STOP, soundId, 0.0f, 0.0f);
+    }
+
+    boolean stopAll() {
+        return commands.offer(AudioCommandQueue.STOP_ALL, -1, 0.0f, 0.0f);
+    }
+
+    /**
+     * 切换到新的音乐曲目, 与当前曲目交叉淡入淡出
+     * @param stream 已启动解码的曲目, 之后由混音器负责关闭
+     * @param fadeSeconds 渐变时长, 0 为立即切换
+     */
+    boolean playMusic(MusicStream stream, float volume, float fadeSeconds) {
+        MusicStream replaced = pendingMusic.getAndSet(stream);
+        if (replaced != null) replaced.close();
+        if (!commands.offer(AudioCommandQueue.MUSIC_PLAY, -1, volume, fadeSeconds)) {
+            if (pendingMusic.compareAndSet(stream, null)) stream.close();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 在 fadeSeconds 内把当前音乐音量线性渐变到 volume
+     */
+    boolean setMusicVolume(float volume, float fadeSeconds) {
+        return commands.offer(AudioCommandQueue.MUSIC_VOLUME, -1, volume, fadeSeconds);
+    }
+
+    /**
+     * 在 fadeSeconds 内淡出并停止当前音乐
+     */
+    boolean stopMusic(float fadeSeconds) {
+        return commands.offer(AudioCommandQueue.MUSIC_STOP, -1, 0.0f, fadeSeconds);
+    }
+
+    long getMusicUnderruns() {
+        return musicUnderruns;
+    }
+
+    /**
+     * @return 音效正在发声, 或已投递、混音线程尚未处理
+     */
+    boolean isPlaying(int soundId) {
+        return soundId >= 0 && soundId < maxSounds && activeCounts.get(soundId) > 0;
+    }
+
+    /**
+     * 打开输出线路并启动混音线程; 没有可用的音频设备时只打印警告, 之后的命令会被丢弃
+     */
+    synchronized void start() {
+        if (thread != null) return;
+        AudioFormat format = new AudioFormat(SAMPLE_RATE, 16, CHANNELS, true, false);
+        try {
+            line = AudioSystem.getSourceDataLine(format);
+            line.open(format, BLOCK_FRAMES * CHANNELS * 2 * LINE_BUFFER_BLOCKS);
+            line.start();
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            System.err.println("Audio output unavailable: " + e.getMessage());
+            line = null;
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "audio-mixer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    synchronized void shutdown() {
+        running = false;
+        if (thread != null) {
+            try {
+                thread.join(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+        MusicStream pending = pendingMusic.getAndSet(null);
+        if (pending != null) pending.close();
+        if (music != null) music.close();
+        if (fadingMusic != null) fadingMusic.close();
+        music = null;
+        fadingMusic = null;
+        if (line != null) {
+            line.stop();
+            line.close();
+            line = null;
+        }
+    }
+
+    private void run() {
+        short[] block = new short[BLOCK_FRAMES * CHANNELS];
+        byte[] bytes = new byte[block.length * 2];
+        while (running) {
+            render(block, BLOCK_FRAMES);
+            for (int i = 0; i < block.length; i++) {
+                bytes[2 * i] = (byte) block[i];
+                bytes[2 * i + 1] = (byte) (block[i] >> 8);
+            }
+            line.write(bytes, 0, bytes.length);
+        }
+    }
+
+    /**
+     * 处理全部待执行命令并混合 frames 帧立体声到 out(交错存放)
+     * 混音线程每个 block 调用一次, 测试中可直接调用而不打开音频设备
+     */
+    void render(short[] out, int frames) {
+        processCommands();
+        if (mixBuffer.length < frames * CHANNELS) {
+            mixBuffer = new float[frames * CHANNELS];
+        }
+        float[] mix = mixBuffer;
+        Arrays.fill(mix, 0, frames * CHANNELS, 0.0f);
+        mix(mix, frames);
+        mixMusic(mix, frames);
+        for (int i = 0; i < frames * CHANNELS; i++) {
+            float s = mix[i];
+            if (s > Short.MAX_VALUE) s = Short.MAX_VALUE;
+            else if (s < Short.MIN_VALUE) s = Short.MIN_VALUE;
+            out[i] = (short) s;
+        }
+    }
+
+    private void processCommands() {
+        AudioCommandQueue queue = commands;
+        while (queue.poll()) {
+            switch (queue.polledType) {
+                case AudioCommandQueue.PLAY:
+                    startVoice(queue.polledSoundId, queue.polledGain, queue.polledParam);
+                    break;
+                case AudioCommandQueue.STOP:
+                    for (int v = 0; v < voiceSound.length; v++) {
+                        if (voiceSound[v] == queue.polledSoundId) releaseVoice(v);
+                    }
+                    break;
+                case AudioCommandQueue.STOP_ALL:
+                    for (int v = 0; v < voiceSound.length; v++) {
+                        if (voiceSound[v] >= 0) releaseVoice(v);
+                    }
+                    break;
+                case AudioCommandQueue.MUSIC_PLAY:
+                    startMusic(queue.polledGain, queue.polledParam);
+                    break;
+                case AudioCommandQueue.MUSIC_VOLUME:
+                    musicTarget = queue.polledGain;
+                    musicStep = rampStep(musicGain, musicTarget, queue.polledParam);
+                    break;
+                case AudioCommandQueue.MUSIC_STOP:
+                    fadeOutMusic(queue.polledParam);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void startVoice(int soundId, float gain, float pan) {
+        if (soundId >= sounds.length) {
+            activeCounts.decrementAndGet(soundId);
+            return;
+        }
+        int voice = -1;
+        int oldest = 0;
+        for (int v = 0; v < voiceSound.length; v++) {
+            if (voiceSound[v] < 0) {
+                voice = v;
+                break;
+            }
+            if (voiceStamp[v] < voiceStamp[oldest]) oldest = v;
+        }
+        if (voice < 0) {
+            releaseVoice(oldest);
+            voice = oldest;
+        }
+        pan = Math.max(-1.0f, Math.min(1.0f, pan));
+        voiceSound[voice] = soundId;
+        voicePosition[voice] = 0;
+        voiceGainLeft[voice] = gain * Math.min(1.0f, 1.0f - pan);
+        voiceGainRight[voice] = gain * Math.min(1.0f, 1.0f + pan);
+        voiceStamp[voice] = nextStamp++;
+    }
+
+    private void startMusic(float volume, float fadeSeconds) {
+        MusicStream next = pendingMusic.getAndSet(null);
+        if (next == null) return;
+        fadeOutMusic(fadeSeconds);
+        music = next;
+        musicTarget = volume;
+        if (fadeSeconds > 0) {
+            musicGain = 0.0f;
+            musicStep = rampStep(0.0f, volume, fadeSeconds);
+        } else {
+            musicGain = volume;
+            musicStep = 0.0f;
+        }
+    }
+
+    // 当前曲目转入淡出槽位; 原先还在淡出的曲目直接关闭
+    private void fadeOutMusic(float fadeSeconds) {
+        if (music == null) return;
+        if (fadingMusic != null) fadingMusic.close();
+        fadingMusic = null;
+        if (fadeSeconds > 0) {
+            fadingMusic = music;
+            fadingGain = musicGain;
+            fadingStep = rampStep(musicGain, 0.0f, fadeSeconds);
+        } else {
+            music.close();
+        }
+        music = null;
+    }
+
+    // 每帧的增益变化量, 渐变时长为 0 时一步到位
+    private static float rampStep(float from, float to, float seconds) {
+        if (seconds <= 0) return Float.MAX_VALUE;
+        return Math.abs(to - from) / (seconds * SAMPLE_RATE);
+    }
+
+    private static float approach(float value, float target, float step) {
+        if (value < target) return Math.min(target, value + step);
+        return Math.max(target, value - step);
+    }
+
+    private void mixMusic(float[] out, int frames) {
+        if (musicScratch.length < frames * CHANNELS) {
+            musicScratch = new short[frames * CHANNELS];
+        }
+        if (fadingMusic != null) {
+            fadingGain = mixStream(fadingMusic, out, frames, fadingGain, 0.0f, fadingStep);
+            if (fadingGain <= 0.0f || fadingMusic.isEnded()) {
+                fadingMusic.close();
+                fadingMusic = null;
+            }
+        }
+        if (music != null) {
+            musicGain = mixStream(music, out, frames, musicGain, musicTarget, musicStep);
+            if (music.isEnded()) {
+                music.close();
+                music = null;
+            }
+        }
+    }
+
+    // 从曲目读取 frames 帧并按逐帧渐变的增益累加到 out, 返回渐变后的增益
+    private float mixStream(MusicStream stream, float[] out, int frames, float gain, float target, float step) {
+        short[] samples = musicScratch;
+        int count = stream.read(samples, frames);
+        if (count < frames && !stream.isEnded()) musicUnderruns++;
+        for (int i = 0; i < count; i++) {
+            out[2 * i] += samples[2 * i] * gain;
+            out[2 * i + 1] += samples[2 * i + 1] * gain;
+            if (gain != target) gain = approach(gain, target, step);
+        }
+        return gain;
+    }
+
+    private void releaseVoice(int voice) {
+        activeCounts.decrementAndGet(voiceSound[voice]);
+        voiceSound[voice] = -1;
+    }
+
+    private void mix(float[] out, int frames) {
+        SoundBuffer[] table = sounds;
+        for (int v = 0; v < voiceSound.length; v++) {
+            int soundId = voiceSound[v];
+            if (soundId < 0) continue;
+            SoundBuffer buffer = table[soundId];
+            short[] samples = buffer.samples;
+            int position = voicePosition[v];
+            int count = Math.min(frames, buffer.frames - position);
+            float left = voiceGainLeft[v];
+            float right = voiceGainRight[v];
+            if (buffer.channels == 1) {
+                for (int i = 0; i < count; i++) {
+                    float s = samples[position + i];
+                    out[2 * i] += s * left;
+                    out[2 * i + 1] += s * right;
+                }
+            } else {
+                int base = position * 2;
+                for (int i = 0; i < count; i++) {
+                    out[2 * i] += samples[base + 2 * i] * left;
+                    out[2 * i + 1] += samples[base + 2 * i + 1] * right;
+                }
+            }
+            position += count;
+            if (position >= buffer.frames) {
+                releaseVoice(v);
+            } else {
+                voicePosition[v] = position;
+            }
+        }
+    }
+
+    int getActiveVoiceCount() {
+        int count = 0;
+        for (int v = 0; v < voiceSound.length; v++) {
+            if (voiceSound[v] >= 0) count++;
+        }
+        return count;
+    }
+}
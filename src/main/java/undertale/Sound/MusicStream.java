@@ -0,0 +1,224 @@
+package undertale.Sound;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sound.sampled.AudioInputStream;
+
+/**
+ * 流式播放的音乐曲目: 后台解码线程按块读取并解码音频文件, 重采样为混音器格式(立体声)后写入环形缓冲,
+ * 混音线程从环形缓冲中读取。两者是单生产者/单消费者关系, 只通过两个 volatile 读写位置同步, 无锁。
+ * 不论曲目多长, 常驻内存只有环形缓冲(约 370ms)和一个解码块。
+ * 到达循环终点(或文件末尾)时重新打开文件并跳到循环起点, 重采样状态保持连续, 循环衔接处不会产生爆音。
+ */
+final class MusicStream {
+    static final int RING_FRAMES = 16384; // 2 的幂, 44100Hz 下约 371ms
+    private static final int RING_MASK = RING_FRAMES - 1;
+    private static final int CHUNK_FRAMES = 2048;
+    private static final long IDLE_PARK_NANOS = 5_000_000L;
+
+    private final String name;
+    private final Callable<AudioInputStream> opener;
+    private final boolean looping;
+    private final float loopStartSeconds;
+    private final float loopEndSeconds; // <= 0 表示循环到文件末尾
+
+    private final short[] ring = new short[RING_FRAMES * AudioMixer.CHANNELS];
+    private volatile long writePosition = 0; // 仅解码线程写
+    private volatile long readPosition = 0;  // 仅混音线程写
+    private volatile boolean closed = false;
+    private volatile boolean sourceEnded = false;
+
+    // 以下为解码线程状态
+    private AudioInputStream source;
+    private int sourceChannels;
+    private int frameBytes;
+    private double step; // 每个输出帧对应的源帧数
+    private long loopStartFrame;
+    private long loopEndFrame;
+    private long sourceFrame;
+    private boolean producedSinceRewind;
+    private byte[] chunk;
+    private boolean hasPrevious = false;
+    private float previousLeft;
+    private float previousRight;
+    private double phase = 0.0;
+    private Thread thread;
+
+    /**
+     * @param opener 每次调用返回该曲目的一个新音频流(循环时会再次调用)
+     */
+    MusicStream(String name, Callable<AudioInputStream> opener, boolean looping, float loopStartSeconds, float loopEndSeconds) {
+        this.name = name;
+        this.opener = opener;
+        this.looping = looping;
+        this.loopStartSeconds = Math.max(0.0f, loopStartSeconds);
+        this.loopEndSeconds = loopEndSeconds;
+    }
+
+    /**
+     * 启动后台解码线程
+     */
+    void start() {
+        if (thread != null) return;
+        thread = new Thread(this::run, "music-stream");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 停止解码并释放文件, 可在任意线程调用
+     */
+    void close() {
+        closed = true;
+        Thread t = thread;
+        if (t != null) LockSupport.unpark(t);
+    }
+
+    private void run() {
+        try {
+            open();
+            while (!closed) {
+                if (!fill()) {
+                    if (sourceEnded) break;
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+        } catch (Exception e) {
+            if (!closed) {
+                System.err.println("Failed to stream music: " + name + " (" + e.getMessage() + ")");
+            }
+            sourceEnded = true;
+        } finally {
+            closeSource();
+        }
+    }
+
+    void open() throws Exception {
+        source = SoundBuffer.toPcm16(opener.call());
+        float sampleRate = source.getFormat().getSampleRate();
+        sourceChannels = source.getFormat().getChannels();
+        if (sourceChannels != 1 && sourceChannels != 2) {
+            throw new IOException("Unsupported channel count: " + sourceChannels);
+        }
+        frameBytes = sourceChannels * 2;
+        step = sampleRate / AudioMixer.SAMPLE_RATE;
+        loopStartFrame = Math.round(loopStartSeconds * sampleRate);
+        loopEndFrame = loopEndSeconds > 0 ? Math.round(loopEndSeconds * sampleRate) : -1;
+        chunk = new byte[CHUNK_FRAMES * frameBytes];
+        sourceFrame = 0;
+        producedSinceRewind = true;
+    }
+
+    /**
+     * 解码一块数据写入环形缓冲
+     * @return 缓冲空间不足或已到达结尾时返回 false
+     */
+    boolean fill() throws Exception {
+        if (sourceEnded) return false;
+        long free = RING_FRAMES - (writePosition - readPosition);
+        // 输出帧数不超过 源帧数 / step + 1
+        int maxSource = (int) Math.min(CHUNK_FRAMES, Math.floor((free - 1) * step));
+        if (maxSource < CHUNK_FRAMES / 4) return false;
+        if (loopEndFrame >= 0) {
+            maxSource = (int) Math.max(0, Math.min(maxSource, loopEndFrame - sourceFrame));
+        }
+        int frames = maxSource > 0 ? source.readNBytes(chunk, 0, maxSource * frameBytes) / frameBytes : 0;
+        if (frames == 0) {
+            // 到达循环终点或文件末尾; 循环区间为空时不再重试, 避免空转
+            if (!looping || !producedSinceRewind) {
+                sourceEnded = true;
+                return false;
+            }
+            rewind();
+            return true;
+        }
+        sourceFrame += frames;
+        producedSinceRewind = true;
+        resampleChunk(frames);
+        return true;
+    }
+
+    private void rewind() throws Exception {
+        closeSource();
+        source = SoundBuffer.toPcm16(opener.call());
+        try {
+            source.skipNBytes(loopStartFrame * frameBytes);
+        } catch (EOFException e) {
+            sourceEnded = true;
+            return;
+        }
+        sourceFrame = loopStartFrame;
+        producedSinceRewind = false;
+    }
+
+    // 流式线性插值: 在相邻两个源帧之间按 phase 取样, phase 跨块保持连续
+    private void resampleChunk(int frames) {
+        long w = writePosition;
+        byte[] data = chunk;
+        for (int f = 0; f < frames; f++) {
+            int offset = f * frameBytes;
+            float left = (short) ((data[offset] & 0xff) | (data[offset + 1] << 8));
+            float right = sourceChannels == 2 ? (short) ((data[offset + 2] & 0xff) | (data[offset + 3] << 8)) : left;
+            if (!hasPrevious) {
+                previousLeft = left;
+                previousRight = right;
+                hasPrevious = true;
+                continue;
+            }
+            while (phase < 1.0) {
+                int index = (int) (w & RING_MASK) * 2;
+                ring[index] = (short) Math.round(previousLeft + (left - previousLeft) * phase);
+                ring[index + 1] = (short) Math.round(previousRight + (right - previousRight) * phase);
+                w++;
+                phase += step;
+            }
+            phase -= 1.0;
+            previousLeft = left;
+            previousRight = right;
+        }
+        writePosition = w;
+    }
+
+    /**
+     * 混音线程: 读取至多 frames 帧立体声到 dst
+     * @return 实际读取的帧数, 小于 frames 表示缓冲欠载或曲目结束
+     */
+    int read(short[] dst, int frames) {
+        long r = readPosition;
+        int n = (int) Math.min(frames, writePosition - r);
+        for (int i = 0; i < n; i++) {
+            int index = (int) ((r + i) & RING_MASK) * 2;
+            dst[2 * i] = ring[index];
+            dst[2 * i + 1] = ring[index + 1];
+        }
+        readPosition = r + n;
+        return n;
+    }
+
+    /**
+     * 是否已播放完(非循环曲目解码到结尾或解码失败, 且缓冲已读空)
+     */
+    boolean isEnded() {
+        return sourceEnded && writePosition == readPosition;
+    }
+
+    int getBufferedFrames() {
+        return (int) (writePosition - readPosition);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    private void closeSource() {
+        if (source != null) {
+            try {
+                source.close();
+            } catch (IOException ignored) {}
+            source = null;
+        }
+    }
+}
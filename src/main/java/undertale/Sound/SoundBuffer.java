@@ -0,0 +1,86 @@
+package undertale.Sound;
+
+import java.io.IOException;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+/**
+ * 解码后常驻内存的音效 PCM 数据(16 位有符号, 多声道时交错存放)
+ * 采样率在解码时统一转换为混音器的采样率, 混音线程只需按帧顺序读取;
+ * 同一音效只解码一次, 所有正在发声的 voice 共享这一份数据, 各自只记录播放位置。
+ */
+final class SoundBuffer {
+    final short[] samples;
+    final int channels;
+    final int frames;
+
+    SoundBuffer(short[] samples, int channels) {
+        if (channels != 1 && channels != 2) {
+            throw new IllegalArgumentException("Unsupported channel count: " + channels);
+        }
+        this.samples = samples;
+        this.channels = channels;
+        this.frames = samples.length / channels;
+    }
+
+    /**
+     * 把音频流完整解码为 16 位 PCM, 并线性重采样到 targetRate
+     */
+    static SoundBuffer decode(AudioInputStream ais, float targetRate) throws IOException {
+        byte[] bytes;
+        int channels;
+        float sampleRate;
+        try (AudioInputStream dais = toPcm16(ais)) {
+            channels = dais.getFormat().getChannels();
+            sampleRate = dais.getFormat().getSampleRate();
+            bytes = dais.readAllBytes();
+        }
+        short[] samples = new short[bytes.length / 2];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (short) ((bytes[2 * i] & 0xff) | (bytes[2 * i + 1] << 8));
+        }
+        if (sampleRate != targetRate) {
+            samples = resample(samples, channels, sampleRate, targetRate);
+        }
+        return new SoundBuffer(samples, channels);
+    }
+
+    /**
+     * 把音频流转换为 16 位有符号小端 PCM, 采样率和声道数保持不变
+     */
+    static AudioInputStream toPcm16(AudioInputStream ais) {
+        AudioFormat baseFormat = ais.getFormat();
+        AudioFormat decodedFormat = new AudioFormat(
+                AudioFormat.Encoding.PCM_SIGNED,
+                baseFormat.getSampleRate(),
+                16,
+                baseFormat.getChannels(),
+                baseFormat.getChannels() * 2,
+                baseFormat.getSampleRate(),
+                false);
+        return AudioSystem.getAudioInputStream(decodedFormat, ais);
+    }
+
+    // 线性插值重采样, 只在加载时执行一次
+    static short[] resample(short[] src, int channels, float srcRate, float dstRate) {
+        int srcFrames = src.length / channels;
+        if (srcFrames == 0) return src;
+        int dstFrames = (int) ((long) srcFrames * dstRate / srcRate);
+        short[] dst = new short[dstFrames * channels];
+        double step = srcRate / dstRate;
+        for (int i = 0; i < dstFrames; i++) {
+            double pos = i * step;
+            int i0 = (int) pos;
+            int i1 = Math.min(i0 + 1, srcFrames - 1);
+            float t = (float) (pos - i0);
+            for (int c = 0; c < channels; c++) {
+                float a = src[i0 * channels + c];
+                float b = src[i1 * channels + c];
+                dst[i * channels + c] = (short) Math.round(a + (b - a) * t);
+            }
+        }
+        return dst;
+    }
+}
@@ -4,16 +4,19 @@ import undertale.Utils.ConfigManager;
 import java.io.*;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 // 声音管理器，重构后采用享元模式，负责音效和音乐的加载与复用
-// 享元原理：将相同的音频资源只加载一次，复用Clip实例，节省内存和加载时间
-// 实现方法：使用ConcurrentHashMap作为享元池，分别存放音乐和音效的Clip实例
-// 在使用时，先从享元池获取Clip，若不存在则加载新Clip并存入池中
-// 播放音效时，若Clip正在播放，则新建临时Clip实现多实例并发播放
-// 播放音乐时，停止当前音乐Clip并复用享元池中的Clip
+// 享元原理：将相同的音频资源只加载一次并复用，节省内存和加载时间
+// 实现方法：使用ConcurrentHashMap作为享元池，存放音效在混音器中的id
+// 在使用时，先从享元池获取，若不存在则加载并存入池中
+// 音效：启动时把配置中的音效一次性解码为常驻内存的PCM(SoundBuffer)，注册到软件混音器AudioMixer（可在加载线程池上并行解码）
+// 播放音效只向混音线程投递一条命令，不读文件、不打开系统线路、不分配内存，同一音效可多实例并发
+// 音乐：不再整首解码进Clip，而是由MusicStream在后台线程边解码边写入环形缓冲，常驻内存与曲目长度无关
+// 切换曲目时新旧曲目交叉淡入淡出，支持配置循环起止点(loop_start/loop_end，单位秒)与音量渐变
 // 该设计适用于大部分游戏场景，兼顾性能和内存占用
-// 项目也保留了非享元的预加载方法以供选择，但默认采用懒加载和享元复用
 
 public class SoundManager
 {
@@ -21,233 +24,176 @@ public class SoundManager
     private HashMap<String, String> soundEffects; // 音效配置（逻辑名->路径）
     private HashMap<String, String> musicTracks; // 音乐配置（逻辑名->路径）
     
-    private final Map<String, Clip> seCache = new ConcurrentHashMap<>(); // 音效享元池
-    private final Map<String, Clip> musicCache = new ConcurrentHashMap<>(); // 音乐享元池
-    
+    private static final int MIXER_VOICES = 32; // 同时发声的音效数上限
+    private static final int MIXER_MAX_SOUNDS = 256;
+    private static final int MIXER_COMMANDS = 256;
+    private final AudioMixer mixer = new AudioMixer(MIXER_VOICES, MIXER_MAX_SOUNDS, MIXER_COMMANDS);
+    private final Map<String, Integer> seIds = new ConcurrentHashMap<>(); // 音效享元池（路径->混音器音效id，-1为加载失败）
+    private HashMap<String, float[]> musicLoopPoints; // 音乐循环点配置（路径->{起点, 终点}）
+    private static final float MUSIC_CROSSFADE_SECONDS = 0.3f; // 切换曲目的默认交叉淡入淡出时长
+    private static final float MUSIC_STOP_FADE_SECONDS = 0.02f; // 停止音乐时的短淡出，避免爆音
+
     private String currentMusicPath = null; // 当前正在播放的音乐路径
-    private boolean preloaded = false; // 是否已预加载过
-    private Clip musicClip; // 当前音乐Clip实例
     private final Object musicLock = new Object();  // 音乐播放锁（保证线程安全）
     private float currentMusicVolume = 1.0f; // 当前音乐音量
 
-    // 构造函数，初始化配置，不自动预加载
+    // 构造函数，初始化配置并启动混音线程，音效由 preloadAll()/preloadAllAsync() 解码，未预加载的音效在首次播放时解码
     private SoundManager()
     {
-        // 默认采用懒加载，如需预加载可显式调用 preloadAll()
         ConfigManager configManager = ConfigManager.getInstance();
         this.soundEffects = configManager.se;
         this.musicTracks = configManager.music;
+        this.musicLoopPoints = configManager.musicLoopPoints;
+        mixer.start();
     }
     // 获取单例实例
     public static SoundManager getInstance()
     {
         return instance;
     }
-    // 预加载所有音效与音乐，非享元模式，但是可以在加载速度较慢的系统上使用
+    // 在当前线程预加载所有音效（音乐为流式播放，无需预加载）
     public void preloadAll()
     {
-        if (preloaded) return; // 已预加载则跳过
-        preloaded = true;
-        // 预加载音效
-        if (soundEffects != null) {
-            for (String path : soundEffects.values())
-            {
-                if (path == null)
-                {
-                    continue;
-                }
-                seCache.computeIfAbsent(path, key -> {
-                    try { return loadClip(key); } catch (Exception e) { return null; }
-                });
-            }
-        }
-        // 预加载音乐
-        if (musicTracks != null)
+        preloadAllAsync(Runnable::run).join();
+    }
+    // 在executor上并行解码所有音效
+    public CompletableFuture<Void> preloadAllAsync(Executor executor)
+    {
+        if (soundEffects == null)
         {
-            for (String path : musicTracks.values())
-            {
-                if (path == null)
-                {
-                    continue;
-                }
-                musicCache.computeIfAbsent(path, key -> {
-                    try { return loadClip(key); } catch (Exception e) { return null; }
-                });
-            }
+            return CompletableFuture.completedFuture(null);
         }
+        return CompletableFuture.allOf(soundEffects.values().stream()
+                .filter(path -> path != null)
+                .map(path -> CompletableFuture.runAsync(() -> loadSoundEffect(path), executor))
+                .toArray(CompletableFuture[]::new));
     }
-    // 设置Clip音量（0.0f-1.0f）
-    private void setClipVolume(Clip clip, float volume)
+    // 打开音频文件流，优先从资源目录加载，否则从文件系统加载
+    private AudioInputStream openStream(String path) throws Exception
     {
-        if (clip != null && clip.isControlSupported(FloatControl.Type.MASTER_GAIN))
+        InputStream ris = getClass().getClassLoader().getResourceAsStream(path);
+        if (ris != null)
+        {
+            return AudioSystem.getAudioInputStream(new BufferedInputStream(ris));
+        }
+        File f = new File(path);
+        if (!f.exists())
         {
-            FloatControl gain = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-            float dB = (float) (Math.log10(Math.max(volume, 0.0001f)) * 20.0f); // 音量转分贝
-            gain.setValue(Math.max(gain.getMinimum(), Math.min(gain.getMaximum(), dB)));
+            throw new FileNotFoundException("Sound file not found: " + path);
         }
+        return AudioSystem.getAudioInputStream(f);
+    }
+    // 检查音频文件是否存在（不打开文件）
+    private boolean soundExists(String path)
+    {
+        return getClass().getClassLoader().getResource(path) != null || new File(path).exists();
     }
-    // 加载音频文件为Clip
-    private Clip loadClip(String path) throws Exception
+    // 解码音效并注册到混音器，返回音效id（失败返回-1，之后不再重试）
+    // 解码在享元池之外进行，不同音效可以在多个线程上同时解码
+    private int loadSoundEffect(String path)
     {
-        AudioInputStream ais = null;
-        try
+        Integer cached = seIds.get(path);
+        if (cached != null)
         {
-            // 优先从资源目录加载
-            InputStream ris = getClass().getClassLoader().getResourceAsStream(path);
-            if (ris != null)
-            {
-                ais = AudioSystem.getAudioInputStream(new BufferedInputStream(ris));
-            }
-            else
-            {
-                // 否则从文件系统加载
-                File f = new File(path);
-                if (!f.exists())
-                {
-                    throw new FileNotFoundException("Sound file not found: " + path);
-                }
-                ais = AudioSystem.getAudioInputStream(f);
-            }
-            // 格式转换为PCM_SIGNED
-            AudioFormat baseFormat = ais.getFormat();
-            AudioFormat decodedFormat = new AudioFormat(
-                    AudioFormat.Encoding.PCM_SIGNED,
-                    baseFormat.getSampleRate(),
-                    16,
-                    baseFormat.getChannels(),
-                    baseFormat.getChannels() * 2,
-                    baseFormat.getSampleRate(),
-                    false);
-            AudioInputStream dais = AudioSystem.getAudioInputStream(decodedFormat, ais);
-            // 创建Clip并打开
-            Clip clip = AudioSystem.getClip();
-            clip.open(dais);
-            return clip;
+            return cached;
         }
-        finally
+        int id;
+        try (AudioInputStream ais = openStream(path))
         {
-            if (ais != null)
-            {
-                try
-                {
-                    ais.close();
-                }
-                catch (Exception ignored){}
-            }
+            id = mixer.register(SoundBuffer.decode(ais, AudioMixer.SAMPLE_RATE));
+        }
+        catch (Exception e)
+        {
+            System.err.println("Failed to load sound effect: " + path + " (" + e.getMessage() + ")");
+            id = -1;
         }
+        Integer previous = seIds.putIfAbsent(path, id);
+        return previous != null ? previous : id;
+    }
+    // 获取音效id（支持逻辑名和直接路径），未在配置中的路径首次使用时才解码
+    private int resolveSoundEffect(String soundFile)
+    {
+        String path = soundEffects != null ? soundEffects.get(soundFile) : null;
+        if (path == null)
+        {
+            path = soundFile;
+        }
+        Integer id = seIds.get(path);
+        return id != null ? id : loadSoundEffect(path);
     }
     // 播放音效（默认音量1.0）
     public void playSE(String soundFile)
     {
         playSE(soundFile, 1.0f);
     }
-    // 播放音效（可指定音量）
+    // 播放音效（可指定音量），只投递混音命令，不阻塞
     public void playSE(String soundFile, float volume)
     {
-        try {
-            // 获取音效路径（支持逻辑名和直接路径）
-            String path = (soundEffects != null && soundEffects.containsKey(soundFile)
-                    ? soundEffects.get(soundFile)
-                    : soundFile);
-            // 懒加载Clip，享元池复用
-            Clip clip = seCache.computeIfAbsent(path, key -> {
-                try { return loadClip(key); } catch (Exception e) { return null; }
-            });
-            if (clip == null)
-            {
-                return;
-            }
-            setClipVolume(clip, volume);
-            if (clip.isRunning())
-            {
-                // 若正在播放，临时新建Clip实现多实例并发
-                Clip newClip = loadClip(path);
-                if (newClip != null)
-                {
-                    setClipVolume(newClip, volume);
-                    newClip.start();
-                }
-            }
-            else
-            {
-                // 否则复用享元Clip
-                clip.setFramePosition(0);
-                clip.start();
-            }
-        }
-        catch (Exception e){}
+        playSE(soundFile, volume, 0.0f);
+    }
+    // 播放音效（可指定音量和声像，-1为最左，1为最右）
+    public void playSE(String soundFile, float volume, float pan)
+    {
+        mixer.play(resolveSoundEffect(soundFile), volume, pan);
     }
     // 播放背景音乐（默认音量）
     public void playMusic(String musicFile)
     {
         playMusic(musicFile, currentMusicVolume);
     }
-    // 播放背景音乐（可指定音量）
+    // 播放背景音乐（可指定音量），与当前曲目交叉淡入淡出
     public void playMusic(String musicFile, float volume)
+    {
+        playMusic(musicFile, volume, MUSIC_CROSSFADE_SECONDS);
+    }
+    // 播放背景音乐（可指定音量和交叉淡入淡出时长，0为立即切换）
+    public void playMusic(String musicFile, float volume, float fadeSeconds)
     {
         synchronized (musicLock) // 保证线程安全
-        { 
-            try
+        {
+            String path = (musicTracks != null && musicTracks.containsKey(musicFile) ? musicTracks.get(musicFile) : musicFile);// 获取音乐路径
+            if (!soundExists(path))
+            {
+                return;
+            }
+            float[] loop = musicLoopPoints != null ? musicLoopPoints.get(path) : null;
+            MusicStream stream = new MusicStream(path, () -> openStream(path), true,
+                    loop != null ? loop[0] : 0.0f, loop != null ? loop[1] : 0.0f);
+            stream.start();
+            if (mixer.playMusic(stream, volume, fadeSeconds))
             {
-                stopMusic(); // 停止当前音乐
-                String path = (musicTracks != null && musicTracks.containsKey(musicFile) ? musicTracks.get(musicFile) : musicFile);// 获取音乐路径
-                // 懒加载Clip，享元池复用
-                Clip cached = musicCache.computeIfAbsent(path, key -> {
-                    try { return loadClip(key); } catch (Exception e) { return null; }
-                });
-                if (cached != null)
-                {
-                    musicClip = cached;
-                    currentMusicPath = path;
-                    setClipVolume(musicClip, volume);
-                    currentMusicVolume = volume;
-                    if (musicClip.isRunning()) musicClip.stop();
-                    musicClip.setFramePosition(0);
-                    musicClip.loop(Clip.LOOP_CONTINUOUSLY); // 循环播放
-                    musicClip.start();
-                }
+                currentMusicPath = path;
+                currentMusicVolume = volume;
             }
-            catch (Exception e) {}
         }
     }
     // 设置当前音乐音量
     public void setCurrentMusicVolume(float volume)
+    {
+        setCurrentMusicVolume(volume, 0.0f);
+    }
+    // 在fadeSeconds秒内把当前音乐音量渐变到volume
+    public void setCurrentMusicVolume(float volume, float fadeSeconds)
     {
         synchronized (musicLock)
         {
             currentMusicVolume = volume;
-            if (musicClip != null)
-            {
-                setClipVolume(musicClip, volume);
-            }
+            mixer.setMusicVolume(volume, fadeSeconds);
         }
     }
     // 停止音乐播放
     public void stopMusic()
+    {
+        fadeOutMusic(MUSIC_STOP_FADE_SECONDS);
+    }
+    // 在fadeSeconds秒内淡出并停止音乐
+    public void fadeOutMusic(float fadeSeconds)
     {
         synchronized (musicLock)
         {
-            if (musicClip != null)
+            if (currentMusicPath != null)
             {
-                try
-                {
-                    musicClip.stop();
-                    // 若不是享元池Clip则关闭释放
-                    if (currentMusicPath == null || !musicCache.containsKey(currentMusicPath))
-                    {
-                        musicClip.close();
-                    }
-                    else
-                    {
-                        try
-                        {
-                            musicClip.setFramePosition(0);
-                        }
-                        catch (Exception ignored) {}
-                    }
-                }
-                catch (Exception ignored) {}
-                musicClip = null;
+                mixer.stopMusic(fadeSeconds);
                 currentMusicPath = null;
             }
         }
@@ -255,72 +201,25 @@ public class SoundManager
     // 停止所有音效
     public void stopAllSe()
     {
-        for (Clip clip : seCache.values())
-        {
-            try
-            {
-                if (clip != null && clip.isRunning())
-                {
-                    clip.stop();
-                    clip.setFramePosition(0);
-                }
-            }
-            catch (Exception ignored) {}
-        }
+        mixer.stopAll();
     }
     // 停止指定音效
     public void stopSe(String soundFile)
     {
-        String path = (soundEffects != null && soundEffects.containsKey(soundFile) ? soundEffects.get(soundFile) : soundFile);
-        Clip clip = seCache.get(path);
-        if (clip != null && clip.isRunning())
-        {
-            try
-            {
-                clip.stop();
-                clip.setFramePosition(0);
-            }
-            catch (Exception ignored) {}
-        }
+        mixer.stop(resolveSoundEffect(soundFile));
     }
     // 检查音效是否正在播放
     public boolean isSePlaying(String soundFile)
     {
-        String path = (soundEffects != null && soundEffects.containsKey(soundFile)
-                ? soundEffects.get(soundFile)
-                : soundFile);
-        Clip clip = seCache.get(path);
-        return clip != null && clip.isRunning();
+        return mixer.isPlaying(resolveSoundEffect(soundFile));
     }
     // 关闭SoundManager，释放所有资源
     public void shutdown() {
-        for (Clip clip : seCache.values())
-        {
-            try
-            {
-                if (clip != null)
-                {
-                    clip.stop();
-                    clip.close();
-                }
-            }
-            catch (Exception ignored) {}
-        }
-        seCache.clear();
-        stopMusic();
-        for (Clip clip : musicCache.values())
+        synchronized (musicLock)
         {
-            try
-            {
-                if (clip != null)
-                {
-                    clip.stop();
-                    clip.close();
-                }
-            }
-            catch (Exception ignored) {}
+            currentMusicPath = null;
         }
-        musicCache.clear();
+        mixer.shutdown();
     }
     // 检查指定音乐是否正在播放
     public boolean isMusicPlaying(String musicName)
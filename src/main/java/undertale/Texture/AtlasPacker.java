@@ -0,0 +1,75 @@
+package undertale.Texture;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * 图集的矩形装箱(shelf packing), 不依赖 GL, 只负责计算每张图片在哪一页的哪个位置。
+ * 图片按高度从高到低排序后逐行(shelf)摆放, 当前行放不下时换行, 当前页放不下时开新页。
+ * 每张图片四周预留 padding 像素, 由 TextureAtlas 用边缘像素填充, 防止采样时与相邻图片串色。
+ */
+class AtlasPacker {
+    static class Placement {
+        int page = -1; // -1 表示尺寸超过一页, 需要单独创建纹理
+        int x;
+        int y;
+    }
+
+    private final int pageSize;
+    private final int padding;
+    private int pageCount = 0;
+
+    AtlasPacker(int pageSize, int padding) {
+        this.pageSize = pageSize;
+        this.padding = padding;
+    }
+
+    /**
+     * @param widths 每张图片的宽度
+     * @param heights 每张图片的高度
+     * @return 与输入下标一一对应的摆放位置(x, y 为图片本身左上角, 不含 padding)
+     */
+    Placement[] pack(int[] widths, int[] heights) {
+        int n = widths.length;
+        Placement[] result = new Placement[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            result[i] = new Placement();
+        }
+        Arrays.sort(order, Comparator.comparingInt((Integer i) -> heights[i]).reversed());
+
+        int page = -1;
+        int cursorX = 0, cursorY = 0, shelfHeight = 0;
+        for (int idx : order) {
+            int pw = widths[idx] + padding * 2;
+            int ph = heights[idx] + padding * 2;
+            if (pw > pageSize || ph > pageSize) continue;
+
+            if (page >= 0 && cursorX + pw > pageSize) {
+                // 换行
+                cursorX = 0;
+                cursorY += shelfHeight;
+                shelfHeight = 0;
+            }
+            if (page < 0 || cursorY + ph > pageSize) {
+                // 开新页
+                page++;
+                cursorX = 0;
+                cursorY = 0;
+                shelfHeight = 0;
+            }
+            result[idx].page = page;
+            result[idx].x = cursorX + padding;
+            result[idx].y = cursorY + padding;
+            cursorX += pw;
+            shelfHeight = Math.max(shelfHeight, ph);
+        }
+        pageCount = page + 1;
+        return result;
+    }
+
+    int getPageCount() {
+        return pageCount;
+    }
+}
@@ -3,50 +3,114 @@ package undertale.Texture;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.stb.STBTTFontinfo;
 
+import undertale.Shaders.GLState;
 import undertale.Utils.ConfigManager;
 
-import org.lwjgl.stb.STBTTBakedChar;
-import org.lwjgl.stb.STBTTAlignedQuad;
-
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
-import java.nio.FloatBuffer;
 
 import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE;
+import static org.lwjgl.opengl.GL30.GL_R8;
 import static org.lwjgl.stb.STBTruetype.*;
 
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+/**
+ * 字体管理
+ * 每种字体一张单通道的有向距离场(SDF)图集: 字形在第一次用到时用 stbtt_GetCodepointSDF 生成并装入图集,
+ * 支持任意码位; text_shader 按距离场计算覆盖率, 同一张图集在任何缩放下都保持清晰。
+ * 在 GL 线程上生成的字形立即上传, 其他线程(独立更新线程录制快照时)生成的字形排队,
+ * 由 Renderer 在回放快照前调用 uploadPendingGlyphs() 上传。
+ * 无窗口模式下不创建图集纹理, 字形照常生成(排版和测量需要字距), 位图直接丢弃。
+ */
 public class FontManager {
-    private static FontManager instance;
+    private static volatile FontManager instance;
+    // 启动时在加载线程池上解码好的字体, 为 null 时首次 getInstance() 在当前线程串行加载
+    private static CompletableFuture<Map<String, DecodedFont>> preparedFonts;
     private HashMap<String, String> fonts;
-    private final int BITMAP_W = 512, BITMAP_H = 512;
-    private final int FONT_SIZE = 32;
-    private final int FIRST_CHAR = 32, CHAR_COUNT = 96; // ASCII 32~127
-
-    static {
-        instance = new FontManager();
-    }
+    private static final int ATLAS_SIZE = 1024;
+    private static final int FONT_SIZE = 32;
+    // 距离场参数: 字形外扩 SDF_PADDING 像素, 边缘值为 128, 每像素距离对应 128 / SDF_PADDING
+    private static final int SDF_PADDING = 4;
+    private static final byte SDF_ON_EDGE = (byte)128;
+    private static final float SDF_PIXEL_DIST_SCALE = 128.0f / SDF_PADDING;
+    // 启动时预先生成的 ASCII 可见字符
+    private static final int FIRST_ASCII = 32, LAST_ASCII = 126;
+    // 字形表每个字符的分量: xoff, yoff, 宽, 高, s0, t0, s1, t1
+    static final int GLYPH_FLOATS = 8;
+    // 自动换行时行与行之间的额外间距
+    static final int LINE_GAP = 5;
+    private static final int LAYOUT_CACHE_SIZE = 256;
+    static final String TEXT_SHADER = "text_shader";
+    private static volatile boolean headless = false;
 
     // 字体缓存结构
     private static class FontData {
         int textureId;
+        ByteBuffer fontBytes; // stbtt 引用该内存, 须与 fontInfo 同生命周期
+        STBTTFontinfo fontInfo;
+        GlyphCache glyphs;
+    }
+
+    // CPU 端解码结果: ASCII 字形已生成距离场, 尚未上传 GL
+    private static class DecodedFont {
+        ByteBuffer fontBytes;
         STBTTFontinfo fontInfo;
-        float[] charWidths;
-        STBTTBakedChar.Buffer charData; // 缓存字符数据
+        GlyphCache glyphs;
     }
     private HashMap<String, FontData> fontCache = new HashMap<>();
+    private final TextLayoutCache layouts = new TextLayoutCache(LAYOUT_CACHE_SIZE);
     private String currentFontKey = "determination";
+    // 创建 FontManager 的线程即 GL 线程
+    private final Thread glThread = Thread.currentThread();
 
     private FontManager() {
         fonts = ConfigManager.getInstance().fonts;
+        Map<String, DecodedFont> decoded = preparedFonts != null ? preparedFonts.join() : null;
+        preparedFonts = null;
         for (String key : fonts.keySet()) {
-            loadFont(key);
+            if (decoded != null && decoded.containsKey(key)) {
+                uploadFont(key, decoded.get(key));
+            } else {
+                loadFont(key);
+            }
         }
         currentFontKey = "determination";
     }
 
+    /**
+     * 在 executor 上并行读取字体文件并生成 ASCII 字形的距离场(不调用 GL),
+     * 之后在 GL 线程首次调用 getInstance() 时只需等待完成并上传
+     */
+    public static synchronized CompletableFuture<?> prepareAsync(Executor executor) {
+        if (instance == null && preparedFonts == null) {
+            HashMap<String, CompletableFuture<DecodedFont>> futures = new HashMap<>();
+            for (Map.Entry<String, String> entry : ConfigManager.getInstance().fonts.entrySet()) {
+                String path = entry.getValue();
+                futures.put(entry.getKey(), CompletableFuture.supplyAsync(() -> decodeFont(path), executor));
+            }
+            preparedFonts = CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    HashMap<String, DecodedFont> result = new HashMap<>();
+                    futures.forEach((key, future) -> result.put(key, future.join()));
+                    return result;
+                });
+        }
+        return preparedFonts != null ? preparedFonts : CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * 切换为无窗口模式(不调用 GL), 须在首次 getInstance() 之前调用
+     */
+    public static void setHeadless(boolean headless) {
+        FontManager.headless = headless;
+    }
+
     public static FontManager getInstance() {
         if(instance == null) {
             synchronized (FontManager.class) {
@@ -62,7 +126,12 @@ public class FontManager {
     private void loadFont(String fontKey) {
         String filePath = fonts.get(fontKey);
         if (filePath == null) throw new RuntimeException("Font key not found: " + fontKey);
-        try (InputStream is = getClass().getClassLoader().getResourceAsStream(filePath)) {
+        uploadFont(fontKey, decodeFont(filePath));
+    }
+
+    // 读取字体文件并生成 ASCII 字形的距离场, 不调用 GL, 可在加载线程执行
+    private static DecodedFont decodeFont(String filePath) {
+        try (InputStream is = FontManager.class.getClassLoader().getResourceAsStream(filePath)) {
             if (is == null) throw new IOException("Font file not found: " + filePath);
             byte[] bytes = is.readAllBytes();
             ByteBuffer fontData = BufferUtils.createByteBuffer(bytes.length);
@@ -71,42 +140,90 @@ public class FontManager {
             STBTTFontinfo fontInfo = STBTTFontinfo.create();
             if (!stbtt_InitFont(fontInfo, fontData)) throw new RuntimeException("Failed to init font");
 
-            ByteBuffer bitmap = BufferUtils.createByteBuffer(BITMAP_W * BITMAP_H);
-            STBTTBakedChar.Buffer charData = STBTTBakedChar.malloc(CHAR_COUNT);
-            stbtt_BakeFontBitmap(fontData, FONT_SIZE, bitmap, BITMAP_W, BITMAP_H, FIRST_CHAR, charData);
-
-            float[] charWidths = new float[CHAR_COUNT];
-            for (int i = 0; i < CHAR_COUNT; i++) {
-                charWidths[i] = charData.get(i).xadvance();
+            GlyphCache glyphs = new GlyphCache(sdfRasterizer(fontInfo), ATLAS_SIZE);
+            for (int c = FIRST_ASCII; c <= LAST_ASCII; c++) {
+                glyphs.slot(c);
             }
 
-            // Convert single-channel bitmap (alpha only) into RGBA so our shader (which samples RGBA) works
-            java.nio.ByteBuffer rgba = org.lwjgl.BufferUtils.createByteBuffer(BITMAP_W * BITMAP_H * 4);
-            for (int i = 0; i < BITMAP_W * BITMAP_H; i++) {
-                byte a = bitmap.get(i);
-                rgba.put((byte)255);
-                rgba.put((byte)255);
-                rgba.put((byte)255);
-                rgba.put(a);
-            }
-            rgba.flip();
+            DecodedFont decoded = new DecodedFont();
+            decoded.fontBytes = fontData;
+            decoded.fontInfo = fontInfo;
+            decoded.glyphs = glyphs;
+            return decoded;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
 
-            int textureId = glGenTextures();
-            glBindTexture(GL_TEXTURE_2D, textureId);
-            glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, BITMAP_W, BITMAP_H, 0, GL_RGBA, GL_UNSIGNED_BYTE, rgba);
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+    // 用 stbtt_GetCodepointSDF 生成 FONT_SIZE 像素高的距离场字形, 字距与原先烘焙位图时相同
+    private static GlyphCache.Rasterizer sdfRasterizer(STBTTFontinfo fontInfo) {
+        float scale = stbtt_ScaleForPixelHeight(fontInfo, FONT_SIZE);
+        int[] width = new int[1], height = new int[1], xoff = new int[1], yoff = new int[1];
+        int[] advance = new int[1], bearing = new int[1];
+        return (codepoint, metrics) -> {
+            stbtt_GetCodepointHMetrics(fontInfo, codepoint, advance, bearing);
+            metrics[0] = advance[0] * scale;
+            ByteBuffer sdf = stbtt_GetCodepointSDF(fontInfo, scale, codepoint, SDF_PADDING, SDF_ON_EDGE, SDF_PIXEL_DIST_SCALE,
+                width, height, xoff, yoff);
+            if (sdf == null) return null;
+            metrics[1] = xoff[0];
+            metrics[2] = yoff[0];
+            metrics[3] = width[0];
+            metrics[4] = height[0];
+            return sdf;
+        };
+    }
 
+    // 在 GL 线程上创建单通道图集, 上传已生成的字形并放入缓存
+    private void uploadFont(String fontKey, DecodedFont decoded) {
+        int textureId = headless ? 0 : createAtlasTexture();
+        FontData fd = new FontData();
+        fd.textureId = textureId;
+        fd.fontBytes = decoded.fontBytes;
+        fd.fontInfo = decoded.fontInfo;
+        fd.glyphs = decoded.glyphs;
+        uploadGlyphs(fd);
+        fontCache.put(fontKey, fd);
+    }
 
-            FontData fd = new FontData();
-            fd.textureId = textureId;
-            fd.fontInfo = fontInfo;
-            fd.charWidths = charWidths;
-            fd.charData = charData; // 缓存字符数据
-            fontCache.put(fontKey, fd);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    private static int createAtlasTexture() {
+        int textureId = glGenTextures();
+        GLState.getInstance().bindTexture(0, textureId);
+        // 清零, 字形之间的空隙在线性采样时读到的是"远离边缘"
+        ByteBuffer empty = BufferUtils.createByteBuffer(ATLAS_SIZE * ATLAS_SIZE);
+        glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
+        glTexImage2D(GL_TEXTURE_2D, 0, GL_R8, ATLAS_SIZE, ATLAS_SIZE, 0, GL_RED, GL_UNSIGNED_BYTE, empty);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+        return textureId;
+    }
+
+    /**
+     * 上传其他线程生成、尚未上传的字形(GL 线程), 在回放录制的快照之前调用
+     */
+    public synchronized void uploadPendingGlyphs() {
+        for (FontData fd : fontCache.values()) {
+            uploadGlyphs(fd);
+        }
+    }
+
+    private void uploadGlyphs(FontData fd) {
+        if (!fd.glyphs.hasPending()) return;
+        if (fd.textureId == 0) {
+            // 无窗口模式: 没有图集纹理, 只释放位图
+            fd.glyphs.drainPending(glyph -> stbtt_FreeSDF(glyph.bitmap));
+            return;
         }
+        GLState.getInstance().bindTexture(0, fd.textureId);
+        glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
+        fd.glyphs.drainPending(glyph -> {
+            if (glyph.x >= 0) {
+                glTexSubImage2D(GL_TEXTURE_2D, 0, glyph.x, glyph.y, glyph.width, glyph.height, GL_RED, GL_UNSIGNED_BYTE, glyph.bitmap);
+            }
+            stbtt_FreeSDF(glyph.bitmap);
+        });
     }
 
     // 切换当前字体
@@ -116,53 +233,35 @@ public class FontManager {
     }
 
     public void drawText(String text, float x, float y, float scale, float r, float g, float b, float a, String fontKey) {
-        FontData fd = fontCache.getOrDefault(fontKey, fontCache.get(currentFontKey));
-        // Build a batched buffer of quads and render via Texture.drawQuads
-        int validChars = 0;
-        for (int i = 0; i < text.length(); i++) {
-            char c = text.charAt(i);
-            if (c < FIRST_CHAR || c >= FIRST_CHAR + CHAR_COUNT) continue;
-            validChars++;
+        getLayout(text, fontKey, scale, 0).draw(x, y, r, g, b, a);
+    }
+
+    /**
+     * 取得文字的排版, 相同的 (文字, 字体, 缩放, 换行宽度) 直接返回缓存的结果
+     * @param fontKey 未加载的字体使用当前字体
+     * @param wrapWidth 自动换行宽度, <= 0 表示不换行
+     */
+    public synchronized TextLayout getLayout(String text, String fontKey, float scale, float wrapWidth) {
+        FontData fd = fontCache.get(fontKey);
+        if (fd == null) {
+            fontKey = currentFontKey;
+            fd = fontCache.get(fontKey);
         }
-        if (validChars == 0) return;
-
-        FloatBuffer buf = BufferUtils.createFloatBuffer(validChars * 6 * 4);
-        float xpos = x;
-        for (int i = 0; i < text.length(); i++) {
-            char c = text.charAt(i);
-            if (c < FIRST_CHAR || c >= FIRST_CHAR + CHAR_COUNT) continue;
-            STBTTAlignedQuad quad = STBTTAlignedQuad.malloc();
-            float[] xp = new float[] { xpos };
-            float[] yp = new float[] { y };
-            stbtt_GetBakedQuad(getCharData(fd), BITMAP_W, BITMAP_H, c - FIRST_CHAR, xp, yp, quad, true);
-            float x0 = quad.x0();
-            float y0 = quad.y0();
-            float x1 = quad.x1();
-            float y1 = quad.y1();
-            float s0 = quad.s0();
-            float t0 = quad.t0();
-            float s1 = quad.s1();
-            float t1 = quad.t1();
-
-            float width = (x1 - x0) * scale;
-            float height = (y1 - y0) * scale;
-            x1 = x0 + width;
-            y1 = y0 + height;
-
-            // tri1
-            buf.put(x0); buf.put(y0); buf.put(s0); buf.put(t0);
-            buf.put(x1); buf.put(y0); buf.put(s1); buf.put(t0);
-            buf.put(x1); buf.put(y1); buf.put(s1); buf.put(t1);
-            // tri2
-            buf.put(x0); buf.put(y0); buf.put(s0); buf.put(t0);
-            buf.put(x1); buf.put(y1); buf.put(s1); buf.put(t1);
-            buf.put(x0); buf.put(y1); buf.put(s0); buf.put(t1);
-
-            xpos += fd.charWidths[c - FIRST_CHAR] * scale;
-            quad.free();
+        TextLayout layout = layouts.get(text, fontKey, scale, wrapWidth);
+        if (layout == null) {
+            layout = TextLayout.build(text, scale, wrapWidth, (FONT_SIZE + LINE_GAP) * scale, fd.textureId, fd.glyphs);
+            layouts.put(text, fontKey, scale, wrapWidth, layout);
+            // GL 线程上绘制紧跟在排版之后, 新字形须立即上传
+            if (Thread.currentThread() == glThread) {
+                uploadGlyphs(fd);
+            }
         }
-        buf.flip();
-        Texture.drawQuads(buf, validChars, fd.textureId, r, g, b, a);
+        return layout;
+    }
+
+    // 使用当前字体、不缩放的排版
+    public TextLayout getLayout(String text, float wrapWidth) {
+        return getLayout(text, currentFontKey, 1.0f, wrapWidth);
     }
 
     // 兼容原接口，使用当前字体
@@ -173,33 +272,23 @@ public class FontManager {
         drawText(text, x, y, 1.0f, r, g, b, a, currentFontKey);
     }
 
-    // 获取字符数据
-    private STBTTBakedChar.Buffer getCharData(FontData fd) {
-        return fd.charData; // 直接返回缓存的字符数据
-    }
-
     public void destroy() {
+        layouts.clear();
         for (FontData fd : fontCache.values()) {
-            glDeleteTextures(fd.textureId);
+            if (fd.textureId != 0) GLState.getInstance().deleteTexture(fd.textureId);
+            fd.glyphs.drainPending(glyph -> stbtt_FreeSDF(glyph.bitmap));
             fd.fontInfo.free();
-            if (fd.charData != null) {
-                fd.charData.free(); // 释放缓存的字符数据
-            }
         }
     }
 
-    public float getCharWidth(char c) {
-        if (c < FIRST_CHAR || c >= FIRST_CHAR + CHAR_COUNT) return 0;
-        return fontCache.get(currentFontKey).charWidths[c - FIRST_CHAR];
+    public synchronized float getCharWidth(char c) {
+        if (c < ' ') return 0;
+        GlyphCache glyphs = fontCache.get(currentFontKey).glyphs;
+        return glyphs.getAdvance(glyphs.slot(c));
     }
 
     public float getTextWidth(String text) {
-        float width = 0;
-        for (int i = 0; i < text.length(); i++) {
-            char c = text.charAt(i);
-            width += getCharWidth(c);
-        }
-        return width;
+        return getLayout(text, currentFontKey, 1.0f, 0).getWidth();
     }
 
     public float getFontHeight() {
@@ -0,0 +1,160 @@
+package undertale.Texture;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.function.Consumer;
+
+/**
+ * 一种字体的动态字形表, 不调用 GL
+ * 字形在第一次用到时通过 Rasterizer 生成(任意码位), 按行(shelf)装入边长为 atlasSize 的单通道图集,
+ * 位图先进入待上传队列, 由 FontManager 在 GL 线程上传。每个字形占一个 slot, 字形数据为
+ * FontManager.GLYPH_FLOATS 个分量(xoff, yoff, 宽, 高, s0, t0, s1, t1)和一个字距。
+ */
+final class GlyphCache {
+    /**
+     * 生成一个字形
+     */
+    interface Rasterizer {
+        /**
+         * @param metrics 输出: advance, xoff, yoff, 宽, 高
+         * @return 宽 x 高的单通道位图, 没有可见像素(如空格)时返回 null
+         */
+        ByteBuffer rasterize(int codepoint, float[] metrics);
+    }
+
+    /**
+     * 已装箱、等待上传到图集的字形位图
+     */
+    static final class PendingGlyph {
+        final int x, y, width, height;
+        final ByteBuffer bitmap;
+
+        PendingGlyph(int x, int y, int width, int height, ByteBuffer bitmap) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.bitmap = bitmap;
+        }
+    }
+
+    // 图集中字形之间的间隔, 防止线性采样时与相邻字形串色
+    private static final int GLYPH_PADDING = 1;
+
+    private final Rasterizer rasterizer;
+    private final int atlasSize;
+    private final HashMap<Integer, Integer> slots = new HashMap<>();
+    private float[] glyphs = new float[128 * FontManager.GLYPH_FLOATS];
+    private float[] advances = new float[128];
+    private int slotCount = 0;
+    private final float[] metrics = new float[5];
+    private final ArrayList<PendingGlyph> pending = new ArrayList<>();
+
+    private int cursorX = 0, cursorY = 0, shelfHeight = 0;
+    private boolean full = false;
+
+    GlyphCache(Rasterizer rasterizer, int atlasSize) {
+        this.rasterizer = rasterizer;
+        this.atlasSize = atlasSize;
+    }
+
+    /**
+     * @return 码位对应的 slot, 第一次用到时生成并装入图集
+     */
+    int slot(int codepoint) {
+        Integer slot = slots.get(codepoint);
+        if (slot != null) return slot;
+
+        Arrays.fill(metrics, 0f);
+        ByteBuffer bitmap = rasterizer.rasterize(codepoint, metrics);
+        int width = bitmap != null ? (int)metrics[3] : 0;
+        int height = bitmap != null ? (int)metrics[4] : 0;
+        int index = addSlot(metrics[0]);
+        int base = index * FontManager.GLYPH_FLOATS;
+        if (width > 0 && height > 0) {
+            int[] position = place(width, height);
+            if (position != null) {
+                glyphs[base] = metrics[1];
+                glyphs[base + 1] = metrics[2];
+                glyphs[base + 2] = width;
+                glyphs[base + 3] = height;
+                glyphs[base + 4] = position[0] / (float)atlasSize;
+                glyphs[base + 5] = position[1] / (float)atlasSize;
+                glyphs[base + 6] = (position[0] + width) / (float)atlasSize;
+                glyphs[base + 7] = (position[1] + height) / (float)atlasSize;
+                pending.add(new PendingGlyph(position[0], position[1], width, height, bitmap));
+            } else {
+                // 图集已满: 字形不绘制, 只保留字距
+                if (!full) {
+                    System.err.println("Glyph atlas is full, dropping codepoint U+" + Integer.toHexString(codepoint));
+                    full = true;
+                }
+                pending.add(new PendingGlyph(-1, -1, 0, 0, bitmap));
+            }
+        } else if (bitmap != null) {
+            pending.add(new PendingGlyph(-1, -1, 0, 0, bitmap));
+        }
+        slots.put(codepoint, index);
+        return index;
+    }
+
+    private int addSlot(float advance) {
+        if (slotCount == advances.length) {
+            advances = Arrays.copyOf(advances, slotCount * 2);
+            glyphs = Arrays.copyOf(glyphs, slotCount * 2 * FontManager.GLYPH_FLOATS);
+        }
+        advances[slotCount] = advance;
+        return slotCount++;
+    }
+
+    // shelf packing: 当前行放不下时换行, 图集放不下时返回 null
+    private int[] place(int width, int height) {
+        int pw = width + GLYPH_PADDING;
+        int ph = height + GLYPH_PADDING;
+        if (cursorX + pw > atlasSize) {
+            cursorX = 0;
+            cursorY += shelfHeight;
+            shelfHeight = 0;
+        }
+        if (pw > atlasSize || cursorY + ph > atlasSize) return null;
+        int[] position = {cursorX, cursorY};
+        cursorX += pw;
+        shelfHeight = Math.max(shelfHeight, ph);
+        return position;
+    }
+
+    float getAdvance(int slot) {
+        return advances[slot];
+    }
+
+    /**
+     * @return 字形表, slot() 可能扩容, 须在生成完所需字形后再取
+     */
+    float[] getGlyphs() {
+        return glyphs;
+    }
+
+    int getSlotCount() {
+        return slotCount;
+    }
+
+    int getAtlasSize() {
+        return atlasSize;
+    }
+
+    boolean hasPending() {
+        return !pending.isEmpty();
+    }
+
+    /**
+     * 取出所有待上传的字形; x 为 -1 的项没有位置, 只需释放位图
+     */
+    void drainPending(Consumer<PendingGlyph> upload) {
+        for (PendingGlyph glyph : pending) {
+            upload.accept(glyph);
+        }
+        pending.clear();
+    }
+}
@@ -0,0 +1,79 @@
+package undertale.Texture;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.stb.STBImage;
+import org.lwjgl.system.MemoryStack;
+
+/**
+ * CPU 端解码好的 RGBA 图片, 不调用任何 GL 函数, 可以在加载线程上创建;
+ * 纹理上传(glTexImage2D)仍须在 GL 线程进行, 上传或拷贝完成后调用 free() 释放像素内存。
+ */
+final class ImageData {
+    final ByteBuffer pixels;
+    final int width;
+    final int height;
+
+    private ImageData(ByteBuffer pixels, int width, int height) {
+        this.pixels = pixels;
+        this.width = width;
+        this.height = height;
+    }
+
+    static ImageData decode(String resourcePath) {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer w = stack.mallocInt(1);
+            IntBuffer h = stack.mallocInt(1);
+            IntBuffer comp = stack.mallocInt(1);
+            ByteBuffer pixels = STBImage.stbi_load_from_memory(readResource(resourcePath), w, h, comp, 4);
+            if (pixels == null) {
+                throw new RuntimeException("Failed to load a texture file! " + resourcePath + ": " + STBImage.stbi_failure_reason());
+            }
+            return new ImageData(pixels, w.get(0), h.get(0));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 只读取图片头得到尺寸, 不解码像素
+     * @return {width, height}
+     */
+    static int[] probe(String resourcePath) {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer w = stack.mallocInt(1);
+            IntBuffer h = stack.mallocInt(1);
+            IntBuffer comp = stack.mallocInt(1);
+            if (!STBImage.stbi_info_from_memory(readResource(resourcePath), w, h, comp)) {
+                throw new RuntimeException("Failed to read texture info! " + resourcePath + ": " + STBImage.stbi_failure_reason());
+            }
+            return new int[]{w.get(0), h.get(0)};
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 从 classpath 读取资源的全部字节到 direct buffer
+     */
+    static ByteBuffer readResource(String resourcePath) throws IOException {
+        try (InputStream in = ImageData.class.getClassLoader().getResourceAsStream(resourcePath)) {
+            if (in == null) {
+                throw new IOException("Resource not found: " + resourcePath);
+            }
+            byte[] bytes = in.readAllBytes();
+            ByteBuffer buffer = BufferUtils.createByteBuffer(bytes.length);
+            buffer.put(bytes);
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    void free() {
+        STBImage.stbi_image_free(pixels);
+    }
+}
@@ -0,0 +1,141 @@
+package undertale.Texture;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import undertale.Shaders.ShaderProgram;
+
+/**
+ * 一帧的渲染快照(按提交顺序录制的绘制命令), 本身不调用任何 GL 函数
+ * 在独立更新线程模式下, 更新线程遍历场景的 render() 时 SpriteBatch 处于录制状态,
+ * 精灵批次和三角形绘制都被拷贝进快照; GL 线程只负责 replay() 把快照按原顺序绘制出来。
+ * 快照通过 TripleBuffer 在两个线程间交换, clear() 后复用内部数组, 稳定后不再分配内存。
+ */
+public class RenderSnapshot {
+    static final int SPRITES = 0;
+    static final int TRIANGLES = 1;
+
+    private int commandCount = 0;
+    private int[] types = new int[64];
+    private int[] textureIds = new int[64];
+    private int[] dataStart = new int[64];
+    private int[] counts = new int[64];
+    // SPRITES 为实例化 program 名称, TRIANGLES 为普通 shader 名称
+    private String[] shaders = new String[64];
+    // 每条命令一项, 与命令下标一一对应; clear() 后复用
+    private final ArrayList<Consumer<ShaderProgram>> uniformSetters = new ArrayList<>(64);
+    // TRIANGLES 命令的 uColor, 每条命令 4 个分量
+    private float[] colors = new float[64 * 4];
+
+    private float[] data = new float[4096];
+    private int dataSize = 0;
+    // 录制顺序的序号, 由更新线程在录制后设置; GL 线程据此判断何时可以卸载已释放的资源包
+    private long sequence = 0;
+
+    public void clear() {
+        Arrays.fill(shaders, 0, commandCount, null);
+        uniformSetters.clear();
+        commandCount = 0;
+        dataSize = 0;
+    }
+
+    /**
+     * 录制一个精灵批次
+     * @param instances 实例数据, 读取 [0, instanceCount * SpriteBatch.FLOATS_PER_INSTANCE)
+     */
+    void addSprites(int textureId, String program, FloatBuffer instances, int instanceCount) {
+        int start = appendData(instances, instanceCount * SpriteBatch.FLOATS_PER_INSTANCE);
+        addCommand(SPRITES, textureId, start, instanceCount, program, null);
+    }
+
+    /**
+     * 录制一次三角形列表绘制, 顶点格式为 (x, y, u, v)
+     * @param vertices 读取 [position, limit) 范围的数据, 不改变 position
+     */
+    void addTriangles(int textureId, String shaderName, Consumer<ShaderProgram> uniformSetter, float r, float g, float b, float a, FloatBuffer vertices, int vertexCount) {
+        int start = appendData(vertices, vertexCount * 4);
+        int command = commandCount;
+        addCommand(TRIANGLES, textureId, start, vertexCount, shaderName, uniformSetter);
+        colors[command * 4] = r;
+        colors[command * 4 + 1] = g;
+        colors[command * 4 + 2] = b;
+        colors[command * 4 + 3] = a;
+    }
+
+    /**
+     * 在 GL 线程上按录制顺序绘制快照
+     */
+    public void replay() {
+        SpriteBatch spriteBatch = SpriteBatch.getInstance();
+        for (int i = 0; i < commandCount; i++) {
+            if (types[i] == SPRITES) {
+                spriteBatch.drawRecorded(textureIds[i], shaders[i], data, dataStart[i], counts[i]);
+            } else {
+                Texture.drawRecordedTriangles(textureIds[i], shaders[i], uniformSetters.get(i),
+                    colors[i * 4], colors[i * 4 + 1], colors[i * 4 + 2], colors[i * 4 + 3], data, dataStart[i], counts[i]);
+            }
+        }
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public int getCommandCount() {
+        return commandCount;
+    }
+
+    int getType(int i) {
+        return types[i];
+    }
+
+    int getCount(int i) {
+        return counts[i];
+    }
+
+    int getTextureId(int i) {
+        return textureIds[i];
+    }
+
+    float getData(int command, int offset) {
+        return data[dataStart[command] + offset];
+    }
+
+    private int appendData(FloatBuffer src, int floatCount) {
+        if (dataSize + floatCount > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, dataSize + floatCount));
+        }
+        int start = dataSize;
+        int base = src.position();
+        for (int i = 0; i < floatCount; i++) {
+            data[start + i] = src.get(base + i);
+        }
+        dataSize += floatCount;
+        return start;
+    }
+
+    private void addCommand(int type, int textureId, int start, int count, String shader, Consumer<ShaderProgram> uniformSetter) {
+        if (commandCount == types.length) {
+            int capacity = types.length * 2;
+            types = Arrays.copyOf(types, capacity);
+            textureIds = Arrays.copyOf(textureIds, capacity);
+            dataStart = Arrays.copyOf(dataStart, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            shaders = Arrays.copyOf(shaders, capacity);
+            colors = Arrays.copyOf(colors, capacity * 4);
+        }
+        types[commandCount] = type;
+        textureIds[commandCount] = textureId;
+        dataStart[commandCount] = start;
+        counts[commandCount] = count;
+        shaders[commandCount] = shader;
+        uniformSetters.add(uniformSetter);
+        commandCount++;
+    }
+}
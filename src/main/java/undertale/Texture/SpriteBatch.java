@@ -0,0 +1,282 @@
+package undertale.Texture;
+
+import org.lwjgl.BufferUtils;
+
+import undertale.Shaders.GLState;
+import undertale.Shaders.ShaderManager;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL13.*;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL31.*;
+import static org.lwjgl.opengl.GL33.*;
+
+import java.nio.FloatBuffer;
+
+/**
+ * 精灵合批渲染器(实例化绘制)
+ * 收集同一帧内连续提交的精灵, 只要纹理和 shader 不变就写入同一个实例缓冲, 在以下时机统一上传并
+ * 用一次 glDrawArraysInstanced 绘制:
+ * 1. 提交的纹理或 shader 与当前批次不同
+ * 2. 缓冲区已满
+ * 3. 外部显式调用 flush() (层级边界、非合批绘制之前、交换缓冲区之前)
+ * 每个精灵只上传一个实例(中心、尺寸、旋转、颜色、uv 矩形、shader 参数), 四个角的旋转在
+ * sprite_vertex_shader 中完成。颜色和 shader 参数是逐实例属性, 因此不同颜色/透明度/高亮程度的
+ * 精灵可以合并到同一次 draw call 中。
+ * 为保证透明混合的绘制顺序, 批次只合并相邻的提交, 不会跨纹理重排。
+ * 处于录制状态(beginRecording)时, flush() 不调用 GL, 而是把批次拷贝进 RenderSnapshot, 由 GL 线程回放。
+ */
+public class SpriteBatch {
+    private static SpriteBatch instance;
+
+    // 每个实例: cx, cy, w, h, rotation, r, g, b, a, u0, v0, u1, v1, param
+    static final int FLOATS_PER_INSTANCE = 14;
+    static final int MAX_SPRITES = 4096;
+    // 距离场圆/圆环, shaderParam 为内半径与外半径之比(0 为实心)
+    static final String CIRCLE_SHADER = "circle_shader";
+    // 径向渐变光晕, shaderParam 为叠加的光圈层数, 颜色的 a 为单层透明度
+    static final String LIGHT_SHADER = "light_shader";
+
+    private final GLState glState = GLState.getInstance();
+    private final FloatBuffer instances;
+    private int spriteCount = 0;
+    private int currentTextureId = -1;
+    private String currentProgram = null;
+
+    private int vao = 0;
+    private int cornerVbo = 0;
+    // 逐实例数据的流式缓冲, 每段可容纳两个满批次
+    private StreamBuffer instanceStream;
+    private boolean glInitialized = false;
+
+    // 录制目标, 非空时 flush() 只录制不绘制
+    private RenderSnapshot recording = null;
+    // 回放快照时上传实例数据用的缓冲, 只在 GL 线程使用
+    private FloatBuffer replayInstances;
+
+    // 统计信息
+    private int drawCalls = 0;
+    private int spritesSubmitted = 0;
+
+    static {
+        instance = new SpriteBatch();
+    }
+
+    private SpriteBatch() {
+        instances = BufferUtils.createFloatBuffer(MAX_SPRITES * FLOATS_PER_INSTANCE);
+    }
+
+    public static SpriteBatch getInstance() {
+        if (instance == null) {
+            synchronized (SpriteBatch.class) {
+                if (instance == null) {
+                    instance = new SpriteBatch();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 普通 shader 名称对应的实例化 program, 不支持合批的 shader 返回 null
+     */
+    static String instancedProgramOf(String shaderName) {
+        if (shaderName == null || shaderName.equals("texture_shader")) return "sprite_shader";
+        if (shaderName.equals("titan_spawn_shader")) return "sprite_titan_spawn_shader";
+        if (shaderName.equals("tp_shader")) return "sprite_tp_shader";
+        // 只能合批绘制的 shader, 没有对应的普通 shader
+        if (shaderName.equals(CIRCLE_SHADER)) return "sprite_circle_shader";
+        if (shaderName.equals(LIGHT_SHADER)) return "sprite_light_shader";
+        return null;
+    }
+
+    /**
+     * 该 shader 是否可以走合批路径(不需要自定义 uniformSetter)
+     */
+    public static boolean supports(String shaderName) {
+        return instancedProgramOf(shaderName) != null;
+    }
+
+    /**
+     * 提交一个使用默认 shader 的精灵, 参数含义与 Texture.drawTexture 相同
+     */
+    public void draw(int textureId, float x, float y, float width, float height, float rotation,
+                     float r, float g, float b, float a, float u0, float v0, float u1, float v1) {
+        draw(textureId, x, y, width, height, rotation, r, g, b, a, u0, v0, u1, v1, null, 0f);
+    }
+
+    /**
+     * 提交一个精灵
+     * @param shaderName 普通 shader 名称(texture_shader / titan_spawn_shader / tp_shader), 或合批专用的 circle_shader / light_shader
+     * @param shaderParam 逐精灵的 shader 参数, titan_spawn_shader 中为 uScale, tp_shader 中为 uWhiteStrength,
+     *                    circle_shader 中为内外半径之比, light_shader 中为光圈层数
+     */
+    public void draw(int textureId, float x, float y, float width, float height, float rotation,
+                     float r, float g, float b, float a, float u0, float v0, float u1, float v1,
+                     String shaderName, float shaderParam) {
+        // 未驻留的资源包纹理(ID 为 0)不绘制
+        if (textureId == 0) return;
+        String program = instancedProgramOf(shaderName);
+        if (program == null) {
+            throw new IllegalArgumentException("Shader does not support batching: " + shaderName);
+        }
+        if (textureId != currentTextureId || !program.equals(currentProgram) || spriteCount >= MAX_SPRITES) {
+            flush();
+            currentTextureId = textureId;
+            currentProgram = program;
+        }
+        instances.put(x + width / 2.0f).put(y + height / 2.0f).put(width).put(height).put(rotation)
+            .put(r).put(g).put(b).put(a)
+            .put(u0).put(v0).put(u1).put(v1)
+            .put(shaderParam);
+        spriteCount++;
+        spritesSubmitted++;
+    }
+
+    /**
+     * 将当前批次一次性上传并绘制(录制时写入快照), 没有待绘制的精灵时不产生任何 GL 调用
+     */
+    public void flush() {
+        if (spriteCount == 0) return;
+        instances.flip();
+        if (recording != null) {
+            recording.addSprites(currentTextureId, currentProgram, instances, spriteCount);
+        } else {
+            drawInstances(instances, spriteCount, currentTextureId, currentProgram);
+        }
+        instances.clear();
+        spriteCount = 0;
+        currentTextureId = -1;
+        currentProgram = null;
+    }
+
+    /**
+     * 开始录制: 之后的精灵批次和 Texture 的三角形绘制都写入 snapshot 而不是调用 GL
+     */
+    public void beginRecording(RenderSnapshot snapshot) {
+        flush();
+        recording = snapshot;
+    }
+
+    /**
+     * 结束录制, 提交最后一个批次到快照
+     */
+    public void endRecording() {
+        flush();
+        recording = null;
+    }
+
+    /**
+     * 当前录制目标, 未录制时为 null
+     */
+    RenderSnapshot getRecording() {
+        return recording;
+    }
+
+    /**
+     * 回放快照中的一个精灵批次(GL 线程)
+     */
+    void drawRecorded(int textureId, String program, float[] data, int start, int instanceCount) {
+        if (replayInstances == null) {
+            replayInstances = BufferUtils.createFloatBuffer(MAX_SPRITES * FLOATS_PER_INSTANCE);
+        }
+        replayInstances.clear();
+        replayInstances.put(data, start, instanceCount * FLOATS_PER_INSTANCE).flip();
+        drawInstances(replayInstances, instanceCount, textureId, program);
+    }
+
+    private void drawInstances(FloatBuffer buffer, int count, int textureId, String programName) {
+        ensureGLInitialized();
+        int program = ShaderManager.getInstance().getProgram(programName);
+        // uScreenSize 来自共享的 UBO, uTexture 在链接后已设为 0, 实例化绘制不需要逐批设置 uniform
+        glState.useProgram(program);
+
+        glState.bindTexture(0, textureId);
+        glState.bindVertexArray(vao);
+        // 实例数据写入流式缓冲的当前段, 逐实例属性指向本批数据的起始偏移
+        long offset = instanceStream.write(buffer, Float.BYTES);
+        pointInstanceAttributes(offset);
+        glDrawArraysInstanced(GL_TRIANGLES, 0, 6, count);
+
+        drawCalls++;
+    }
+
+    /**
+     * 帧结束: 提交剩余精灵并重置统计
+     */
+    public void endFrame() {
+        flush();
+        resetFrameStats();
+    }
+
+    /**
+     * 只重置统计, 不提交批次; 回放快照的 GL 线程使用, 避免触碰更新线程正在录制的缓冲
+     */
+    public void resetFrameStats() {
+        drawCalls = 0;
+        spritesSubmitted = 0;
+    }
+
+    public int getPendingSpriteCount() {
+        return spriteCount;
+    }
+
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+
+    public int getSpritesSubmitted() {
+        return spritesSubmitted;
+    }
+
+    private void ensureGLInitialized() {
+        if (glInitialized) return;
+        vao = glGenVertexArrays();
+        glState.bindVertexArray(vao);
+
+        // 单位四边形的 6 个角(2 个三角形), (0,0) 为左上, (1,1) 为右下
+        cornerVbo = glGenBuffers();
+        glState.bindBuffer(GL_ARRAY_BUFFER, cornerVbo);
+        FloatBuffer corners = BufferUtils.createFloatBuffer(12);
+        corners.put(new float[] {0, 0, 1, 0, 1, 1, 0, 0, 1, 1, 0, 1}).flip();
+        glBufferData(GL_ARRAY_BUFFER, corners, GL_STATIC_DRAW);
+        glEnableVertexAttribArray(0);
+        glVertexAttribPointer(0, 2, GL_FLOAT, false, 2 * Float.BYTES, 0);
+
+        // 逐实例属性
+        instanceStream = new StreamBuffer(2 * MAX_SPRITES * FLOATS_PER_INSTANCE * Float.BYTES);
+        for (int location = 1; location <= 5; location++) {
+            glEnableVertexAttribArray(location);
+            glVertexAttribDivisor(location, 1);
+        }
+        pointInstanceAttributes(0);
+        glInitialized = true;
+    }
+
+    /**
+     * 让逐实例属性指向流式缓冲中从 offset 开始的数据(VAO 须已绑定)
+     */
+    private void pointInstanceAttributes(long offset) {
+        glState.bindBuffer(GL_ARRAY_BUFFER, instanceStream.getId());
+        int stride = FLOATS_PER_INSTANCE * Float.BYTES;
+        instanceAttribute(1, 4, stride, offset, 0);  // iRect: cx, cy, w, h
+        instanceAttribute(2, 1, stride, offset, 4);  // iRotation
+        instanceAttribute(3, 4, stride, offset, 5);  // iColor
+        instanceAttribute(4, 4, stride, offset, 9);  // iUV: u0, v0, u1, v1
+        instanceAttribute(5, 1, stride, offset, 13); // iParam
+    }
+
+    private void instanceAttribute(int location, int size, int stride, long baseOffset, int offsetFloats) {
+        glVertexAttribPointer(location, size, GL_FLOAT, false, stride, baseOffset + (long)offsetFloats * Float.BYTES);
+    }
+
+    public void destroy() {
+        if (!glInitialized) return;
+        glState.deleteBuffer(cornerVbo);
+        instanceStream.destroy();
+        glState.deleteVertexArray(vao);
+        glInitialized = false;
+    }
+}
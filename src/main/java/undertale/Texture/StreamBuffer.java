@@ -0,0 +1,151 @@
+package undertale.Texture;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
+import org.lwjgl.system.MemoryUtil;
+
+import undertale.Shaders.GLState;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL32.*;
+import static org.lwjgl.opengl.GL44.*;
+
+/**
+ * 环形流式顶点缓冲, 代替每次绘制都 glBufferData(GL_STREAM_DRAW) 重新分配驱动存储
+ * 缓冲区分为 REGIONS 段, 每帧写一段; 离开一段时插入 glFenceSync, 再次写入该段前等待 GPU 用完。
+ * 支持 GL 4.4 / ARB_buffer_storage 时使用持久映射(只映射一次, 直接拷贝);
+ * 否则(Window 请求的 3.3 core)每次写入用 glMapBufferRange(UNSYNCHRONIZED | INVALIDATE_RANGE) 映射对应范围。
+ * 只能在 GL 线程使用。
+ */
+public final class StreamBuffer {
+    static final int REGIONS = 3;
+    // GL 线程上所有存活的流式缓冲, 帧结束时统一换段
+    private static final ArrayList<StreamBuffer> live = new ArrayList<>();
+
+    private final GLState glState = GLState.getInstance();
+    private final StreamRing ring;
+    private final long[] fences = new long[REGIONS];
+    private final int id;
+    private final boolean persistent;
+    private long mappedAddress = 0;
+    // 因 GPU 尚未用完下一段而等待的次数
+    private int stalls = 0;
+
+    StreamBuffer(int regionBytes) {
+        ring = new StreamRing(regionBytes, REGIONS);
+        id = glGenBuffers();
+        glState.bindBuffer(GL_ARRAY_BUFFER, id);
+        GLCapabilities caps = GL.getCapabilities();
+        persistent = caps.OpenGL44 || caps.GL_ARB_buffer_storage;
+        if (persistent) {
+            int flags = GL_MAP_WRITE_BIT | GL_MAP_PERSISTENT_BIT | GL_MAP_COHERENT_BIT;
+            glBufferStorage(GL_ARRAY_BUFFER, ring.getTotalBytes(), flags);
+            ByteBuffer mapped = glMapBufferRange(GL_ARRAY_BUFFER, 0, ring.getTotalBytes(), flags);
+            mappedAddress = MemoryUtil.memAddress(mapped);
+        } else {
+            glBufferData(GL_ARRAY_BUFFER, ring.getTotalBytes(), GL_STREAM_DRAW);
+        }
+        live.add(this);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return 单次写入的最大字节数
+     */
+    int getMaxWriteBytes() {
+        return ring.getRegionBytes();
+    }
+
+    /**
+     * 把 data 的剩余内容写入缓冲(不改变 data 的 position), 写入后 GL_ARRAY_BUFFER 绑定为本缓冲
+     * @param alignment 起始偏移的对齐字节数, 按顶点下标绘制时传入顶点大小
+     * @return 数据在缓冲中的字节偏移
+     */
+    long write(FloatBuffer data, int alignment) {
+        int bytes = data.remaining() * Float.BYTES;
+        if (bytes > ring.getRegionBytes()) {
+            throw new IllegalArgumentException("Stream write of " + bytes + " bytes exceeds region size " + ring.getRegionBytes());
+        }
+        if (!ring.fits(bytes, alignment)) {
+            finishRegion();
+        }
+        long offset = ring.reserve(bytes, alignment);
+        glState.bindBuffer(GL_ARRAY_BUFFER, id);
+        if (persistent) {
+            MemoryUtil.memCopy(MemoryUtil.memAddress(data), mappedAddress + offset, bytes);
+        } else {
+            // 该段已由 fence 保护, 不需要驱动再做同步
+            ByteBuffer mapped = glMapBufferRange(GL_ARRAY_BUFFER, offset, bytes,
+                GL_MAP_WRITE_BIT | GL_MAP_UNSYNCHRONIZED_BIT | GL_MAP_INVALIDATE_RANGE_BIT);
+            MemoryUtil.memCopy(MemoryUtil.memAddress(data), MemoryUtil.memAddress(mapped), bytes);
+            glUnmapBuffer(GL_ARRAY_BUFFER);
+        }
+        return offset;
+    }
+
+    /**
+     * 给当前段插入 fence, 换到下一段并等待 GPU 用完它
+     */
+    private void finishRegion() {
+        fences[ring.getRegion()] = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+        ring.nextRegion();
+        long fence = fences[ring.getRegion()];
+        if (fence != 0) {
+            int status = glClientWaitSync(fence, 0, 0);
+            if (status == GL_TIMEOUT_EXPIRED) {
+                stalls++;
+                while (status == GL_TIMEOUT_EXPIRED) {
+                    status = glClientWaitSync(fence, GL_SYNC_FLUSH_COMMANDS_BIT, 1_000_000L);
+                }
+            }
+            glDeleteSync(fence);
+            fences[ring.getRegion()] = 0;
+        }
+    }
+
+    private void endFrameInternal() {
+        if (ring.isRegionUsed()) {
+            finishRegion();
+        }
+    }
+
+    /**
+     * 帧结束时调用(GL 线程): 所有流式缓冲换到下一段
+     */
+    public static void endFrame() {
+        for (StreamBuffer buffer : live) {
+            buffer.endFrameInternal();
+        }
+    }
+
+    public int getStallCount() {
+        return stalls;
+    }
+
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    void destroy() {
+        for (int i = 0; i < REGIONS; i++) {
+            if (fences[i] != 0) {
+                glDeleteSync(fences[i]);
+                fences[i] = 0;
+            }
+        }
+        if (persistent) {
+            glState.bindBuffer(GL_ARRAY_BUFFER, id);
+            glUnmapBuffer(GL_ARRAY_BUFFER);
+        }
+        glState.deleteBuffer(id);
+        live.remove(this);
+    }
+}
@@ -0,0 +1,69 @@
+package undertale.Texture;
+
+/**
+ * 流式顶点缓冲的环形分配: 缓冲区等分为 regionCount 段, 每帧(或当前段写满时)换到下一段
+ * 只做偏移计算, 不调用 GL; 段切换时的 fence 由 StreamBuffer 处理
+ */
+final class StreamRing {
+    private final int regionBytes;
+    private final int regionCount;
+    private int region = 0;
+    private int cursor = 0; // 当前段内已使用的字节数
+
+    StreamRing(int regionBytes, int regionCount) {
+        this.regionBytes = regionBytes;
+        this.regionCount = regionCount;
+    }
+
+    /**
+     * @return 按 alignment 对齐后当前段是否还能放下 bytes 字节
+     */
+    boolean fits(int bytes, int alignment) {
+        return align(cursor, alignment) + bytes <= regionBytes;
+    }
+
+    /**
+     * 在当前段中分配 bytes 字节, 调用前须先确认 fits()
+     * @return 在整个缓冲区中的字节偏移
+     */
+    long reserve(int bytes, int alignment) {
+        int start = align(cursor, alignment);
+        if (start + bytes > regionBytes) {
+            throw new IllegalStateException("Stream region overflow: " + bytes + " bytes at " + start);
+        }
+        cursor = start + bytes;
+        return (long)region * regionBytes + start;
+    }
+
+    /**
+     * 换到下一段(环绕)
+     */
+    void nextRegion() {
+        region = (region + 1) % regionCount;
+        cursor = 0;
+    }
+
+    boolean isRegionUsed() {
+        return cursor > 0;
+    }
+
+    int getRegion() {
+        return region;
+    }
+
+    int getRegionBytes() {
+        return regionBytes;
+    }
+
+    int getRegionCount() {
+        return regionCount;
+    }
+
+    long getTotalBytes() {
+        return (long)regionBytes * regionCount;
+    }
+
+    private static int align(int value, int alignment) {
+        return (value + alignment - 1) / alignment * alignment;
+    }
+}
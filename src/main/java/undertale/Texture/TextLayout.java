@@ -0,0 +1,222 @@
+package undertale.Texture;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+
+/**
+ * 排好版的一段文字: 按行拆分后的字形四边形和测量结果, 由 FontManager.getLayout() 创建并缓存
+ * 顶点以 (0, 0) 为原点, 绘制时平移到取整后的位置, 因此同一段文字每帧绘制不需要重新计算字形和换行。
+ * 打字机效果只需绘制前 N 个字符对应的四边形(drawPrefix)。
+ */
+public final class TextLayout {
+    static final int FLOATS_PER_QUAD = 6 * 4;
+    // 小于该码位的控制字符不绘制、不占字距
+    private static final int FIRST_VISIBLE = 32;
+
+    private final int textureId;
+    // 每个字形 6 个顶点(x, y, u, v), 按行和字符顺序排列
+    private final float[] vertices;
+    // quadsBefore[n]: 前 n 个显示字符对应的四边形数量, 长度为 charCount + 1
+    private final int[] quadsBefore;
+    private final int[] lineStart;
+    private final boolean[] paragraphStart;
+    private final int lineCount;
+    private final int charCount;
+    private final float width;
+
+    private TextLayout(int textureId, float[] vertices, int[] quadsBefore, int[] lineStart, boolean[] paragraphStart, int lineCount, int charCount, float width) {
+        this.textureId = textureId;
+        this.vertices = vertices;
+        this.quadsBefore = quadsBefore;
+        this.lineStart = lineStart;
+        this.paragraphStart = paragraphStart;
+        this.lineCount = lineCount;
+        this.charCount = charCount;
+        this.width = width;
+    }
+
+    /**
+     * 排版文字(不调用 GL)
+     * wrapWidth > 0 时先按 \n 分段, 再按空格贪心换行, 单词超宽时先逐字符断开直到剩余部分放得下(与原 TypeWriter 一致), 空段落不占行;
+     * wrapWidth <= 0 时整段文字排成一行, 控制字符不绘制。
+     * 按码位取字形, 代理对只在第一个 char 上生成四边形和字距; 用到的新字形由 glyphCache 生成并排队上传。
+     * 字形位置取整到像素, 尺寸和字距按 scale 缩放。
+     * @param lineHeight 行距(像素)
+     */
+    static TextLayout build(String text, float scale, float wrapWidth, float lineHeight, int textureId, GlyphCache glyphCache) {
+        int length = text.length();
+        // 每个 char 的字形 slot, 控制字符和代理对的第二个 char 为 -1
+        int[] slots = new int[length];
+        // advance[i]: text[0, i) 的总字距, 换行时 O(1) 测量任意子串
+        float[] advance = new float[length + 1];
+        for (int i = 0; i < length; i++) {
+            char ch = text.charAt(i);
+            int slot = -1;
+            if (!Character.isLowSurrogate(ch) || i == 0 || !Character.isHighSurrogate(text.charAt(i - 1))) {
+                int codepoint = text.codePointAt(i);
+                if (codepoint >= FIRST_VISIBLE) slot = glyphCache.slot(codepoint);
+            }
+            slots[i] = slot;
+            advance[i + 1] = advance[i] + (slot >= 0 ? glyphCache.getAdvance(slot) * scale : 0);
+        }
+        float[] glyphs = glyphCache.getGlyphs();
+
+        // 每行为 text 中的 [start, end)
+        ArrayList<int[]> lines = new ArrayList<>();
+        ArrayList<Boolean> paragraphs = new ArrayList<>();
+        if (wrapWidth <= 0) {
+            if (length > 0) {
+                lines.add(new int[] {0, length});
+                paragraphs.add(true);
+            }
+        } else {
+            int rawStart = 0;
+            while (rawStart <= length) {
+                int newline = text.indexOf('\n', rawStart);
+                int rawEnd = newline == -1 ? length : newline;
+                boolean first = true;
+                int start = rawStart;
+                while (start < rawEnd) {
+                    int end = start;
+                    while (end < rawEnd) {
+                        int nextSpace = text.indexOf(' ', end);
+                        if (nextSpace >= rawEnd) nextSpace = -1;
+                        int wordEnd = nextSpace == -1 ? rawEnd : nextSpace;
+                        if (advance[wordEnd] - advance[start] > wrapWidth) break;
+                        end = nextSpace == -1 ? rawEnd : nextSpace + 1;
+                    }
+                    if (end == start) end++;
+                    lines.add(new int[] {start, end});
+                    // 只有原始 \n 之后的第一行为 true
+                    paragraphs.add(first);
+                    first = false;
+                    start = end;
+                }
+                if (newline == -1) break;
+                rawStart = newline + 1;
+            }
+        }
+
+        int lineCount = lines.size();
+        int[] lineStart = new int[lineCount];
+        boolean[] paragraphStart = new boolean[lineCount];
+        int charCount = 0;
+        int glyphCount = 0;
+        for (int i = 0; i < lineCount; i++) {
+            int[] line = lines.get(i);
+            lineStart[i] = charCount;
+            paragraphStart[i] = paragraphs.get(i);
+            charCount += line[1] - line[0];
+            for (int c = line[0]; c < line[1]; c++) {
+                if (slots[c] >= 0) glyphCount++;
+            }
+        }
+
+        float[] vertices = new float[glyphCount * FLOATS_PER_QUAD];
+        int[] quadsBefore = new int[charCount + 1];
+        float width = 0;
+        int chars = 0;
+        int quads = 0;
+        for (int i = 0; i < lineCount; i++) {
+            int[] line = lines.get(i);
+            float xpos = 0;
+            float y = i * lineHeight;
+            for (int c = line[0]; c < line[1]; c++) {
+                if (slots[c] >= 0) {
+                    int base = slots[c] * FontManager.GLYPH_FLOATS;
+                    float x0 = (float)Math.floor(xpos + glyphs[base] + 0.5f);
+                    float y0 = (float)Math.floor(y + glyphs[base + 1] + 0.5f);
+                    float x1 = x0 + glyphs[base + 2] * scale;
+                    float y1 = y0 + glyphs[base + 3] * scale;
+                    putQuad(vertices, quads * FLOATS_PER_QUAD, x0, y0, x1, y1,
+                        glyphs[base + 4], glyphs[base + 5], glyphs[base + 6], glyphs[base + 7]);
+                    quads++;
+                }
+                xpos += advance[c + 1] - advance[c];
+                quadsBefore[++chars] = quads;
+            }
+            width = Math.max(width, xpos);
+        }
+        return new TextLayout(textureId, vertices, quadsBefore, lineStart, paragraphStart, lineCount, charCount, width);
+    }
+
+    private static void putQuad(float[] dst, int offset, float x0, float y0, float x1, float y1, float s0, float t0, float s1, float t1) {
+        int o = offset;
+        // tri1
+        o = putVertex(dst, o, x0, y0, s0, t0);
+        o = putVertex(dst, o, x1, y0, s1, t0);
+        o = putVertex(dst, o, x1, y1, s1, t1);
+        // tri2
+        o = putVertex(dst, o, x0, y0, s0, t0);
+        o = putVertex(dst, o, x1, y1, s1, t1);
+        putVertex(dst, o, x0, y1, s0, t1);
+    }
+
+    private static int putVertex(float[] dst, int offset, float x, float y, float u, float v) {
+        dst[offset] = x;
+        dst[offset + 1] = y;
+        dst[offset + 2] = u;
+        dst[offset + 3] = v;
+        return offset + 4;
+    }
+
+    public void draw(float x, float y, float r, float g, float b, float a) {
+        drawPrefix(x, y, charCount, r, g, b, a);
+    }
+
+    /**
+     * 只绘制前 charCount 个显示字符(跨行计数, 不含换行符), 用于打字机效果
+     */
+    public void drawPrefix(float x, float y, int charCount, float r, float g, float b, float a) {
+        int quads = quadsBefore[Math.max(0, Math.min(charCount, this.charCount))];
+        if (quads == 0) return;
+        float ox = (float)Math.floor(x + 0.5f);
+        float oy = (float)Math.floor(y + 0.5f);
+        FloatBuffer buf = Texture.scratchVertices(quads * FLOATS_PER_QUAD);
+        for (int i = 0; i < quads * FLOATS_PER_QUAD; i += 4) {
+            buf.put(vertices[i] + ox).put(vertices[i + 1] + oy).put(vertices[i + 2]).put(vertices[i + 3]);
+        }
+        buf.flip();
+        Texture.drawQuads(buf, quads, textureId, r, g, b, a, FontManager.TEXT_SHADER);
+    }
+
+    /**
+     * @return 最宽一行的宽度(已按 scale 缩放)
+     */
+    public float getWidth() {
+        return width;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * @return 第 line 行的字符数(含行尾空格)
+     */
+    public int getLineLength(int line) {
+        return (line + 1 < lineCount ? lineStart[line + 1] : charCount) - lineStart[line];
+    }
+
+    /**
+     * @return 第 line 行是否为原始文字中一个段落(\n 分隔)的第一行
+     */
+    public boolean isParagraphStart(int line) {
+        return paragraphStart[line];
+    }
+
+    /**
+     * @return 所有行的字符总数
+     */
+    public int getCharCount() {
+        return charCount;
+    }
+
+    int getQuadCount(int charCount) {
+        return quadsBefore[charCount];
+    }
+
+    float getVertex(int index) {
+        return vertices[index];
+    }
+}
@@ -0,0 +1,74 @@
+package undertale.Texture;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * TextLayout 的 LRU 缓存, 以 (文字, 字体, 缩放, 换行宽度) 为键
+ * 查询时复用同一个键对象, 命中时不分配内存; 超出容量时淘汰最久未使用的排版。
+ */
+final class TextLayoutCache {
+    private final LinkedHashMap<Key, TextLayout> layouts;
+    private final Key lookup = new Key();
+
+    TextLayoutCache(int capacity) {
+        layouts = new LinkedHashMap<Key, TextLayout>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, TextLayout> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    TextLayout get(String text, String fontKey, float scale, float wrapWidth) {
+        return layouts.get(lookup.set(text, fontKey, scale, wrapWidth));
+    }
+
+    void put(String text, String fontKey, float scale, float wrapWidth, TextLayout layout) {
+        layouts.put(new Key().set(text, fontKey, scale, wrapWidth), layout);
+    }
+
+    int size() {
+        return layouts.size();
+    }
+
+    void clear() {
+        layouts.clear();
+    }
+
+    private static final class Key {
+        private String text;
+        private String fontKey;
+        private float scale;
+        private float wrapWidth;
+        private int hash;
+
+        Key set(String text, String fontKey, float scale, float wrapWidth) {
+            this.text = text;
+            this.fontKey = fontKey;
+            this.scale = scale;
+            this.wrapWidth = wrapWidth;
+            int h = text.hashCode();
+            h = 31 * h + (fontKey != null ? fontKey.hashCode() : 0);
+            h = 31 * h + Float.floatToIntBits(scale);
+            hash = 31 * h + Float.floatToIntBits(wrapWidth);
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key)o;
+            return hash == other.hash
+                && Float.compare(scale, other.scale) == 0
+                && Float.compare(wrapWidth, other.wrapWidth) == 0
+                && text.equals(other.text)
+                && (fontKey == null ? other.fontKey == null : fontKey.equals(other.fontKey));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
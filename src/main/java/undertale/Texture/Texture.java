@@ -1,11 +1,10 @@
 package undertale.Texture;
 
 import org.lwjgl.BufferUtils;
-import org.lwjgl.stb.STBImage;
-import org.lwjgl.system.MemoryStack;
 
-import undertale.GameMain.Game;
+import undertale.Shaders.GLState;
 import undertale.Shaders.ShaderManager;
+import undertale.Shaders.ShaderProgram;
 
 import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.opengl.GL13.*;
@@ -13,10 +12,7 @@ import static org.lwjgl.opengl.GL15.*;
 import static org.lwjgl.opengl.GL20.*;
 import static org.lwjgl.opengl.GL30.*;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.nio.ByteBuffer;
-import java.nio.IntBuffer;
 import java.nio.FloatBuffer;
 import java.util.function.Consumer;
 
@@ -24,58 +20,116 @@ public class Texture {
     private int id;
     private int width;
     private int height;
+    // 在所属纹理(图集页)中的 uv 矩形, v0 为上边, v1 为下边; 独立纹理为整张图 (0,0)-(1,1)
+    private float regionU0 = 0f, regionV0 = 0f, regionU1 = 1f, regionV1 = 1f;
+    // 图集中的 region 不拥有 GL 纹理, 由 TextureAtlas 统一释放
+    private boolean ownsTexture = true;
 
     // Shared rendering resources for textured quads (lazy init)
     private static int quadVao = 0;
-    private static int quadVbo = 0;
+    // 非合批绘制的顶点流(x, y, u, v), 每段 256KB
+    private static StreamBuffer quadStream;
+    private static final int VERTEX_BYTES = 4 * Float.BYTES;
+    private static final int QUAD_STREAM_REGION_BYTES = 256 * 1024;
     public static int whiteTextureId = 0; // 1x1 white texture for color-only draws
     private static boolean glInitialized = false;
-    private static int screenWidth = Game.getWindowWidth();
-    private static int screenHeight = Game.getWindowHeight();
-    private static ShaderManager shaderManager = ShaderManager.getInstance();
+    // 回放快照时上传顶点用的缓冲, 只在 GL 线程使用
+    private static FloatBuffer replayVertices;
+    // 非合批几何的顶点暂存区, 每次绘制复用, 不再逐次分配 direct buffer;
+    // 同一时刻只有一个线程在绘制(单线程模式的 GL 线程, 或录制快照的更新线程)
+    private static FloatBuffer scratchVertices = BufferUtils.createFloatBuffer(1024);
+    private static SpriteBatch spriteBatch = SpriteBatch.getInstance();
+    private static GLState glState = GLState.getInstance();
 
     public Texture(String resourcePath, int filterType) {
-        try (MemoryStack stack = MemoryStack.stackPush()) {
-            IntBuffer w = stack.mallocInt(1);
-            IntBuffer h = stack.mallocInt(1);
-            IntBuffer comp = stack.mallocInt(1);
-
-            ByteBuffer image;
-            try (InputStream in = getClass().getClassLoader().getResourceAsStream(resourcePath)) {
-                if (in == null) {
-                    throw new IOException("Resource not found: " + resourcePath);
-                }
-                byte[] bytes = in.readAllBytes();
-                ByteBuffer buffer = BufferUtils.createByteBuffer(bytes.length);
-                buffer.put(bytes);
-                buffer.flip();
-                image = STBImage.stbi_load_from_memory(buffer, w, h, comp, 4);
-            }
-
-            if (image == null) {
-                throw new RuntimeException("Failed to load a texture file! " + STBImage.stbi_failure_reason());
-            }
-
-            width = w.get();
-            height = h.get();
-
-            id = glGenTextures();
-            glBindTexture(GL_TEXTURE_2D, id);
-
-            glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, width, height, 0, GL_RGBA, GL_UNSIGNED_BYTE, image);
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, filterType);
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, filterType);
-
-            STBImage.stbi_image_free(image);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        ImageData image = ImageData.decode(resourcePath);
+        try {
+            upload(image, filterType);
+        } finally {
+            image.free();
         }
     }
 
+    /**
+     * 上传加载线程上已解码好的图片, 像素内存仍由调用方释放
+     */
+    Texture(ImageData image, int filterType) {
+        upload(image, filterType);
+    }
+
+    private void upload(ImageData image, int filterType) {
+        width = image.width;
+        height = image.height;
+
+        id = glGenTextures();
+        glState.bindTexture(id);
+
+        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, width, height, 0, GL_RGBA, GL_UNSIGNED_BYTE, image.pixels);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, filterType);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, filterType);
+    }
+
     public Texture(String resourcePath) {
         this(resourcePath, GL_NEAREST);
     }
 
+    /**
+     * 图集中的子区域
+     * @param pageId 图集页的纹理ID
+     * @param width 原图宽度(像素)
+     * @param height 原图高度(像素)
+     * @param u0 区域左边U
+     * @param v0 区域上边V
+     * @param u1 区域右边U
+     * @param v1 区域下边V
+     */
+    Texture(int pageId, int width, int height, float u0, float v0, float u1, float v1) {
+        this.id = pageId;
+        this.width = width;
+        this.height = height;
+        this.regionU0 = u0;
+        this.regionV0 = v0;
+        this.regionU1 = u1;
+        this.regionV1 = v1;
+        this.ownsTexture = false;
+    }
+
+    /**
+     * 场景资源包中的纹理句柄: 创建时只有尺寸, 纹理 ID 为 0(未驻留, 绘制时跳过),
+     * 资源包上传完成后由 TextureManager 通过 assign() 指向图集中的 region, 卸载后 release() 恢复为未驻留。
+     * 句柄对象本身始终不变, 各处缓存的 Texture 引用在重新加载后依然有效。
+     */
+    Texture(int width, int height) {
+        this.id = 0;
+        this.width = width;
+        this.height = height;
+        this.ownsTexture = false;
+    }
+
+    /**
+     * 令句柄指向 region 所在的纹理和 uv 矩形(不接管 GL 纹理的所有权)
+     */
+    void assign(Texture region) {
+        this.width = region.width;
+        this.height = region.height;
+        this.regionU0 = region.regionU0;
+        this.regionV0 = region.regionV0;
+        this.regionU1 = region.regionU1;
+        this.regionV1 = region.regionV1;
+        this.id = region.id;
+    }
+
+    /**
+     * 句柄恢复为未驻留状态, GL 纹理由所属图集释放
+     */
+    void release() {
+        this.id = 0;
+    }
+
+    public boolean isResident() {
+        return id != 0;
+    }
+
     /**
      * 绘制纹理
      * @param textureId 纹理ID
@@ -93,23 +147,19 @@ public class Texture {
      * @param u1 纹理坐标右下角U (0-1)
      * @param v1 纹理坐标右下角V (0-1)
      * @param shaderName shader名称
-     * @param uniformSetter uniform设置函数
+     * @param uniformSetter 额外的 uniform 设置函数, 在设置 uColor 之后调用, 可以为 null
      */
-    public static void drawTexture(int textureId, float x, float y, float width, float height, float rotation, float r, float g, float b, float a, float u0, float v0, float u1, float v1, String shaderName, Consumer<Integer> uniformSetter) {
-        ensureGLInitialized();
+    public static void drawTexture(int textureId, float x, float y, float width, float height, float rotation, float r, float g, float b, float a, float u0, float v0, float u1, float v1, String shaderName, Consumer<ShaderProgram> uniformSetter) {
+        // 未驻留的资源包纹理不绘制
+        if (textureId == 0) return;
+        // 没有自定义 uniform 且 shader 有实例化版本的绘制交给 SpriteBatch 合批
+        if (uniformSetter == null && SpriteBatch.supports(shaderName)) {
+            spriteBatch.draw(textureId, x, y, width, height, rotation, r, g, b, a, u0, v0, u1, v1, shaderName, 0f);
+            return;
+        }
         if(shaderName == null) {
             shaderName = "texture_shader";
         }
-        if(uniformSetter == null) {
-            uniformSetter = program -> {
-                int locScreenSize = glGetUniformLocation(program, "uScreenSize");
-                int locColor = glGetUniformLocation(program, "uColor");
-                int locTexture = glGetUniformLocation(program, "uTexture");
-                glUniform2i(locScreenSize, screenWidth, screenHeight);
-                glUniform4f(locColor, r, g, b, a);
-                glUniform1i(locTexture, 0);
-            };
-        }
 
         // 中心点坐标
         float cx = x + width / 2.0f;
@@ -138,7 +188,7 @@ public class Texture {
         float px3 = cx + rx3; float py3 = cy + ry3;
 
         // 存储6个顶点(2个三角形, 每个三角形3个顶点), 每个顶点4个数据(x,y,u,v)
-        FloatBuffer buf = BufferUtils.createFloatBuffer(6 * 4);
+        FloatBuffer buf = scratchVertices(6 * 4);
         // triangle1
         buf.put(px0); buf.put(py0); buf.put(u0); buf.put(v1); // 左上
         buf.put(px1); buf.put(py1); buf.put(u1); buf.put(v1); // 右上
@@ -153,20 +203,21 @@ public class Texture {
         renderBuffer(buf, 1, textureId, r, g, b, a, shaderName, uniformSetter);
     }
 
+    /**
+     * 通过 SpriteBatch 实例化绘制纹理, shader 的逐精灵参数用 shaderParam 传入而不是 uniformSetter
+     * @param shaderName texture_shader / titan_spawn_shader / tp_shader
+     * @param shaderParam titan_spawn_shader 中为 uScale, tp_shader 中为 uWhiteStrength, texture_shader 忽略
+     */
+    public static void drawTexture(int textureId, float x, float y, float width, float height, float rotation, float r, float g, float b, float a, float u0, float v0, float u1, float v1, String shaderName, float shaderParam) {
+        spriteBatch.draw(textureId, x, y, width, height, rotation, r, g, b, a, u0, v0, u1, v1, shaderName, shaderParam);
+    }
+
     public static void drawTexture(int textureId, float x, float y, float width, float height, float rotation, float r, float g, float b, float a){
-        drawTexture(textureId, x, y, width, height, rotation, r, g, b, a, 0f, 1f, 1f, 0f, "texture_shader", program -> {
-            int locScreenSize = glGetUniformLocation(program, "uScreenSize");
-            int locColor = glGetUniformLocation(program, "uColor");
-            int locTexture = glGetUniformLocation(program, "uTexture");
-            glUniform2i(locScreenSize, screenWidth, screenHeight);
-            glUniform4f(locColor, r, g, b, a);
-            glUniform1i(locTexture, 0);
-        });
+        drawTexture(textureId, x, y, width, height, rotation, r, g, b, a, 0f, 1f, 1f, 0f, "texture_shader", null);
     }
 
     public static void drawHollowRect(float x, float y, float width, float height, float r, float g, float b, float a, float lineWidth) {
         // 用白色1x1纹理绘制四条边
-        ensureGLInitialized();
         // top
         drawTexture(whiteTextureId, x, y, width, lineWidth, 0, r, g, b, a);
         // bottom
@@ -178,84 +229,38 @@ public class Texture {
     }
 
     public static void drawRect(float x, float y, float width, float height, float r, float g, float b, float a) {
-        ensureGLInitialized();
         drawTexture(whiteTextureId, x, y, width, height, 0.0f, r, g, b, a);
     }
 
-    // 绘制实心圆
-    public static void drawCircle(float x, float y, float radius, float r, float g, float b, float a, int segment) {
-        // Build triangle list for filled circle and render via textured shader with white texture
-        ensureGLInitialized();
-        // each triangle is center, v_i, v_{i+1} -> 3 vertices per segment
-        FloatBuffer buf = org.lwjgl.BufferUtils.createFloatBuffer(segment * 3 * 4);
-        // center vertex (will be duplicated per triangle)
-        for (int i = 0; i < segment; i++) {
-            double a1 = 2.0 * Math.PI * i / segment;
-            double a2 = 2.0 * Math.PI * (i + 1) / segment;
-            float x1 = x + (float)(radius * Math.cos(a1));
-            float y1 = y + (float)(radius * Math.sin(a1));
-            float x2 = x + (float)(radius * Math.cos(a2));
-            float y2 = y + (float)(radius * Math.sin(a2));
-            // triangle (center, v1, v2)
-            buf.put(x); buf.put(y); buf.put(0.5f); buf.put(0.5f);
-            buf.put(x1); buf.put(y1); buf.put(0.5f); buf.put(0.5f);
-            buf.put(x2); buf.put(y2); buf.put(0.5f); buf.put(0.5f);
-        }
-        buf.flip();
-        renderTriangles(buf, segment * 3, whiteTextureId, r, g, b, a, "texture_shader", program -> {
-            int locScreenSize = glGetUniformLocation(program, "uScreenSize");
-            int locColor = glGetUniformLocation(program, "uColor");
-            int locTexture = glGetUniformLocation(program, "uTexture");
-            glUniform2i(locScreenSize, screenWidth, screenHeight);
-            glUniform4f(locColor, r, g, b, a);
-            glUniform1i(locTexture, 0);
-        });
+    // 绘制实心圆: 一个外接正方形, 由 circle_shader 按距离场逐像素计算, 与其他圆合批
+    public static void drawCircle(float x, float y, float radius, float r, float g, float b, float a) {
+        if (radius <= 0.0f) return;
+        spriteBatch.draw(whiteTextureId, x - radius, y - radius, radius * 2.0f, radius * 2.0f, 0.0f,
+            r, g, b, a, 0f, 1f, 1f, 0f, SpriteBatch.CIRCLE_SHADER, 0.0f);
     }
 
-    public static void drawCircle(float x, float y, float radius, float r, float g, float b, float a) {
-        drawCircle(x, y, radius, r, g, b, a, 36);
-    }
-
-    // 绘制空心圆（线圈）
-    public static void drawHollowCircle(float x, float y, float radius, float r, float g, float b, float a, int segment, float lineWidth) {
-        // Render a ring between outer radius and inner radius = radius - lineWidth
-        ensureGLInitialized();
-        float innerR = Math.max(0.0f, radius - lineWidth);
-        // each segment produces two triangles => 6 vertices per segment
-        FloatBuffer buf = org.lwjgl.BufferUtils.createFloatBuffer(segment * 6 * 4);
-        for (int i = 0; i < segment; i++) {
-            double a1 = 2.0 * Math.PI * i / segment;
-            double a2 = 2.0 * Math.PI * (i + 1) / segment;
-            float ox1 = x + (float)(radius * Math.cos(a1));
-            float oy1 = y + (float)(radius * Math.sin(a1));
-            float ox2 = x + (float)(radius * Math.cos(a2));
-            float oy2 = y + (float)(radius * Math.sin(a2));
-            float ix1 = x + (float)(innerR * Math.cos(a1));
-            float iy1 = y + (float)(innerR * Math.sin(a1));
-            float ix2 = x + (float)(innerR * Math.cos(a2));
-            float iy2 = y + (float)(innerR * Math.sin(a2));
-            // tri 1: ox1, ix1, ox2
-            buf.put(ox1); buf.put(oy1); buf.put(0.5f); buf.put(0.5f);
-            buf.put(ix1); buf.put(iy1); buf.put(0.5f); buf.put(0.5f);
-            buf.put(ox2); buf.put(oy2); buf.put(0.5f); buf.put(0.5f);
-            // tri 2: ox2, ix1, ix2
-            buf.put(ox2); buf.put(oy2); buf.put(0.5f); buf.put(0.5f);
-            buf.put(ix1); buf.put(iy1); buf.put(0.5f); buf.put(0.5f);
-            buf.put(ix2); buf.put(iy2); buf.put(0.5f); buf.put(0.5f);
-        }
-        buf.flip();
-        renderTriangles(buf, segment * 6, whiteTextureId, r, g, b, a, "texture_shader", program -> {
-            int locScreenSize = glGetUniformLocation(program, "uScreenSize");
-            int locColor = glGetUniformLocation(program, "uColor");
-            int locTexture = glGetUniformLocation(program, "uTexture");
-            glUniform2i(locScreenSize, screenWidth, screenHeight);
-            glUniform4f(locColor, r, g, b, a);
-            glUniform1i(locTexture, 0);
-        });
+    // 绘制空心圆（线圈）, 圆环宽度为 lineWidth, 向内延伸
+    public static void drawHollowCircle(float x, float y, float radius, float r, float g, float b, float a, float lineWidth) {
+        if (radius <= 0.0f) return;
+        float innerRatio = Math.max(0.0f, radius - lineWidth) / radius;
+        spriteBatch.draw(whiteTextureId, x - radius, y - radius, radius * 2.0f, radius * 2.0f, 0.0f,
+            r, g, b, a, 0f, 1f, 1f, 0f, SpriteBatch.CIRCLE_SHADER, innerRatio);
     }
 
     public static void drawHollowCircle(float x, float y, float radius, float r, float g, float b, float a) {
-        drawHollowCircle(x, y, radius, r, g, b, a, 36, 1.0f);
+        drawHollowCircle(x, y, radius, r, g, b, a, 1.0f);
+    }
+
+    /**
+     * 绘制径向渐变的光晕, 效果等同于 layers 个半径按 sqrt 分布、透明度为 layerAlpha 的同心圆叠加
+     * @param radius 最外层光圈的半径
+     * @param layerAlpha 单层光圈的透明度
+     * @param layers 光圈层数
+     */
+    public static void drawRadialLight(float x, float y, float radius, float r, float g, float b, float layerAlpha, int layers) {
+        if (radius <= 0.0f) return;
+        spriteBatch.draw(whiteTextureId, x - radius, y - radius, radius * 2.0f, radius * 2.0f, 0.0f,
+            r, g, b, layerAlpha, 0f, 1f, 1f, 0f, SpriteBatch.LIGHT_SHADER, layers);
     }
 
     public static void drawRect(float x, float y, float width, float height) {
@@ -320,18 +325,44 @@ public class Texture {
         return id;
     }
 
+    public float getRegionU0() {
+        return regionU0;
+    }
+
+    public float getRegionV0() {
+        return regionV0;
+    }
+
+    public float getRegionU1() {
+        return regionU1;
+    }
+
+    public float getRegionV1() {
+        return regionV1;
+    }
+
+    public boolean isAtlasRegion() {
+        return !ownsTexture;
+    }
+
     public void destroy() {
-        glDeleteTextures(id);
+        if (ownsTexture) {
+            glState.deleteTexture(id);
+        }
     }
 
-    private static void ensureGLInitialized() {
+    /**
+     * 创建共享的 VAO/VBO 和 1x1 白色纹理, 必须在 GL 线程上、任何绘制之前调用一次
+     * 绘制函数本身不再做 GL 初始化, 因此可以在录制快照的更新线程上调用
+     */
+    public static void initGL() {
         if (glInitialized) return;
         // create VAO/VBO and shader
         quadVao = glGenVertexArrays();
-        glBindVertexArray(quadVao);
+        glState.bindVertexArray(quadVao);
 
-        quadVbo = glGenBuffers();
-        glBindBuffer(GL_ARRAY_BUFFER, quadVbo);
+        quadStream = new StreamBuffer(QUAD_STREAM_REGION_BYTES);
+        glState.bindBuffer(GL_ARRAY_BUFFER, quadStream.getId());
 
         int stride = (2 + 2) * Float.BYTES;
         glEnableVertexAttribArray(0);
@@ -339,47 +370,32 @@ public class Texture {
         glEnableVertexAttribArray(1);
         glVertexAttribPointer(1, 2, GL_FLOAT, false, stride, 2 * Float.BYTES);
 
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
-        glBindVertexArray(0);
-
         // create a 1x1 white texture for color-only drawing (used for shapes)
         whiteTextureId = glGenTextures();
-        glBindTexture(GL_TEXTURE_2D, whiteTextureId);
+        glState.bindTexture(whiteTextureId);
         ByteBuffer whitePixel = BufferUtils.createByteBuffer(4);
         whitePixel.put((byte)255).put((byte)255).put((byte)255).put((byte)255).flip();
         glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, 1, 1, 0, GL_RGBA, GL_UNSIGNED_BYTE, whitePixel);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
-        glBindTexture(GL_TEXTURE_2D, 0);
 
         glInitialized = true;
     }
 
     /**
-     * 绘制三角形列表
+     * 绘制三角形列表, SpriteBatch 处于录制状态时写入快照
      * @param buf 包含三角形顶点数据的缓冲区
      * @param vertexCount 顶点数量
      */
-    private static void renderTriangles(FloatBuffer buf, int vertexCount, int textureId, float r, float g, float b, float a, String shaderName, Consumer<Integer> uniformSetter) {
-        ensureGLInitialized();
-
-        glBindBuffer(GL_ARRAY_BUFFER, quadVbo);
-        glBufferData(GL_ARRAY_BUFFER, buf, GL_STREAM_DRAW);
-
-        int program = shaderManager.getProgram(shaderName);
-        glUseProgram(program);
-        uniformSetter.accept(program);
-
-        glActiveTexture(GL_TEXTURE0);
-        glBindTexture(GL_TEXTURE_2D, textureId);
-
-        glBindVertexArray(quadVao);
-        glDrawArrays(GL_TRIANGLES, 0, vertexCount);
-        glBindVertexArray(0);
-
-        glUseProgram(0);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
-        glBindTexture(GL_TEXTURE_2D, 0);
+    private static void renderTriangles(FloatBuffer buf, int vertexCount, int textureId, float r, float g, float b, float a, String shaderName, Consumer<ShaderProgram> uniformSetter) {
+        // 非合批绘制前先提交已收集的精灵, 保证绘制顺序
+        spriteBatch.flush();
+        RenderSnapshot recording = spriteBatch.getRecording();
+        if (recording != null) {
+            recording.addTriangles(textureId, shaderName, uniformSetter, r, g, b, a, buf, vertexCount);
+            return;
+        }
+        executeTriangles(buf, vertexCount, textureId, shaderName, uniformSetter, r, g, b, a);
     }
 
     /**
@@ -387,26 +403,59 @@ public class Texture {
      * @param buf 包含多个四边形顶点数据的缓冲区
      * @param quadCount 四边形数量
      */
-    private static void renderBuffer(FloatBuffer buf, int quadCount, int textureId, float r, float g, float b, float a, String shaderName, Consumer<Integer> uniformSetter) {
-        ensureGLInitialized();
-
-        glBindBuffer(GL_ARRAY_BUFFER, quadVbo);
-        glBufferData(GL_ARRAY_BUFFER, buf, GL_STREAM_DRAW);
+    private static void renderBuffer(FloatBuffer buf, int quadCount, int textureId, float r, float g, float b, float a, String shaderName, Consumer<ShaderProgram> uniformSetter) {
+        renderTriangles(buf, quadCount * 6, textureId, r, g, b, a, shaderName, uniformSetter);
+    }
 
-        int program = shaderManager.getProgram(shaderName);
-        glUseProgram(program);
-        uniformSetter.accept(program);
+    /**
+     * 回放快照中的一次三角形绘制(GL 线程)
+     */
+    static void drawRecordedTriangles(int textureId, String shaderName, Consumer<ShaderProgram> uniformSetter, float r, float g, float b, float a, float[] data, int start, int vertexCount) {
+        int floatCount = vertexCount * 4;
+        if (replayVertices == null || replayVertices.capacity() < floatCount) {
+            replayVertices = BufferUtils.createFloatBuffer(Math.max(floatCount, 4096));
+        }
+        replayVertices.clear();
+        replayVertices.put(data, start, floatCount).flip();
+        executeTriangles(replayVertices, vertexCount, textureId, shaderName, uniformSetter, r, g, b, a);
+    }
 
-        glActiveTexture(GL_TEXTURE0);
-        glBindTexture(GL_TEXTURE_2D, textureId);
+    private static void executeTriangles(FloatBuffer buf, int vertexCount, int textureId, String shaderName, Consumer<ShaderProgram> uniformSetter, float r, float g, float b, float a) {
+        initGL();
+        // uScreenSize 来自共享的 UBO, uTexture 固定为 0 号纹理单元, 这里只设置逐次绘制的 uniform
+        ShaderProgram program = ShaderManager.getInstance().getShaderProgram(shaderName);
+        glState.useProgram(program.getId());
+        program.setFloat4("uColor", r, g, b, a);
+        if (uniformSetter != null) {
+            uniformSetter.accept(program);
+        }
 
-        glBindVertexArray(quadVao);
-        glDrawArrays(GL_TRIANGLES, 0, quadCount * 6);
-        glBindVertexArray(0);
+        // 绘制后不解绑, 相同的 program / 纹理 / VAO 在下一次绘制时由 GLState 跳过
+        glState.bindTexture(0, textureId);
+        glState.bindVertexArray(quadVao);
+
+        // 顶点写入流式缓冲的当前段, 超过一段大小时按整三角形分块
+        int maxVertices = quadStream.getMaxWriteBytes() / VERTEX_BYTES / 3 * 3;
+        int limit = buf.limit();
+        for (int first = 0; first < vertexCount; first += maxVertices) {
+            int count = Math.min(maxVertices, vertexCount - first);
+            buf.limit(buf.position() + count * 4);
+            long offset = quadStream.write(buf, VERTEX_BYTES);
+            glDrawArrays(GL_TRIANGLES, (int)(offset / VERTEX_BYTES), count);
+            buf.position(buf.limit());
+            buf.limit(limit);
+        }
+    }
 
-        glUseProgram(0);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
-        glBindTexture(GL_TEXTURE_2D, 0);
+    /**
+     * 取得清空后的顶点暂存区, 容量不足时按 2 的幂扩容
+     */
+    static FloatBuffer scratchVertices(int floatCount) {
+        if (scratchVertices.capacity() < floatCount) {
+            scratchVertices = BufferUtils.createFloatBuffer(Integer.highestOneBit(floatCount - 1) << 1);
+        }
+        scratchVertices.clear();
+        return scratchVertices;
     }
 
     /**
@@ -415,13 +464,13 @@ public class Texture {
      * @param quadCount 四边形数量
      */
     public static void drawQuads(FloatBuffer buf, int quadCount, int textureId, float r, float g, float b, float a) {
-        renderBuffer(buf, quadCount, textureId, r, g, b, a, "texture_shader", program -> {
-            int locScreenSize = glGetUniformLocation(program, "uScreenSize");
-            int locColor = glGetUniformLocation(program, "uColor");
-            int locTexture = glGetUniformLocation(program, "uTexture");
-            glUniform2i(locScreenSize, screenWidth, screenHeight);
-            glUniform4f(locColor, r, g, b, a);
-            glUniform1i(locTexture, 0);
-        });
+        drawQuads(buf, quadCount, textureId, r, g, b, a, "texture_shader");
+    }
+
+    /**
+     * 用指定 shader 绘制多个四边形, shader 只需要 uColor 和 uTexture
+     */
+    public static void drawQuads(FloatBuffer buf, int quadCount, int textureId, float r, float g, float b, float a, String shaderName) {
+        renderBuffer(buf, quadCount, textureId, r, g, b, a, shaderName, null);
     }
 }
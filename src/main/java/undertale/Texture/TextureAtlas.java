@@ -0,0 +1,295 @@
+package undertale.Texture;
+
+import org.lwjgl.system.MemoryUtil;
+
+import undertale.Shaders.GLState;
+
+import static org.lwjgl.opengl.GL11.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 纹理图集
+ * 启动时把 config.json 中声明的所有图片打包到若干张 pageSize x pageSize 的大纹理(page)上,
+ * 每张图片对应一个 Texture region(page id + uv 矩形)。
+ * 动画帧、子弹贴图等都来自同一批 page, SpriteBatch 因此可以跨精灵合批。
+ * 超过一页大小的图片退回为独立纹理。
+ * 构建分为两步: prepare() 只做解码、装箱和像素拷贝, 不调用 GL, 可以放到加载线程池上并行执行;
+ * 构造函数在 GL 线程上把准备好的页上传为纹理。
+ * 场景资源包使用 beginUpload() + uploadSome() 按时间片分块上传, 避免一帧内上传整页造成卡顿。
+ */
+public class TextureAtlas {
+    public static final int PAGE_SIZE = 2048;
+    // 资源包图集按内容缩小页尺寸时的下限
+    static final int MIN_PAGE_SIZE = 256;
+    // 每张图片四周用边缘像素扩展的宽度
+    static final int PADDING = 1;
+    // 分块上传时每次 glTexSubImage2D 的行数
+    static final int UPLOAD_ROWS = 128;
+
+    private final ArrayList<Integer> pageIds = new ArrayList<>();
+    private final HashMap<String, Texture> regions = new HashMap<>();
+    private final Prepared prepared;
+    private final int filterType;
+    // 分块上传进度: 正在上传的页和该页已上传的行数
+    private int nextPage = 0;
+    private int nextRow = 0;
+    private boolean uploaded = false;
+
+    /**
+     * CPU 端准备好的图集: 图片已解码并拷贝进各页的像素内存, 尚未上传 GL
+     */
+    static final class Prepared {
+        private final String[] names;
+        private final ImageData[] images; // 已拷贝进页的图片在 prepare() 中释放, 只保留尺寸
+        private final AtlasPacker.Placement[] placements;
+        private final ByteBuffer[] pages;
+        private final int pageSize;
+
+        private Prepared(String[] names, ImageData[] images, AtlasPacker.Placement[] placements, ByteBuffer[] pages, int pageSize) {
+            this.names = names;
+            this.images = images;
+            this.placements = placements;
+            this.pages = pages;
+            this.pageSize = pageSize;
+        }
+
+        /**
+         * 释放尚未上传的 CPU 端像素内存(预取后不再需要的资源包)
+         */
+        void free() {
+            freeFrom(0);
+        }
+
+        private void freeFrom(int firstPage) {
+            for (int p = firstPage; p < pages.length; p++) {
+                MemoryUtil.memFree(pages[p]);
+            }
+            for (int i = 0; i < names.length; i++) {
+                if (placements[i].page < 0) {
+                    images[i].free();
+                }
+            }
+        }
+    }
+
+    public TextureAtlas(Map<String, String> textureFiles, int filterType) {
+        this(prepare(textureFiles, Runnable::run), filterType);
+    }
+
+    /**
+     * 在 GL 线程一次性上传 prepare() 的结果
+     */
+    TextureAtlas(Prepared prepared, int filterType) {
+        this.prepared = prepared;
+        this.filterType = filterType;
+        uploadSome(Long.MAX_VALUE);
+    }
+
+    private TextureAtlas(Prepared prepared, int filterType, boolean deferred) {
+        this.prepared = prepared;
+        this.filterType = filterType;
+    }
+
+    /**
+     * 创建一个尚未上传的图集, 之后在 GL 线程上每帧调用 uploadSome() 推进
+     */
+    static TextureAtlas beginUpload(Prepared prepared, int filterType) {
+        return new TextureAtlas(prepared, filterType, true);
+    }
+
+    /**
+     * 在 GL 线程上继续上传, 每上传 UPLOAD_ROWS 行检查一次时间预算
+     * 每页先用 glTexImage2D(null) 分配存储, 再按行块 glTexSubImage2D 填充
+     * @param budgetNanos 本次最多占用的时间, 至少上传一块
+     * @return 全部上传完成且 region 已生成时返回 true
+     */
+    boolean uploadSome(long budgetNanos) {
+        if (uploaded) return true;
+        long start = System.nanoTime();
+        int size = prepared.pageSize;
+        while (nextPage < prepared.pages.length) {
+            ByteBuffer page = prepared.pages[nextPage];
+            if (nextRow == 0) {
+                pageIds.add(allocatePage(size, filterType));
+            }
+            int rows = Math.min(UPLOAD_ROWS, size - nextRow);
+            GLState.getInstance().bindTexture(pageIds.get(nextPage));
+            glTexSubImage2D(GL_TEXTURE_2D, 0, 0, nextRow, size, rows, GL_RGBA, GL_UNSIGNED_BYTE,
+                MemoryUtil.memSlice(page, nextRow * size * 4, rows * size * 4));
+            nextRow += rows;
+            if (nextRow >= size) {
+                MemoryUtil.memFree(page);
+                nextPage++;
+                nextRow = 0;
+            }
+            if (System.nanoTime() - start >= budgetNanos) {
+                return false;
+            }
+        }
+        createRegions();
+        uploaded = true;
+        return true;
+    }
+
+    private void createRegions() {
+        float size = prepared.pageSize;
+        for (int i = 0; i < prepared.names.length; i++) {
+            ImageData image = prepared.images[i];
+            AtlasPacker.Placement placement = prepared.placements[i];
+            if (placement.page >= 0) {
+                regions.put(prepared.names[i], new Texture(pageIds.get(placement.page), image.width, image.height,
+                    placement.x / size,
+                    placement.y / size,
+                    (placement.x + image.width) / size,
+                    (placement.y + image.height) / size));
+            } else {
+                regions.put(prepared.names[i], new Texture(image, filterType));
+                image.free();
+            }
+        }
+    }
+
+    /**
+     * @return 已上传的比例 [0, 1]
+     */
+    float getUploadProgress() {
+        if (uploaded || prepared.pages.length == 0) return uploaded ? 1.0f : 0.0f;
+        return (nextPage + nextRow / (float)prepared.pageSize) / prepared.pages.length;
+    }
+
+    static Prepared prepare(Map<String, String> textureFiles, Executor executor) {
+        return prepare(textureFiles, PAGE_SIZE, executor);
+    }
+
+    /**
+     * 解码所有图片、计算摆放位置并拷贝像素到各页, 不调用 GL
+     * @param pageSize 页尺寸, 传入 0 时按图片总面积自动选取不超过 PAGE_SIZE 的最小 2 的幂
+     * @param executor 解码和拷贝任务的执行者, 传入 Runnable::run 即在当前线程串行执行
+     */
+    static Prepared prepare(Map<String, String> textureFiles, int pageSize, Executor executor) {
+        // 1. 并行解码所有图片
+        int n = textureFiles.size();
+        String[] names = new String[n];
+        ArrayList<CompletableFuture<ImageData>> decoding = new ArrayList<>(n);
+        for (Map.Entry<String, String> entry : textureFiles.entrySet()) {
+            names[decoding.size()] = entry.getKey();
+            String path = entry.getValue();
+            decoding.add(CompletableFuture.supplyAsync(() -> ImageData.decode(path), executor));
+        }
+        ImageData[] images = new ImageData[n];
+        for (int i = 0; i < n; i++) {
+            images[i] = decoding.get(i).join();
+        }
+
+        // 2. 计算摆放位置
+        int[] widths = new int[n];
+        int[] heights = new int[n];
+        for (int i = 0; i < n; i++) {
+            widths[i] = images[i].width;
+            heights[i] = images[i].height;
+        }
+        if (pageSize <= 0) {
+            pageSize = fitPageSize(widths, heights);
+        }
+        AtlasPacker packer = new AtlasPacker(pageSize, PADDING);
+        AtlasPacker.Placement[] placements = packer.pack(widths, heights);
+
+        // 3. 拷贝像素到各页; 各图片(含 padding)占据的区域互不重叠, 可以并行拷贝
+        ByteBuffer[] pages = new ByteBuffer[packer.getPageCount()];
+        for (int p = 0; p < pages.length; p++) {
+            pages[p] = MemoryUtil.memCalloc(pageSize * pageSize * 4);
+        }
+        ArrayList<CompletableFuture<Void>> blits = new ArrayList<>(n);
+        int stride = pageSize;
+        for (int i = 0; i < n; i++) {
+            ImageData image = images[i];
+            AtlasPacker.Placement placement = placements[i];
+            if (placement.page >= 0) {
+                ByteBuffer page = pages[placement.page];
+                blits.add(CompletableFuture.runAsync(() -> {
+                    blit(image, page, stride, placement.x, placement.y);
+                    image.free();
+                }, executor));
+            }
+        }
+        CompletableFuture.allOf(blits.toArray(new CompletableFuture<?>[0])).join();
+        return new Prepared(names, images, placements, pages, pageSize);
+    }
+
+    /**
+     * 能容纳全部图片(含 padding 和装箱损耗)的最小页尺寸, 小资源包不必占用整张 PAGE_SIZE 的页
+     */
+    static int fitPageSize(int[] widths, int[] heights) {
+        long area = 0;
+        int maxSide = 0;
+        for (int i = 0; i < widths.length; i++) {
+            int w = widths[i] + PADDING * 2;
+            int h = heights[i] + PADDING * 2;
+            area += (long)w * h;
+            maxSide = Math.max(maxSide, Math.max(w, h));
+        }
+        // 预留 25% 的装箱损耗
+        area += area / 4;
+        int size = MIN_PAGE_SIZE;
+        while (size < PAGE_SIZE && ((long)size * size < area || size < maxSide)) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    /**
+     * 把图片拷贝到 page 的 (dstX, dstY) 处, 并把边缘像素向外扩展 PADDING 像素
+     */
+    private static void blit(ImageData image, ByteBuffer page, int pageSize, int dstX, int dstY) {
+        int w = image.width;
+        int h = image.height;
+        for (int row = -PADDING; row < h + PADDING; row++) {
+            int srcRow = Math.max(0, Math.min(h - 1, row));
+            int dstRowStart = ((dstY + row) * pageSize + dstX) * 4;
+            int srcRowStart = srcRow * w * 4;
+            for (int col = -PADDING; col < w + PADDING; col++) {
+                int srcCol = Math.max(0, Math.min(w - 1, col));
+                page.putInt(dstRowStart + col * 4, image.pixels.getInt(srcRowStart + srcCol * 4));
+            }
+        }
+    }
+
+    private static int allocatePage(int size, int filterType) {
+        int id = glGenTextures();
+        GLState.getInstance().bindTexture(id);
+        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, size, size, 0, GL_RGBA, GL_UNSIGNED_BYTE, (ByteBuffer)null);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, filterType);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, filterType);
+        return id;
+    }
+
+    public Map<String, Texture> getRegions() {
+        return regions;
+    }
+
+    public int getPageCount() {
+        return pageIds.size();
+    }
+
+    public void destroy() {
+        if (!uploaded) {
+            // 上传中途销毁: 释放尚未上传的页和独立图片
+            prepared.freeFrom(nextPage);
+            uploaded = true;
+        }
+        for (Texture texture : regions.values()) {
+            texture.destroy();
+        }
+        for (int id : pageIds) {
+            GLState.getInstance().deleteTexture(id);
+        }
+        pageIds.clear();
+        regions.clear();
+    }
+}
@@ -2,6 +2,8 @@ package undertale.Texture;
 
 import java.util.function.Consumer;
 
+import undertale.Shaders.ShaderProgram;
+
 public class TextureBuilder {
     private int textureId;
     private float x;
@@ -11,9 +13,12 @@ public class TextureBuilder {
     private float rotation;
     private float[] u = new float[2];
     private float[] v = new float[2];
+    // 纹理在图集页中的区域(左, 上, 右, 下), uv() 设置的坐标是相对该区域的
+    private float[] region = {0f, 0f, 1f, 1f};
     private float[] rgba = new float[4];
     private String shaderName;
-    private Consumer<Integer> uniformSetter;
+    private Consumer<ShaderProgram> uniformSetter;
+    private float shaderParam;
 
     public TextureBuilder() {
         // 设置默认值
@@ -33,10 +38,27 @@ public class TextureBuilder {
         this.rgba[3] = 1f;
         this.shaderName = null;
         this.uniformSetter = null;
+        this.shaderParam = 0f;
     }
 
     public TextureBuilder textureId(int textureId) {
         this.textureId = textureId;
+        this.region[0] = 0f;
+        this.region[1] = 0f;
+        this.region[2] = 1f;
+        this.region[3] = 1f;
+        return this;
+    }
+
+    /**
+     * 使用 Texture 绘制, 图集 region 会自动换算 uv
+     */
+    public TextureBuilder texture(Texture texture) {
+        this.textureId = texture.getId();
+        this.region[0] = texture.getRegionU0();
+        this.region[1] = texture.getRegionV0();
+        this.region[2] = texture.getRegionU1();
+        this.region[3] = texture.getRegionV1();
         return this;
     }
 
@@ -78,12 +100,31 @@ public class TextureBuilder {
         return this;
     }
 
-    public TextureBuilder uniformSetter(Consumer<Integer> uniformSetter) {
+    public TextureBuilder uniformSetter(Consumer<ShaderProgram> uniformSetter) {
         this.uniformSetter = uniformSetter;
         return this;
     }
 
+    /**
+     * 逐精灵的 shader 参数(titan_spawn_shader 的 uScale, tp_shader 的 uWhiteStrength),
+     * 不设置 uniformSetter 时可以与其它精灵合批绘制
+     */
+    public TextureBuilder shaderParam(float shaderParam) {
+        this.shaderParam = shaderParam;
+        return this;
+    }
+
     public void draw() {
-        Texture.drawTexture(textureId, x, y, width, height, rotation, rgba[0], rgba[1], rgba[2], rgba[3], u[0], v[0], u[1], v[1], shaderName, uniformSetter);
+        float du = region[2] - region[0];
+        float dv = region[3] - region[1];
+        float u0 = region[0] + u[0] * du;
+        float u1 = region[0] + u[1] * du;
+        float v0 = region[1] + v[0] * dv;
+        float v1 = region[1] + v[1] * dv;
+        if (uniformSetter == null && SpriteBatch.supports(shaderName)) {
+            Texture.drawTexture(textureId, x, y, width, height, rotation, rgba[0], rgba[1], rgba[2], rgba[3], u0, v0, u1, v1, shaderName, shaderParam);
+        } else {
+            Texture.drawTexture(textureId, x, y, width, height, rotation, rgba[0], rgba[1], rgba[2], rgba[3], u0, v0, u1, v1, shaderName, uniformSetter);
+        }
     }
 }
@@ -0,0 +1,93 @@
+package undertale.Texture;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 场景资源包: config.json 中 asset_bundles 声明的一组纹理, 打包成独立的图集, 按引用计数加载和卸载
+ * 状态只在 TextureManager 的锁内修改; 解码在后台线程池上进行, 上传和释放在 GL 线程上进行。
+ */
+final class TextureBundle {
+    enum State {
+        UNLOADED,  // 没有 CPU 或 GPU 数据
+        DECODING,  // 正在后台解码
+        DECODED,   // CPU 端图集已就绪(预取完成), 尚未上传
+        UPLOADING, // 正在分块上传
+        RESIDENT   // 已上传, 句柄指向图集 region
+    }
+
+    final String name;
+    final Map<String, String> files; // 纹理 key -> 图片路径
+    State state = State.UNLOADED;
+    int refCount = 0;
+    // 仍驻留的纹理数量, 单独卸载到 0 时释放整个图集
+    int residentCount = 0;
+    // 引用计数归零时更新线程已录制的快照序号, 序号不大于它的快照仍可能引用本资源包的图集
+    long releasedAtFrame = 0;
+    CompletableFuture<TextureAtlas.Prepared> decoding;
+    TextureAtlas.Prepared prepared;
+    TextureAtlas atlas;
+
+    TextureBundle(String name, Map<String, String> files) {
+        this.name = name;
+        this.files = files;
+    }
+
+    /**
+     * 把纹理按资源包的 key 模式分组, 每个纹理只归入第一个匹配的资源包
+     * @param textures 纹理 key -> 图片路径
+     * @param patterns 资源包名 -> key 模式列表, 模式以 '*' 结尾时按前缀匹配, 否则精确匹配
+     * @return 资源包名 -> (纹理 key -> 图片路径), 保持 patterns 的顺序; 未匹配的纹理不在结果中
+     */
+    static LinkedHashMap<String, Map<String, String>> resolve(Map<String, String> textures, Map<String, List<String>> patterns) {
+        LinkedHashMap<String, Map<String, String>> result = new LinkedHashMap<>();
+        for (String bundle : patterns.keySet()) {
+            result.put(bundle, new LinkedHashMap<>());
+        }
+        for (Map.Entry<String, String> texture : textures.entrySet()) {
+            for (Map.Entry<String, List<String>> bundle : patterns.entrySet()) {
+                if (matchesAny(bundle.getValue(), texture.getKey())) {
+                    result.get(bundle.getKey()).put(texture.getKey(), texture.getValue());
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean matchesAny(List<String> patterns, String key) {
+        for (String pattern : patterns) {
+            if (matches(pattern, key)) return true;
+        }
+        return false;
+    }
+
+    static boolean matches(String pattern, String key) {
+        if (pattern.endsWith("*")) {
+            return key.startsWith(pattern.substring(0, pattern.length() - 1));
+        }
+        return pattern.equals(key);
+    }
+
+    /**
+     * @param presentedFrame GL 线程本帧呈现的快照序号
+     * @return 引用计数为 0, 且释放之前录制的快照不会再被呈现, 可以释放 GPU 资源
+     */
+    boolean canUnload(long presentedFrame) {
+        return refCount == 0 && presentedFrame > releasedAtFrame;
+    }
+
+    /**
+     * @return 加载进度 [0, 1], 解码和上传各占一半
+     */
+    float getProgress() {
+        switch (state) {
+            case DECODED: return 0.5f;
+            case UPLOADING: return 0.5f + 0.5f * atlas.getUploadProgress();
+            case RESIDENT: return 1.0f;
+            default: return 0.0f;
+        }
+    }
+}
@@ -1,17 +1,42 @@
 package undertale.Texture;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import undertale.Utils.ConfigManager;
 
+import static org.lwjgl.opengl.GL11.GL_NEAREST;
+
+/**
+ * 纹理管理
+ * 未归入资源包的纹理(UI、玩家等)启动时打包进常驻图集;
+ * asset_bundles 中的纹理按场景引用计数加载: 启动时只读取尺寸并创建未驻留的句柄,
+ * acquireBundle() 后在后台线程池解码, 再由 GL 线程的 pumpUploads() 按时间片分块上传,
+ * 引用计数归零后在 GL 线程上卸载。
+ * 无窗口模式下所有纹理只读取尺寸, 句柄始终未驻留(绘制时跳过), 不创建图集和资源包。
+ */
 public class TextureManager {
-    private static TextureManager instance;
+    private static volatile TextureManager instance;
+    // 启动时在加载线程池上准备好的常驻图集和资源包纹理尺寸, 为 null 时首次 getInstance() 在当前线程串行处理
+    private static CompletableFuture<TextureAtlas.Prepared> preparedAtlas;
+    private static CompletableFuture<Map<String, int[]>> probedSizes;
+    private static volatile boolean headless = false;
     private HashMap<String, Texture> textures;
     private HashMap<String, String> textureFileMap;
-
-    static {
-        instance = new TextureManager();
-    }
+    private TextureAtlas atlas;
+    private final LinkedHashMap<String, TextureBundle> bundles = new LinkedHashMap<>();
+    private final HashMap<String, TextureBundle> bundleOfTexture = new HashMap<>();
+    // 资源包解码线程池; 图集解码内部会等待子任务, ForkJoinPool 在 join 时会补偿线程, 不会饿死
+    private final ForkJoinPool bundleLoader = new ForkJoinPool(2);
+    // 更新线程已录制的快照数, 即最近一份快照的序号; 只在独立更新线程模式下增长
+    private long recordedFrames = 0;
 
     private TextureManager() {
         textures = new HashMap<>();
@@ -20,12 +45,97 @@ public class TextureManager {
     }
 
     private void initTextures() {
-        for (String name : textureFileMap.keySet()) {
-            String filePath = textureFileMap.get(name);
-            loadTexture(name, filePath);
+        if (headless) {
+            Map<String, int[]> sizes = probedSizes != null
+                ? probedSizes.join()
+                : probeSizes(Map.of("", textureFileMap), Runnable::run).join();
+            probedSizes = null;
+            for (Map.Entry<String, int[]> entry : sizes.entrySet()) {
+                textures.put(entry.getKey(), new Texture(entry.getValue()[0], entry.getValue()[1]));
+            }
+            return;
+        }
+        Map<String, List<String>> patterns = ConfigManager.getInstance().assetBundles;
+        LinkedHashMap<String, Map<String, String>> bundleFiles = TextureBundle.resolve(textureFileMap, patterns);
+        // config.json 中不属于任何资源包的图片统一打包进常驻图集, 每张图片对应一个 region
+        TextureAtlas.Prepared prepared = preparedAtlas != null
+            ? preparedAtlas.join()
+            : TextureAtlas.prepare(residentFiles(textureFileMap, bundleFiles), Runnable::run);
+        Map<String, int[]> sizes = probedSizes != null
+            ? probedSizes.join()
+            : probeSizes(bundleFiles, Runnable::run).join();
+        preparedAtlas = null;
+        probedSizes = null;
+        atlas = new TextureAtlas(prepared, GL_NEAREST);
+        textures.putAll(atlas.getRegions());
+
+        // 资源包纹理先创建未驻留的句柄, 上传后再指向图集 region
+        for (Map.Entry<String, Map<String, String>> entry : bundleFiles.entrySet()) {
+            TextureBundle bundle = new TextureBundle(entry.getKey(), entry.getValue());
+            bundles.put(bundle.name, bundle);
+            for (String key : bundle.files.keySet()) {
+                int[] size = sizes.get(key);
+                textures.put(key, new Texture(size[0], size[1]));
+                bundleOfTexture.put(key, bundle);
+            }
+        }
+    }
+
+    private static Map<String, String> residentFiles(Map<String, String> files, Map<String, Map<String, String>> bundleFiles) {
+        HashMap<String, String> resident = new HashMap<>(files);
+        for (Map<String, String> bundle : bundleFiles.values()) {
+            resident.keySet().removeAll(bundle.keySet());
+        }
+        return resident;
+    }
+
+    private static CompletableFuture<Map<String, int[]>> probeSizes(Map<String, Map<String, String>> bundleFiles, Executor executor) {
+        ArrayList<String> keys = new ArrayList<>();
+        ArrayList<CompletableFuture<int[]>> probes = new ArrayList<>();
+        for (Map<String, String> files : bundleFiles.values()) {
+            for (Map.Entry<String, String> entry : files.entrySet()) {
+                String path = entry.getValue();
+                keys.add(entry.getKey());
+                probes.add(CompletableFuture.supplyAsync(() -> ImageData.probe(path), executor));
+            }
         }
-    } 
-    
+        return CompletableFuture.allOf(probes.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            HashMap<String, int[]> sizes = new HashMap<>();
+            for (int i = 0; i < keys.size(); i++) {
+                sizes.put(keys.get(i), probes.get(i).join());
+            }
+            return sizes;
+        });
+    }
+
+    /**
+     * 在 executor 上解码常驻图片并拼好图集页、读取资源包图片的尺寸(不调用 GL),
+     * 之后在 GL 线程首次调用 getInstance() 时只需等待完成并上传
+     */
+    public static synchronized CompletableFuture<?> prepareAsync(Executor executor) {
+        if (headless) {
+            if (instance == null && probedSizes == null) {
+                probedSizes = probeSizes(Map.of("", ConfigManager.getInstance().textures), executor);
+            }
+            return probedSizes != null ? probedSizes : CompletableFuture.completedFuture(null);
+        }
+        if (instance == null && preparedAtlas == null) {
+            ConfigManager config = ConfigManager.getInstance();
+            LinkedHashMap<String, Map<String, String>> bundleFiles = TextureBundle.resolve(config.textures, config.assetBundles);
+            preparedAtlas = CompletableFuture.supplyAsync(
+                () -> TextureAtlas.prepare(residentFiles(config.textures, bundleFiles), executor), executor);
+            probedSizes = probeSizes(bundleFiles, executor);
+        }
+        return preparedAtlas != null ? CompletableFuture.allOf(preparedAtlas, probedSizes) : CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * 切换为无窗口模式(不调用 GL), 须在 prepareAsync() 和首次 getInstance() 之前调用
+     */
+    public static void setHeadless(boolean headless) {
+        TextureManager.headless = headless;
+    }
+
     public static TextureManager getInstance() {
         if(instance == null) {
             synchronized (TextureManager.class) {
@@ -51,17 +161,199 @@ public class TextureManager {
         return textures.get(name);
     }
 
-    public void unloadTexture(String name) {
-        Texture texture = textures.remove(name);
-        if (texture != null) {
-            texture.destroy();
+    /**
+     * 卸载纹理(GL 线程)
+     * 资源包中的纹理只把句柄恢复为未驻留, 句柄仍保留在表中; 资源包的纹理全部卸载后释放其图集,
+     * 若资源包仍被引用, 下一次 pumpUploads() 会重新加载。其他纹理直接销毁并移除。
+     */
+    public synchronized void unloadTexture(String name) {
+        TextureBundle bundle = bundleOfTexture.get(name);
+        if (bundle == null) {
+            Texture texture = textures.remove(name);
+            if (texture != null) {
+                texture.destroy();
+            }
+            return;
+        }
+        Texture handle = textures.get(name);
+        if (bundle.state != TextureBundle.State.RESIDENT || !handle.isResident()) return;
+        handle.release();
+        if (--bundle.residentCount == 0) {
+            bundle.atlas.destroy();
+            bundle.atlas = null;
+            bundle.state = TextureBundle.State.UNLOADED;
         }
     }
 
-    public void destroyAll() {
+    /**
+     * 增加资源包的引用计数, 未加载时开始后台解码; 可在更新线程调用
+     */
+    public synchronized void acquireBundle(String name) {
+        TextureBundle bundle = bundles.get(name);
+        if (bundle == null) return;
+        bundle.refCount++;
+        if (bundle.state == TextureBundle.State.UNLOADED) {
+            startDecoding(bundle);
+        }
+    }
+
+    /**
+     * 减少资源包的引用计数; 归零后的 GPU 释放推迟到 GL 线程的 pumpUploads()
+     */
+    public synchronized void releaseBundle(String name) {
+        TextureBundle bundle = bundles.get(name);
+        if (bundle == null || bundle.refCount == 0) return;
+        if (--bundle.refCount == 0) {
+            bundle.releasedAtFrame = recordedFrames;
+        }
+    }
+
+    /**
+     * 更新线程每录制一份渲染快照调用一次
+     * @return 该快照的序号, 从 1 开始递增
+     */
+    public synchronized long frameRecorded() {
+        return ++recordedFrames;
+    }
+
+    /**
+     * 在后台预解码给定的资源包(只到 CPU 端, 不上传), 并丢弃其他未被引用的预取数据
+     */
+    public synchronized void prefetchBundles(Collection<String> names) {
+        for (TextureBundle bundle : bundles.values()) {
+            boolean wanted = names.contains(bundle.name);
+            if (wanted && bundle.state == TextureBundle.State.UNLOADED) {
+                startDecoding(bundle);
+            } else if (!wanted && bundle.refCount == 0) {
+                discardPrefetched(bundle);
+            }
+        }
+    }
+
+    private void startDecoding(TextureBundle bundle) {
+        bundle.state = TextureBundle.State.DECODING;
+        bundle.decoding = CompletableFuture.supplyAsync(() -> TextureAtlas.prepare(bundle.files, 0, bundleLoader), bundleLoader);
+    }
+
+    private void discardPrefetched(TextureBundle bundle) {
+        if (bundle.state == TextureBundle.State.DECODING) {
+            bundle.decoding.thenAccept(TextureAtlas.Prepared::free);
+        } else if (bundle.state == TextureBundle.State.DECODED) {
+            bundle.prepared.free();
+        } else {
+            return;
+        }
+        bundle.decoding = null;
+        bundle.prepared = null;
+        bundle.state = TextureBundle.State.UNLOADED;
+    }
+
+    /**
+     * GL 线程每帧调用: 卸载引用计数归零的资源包, 并在时间预算内推进被引用资源包的上传
+     * @param budgetNanos 本帧用于上传的时间预算
+     */
+    public void pumpUploads(long budgetNanos) {
+        pumpUploads(budgetNanos, Long.MAX_VALUE);
+    }
+
+    /**
+     * 独立更新线程模式: 资源包释放之前录制的快照可能还会被重复呈现, 其中记录的是图集的 GL 名称,
+     * 直到呈现的快照是释放之后录制的才卸载, 避免绑定已删除(或已被新图集复用)的纹理
+     * @param presentedFrame 本帧呈现的快照序号, 见 frameRecorded()
+     */
+    public synchronized void pumpUploads(long budgetNanos, long presentedFrame) {
+        long deadline = System.nanoTime() + budgetNanos;
+        for (TextureBundle bundle : bundles.values()) {
+            if (bundle.state == TextureBundle.State.DECODING && bundle.decoding.isDone()) {
+                bundle.prepared = bundle.decoding.join();
+                bundle.decoding = null;
+                bundle.state = TextureBundle.State.DECODED;
+            }
+            if (bundle.refCount == 0) {
+                if (bundle.canUnload(presentedFrame)) unloadBundle(bundle);
+                continue;
+            }
+            if (bundle.state == TextureBundle.State.UNLOADED) {
+                // 纹理被逐个卸载完但资源包仍被引用, 重新加载
+                startDecoding(bundle);
+            } else if (bundle.state == TextureBundle.State.DECODED) {
+                bundle.atlas = TextureAtlas.beginUpload(bundle.prepared, GL_NEAREST);
+                bundle.prepared = null;
+                bundle.state = TextureBundle.State.UPLOADING;
+            }
+            if (bundle.state == TextureBundle.State.UPLOADING) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) break;
+                if (bundle.atlas.uploadSome(remaining)) {
+                    Map<String, Texture> regions = bundle.atlas.getRegions();
+                    for (String key : bundle.files.keySet()) {
+                        textures.get(key).assign(regions.get(key));
+                    }
+                    bundle.residentCount = bundle.files.size();
+                    bundle.state = TextureBundle.State.RESIDENT;
+                }
+            }
+        }
+    }
+
+    private void unloadBundle(TextureBundle bundle) {
+        if (bundle.state == TextureBundle.State.RESIDENT) {
+            for (String key : bundle.files.keySet()) {
+                unloadTexture(key);
+            }
+        } else if (bundle.state == TextureBundle.State.UPLOADING) {
+            bundle.atlas.destroy();
+            bundle.atlas = null;
+            bundle.state = TextureBundle.State.UNLOADED;
+        }
+    }
+
+    /**
+     * @return 是否有被引用的资源包尚未驻留
+     */
+    public synchronized boolean isLoading() {
+        for (TextureBundle bundle : bundles.values()) {
+            if (bundle.refCount > 0 && bundle.state != TextureBundle.State.RESIDENT) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return 被引用资源包的平均加载进度 [0, 1]
+     */
+    public synchronized float getLoadingProgress() {
+        float sum = 0.0f;
+        int count = 0;
+        for (TextureBundle bundle : bundles.values()) {
+            if (bundle.refCount > 0) {
+                sum += bundle.getProgress();
+                count++;
+            }
+        }
+        return count == 0 ? 1.0f : sum / count;
+    }
+
+    public synchronized void destroyAll() {
+        for (TextureBundle bundle : bundles.values()) {
+            discardPrefetched(bundle);
+            if (bundle.atlas != null) {
+                bundle.atlas.destroy();
+                bundle.atlas = null;
+            }
+            for (String key : bundle.files.keySet()) {
+                textures.remove(key).release();
+            }
+        }
+        bundles.clear();
+        bundleOfTexture.clear();
+        bundleLoader.shutdown();
         for (Texture texture : textures.values()) {
             texture.destroy();
         }
         textures.clear();
+        if (atlas != null) {
+            atlas.destroy();
+            atlas = null;
+        }
     }
 }
@@ -14,10 +14,11 @@ import undertale.Sound.SoundManager;
 import undertale.Texture.FontManager;
 import undertale.Texture.Texture;
 import undertale.Texture.TextureBuilder;
-
-import java.util.Random;
+import undertale.Utils.GameRandom;
+import undertale.Utils.RandomStream;
 
 public class AttackAnimManager extends UIBase implements UIComponent {
+    private static final RandomStream RANDOM = GameRandom.stream(GameRandom.Stream.COMBAT);
     private AnimationManager animationManager;
     private FontManager fontManager;
     private SoundManager soundManager;
@@ -31,6 +32,8 @@ public class AttackAnimManager extends UIBase implements UIComponent {
 
     // Attack bar 动画相关变量
     private boolean attackBarStopped = false;
+    // 按下Z停止攻击条后才播放slice动画, miss时为false
+    private boolean sliceStarted = false;
     // 伤害显示
     private boolean showDamage  = false;
     private float realDamage =0.0f;
@@ -90,6 +93,7 @@ public class AttackAnimManager extends UIBase implements UIComponent {
         showDamage = false;
         showMiss = false;
         attackBarStopped = false;
+        sliceStarted = false;
     }
 
     public void resetTimeVars() {
@@ -106,12 +110,12 @@ public class AttackAnimManager extends UIBase implements UIComponent {
             float ty = MENU_FRAME_BOTTOM - MENU_FRAME_HEIGHT + BATTLE_FRAME_LINE_WIDTH;
             float tw = MENU_FRAME_WIDTH;
             float th = MENU_FRAME_HEIGHT;
-            builder.textureId(attackPanel.getId())
+            builder.texture(attackPanel)
                 .position(tx, ty)
                 .size(tw, th)
                 .draw();
             renderAttackBar();
-            if(attackBarStopped) {
+            if(sliceStarted) {
                 renderSlice(enemy);
             }
         }
@@ -127,7 +131,7 @@ public class AttackAnimManager extends UIBase implements UIComponent {
         float barWidth = scaler * attackBar[attackBarIndex].getWidth();
         float barHeight = scaler * attackBar[attackBarIndex].getHeight();
         TextureBuilder builder = new TextureBuilder();
-        builder.textureId(attackBar[attackBarIndex].getId())
+        builder.texture(attackBar[attackBarIndex])
             .position(barX, barY)
             .size(barWidth, barHeight)
             .draw();
@@ -161,16 +165,10 @@ public class AttackAnimManager extends UIBase implements UIComponent {
             float missWidth = missText.getWidth() * missScaler;
             float missHeight = missText.getHeight() * missScaler;
             TextureBuilder builder = new TextureBuilder();
-            builder.textureId(missText.getId())
+            builder.texture(missText)
                 .position(missX, missY)
                 .size(missWidth, missHeight)
                 .draw();
-
-            if (missDisplayElapsed >= MISS_DISPLAY_DURATION) {
-                showMiss = false;
-                missDisplayElapsed = 0f;
-                SceneManager.getInstance().shouldSwitch = true;
-            }
         }
     }
 
@@ -202,8 +200,7 @@ public class AttackAnimManager extends UIBase implements UIComponent {
         // player的attack power
         int baseDamage = player.getAttackPower();
         // player的随机伤害部分
-        Random rand = new Random();
-        int randomDamage = rand.nextInt(player.getBaseAttack() + 1); // 0 to baseAttack
+        int randomDamage = RANDOM.nextInt(player.getBaseAttack() + 1); // 0 to baseAttack
         baseDamage += randomDamage;
         // 回合伤害加成
         Scene currentScene = SceneManager.getInstance().getCurrentScene();
@@ -288,6 +285,7 @@ public class AttackAnimManager extends UIBase implements UIComponent {
         // Attack bar停止 — 开始攻击时重置相关动画以保证slice动画每次都能播放
         if (!attackBarStopped) {
             attackBarStopped = true;
+            sliceStarted = true;
             if (attackAnimation != null) {
                 attackAnimation.reset();
             }
@@ -297,6 +295,12 @@ public class AttackAnimManager extends UIBase implements UIComponent {
     public void updateMissTime(float deltaTime) {
         if(showMiss) {
             missDisplayElapsed += deltaTime * 1000;
+            // miss显示结束后切换场景, 在 update 中判断, 与绘制频率无关
+            if (missDisplayElapsed >= MISS_DISPLAY_DURATION) {
+                showMiss = false;
+                missDisplayElapsed = 0f;
+                SceneManager.getInstance().shouldSwitch = true;
+            }
         }
     }
 
@@ -304,9 +308,12 @@ public class AttackAnimManager extends UIBase implements UIComponent {
         if (!attackBarStopped) {
             updateAttackBarPosition(deltaTime);
         } else {
-            updateSliceHpDisplay(deltaTime, enemy);
             updateAttackBarIndex(deltaTime);
-            attackAnimation.updateAnimation(deltaTime);
+            // miss时不播放slice动画; 先推进动画, 同一 tick 内结算伤害
+            if (sliceStarted) {
+                attackAnimation.updateAnimation(deltaTime);
+                updateSliceHpDisplay(deltaTime, enemy);
+            }
         }
     }
 
@@ -70,7 +70,7 @@ public class BeginMenuManager extends UIBase implements UIComponent {
         float bgScaler = (float)BOTTOM_MARGIN / menuBackgroundTexture.getHeight();
         float BG_WIDTH = menuBackgroundTexture.getWidth() * bgScaler;
         float BG_LEFT = (RIGHT_MARGIN - BG_WIDTH) / 2;
-        new TextureBuilder().textureId(menuBackgroundTexture.getId())
+        new TextureBuilder().texture(menuBackgroundTexture)
             .position(BG_LEFT, 0)
             .size(BG_WIDTH, BOTTOM_MARGIN)
             .draw();
@@ -106,7 +106,7 @@ public class BeginMenuManager extends UIBase implements UIComponent {
         float heartWidth = heartTexture.getWidth() * heartScaler;
         float heartHeight = heartTexture.getHeight() * heartScaler;
         
-        new TextureBuilder().textureId(heartTexture.getId())
+        new TextureBuilder().texture(heartTexture)
             .position(heartX, heartY)
             .size(heartWidth, heartHeight)
             .draw();
@@ -23,6 +23,15 @@ public class BgUIManager extends UIBase implements UIComponent {
     private Texture tensionBarFill;
     private Texture[] buttons;
 
+    // 数值不变时复用上一帧拼好的字符串, FontManager 的排版缓存因此直接命中
+    private int shownTp = -1;
+    private String tpString;
+    private int shownLevel = -1;
+    private String levelString;
+    private int shownHealth = -1;
+    private int shownMaxHealth = -1;
+    private String healthString;
+
     public BgUIManager(FontManager fontManager, Player player) {
         super();
 
@@ -54,10 +63,10 @@ public class BgUIManager extends UIBase implements UIComponent {
 
     public void renderButtons(int selectedAction, boolean allowFocus){
         for (int i = 0; i < 4; i++) {
-            int txId = buttons[i + (i == selectedAction ? 4 : 0)].getId();
+            Texture button = buttons[i + (i == selectedAction ? 4 : 0)];
             float btnX = LEFT_MARGIN + BTN_MARGIN + i * (BTN_WIDTH + BTN_MARGIN);
             float btnY = BOTTOM_MARGIN - BTN_HEIGHT - BOTTOM_OFFSET;
-            new TextureBuilder().textureId(txId)
+            new TextureBuilder().texture(button)
                 .position(btnX, btnY)
                 .size(BTN_WIDTH, BTN_HEIGHT)
                 .draw();
@@ -71,7 +80,7 @@ public class BgUIManager extends UIBase implements UIComponent {
         float barx = LEFT_MARGIN + 35;
         float bary = TOP_MARGIN + 120;
         
-        new TextureBuilder().textureId(tensionBar.getId())
+        new TextureBuilder().texture(tensionBar)
             .position(barx, bary)
             .size(tensionBar.getWidth() * scale, tensionBar.getHeight() * scale)
             .draw();
@@ -81,7 +90,7 @@ public class BgUIManager extends UIBase implements UIComponent {
         float fillHeight = tensionBarFill.getHeight() * scale * tpPercent;
         float fillY = bary + tensionBar.getHeight() * scale - fillHeight;
         
-        new TextureBuilder().textureId(tensionBarFill.getId())
+        new TextureBuilder().texture(tensionBarFill)
             .position(barx + 2 * scale, fillY)
             .size(tensionBarFill.getWidth() * scale, fillHeight)
             .rgba(0.0f, 64.0f / 255.0f, 192.0f / 255.0f, 1.0f)
@@ -90,7 +99,11 @@ public class BgUIManager extends UIBase implements UIComponent {
         
         // 在tp bar顶部上方绘制TP 数字%
         float margin = 30;
-        String tpText = tp + " %";
+        if (tp != shownTp) {
+            shownTp = tp;
+            tpString = tp + " %";
+        }
+        String tpText = tpString;
         float textWidth = fontManager.getTextWidth(tpText);
         fontManager.drawText(tpText,
             barx + (tensionBar.getWidth() * scale - textWidth) / 2 + 45,
@@ -113,12 +126,16 @@ public class BgUIManager extends UIBase implements UIComponent {
         // 绘制name
         fontManager.drawText(player.getName(), OFFSET , HEIGHT, 1.0f, 1.0f, 1.0f, 1.0f);
         // 绘制LV
-        fontManager.drawText("LV " + player.getLevel(), OFFSET + BTN_WIDTH / 4 * 3, HEIGHT, 1.0f, 1.0f, 1.0f, 1.0f);
+        if (player.getLevel() != shownLevel) {
+            shownLevel = player.getLevel();
+            levelString = "LV " + shownLevel;
+        }
+        fontManager.drawText(levelString, OFFSET + BTN_WIDTH / 4 * 3, HEIGHT, 1.0f, 1.0f, 1.0f, 1.0f);
         // 绘制HP
         float hpLeft = OFFSET + BTN_WIDTH * 3 / 2 + BTN_MARGIN - hpText.getWidth();
         float hpTop = HEIGHT - hpText.getHeight() * 2;
         
-        new TextureBuilder().textureId(hpText.getId())
+        new TextureBuilder().texture(hpText)
             .position(hpLeft, hpTop)
             .size(hpText.getWidth() * 2, hpText.getHeight() * 2)
             .draw();
@@ -134,8 +151,12 @@ public class BgUIManager extends UIBase implements UIComponent {
         Texture.drawRect(HP_BAR_X, HP_BAR_Y, HP_BAR_CURRENT_WIDTH, HP_BAR_HEIGHT, 1.0f, 1.0f, 0.0f, 1.0f);
 
         // 绘制currentHealth/maxHealth
-        String hpText = player.getCurrentHealth() + "  /  " + player.getMaxHealth();
-        fontManager.drawText(hpText, HP_BAR_X + HP_BAR_WIDTH + 20, HEIGHT, 1.0f, 1.0f, 1.0f, 1.0f);
+        if (player.getCurrentHealth() != shownHealth || player.getMaxHealth() != shownMaxHealth) {
+            shownHealth = player.getCurrentHealth();
+            shownMaxHealth = player.getMaxHealth();
+            healthString = shownHealth + "  /  " + shownMaxHealth;
+        }
+        fontManager.drawText(healthString, HP_BAR_X + HP_BAR_WIDTH + 20, HEIGHT, 1.0f, 1.0f, 1.0f, 1.0f);
     }
 
     @Override
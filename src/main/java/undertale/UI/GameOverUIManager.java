@@ -8,8 +8,11 @@ import undertale.Sound.SoundManager;
 import undertale.GameObject.Player;
 import undertale.Texture.Texture;
 import undertale.Texture.TextureBuilder;
+import undertale.Utils.GameRandom;
+import undertale.Utils.RandomStream;
 
 public class GameOverUIManager extends UIBase implements UIComponent {
+    private static final RandomStream RANDOM = GameRandom.stream(GameRandom.Stream.UI);
     private TypeWriter typeWriter;
     private Player player;
     private Texture gameOverBgTexture;
@@ -100,6 +103,10 @@ public class GameOverUIManager extends UIBase implements UIComponent {
         if (postHeartElapsed >= printMessageStartTime) {
             printMessage = true;
         }
+        // 打字进度在 update 中推进, 与是否绘制无关
+        if (printMessage && gameOverText != null) {
+            typeWriter.setText(gameOverText, LINE_WIDTH);
+        }
 
         // 背景淡入以相对时间来计算
         if (gameOverBgAlpha < 1.0f) {
@@ -122,7 +129,7 @@ public class GameOverUIManager extends UIBase implements UIComponent {
     private void renderHeartBreakAnimation() {
         // 静止阶段
         if (gameOverTimeElapsed < heartStaticTime) {
-            new TextureBuilder().textureId(heartTexture.getId())
+            new TextureBuilder().texture(heartTexture)
                 .position(player.getX(), player.getY())
                 .size(player.getWidth(), player.getHeight())
                 .draw();
@@ -141,7 +148,7 @@ public class GameOverUIManager extends UIBase implements UIComponent {
             float bhw = scaler * brokenHeartTexture.getWidth();
             float bhh = scaler * brokenHeartTexture.getHeight();
 
-            new TextureBuilder().textureId(brokenHeartTexture.getId())
+            new TextureBuilder().texture(brokenHeartTexture)
                 .position(bhx, bhy)
                 .size(bhw, bhh)
                 .draw();
@@ -162,13 +169,13 @@ public class GameOverUIManager extends UIBase implements UIComponent {
                 shardPhase = new float[n];
                 for (int i = 0; i < n; i++) {
                     // 随机角度在 15 到 165 度之间（向上散开）
-                    shardAngleDeg[i] = 15.0f + (float)Math.random() * (165.0f - 15.0f);
+                    shardAngleDeg[i] = 15.0f + (float)RANDOM.nextDouble() * (165.0f - 15.0f);
                     // 随机初速度（像素/秒），使用适中范围
-                    shardSpeed[i] = 200.0f + (float)Math.random() * 400.0f; // 200 - 600 px/s
+                    shardSpeed[i] = 200.0f + (float)RANDOM.nextDouble() * 400.0f; // 200 - 600 px/s
                     // 旋转速度（度/秒）
-                    shardRotSpeed[i] = 180.0f + (float)Math.random() * 720.0f; // 180 - 900 dps
+                    shardRotSpeed[i] = 180.0f + (float)RANDOM.nextDouble() * 720.0f; // 180 - 900 dps
                     // 相位用于 scale 的随机化
-                    shardPhase[i] = (float)Math.random() * (float)(Math.PI * 2);
+                    shardPhase[i] = (float)RANDOM.nextDouble() * (float)(Math.PI * 2);
                 }
                 shardsInitialized = true;
                 // 在碎片真正开始爆炸时播放一次 heart_explode 音效
@@ -203,7 +210,7 @@ public class GameOverUIManager extends UIBase implements UIComponent {
                 float drawW = shardTexture.getWidth() * scale;
                 float drawH = shardTexture.getHeight() * scale;
 
-                new TextureBuilder().textureId(shardTexture.getId())
+                new TextureBuilder().texture(shardTexture)
                     .position(bhx + xOffset, bhy + yOffset)
                     .size(drawW, drawH)
                     .rotation(rotation)
@@ -219,7 +226,7 @@ public class GameOverUIManager extends UIBase implements UIComponent {
         float y = 20.0f;
         float w = LINE_WIDTH;
         float h = BOTTOM_MARGIN / 2 - 20;
-        new TextureBuilder().textureId(gameOverBgTexture.getId())
+        new TextureBuilder().texture(gameOverBgTexture)
             .position(x, y)
             .size(w, h)
             .rgba(1.0f,1.0f,1.0f, gameOverBgAlpha)
@@ -233,7 +240,7 @@ public class GameOverUIManager extends UIBase implements UIComponent {
     }
 
     public void selectRandomMessage() {
-        int index = (int)(Math.random() * gameOverMessages.length);
+        int index = RANDOM.nextInt(gameOverMessages.length);
         gameOverText = gameOverMessages[index];
     }
 
@@ -0,0 +1,54 @@
+package undertale.UI;
+
+import undertale.Texture.FontManager;
+import undertale.Texture.Texture;
+import undertale.Texture.TextureManager;
+
+/**
+ * 场景资源包上传期间代替场景绘制的加载画面: 文字 + 进度条
+ * 只使用常驻的字体和白色纹理; 加载很快结束时(SHOW_DELAY 内)保持黑屏, 避免画面闪烁
+ */
+public class LoadingScreen {
+    private static final float SHOW_DELAY = 0.15f;
+    private static final float BAR_WIDTH = 400.0f;
+    private static final float BAR_HEIGHT = 16.0f;
+    private static final float BAR_LINE_WIDTH = 2.0f;
+
+    private final FontManager fontManager;
+    private final TextureManager textureManager;
+    private final float windowWidth;
+    private final float windowHeight;
+    private long loadingSince = 0;
+
+    public LoadingScreen(FontManager fontManager, TextureManager textureManager, float windowWidth, float windowHeight) {
+        this.fontManager = fontManager;
+        this.textureManager = textureManager;
+        this.windowWidth = windowWidth;
+        this.windowHeight = windowHeight;
+    }
+
+    public void render() {
+        long now = System.nanoTime();
+        if (loadingSince == 0) {
+            loadingSince = now;
+        }
+        if ((now - loadingSince) / 1e9f < SHOW_DELAY) return;
+
+        String text = "LOADING...";
+        float textX = (windowWidth - fontManager.getTextWidth(text)) / 2;
+        float barX = (windowWidth - BAR_WIDTH) / 2;
+        float barY = windowHeight / 2 + 20;
+        fontManager.drawText(text, textX, windowHeight / 2 - 10, 1.0f, 1.0f, 1.0f, 1.0f);
+        Texture.drawHollowRect(barX, barY, BAR_WIDTH, BAR_HEIGHT, 1.0f, 1.0f, 1.0f, 1.0f, BAR_LINE_WIDTH);
+        float inner = BAR_LINE_WIDTH * 2;
+        Texture.drawRect(barX + inner, barY + inner, (BAR_WIDTH - inner * 2) * textureManager.getLoadingProgress(),
+            BAR_HEIGHT - inner * 2, 1.0f, 1.0f, 0.0f, 1.0f);
+    }
+
+    /**
+     * 加载结束后调用, 下次加载重新计算显示延迟
+     */
+    public void reset() {
+        loadingSince = 0;
+    }
+}
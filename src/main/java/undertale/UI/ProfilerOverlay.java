@@ -0,0 +1,84 @@
+package undertale.UI;
+
+import undertale.Texture.FontManager;
+import undertale.Texture.Texture;
+import undertale.Utils.FrameProfiler;
+
+/**
+ * FrameProfiler 的屏幕叠加层: 左上角按层级列出各 scope 的平均/最大耗时, 下方为最近 HISTORY 帧的帧时间柱状图
+ * 文字每 REFRESH_INTERVAL 秒重建一次, 避免每帧拼接字符串和排版; 柱状图每帧按环形缓冲绘制。
+ * 在场景绘制之后调用; 独立更新线程模式下与场景一起录制到快照, 读到的计时可能落后一帧。
+ */
+public class ProfilerOverlay {
+    private static final float REFRESH_INTERVAL = 0.5f;
+    private static final float LEFT = 10.0f;
+    private static final float TOP = 10.0f;
+    private static final float TEXT_SCALE = 0.6f;
+    private static final float LINE_HEIGHT = 20.0f;
+    private static final float PANEL_WIDTH = 420.0f;
+    private static final float GRAPH_HEIGHT = 100.0f;
+    private static final float BAR_WIDTH = PANEL_WIDTH / FrameProfiler.HISTORY;
+    // 柱状图满格对应的毫秒数, 参考线为 60fps 的帧预算
+    private static final float GRAPH_MAX_MS = 50.0f;
+    private static final float BUDGET_MS = 1000.0f / 60.0f;
+
+    private final FontManager fontManager;
+    private final FrameProfiler profiler;
+    private final String[] lines = new String[FrameProfiler.MAX_SCOPES + 1];
+    private int lineCount = 0;
+    private long lastRefresh = 0;
+
+    public ProfilerOverlay(FontManager fontManager, FrameProfiler profiler) {
+        this.fontManager = fontManager;
+        this.profiler = profiler;
+    }
+
+    public void render() {
+        if (!profiler.isEnabled()) return;
+        long now = System.nanoTime();
+        if (lineCount == 0 || (now - lastRefresh) / 1e9f >= REFRESH_INTERVAL) {
+            refreshLines();
+            lastRefresh = now;
+        }
+
+        float textHeight = lineCount * LINE_HEIGHT;
+        Texture.drawRect(LEFT - 5, TOP - 5, PANEL_WIDTH + 10, textHeight + GRAPH_HEIGHT + 20, 0.0f, 0.0f, 0.0f, 0.7f);
+        for (int i = 0; i < lineCount; i++) {
+            fontManager.drawText(lines[i], LEFT, TOP + (i + 1) * LINE_HEIGHT - 4, TEXT_SCALE, 1.0f, 1.0f, 1.0f, 1.0f);
+        }
+
+        // 帧时间柱状图, 最新的帧在最右边
+        float graphBottom = TOP + textHeight + 10 + GRAPH_HEIGHT;
+        int samples = profiler.getSampleCount();
+        for (int i = 0; i < samples; i++) {
+            float ms = profiler.getMillis(FrameProfiler.FRAME, i);
+            float h = Math.min(ms / GRAPH_MAX_MS, 1.0f) * GRAPH_HEIGHT;
+            float x = LEFT + PANEL_WIDTH - (i + 1) * BAR_WIDTH;
+            if (ms <= BUDGET_MS) {
+                Texture.drawRect(x, graphBottom - h, BAR_WIDTH, h, 0.2f, 0.9f, 0.2f, 1.0f);
+            } else if (ms <= BUDGET_MS * 2) {
+                Texture.drawRect(x, graphBottom - h, BAR_WIDTH, h, 1.0f, 0.9f, 0.1f, 1.0f);
+            } else {
+                Texture.drawRect(x, graphBottom - h, BAR_WIDTH, h, 1.0f, 0.2f, 0.2f, 1.0f);
+            }
+        }
+        float budgetY = graphBottom - BUDGET_MS / GRAPH_MAX_MS * GRAPH_HEIGHT;
+        Texture.drawRect(LEFT, budgetY, PANEL_WIDTH, 1.0f, 1.0f, 1.0f, 1.0f, 0.6f);
+    }
+
+    // 按注册顺序输出, 子 scope 缩进在父 scope 之后
+    private void refreshLines() {
+        lineCount = 0;
+        appendChildren(-1);
+    }
+
+    private void appendChildren(int parent) {
+        for (int id = 0; id < profiler.getScopeCount() && lineCount < lines.length; id++) {
+            if (profiler.getParent(id) != parent) continue;
+            lines[lineCount++] = String.format("%s%-24s avg %6.2f  max %6.2f ms",
+                "  ".repeat(profiler.getDepth(id)), profiler.getName(id),
+                profiler.getAverageMillis(id), profiler.getMaxMillis(id));
+            appendChildren(id);
+        }
+    }
+}
@@ -1,9 +1,8 @@
 package undertale.UI;
 
-import java.util.ArrayList;
-
 import undertale.Sound.SoundManager;
 import undertale.Texture.FontManager;
+import undertale.Texture.TextLayout;
 
 public class TypeWriter extends UIBase implements UIComponent {
     private FontManager fontManager;
@@ -13,28 +12,26 @@ public class TypeWriter extends UIBase implements UIComponent {
 
     // 打字机效果相关变量
     private String lastText;
-    private ArrayList<String> displayLines;
-    private ArrayList<Boolean> isRawNewline;
+    // 换行后的排版, 由 FontManager 缓存; 每行长度和是否为原始\n后的首行都从这里读取
+    private TextLayout layout;
     private int totalCharsToShow;
     private boolean typewriterAllShown;
     private final int TYPEWRITER_SPEED = 28; // 每秒显示字符数
     private final float LINE_PAUSE_DURATION = 0.25f; // 每行换行停顿时间（秒） 
+    private final float MENU_TEXT_MAX_WIDTH = MENU_FRAME_WIDTH - 40;
 
 
     public TypeWriter(FontManager fontManager) {
         super();
         this.fontManager = fontManager;
         this.soundManager = SoundManager.getInstance();
-        displayLines = new ArrayList<>();
-        isRawNewline = new ArrayList<>();
         reset();
     }
 
     public void reset() {
         typewriterElapsed = 0f;
         lastText = null;
-        displayLines.clear();
-        isRawNewline.clear();
+        layout = null;
         totalCharsToShow = 0;
         typewriterAllShown = false;
     }
@@ -42,16 +39,14 @@ public class TypeWriter extends UIBase implements UIComponent {
     public void update(float deltaTime) {
         if (!typewriterAllShown) {
             typewriterElapsed += deltaTime;
-            if (displayLines != null && !displayLines.isEmpty()) {
+            if (layout != null && layout.getLineCount() > 0) {
                 int newChars = computeCharsToShowFromElapsed();
                 if (newChars > totalCharsToShow) {
                     soundManager.playSE("text_print");
                 }
                 totalCharsToShow = newChars;
                 // 计算是否全部显示完毕
-                int allChars = 0;
-                for (String l : displayLines) allChars += l.length();
-                if (totalCharsToShow >= allChars) {
+                if (totalCharsToShow >= layout.getCharCount()) {
                     typewriterAllShown = true;
                 }
             }
@@ -63,86 +58,60 @@ public class TypeWriter extends UIBase implements UIComponent {
         // TypeWriter doesn't render globally without context - leave as no-op.
     }
 
-    // 根据当前 typewriterElapsed 和 displayLines/isRawNewline 计算应显示的字符数
+    // 根据当前 typewriterElapsed 和排版的各行长度计算应显示的字符数
     private int computeCharsToShowFromElapsed() {
         int total = 0;
         int charsToShow = 0;
-        for (int i = 0; i < displayLines.size(); i++) {
-            String line = displayLines.get(i);
-            boolean pause = isRawNewline != null && isRawNewline.size() > i && isRawNewline.get(i);
+        for (int i = 0; i < layout.getLineCount(); i++) {
+            int lineLength = layout.getLineLength(i);
+            boolean pause = layout.isParagraphStart(i);
             float lineStart = (float)total / TYPEWRITER_SPEED + (pause ? i * LINE_PAUSE_DURATION : 0);
             float lineElapsed = typewriterElapsed - lineStart;
             if (lineElapsed > 0) {
-                int lineChars = Math.min(line.length(), (int)(lineElapsed * TYPEWRITER_SPEED));
+                int lineChars = Math.min(lineLength, (int)(lineElapsed * TYPEWRITER_SPEED));
                 charsToShow += lineChars;
             }
             // 若本行未全部显示，后续行不显示
-            if (lineElapsed < ((float)line.length() / TYPEWRITER_SPEED)) {
+            if (lineElapsed < ((float)lineLength / TYPEWRITER_SPEED)) {
                 break;
             }
-            total += line.length();
+            total += lineLength;
         }
         // 限制最大
-        int allChars = 0;
-        for (String l : displayLines) allChars += l.length();
-        return Math.min(charsToShow, allChars);
+        return Math.min(charsToShow, layout.getCharCount());
     }
 
-    public void renderTexts(String text, float left, float top, float maxWidth) {
-        // 打字机效果，X跳过全部显示，全部显示后Z才可继续
-        float fontHeight = fontManager.getFontHeight() + 5;
-
-        // 若文本变化，重置打字机状态
+    /**
+     * 设置要打印的文本, 需在 update 中调用, 打字进度只由 update 推进, 不依赖是否绘制
+     * 文本变化时重置打字机状态
+     */
+    public void setText(String text, float maxWidth) {
         if (lastText == null || !lastText.equals(text)) {
             lastText = text;
-            displayLines.clear();
-            isRawNewline.clear();
-            // 先按\n分割，再对每行做自动换行
-            String[] lines = text.split("\\n");
-            for (String rawLine : lines) {
-                int start = 0;
-                int len = rawLine.length();
-                boolean first = true;
-                while (start < len) {
-                    int end = start;
-                    while (end < len) {
-                        int nextSpace = rawLine.indexOf(' ', end);
-                        String sub = rawLine.substring(start, nextSpace == -1 ? len : nextSpace);
-                        if (fontManager.getTextWidth(sub) > maxWidth) break;
-                        end = nextSpace == -1 ? len : nextSpace + 1;
-                    }
-                    if (end == start) end++;
-                    String line = rawLine.substring(start, end);
-                    displayLines.add(line);
-                    isRawNewline.add(first); // 只有原始\n的第一行才true
-                    first = false;
-                    start = end;
-                }
-            }
             totalCharsToShow = 0;
             typewriterElapsed = 0f;
             typewriterAllShown = false;
         }
+        // 先按\n分割，再对每行做自动换行; 排版由 FontManager 缓存, 每帧只是一次查表
+        layout = fontManager.getLayout(text, maxWidth);
+    }
 
+    public void setTextInMenu(String text) {
+        setText(text, MENU_TEXT_MAX_WIDTH);
+    }
 
-        // 绘制文本
-        int shown = 0;
-        int rowIdx = 0;
-        for (String line : displayLines) {
-            int remain = totalCharsToShow - shown;
-            if (remain <= 0) break;
-            int toShow = Math.min(remain, line.length());
-            fontManager.drawText(line.substring(0, toShow), left, top + rowIdx * fontHeight, 1.0f, 1.0f, 1.0f, 1.0f);
-            shown += toShow;
-            rowIdx++;
-        }
+    public void renderTexts(String text, float left, float top, float maxWidth) {
+        // 打字机效果，X跳过全部显示，全部显示后Z才可继续
+        setText(text, maxWidth);
+
+        // 绘制已显示的前 totalCharsToShow 个字符, 所有行一次提交
+        layout.drawPrefix(left, top, totalCharsToShow, 1.0f, 1.0f, 1.0f, 1.0f);
     }
 
     public void renderTextsInMenu(String text) {
         float left = MENU_FRAME_LEFT + 50;
         float top = MENU_FRAME_BOTTOM - MENU_FRAME_HEIGHT + 50;
-        float maxWidth = MENU_FRAME_WIDTH - 40;
-        renderTexts(text, left, top, maxWidth);
+        renderTexts(text, left, top, MENU_TEXT_MAX_WIDTH);
     }
 
     public boolean isTypewriterAllShown() {
@@ -151,9 +120,7 @@ public class TypeWriter extends UIBase implements UIComponent {
 
     public void showAll() {
         if (!typewriterAllShown) {
-            int total = 0;
-            for (String line : displayLines) total += line.length();
-            totalCharsToShow = total;
+            totalCharsToShow = layout != null ? layout.getCharCount() : 0;
             typewriterAllShown = true;
         }
     }
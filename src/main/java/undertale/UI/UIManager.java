@@ -70,6 +70,17 @@ public class UIManager extends UIBase {
         stateContext.getCurrentState().renderFrameContents(stateContext, roundText);
     }
 
+    /**
+     * 把当前菜单状态要打印的文本交给打字机, 与 renderFrameContents 对应, 在场景 update 中调用
+     */
+    public void updateFrameContents(String roundText) {
+        if(roundText == null) return;
+        String text = stateContext.getCurrentState().getFrameText(stateContext, roundText);
+        if(text != null) {
+            menuTypeWriter.setTextInMenu(text);
+        }
+    }
+
     public void updatePlayerMenuPosition() {
         MenuStateType currentType = stateContext.getCurrentStateType();
         if(currentType == MenuStateType.FIGHT || currentType == MenuStateType.ACT || 
@@ -36,6 +36,11 @@ public abstract class AbstractMenuState extends UIBase implements MenuState {
         // Default: do nothing
     }
     
+    @Override
+    public String getFrameText(MenuStateContext context, String roundText) {
+        return null;
+    }
+    
     @Override
     public void updatePlayerPosition(MenuStateContext context) {
         // Default: do nothing
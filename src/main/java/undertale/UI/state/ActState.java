@@ -26,10 +26,13 @@ public class ActState extends AbstractMenuState {
     }
     
     @Override
-    public void renderFrameContents(MenuStateContext context, String roundText) {
+    public String getFrameText(MenuStateContext context, String roundText) {
         Enemy enemy = context.getEnemyManager().getCurrentEnemy();
-        context.getMenuTypeWriter().renderTextsInMenu(
-            enemy.getActs().get(context.selectedAct).getDescription()
-        );
+        return enemy.getActs().get(context.selectedAct).getDescription();
+    }
+    
+    @Override
+    public void renderFrameContents(MenuStateContext context, String roundText) {
+        context.getMenuTypeWriter().renderTextsInMenu(getFrameText(context, roundText));
     }
 }
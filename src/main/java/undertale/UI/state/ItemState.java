@@ -24,12 +24,13 @@ public class ItemState extends AbstractMenuState {
         context.getMenuTypeWriter().showAll();
     }
     
+    @Override
+    public String getFrameText(MenuStateContext context, String roundText) {
+        return context.pendingItemDescription != null ? context.pendingItemDescription : "";
+    }
+    
     @Override
     public void renderFrameContents(MenuStateContext context, String roundText) {
-        if (context.pendingItemDescription != null) {
-            context.getMenuTypeWriter().renderTextsInMenu(context.pendingItemDescription);
-        } else {
-            context.getMenuTypeWriter().renderTextsInMenu("");
-        }
+        context.getMenuTypeWriter().renderTextsInMenu(getFrameText(context, roundText));
     }
 }
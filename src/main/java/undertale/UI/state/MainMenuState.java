@@ -50,9 +50,14 @@ public class MainMenuState extends AbstractMenuState {
         context.getMenuTypeWriter().showAll();
     }
     
+    @Override
+    public String getFrameText(MenuStateContext context, String roundText) {
+        return roundText;
+    }
+    
     @Override
     public void renderFrameContents(MenuStateContext context, String roundText) {
-        context.getMenuTypeWriter().renderTextsInMenu(roundText);
+        context.getMenuTypeWriter().renderTextsInMenu(getFrameText(context, roundText));
     }
     
     @Override
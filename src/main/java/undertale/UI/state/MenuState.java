@@ -37,6 +37,15 @@ public interface MenuState {
      * @param roundText Text to display for MAIN state
      */
     void renderFrameContents(MenuStateContext context, String roundText);
+
+    /**
+     * Text printed by the menu typewriter in this state, fed to it every update
+     * so that typing progress does not depend on rendering
+     * @param context The context holding shared state data
+     * @param roundText Text to display for MAIN state
+     * @return the text, or null if this state does not print text
+     */
+    String getFrameText(MenuStateContext context, String roundText);
     
     /**
      * Update player position for this state
@@ -26,7 +26,7 @@ public class MercyState extends AbstractMenuState {
     }
     
     @Override
-    public void renderFrameContents(MenuStateContext context, String roundText) {
+    public String getFrameText(MenuStateContext context, String roundText) {
         String text = "* You spared the enemy.";
         Enemy enemy = context.getEnemyManager().getCurrentEnemy();
         if(enemy != null) {
@@ -37,6 +37,11 @@ public class MercyState extends AbstractMenuState {
                     context.getEnemyManager().getTotalGold(true) + " gold.";
             }
         }
-        context.getMenuTypeWriter().renderTextsInMenu(text);
+        return text;
+    }
+    
+    @Override
+    public void renderFrameContents(MenuStateContext context, String roundText) {
+        context.getMenuTypeWriter().renderTextsInMenu(getFrameText(context, roundText));
     }
 }
@@ -38,10 +38,14 @@ public class SuccessState extends AbstractMenuState {
     }
     
     @Override
-    public void renderFrameContents(MenuStateContext context, String roundText) {
-        String msg = "* You won!\n* You earned " + 
+    public String getFrameText(MenuStateContext context, String roundText) {
+        return "* You won!\n* You earned " + 
             context.getEnemyManager().getTotalExp() + " EXP and " + 
             context.getEnemyManager().getTotalGold(false) + " gold.";
-        context.getMenuTypeWriter().renderTextsInMenu(msg);
+    }
+    
+    @Override
+    public void renderFrameContents(MenuStateContext context, String roundText) {
+        context.getMenuTypeWriter().renderTextsInMenu(getFrameText(context, roundText));
     }
 }
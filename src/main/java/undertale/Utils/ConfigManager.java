@@ -3,8 +3,11 @@ package undertale.Utils;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonElement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 
 public class ConfigManager {
     private static ConfigManager instance;
@@ -22,11 +25,19 @@ public class ConfigManager {
     public final float BUTTON_MARGIN;
     public final float BOTTOM_OFFSET;
     public final float BATTLE_FRAME_LINE_WIDTH;
+    public final int TICK_RATE;
+    public final int MAX_CATCH_UP_STEPS;
+    public final int MAX_FPS;
+    public final boolean THREADED_UPDATE;
     public final HashMap<String, String> textures;
+    public final LinkedHashMap<String, List<String>> assetBundles; // 资源包名 -> 纹理 key 模式('*' 结尾为前缀匹配), 未归入资源包的纹理常驻
+    public final HashMap<String, List<String>> sceneBundles; // 场景名(SceneEnum) -> 进入场景前需要驻留的资源包
+    public final HashMap<String, List<String>> scenePrefetch; // 场景名(SceneEnum) -> 进入场景后在后台预取的资源包
     public final HashMap<String, String> playerMap;
     public final HashMap<String, String> fonts;
     public final HashMap<String, String> se;
     public final HashMap<String, String> music;
+    public final HashMap<String, float[]> musicLoopPoints; // 音乐路径 -> {循环起点, 循环终点}(秒), 终点 <= 0 表示文件末尾
     public final HashMap<String, String> vertexShaders;
     public final HashMap<String, String> fragmentShaders;
 
@@ -41,11 +52,19 @@ public class ConfigManager {
         float button_frame_line_width = 3.0f;
         float button_width = 110.0f;
         float button_height = 42.0f;
+        int tickRate = 60;
+        int maxCatchUpSteps = 5;
+        int maxFps = 240;
+        boolean threadedUpdate = false;
         HashMap<String, String> texMap = new HashMap<>();
+        LinkedHashMap<String, List<String>> bundleMap = new LinkedHashMap<>();
+        HashMap<String, List<String>> sceneBundleMap = new HashMap<>();
+        HashMap<String, List<String>> scenePrefetchMap = new HashMap<>();
         HashMap<String, String> playerMapTmp = new HashMap<>();
         HashMap<String, String> fontsMap = new HashMap<>();
         HashMap<String, String> seMap = new HashMap<>();
         HashMap<String, String> musicMap = new HashMap<>();
+        HashMap<String, float[]> musicLoopMap = new HashMap<>();
         HashMap<String, String> vertexShadersMap = new HashMap<>();
         HashMap<String, String> fragmentShadersMap = new HashMap<>();
 
@@ -62,6 +81,14 @@ public class ConfigManager {
                         if (win.has("width")) widthVal = win.get("width").getAsInt();
                         if (win.has("height")) heightVal = win.get("height").getAsInt();
                     }
+                    // loop: 固定步长主循环
+                    if (obj.has("loop")) {
+                        JsonObject loop = obj.getAsJsonObject("loop");
+                        if (loop.has("tick_rate")) tickRate = loop.get("tick_rate").getAsInt();
+                        if (loop.has("max_catch_up_steps")) maxCatchUpSteps = loop.get("max_catch_up_steps").getAsInt();
+                        if (loop.has("max_fps")) maxFps = loop.get("max_fps").getAsInt();
+                        if (loop.has("threaded_update")) threadedUpdate = loop.get("threaded_update").getAsBoolean();
+                    }
                     // ui
                     if (obj.has("ui")) {
                         JsonObject ui = obj.getAsJsonObject("ui");
@@ -91,6 +118,20 @@ public class ConfigManager {
                             }
                         }
                     }
+                    // asset bundles: 按场景加载卸载的纹理分组
+                    if (obj.has("asset_bundles")) {
+                        for (Map.Entry<String, JsonElement> entry : obj.getAsJsonObject("asset_bundles").entrySet()) {
+                            bundleMap.put(entry.getKey(), toStringList(entry.getValue()));
+                        }
+                    }
+                    // scene assets: 每个场景的资源清单
+                    if (obj.has("scene_assets")) {
+                        for (Map.Entry<String, JsonElement> entry : obj.getAsJsonObject("scene_assets").entrySet()) {
+                            JsonObject scene = entry.getValue().getAsJsonObject();
+                            if (scene.has("bundles")) sceneBundleMap.put(entry.getKey(), toStringList(scene.get("bundles")));
+                            if (scene.has("prefetch")) scenePrefetchMap.put(entry.getKey(), toStringList(scene.get("prefetch")));
+                        }
+                    }
                     // se
                     if (obj.has("se")) {
                         for (JsonElement el : obj.getAsJsonArray("se")) {
@@ -105,7 +146,13 @@ public class ConfigManager {
                         for (JsonElement el : obj.getAsJsonArray("music")) {
                             JsonObject music = el.getAsJsonObject();
                             if (music.has("key") && music.has("path")) {
-                                musicMap.put(music.get("key").getAsString(), music.get("path").getAsString());
+                                String path = music.get("path").getAsString();
+                                musicMap.put(music.get("key").getAsString(), path);
+                                if (music.has("loop_start") || music.has("loop_end")) {
+                                    float loopStart = music.has("loop_start") ? music.get("loop_start").getAsFloat() : 0.0f;
+                                    float loopEnd = music.has("loop_end") ? music.get("loop_end").getAsFloat() : 0.0f;
+                                    musicLoopMap.put(path, new float[]{loopStart, loopEnd});
+                                }
                             }
                         }
                     }
@@ -144,11 +191,19 @@ public class ConfigManager {
         this.debug = debugVal;
         this.WINDOW_WIDTH = widthVal;
         this.WINDOW_HEIGHT = heightVal;
+        this.TICK_RATE = tickRate;
+        this.MAX_CATCH_UP_STEPS = maxCatchUpSteps;
+        this.MAX_FPS = maxFps;
+        this.THREADED_UPDATE = threadedUpdate;
         this.textures = texMap;
+        this.assetBundles = bundleMap;
+        this.sceneBundles = sceneBundleMap;
+        this.scenePrefetch = scenePrefetchMap;
         this.playerMap = playerMapTmp;
         this.fonts = fontsMap;
         this.se = seMap;
         this.music = musicMap;
+        this.musicLoopPoints = musicLoopMap;
         this.vertexShaders = vertexShadersMap;
         this.fragmentShaders = fragmentShadersMap;
         this.BOTTOM_OFFSET = bottom_offset;
@@ -163,6 +218,14 @@ public class ConfigManager {
         this.MENU_FRAME_BOTTOM = WINDOW_HEIGHT - BOTTOM_OFFSET - BUTTON_HEIGHT - 80;
     }
 
+    private static List<String> toStringList(JsonElement array) {
+        List<String> list = new ArrayList<>();
+        for (JsonElement el : array.getAsJsonArray()) {
+            list.add(el.getAsString());
+        }
+        return list;
+    }
+
     // 利用双重校验锁实现单例模式
     public static ConfigManager getInstance() {
         // 第一次检查：避免不必要的同步
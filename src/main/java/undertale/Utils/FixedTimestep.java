@@ -0,0 +1,158 @@
+package undertale.Utils;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 固定步长的主循环计时器(基于 System.nanoTime)
+ * 每帧调用 beginFrame(), 把真实流逝的时间累加进 accumulator, 返回本帧需要执行多少个固定 tick;
+ * 每个 tick 的 deltaTime 都是 getStepSeconds(), 因此模拟结果不受帧率和 sleep 抖动影响,
+ * 卡顿后的大 delta 也会被拆成多个小步, 不会让高速子弹穿过碰撞体。
+ * 单帧最多追赶 maxStepsPerFrame 个 tick, 超出部分直接丢弃(记入 droppedSteps), 防止越追越慢。
+ * 余下不足一个 tick 的时间比例 getAlpha() 用于渲染时在上一 tick 与当前 tick 的位置之间插值。
+ * 同时按秒统计帧率、tick 率、平均/最大帧时间, 用于观察帧节奏(frame pacing)。
+ */
+public class FixedTimestep {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final LongSupplier clock;
+    private final long stepNanos;
+    private final float stepSeconds;
+    private final int maxStepsPerFrame;
+
+    private long lastTime = -1;
+    private long accumulator = 0;
+    private float alpha = 0.0f;
+
+    // 统计: 当前统计窗口内的累计值
+    private long windowStart = -1;
+    private int windowFrames = 0;
+    private int windowTicks = 0;
+    private long windowFrameNanos = 0;
+    private long windowMaxFrameNanos = 0;
+    // 统计: 上一个完整窗口(1秒)的结果
+    private float fps = 0.0f;
+    private float ticksPerSecond = 0.0f;
+    private float averageFrameMs = 0.0f;
+    private float maxFrameMs = 0.0f;
+    private long droppedSteps = 0;
+
+    public FixedTimestep(int tickRate, int maxStepsPerFrame) {
+        this(tickRate, maxStepsPerFrame, System::nanoTime);
+    }
+
+    FixedTimestep(int tickRate, int maxStepsPerFrame, LongSupplier clock) {
+        this.clock = clock;
+        this.stepNanos = NANOS_PER_SECOND / tickRate;
+        this.stepSeconds = 1.0f / tickRate;
+        this.maxStepsPerFrame = Math.max(1, maxStepsPerFrame);
+    }
+
+    /**
+     * 开始新的一帧
+     * @return 本帧需要执行的固定 tick 数
+     */
+    public int beginFrame() {
+        long now = clock.getAsLong();
+        if (lastTime < 0) {
+            lastTime = now;
+            windowStart = now;
+            return 0;
+        }
+        long frameNanos = now - lastTime;
+        lastTime = now;
+        accumulator += frameNanos;
+
+        int steps = (int) Math.min(accumulator / stepNanos, Integer.MAX_VALUE);
+        if (steps > maxStepsPerFrame) {
+            droppedSteps += steps - maxStepsPerFrame;
+            steps = maxStepsPerFrame;
+            accumulator %= stepNanos;
+        } else {
+            accumulator -= steps * stepNanos;
+        }
+        alpha = (float) accumulator / stepNanos;
+
+        recordFrame(now, frameNanos, steps);
+        return steps;
+    }
+
+    /**
+     * 限制最高帧率: 睡眠到本帧开始后 1 / maxFps 秒
+     * 先用 Thread.sleep 睡到目标前约 1ms, 剩余时间用 yield 自旋, 避免 sleep 精度不足造成的抖动
+     * @param maxFps 最高帧率, <= 0 表示不限制(交给垂直同步)
+     */
+    public void paceFrame(int maxFps) {
+        if (maxFps <= 0 || lastTime < 0) return;
+        long deadline = lastTime + NANOS_PER_SECOND / maxFps;
+        long remaining = deadline - clock.getAsLong();
+        if (remaining > 1_000_000L) {
+            try {
+                Thread.sleep((remaining - 1_000_000L) / 1_000_000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        while (clock.getAsLong() < deadline) {
+            Thread.yield();
+        }
+    }
+
+    private void recordFrame(long now, long frameNanos, int steps) {
+        windowFrames++;
+        windowTicks += steps;
+        windowFrameNanos += frameNanos;
+        if (frameNanos > windowMaxFrameNanos) windowMaxFrameNanos = frameNanos;
+
+        long windowNanos = now - windowStart;
+        if (windowNanos >= NANOS_PER_SECOND) {
+            float seconds = windowNanos / (float) NANOS_PER_SECOND;
+            fps = windowFrames / seconds;
+            ticksPerSecond = windowTicks / seconds;
+            averageFrameMs = windowFrameNanos / 1_000_000.0f / windowFrames;
+            maxFrameMs = windowMaxFrameNanos / 1_000_000.0f;
+            windowStart = now;
+            windowFrames = 0;
+            windowTicks = 0;
+            windowFrameNanos = 0;
+            windowMaxFrameNanos = 0;
+        }
+    }
+
+    public float getStepSeconds() {
+        return stepSeconds;
+    }
+
+    /**
+     * 渲染插值系数 [0, 1): 0 表示上一 tick 的位置, 接近 1 表示当前 tick 的位置
+     */
+    public float getAlpha() {
+        return alpha;
+    }
+
+    public float getFps() {
+        return fps;
+    }
+
+    public float getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    public float getAverageFrameMs() {
+        return averageFrameMs;
+    }
+
+    public float getMaxFrameMs() {
+        return maxFrameMs;
+    }
+
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("fps=%.1f, tps=%.1f, avgFrame=%.2fms, maxFrame=%.2fms, droppedSteps=%d",
+            fps, ticksPerSecond, averageFrameMs, maxFrameMs, droppedSteps);
+    }
+}
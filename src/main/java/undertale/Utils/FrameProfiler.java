@@ -0,0 +1,241 @@
+package undertale.Utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * 逐帧分层 CPU 计时(基于 System.nanoTime)
+ * 各子系统在类初始化时用 scope() 注册一个 id, 每帧用 begin(id) / end(id) 包裹; 嵌套关系在第一次 begin 时
+ * 根据当前线程打开的 scope 记录为父子关系。每个 scope 的本帧耗时在 endFrame() 时写入预分配的环形缓冲,
+ * 保留最近 HISTORY 帧, begin/end/endFrame 不分配内存。未启用时 begin/end 直接返回。
+ * id 0 为整帧耗时, 由 endFrame() 按两次调用的间隔记录。GPU 耗时等外部测得的时间用 record() 写入。
+ * 独立更新线程模式下更新线程的 scope 也按 GL 线程的帧汇总, 每个 scope 只应在一个线程上使用。
+ */
+public final class FrameProfiler {
+    private static final FrameProfiler instance = new FrameProfiler(System::nanoTime);
+
+    public static final int MAX_SCOPES = 32;
+    public static final int HISTORY = 240;
+    public static final int FRAME = 0;
+    private static final int MAX_DEPTH = 16;
+
+    // 每个线程当前打开的 scope
+    private static final class ScopeStack {
+        final int[] ids = new int[MAX_DEPTH];
+        final long[] starts = new long[MAX_DEPTH];
+        int depth = 0;
+    }
+
+    private final LongSupplier clock;
+    private final ThreadLocal<ScopeStack> stacks = ThreadLocal.withInitial(ScopeStack::new);
+    private volatile boolean enabled = false;
+
+    private final String[] names = new String[MAX_SCOPES];
+    private final int[] parents = new int[MAX_SCOPES];
+    private final int[] depths = new int[MAX_SCOPES];
+    private final boolean[] placed = new boolean[MAX_SCOPES];
+    private int scopeCount = 0;
+
+    // 本帧累计的耗时
+    private final long[] current = new long[MAX_SCOPES];
+    // history[scope * HISTORY + i], head 为下一帧写入的位置
+    private final long[] history = new long[MAX_SCOPES * HISTORY];
+    private int head = 0;
+    private int samples = 0;
+    private long lastFrameStart = -1;
+
+    FrameProfiler(LongSupplier clock) {
+        this.clock = clock;
+        scope("Frame");
+        depths[FRAME] = 0;
+        placed[FRAME] = true;
+    }
+
+    public static FrameProfiler getInstance() {
+        return instance;
+    }
+
+    /**
+     * 注册一个 scope, 同名返回已有的 id
+     */
+    public synchronized int scope(String name) {
+        for (int i = 0; i < scopeCount; i++) {
+            if (names[i].equals(name)) return i;
+        }
+        if (scopeCount == MAX_SCOPES) {
+            throw new IllegalStateException("Too many profiler scopes: " + name);
+        }
+        names[scopeCount] = name;
+        parents[scopeCount] = FRAME;
+        depths[scopeCount] = 1;
+        return scopeCount++;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            // 重新开始统计, 丢弃关闭期间残留的数据
+            lastFrameStart = -1;
+            samples = 0;
+        }
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void begin(int id) {
+        if (!enabled) return;
+        ScopeStack stack = stacks.get();
+        if (stack.depth == MAX_DEPTH) {
+            throw new IllegalStateException("Profiler scopes nested too deep");
+        }
+        if (!placed[id]) {
+            // 第一次打开时记录父 scope
+            int parent = stack.depth > 0 ? stack.ids[stack.depth - 1] : FRAME;
+            parents[id] = parent;
+            depths[id] = depths[parent] + 1;
+            placed[id] = true;
+        }
+        stack.ids[stack.depth] = id;
+        stack.starts[stack.depth] = clock.getAsLong();
+        stack.depth++;
+    }
+
+    public void end(int id) {
+        if (!enabled) return;
+        ScopeStack stack = stacks.get();
+        // 向下找到配对的 begin, 弹出中途关闭计时而没有 end 的 scope; 找不到说明 begin 时尚未启用
+        int d = stack.depth - 1;
+        while (d >= 0 && stack.ids[d] != id) d--;
+        if (d < 0) return;
+        stack.depth = d;
+        current[id] += clock.getAsLong() - stack.starts[d];
+    }
+
+    /**
+     * 记录外部测得的耗时(如 GL 计时查询的结果), 累加到本帧
+     */
+    public void record(int id, long nanos) {
+        if (!enabled) return;
+        current[id] += nanos;
+    }
+
+    /**
+     * 帧结束: 记录整帧耗时, 把各 scope 本帧的耗时写入环形缓冲并清零(GL 线程)
+     */
+    public void endFrame() {
+        if (!enabled) return;
+        long now = clock.getAsLong();
+        if (lastFrameStart >= 0) {
+            current[FRAME] = now - lastFrameStart;
+            int count = scopeCount;
+            for (int i = 0; i < count; i++) {
+                history[i * HISTORY + head] = current[i];
+            }
+            head = (head + 1) % HISTORY;
+            samples = Math.min(samples + 1, HISTORY);
+        }
+        for (int i = 0; i < MAX_SCOPES; i++) {
+            current[i] = 0;
+        }
+        lastFrameStart = now;
+    }
+
+    public int getScopeCount() {
+        return scopeCount;
+    }
+
+    public String getName(int id) {
+        return names[id];
+    }
+
+    /**
+     * @return 父 scope 的 id, 整帧为 -1
+     */
+    public int getParent(int id) {
+        return id == FRAME ? -1 : parents[id];
+    }
+
+    /**
+     * @return 层级深度, 整帧为 0
+     */
+    public int getDepth(int id) {
+        return depths[id];
+    }
+
+    /**
+     * @return 已记录的帧数, 最多 HISTORY
+     */
+    public int getSampleCount() {
+        return samples;
+    }
+
+    /**
+     * @param framesAgo 0 为最近一帧
+     */
+    public float getMillis(int id, int framesAgo) {
+        int index = (head - 1 - framesAgo + HISTORY * 2) % HISTORY;
+        return history[id * HISTORY + index] / 1_000_000f;
+    }
+
+    public float getAverageMillis(int id) {
+        if (samples == 0) return 0f;
+        long sum = 0;
+        for (int i = 0; i < samples; i++) {
+            sum += history[id * HISTORY + (head - 1 - i + HISTORY) % HISTORY];
+        }
+        return sum / (float)samples / 1_000_000f;
+    }
+
+    public float getMaxMillis(int id) {
+        long max = 0;
+        for (int i = 0; i < samples; i++) {
+            max = Math.max(max, history[id * HISTORY + (head - 1 - i + HISTORY) % HISTORY]);
+        }
+        return max / 1_000_000f;
+    }
+
+    /**
+     * 以 CSV 导出: 先是每个 scope 的汇总, 空行后是逐帧耗时(最早的帧在前)
+     */
+    public void export(Writer out) throws IOException {
+        out.write("scope,parent,depth,avg_ms,max_ms\n");
+        for (int id = 0; id < scopeCount; id++) {
+            int parent = getParent(id);
+            out.write(String.format(Locale.ROOT, "%s,%s,%d,%.3f,%.3f\n",
+                names[id], parent >= 0 ? names[parent] : "", getDepth(id), getAverageMillis(id), getMaxMillis(id)));
+        }
+        out.write("\nframe");
+        for (int id = 0; id < scopeCount; id++) {
+            out.write("," + names[id]);
+        }
+        out.write("\n");
+        for (int frame = 0; frame < samples; frame++) {
+            out.write(Integer.toString(frame));
+            for (int id = 0; id < scopeCount; id++) {
+                out.write(String.format(Locale.ROOT, ",%.3f", getMillis(id, samples - 1 - frame)));
+            }
+            out.write("\n");
+        }
+    }
+
+    /**
+     * 导出到 directory 下带时间戳的 CSV 文件
+     * @return 写入的文件
+     */
+    public Path exportToFile(Path directory) throws IOException {
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path file = directory.resolve("profile-" + stamp + ".csv");
+        try (Writer out = Files.newBufferedWriter(file)) {
+            export(out);
+        }
+        return file;
+    }
+}
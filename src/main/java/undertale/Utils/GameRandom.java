@@ -0,0 +1,84 @@
+package undertale.Utils;
+
+import java.util.SplittableRandom;
+
+/**
+ * 按战斗播种的随机数服务
+ * 每个子系统从自己的 RandomStream 取随机数, 各流在战斗开始时由战斗种子依次 split 得到,
+ * 因此某个子系统多取或少取随机数不会影响其他子系统。相同的种子 + 相同的输入可以复现整场战斗。
+ * 每场战斗的种子由上一场的种子推出, 开始时打印到控制台; 用 --seed 指定后第一场战斗使用该种子。
+ */
+public final class GameRandom {
+    public enum Stream {
+        ROUNDS,       // 回合中弹幕的生成位置和时机
+        BULLETS,      // 弹幕自身的随机行为
+        COLLECTABLES, // TP 等可收集物
+        EFFECTS,      // 粒子等纯视觉效果
+        COMBAT,       // 伤害、回复量
+        UI            // 死亡画面等界面效果
+    }
+
+    private static final GameRandom instance = new GameRandom(System.nanoTime());
+
+    private final RandomStream[] streams = new RandomStream[Stream.values().length];
+    private long battleSeed;
+    private long nextBattleSeed;
+
+    GameRandom(long seed) {
+        for (int i = 0; i < streams.length; i++) {
+            streams[i] = new RandomStream(null);
+        }
+        setSeed(seed);
+    }
+
+    public static GameRandom getInstance() {
+        return instance;
+    }
+
+    public static RandomStream stream(Stream stream) {
+        return instance.get(stream);
+    }
+
+    RandomStream get(Stream stream) {
+        return streams[stream.ordinal()];
+    }
+
+    /**
+     * 指定下一场战斗的种子, 并立即用它重置所有流
+     */
+    public void setSeed(long seed) {
+        nextBattleSeed = seed;
+        reseed(seed);
+    }
+
+    /**
+     * 开始新的一场战斗: 用预定的种子重置所有流, 并推出下一场的种子
+     * @return 本场战斗的种子
+     */
+    public long newBattle() {
+        long seed = nextBattleSeed;
+        nextBattleSeed = reseed(seed);
+        System.out.println("Battle seed: " + seed);
+        return seed;
+    }
+
+    public long getBattleSeed() {
+        return battleSeed;
+    }
+
+    /**
+     * @return 下一次 newBattle() 将使用的种子
+     */
+    public long getNextBattleSeed() {
+        return nextBattleSeed;
+    }
+
+    private long reseed(long seed) {
+        battleSeed = seed;
+        SplittableRandom root = new SplittableRandom(seed);
+        for (RandomStream stream : streams) {
+            stream.reset(root.split());
+        }
+        return root.nextLong();
+    }
+}
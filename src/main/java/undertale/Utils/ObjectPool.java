@@ -0,0 +1,82 @@
+package undertale.Utils;
+
+import java.util.ArrayList;
+
+/**
+ * 对象池
+ * acquire() 从池中取出一个已回收的对象(命中), 池为空时返回 null(未命中), 由调用方 new 一个新对象;
+ * 取出的对象需要调用方自行 reset 后再使用。对象不再使用时调用 release() 放回池中。
+ * 同时记录命中次数、未命中次数以及同时在用对象数量的峰值(high-water mark), 用于调整池容量。
+ */
+public class ObjectPool<T> {
+    private final String name;
+    private final ArrayList<T> free;
+    private final int maxSize;
+
+    private int hits = 0;
+    private int misses = 0;
+    private int inUse = 0;
+    private int highWater = 0;
+
+    public ObjectPool(String name, int maxSize) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.free = new ArrayList<>(maxSize);
+    }
+
+    /**
+     * 取出一个回收的对象, 池为空时返回 null
+     */
+    public T acquire() {
+        inUse++;
+        if (inUse > highWater) highWater = inUse;
+        if (free.isEmpty()) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return free.remove(free.size() - 1);
+    }
+
+    /**
+     * 放回对象, 池已满时直接丢弃交给 GC
+     */
+    public void release(T obj) {
+        if (obj == null) return;
+        if (inUse > 0) inUse--;
+        if (free.size() < maxSize) {
+            free.add(obj);
+        }
+    }
+
+    public void clear() {
+        free.clear();
+        inUse = 0;
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    public int getInUse() {
+        return inUse;
+    }
+
+    public int getHighWater() {
+        return highWater;
+    }
+
+    public int getFreeCount() {
+        return free.size();
+    }
+
+    @Override
+    public String toString() {
+        return name + ": hits=" + hits + ", misses=" + misses + ", inUse=" + inUse
+            + ", highWater=" + highWater + ", free=" + free.size();
+    }
+}
@@ -0,0 +1,79 @@
+package undertale.Utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 按阶段统计耗时(基于 System.nanoTime), 用于启动流程的分阶段计时
+ * 同步阶段用 time() 包裹; 在线程池上执行的异步阶段用 track() 记录从提交到完成的墙钟时间。
+ * 各阶段按首次记录的顺序输出, 可以在多个线程上同时记录。
+ */
+public class PhaseTimer {
+    private final LongSupplier clock;
+    private final long origin;
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    public PhaseTimer() {
+        this(System::nanoTime);
+    }
+
+    PhaseTimer(LongSupplier clock) {
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+    }
+
+    public <T> T time(String phase, Supplier<T> action) {
+        long start = clock.getAsLong();
+        try {
+            return action.get();
+        } finally {
+            record(phase, clock.getAsLong() - start);
+        }
+    }
+
+    public void time(String phase, Runnable action) {
+        time(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * 记录 future 从现在到完成(包括异常完成)的耗时
+     */
+    public <T> CompletableFuture<T> track(String phase, CompletableFuture<T> future) {
+        long start = clock.getAsLong();
+        return future.whenComplete((result, error) -> record(phase, clock.getAsLong() - start));
+    }
+
+    /**
+     * 累加一个阶段的耗时
+     */
+    public synchronized void record(String phase, long nanos) {
+        phases.merge(phase, nanos, Long::sum);
+    }
+
+    public synchronized float getMillis(String phase) {
+        Long nanos = phases.get(phase);
+        return nanos == null ? 0.0f : nanos / 1_000_000.0f;
+    }
+
+    /**
+     * @return 从创建到现在的总耗时(毫秒)
+     */
+    public float getTotalMillis() {
+        return (clock.getAsLong() - origin) / 1_000_000.0f;
+    }
+
+    public synchronized String report() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Long> entry : phases.entrySet()) {
+            sb.append(String.format("%s=%.1fms, ", entry.getKey(), entry.getValue() / 1_000_000.0f));
+        }
+        sb.append(String.format("total=%.1fms", getTotalMillis()));
+        return sb.toString();
+    }
+}
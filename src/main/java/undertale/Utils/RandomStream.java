@@ -0,0 +1,58 @@
+package undertale.Utils;
+
+import java.util.SplittableRandom;
+
+/**
+ * 某个子系统专用的随机数流, 由 GameRandom 创建并在每场战斗开始时重置
+ * 调用方可以把它缓存在 static final 字段里; 底层 SplittableRandom 不加锁, 只应在更新线程上使用。
+ */
+public final class RandomStream {
+    private SplittableRandom random;
+
+    RandomStream(SplittableRandom random) {
+        this.random = random;
+    }
+
+    void reset(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * @return [0, 1), 可直接替换 Math.random()
+     */
+    public double nextDouble() {
+        return random.nextDouble();
+    }
+
+    /**
+     * @return [0, 1)
+     */
+    public float nextFloat() {
+        return (float)random.nextDouble();
+    }
+
+    /**
+     * @return [min, max)
+     */
+    public float nextFloat(float min, float max) {
+        return min + (float)random.nextDouble() * (max - min);
+    }
+
+    /**
+     * @return [0, bound)
+     */
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    public boolean nextBoolean() {
+        return random.nextBoolean();
+    }
+
+    /**
+     * @return -1 或 1
+     */
+    public int nextSign() {
+        return random.nextBoolean() ? 1 : -1;
+    }
+}
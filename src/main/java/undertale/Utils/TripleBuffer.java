@@ -0,0 +1,60 @@
+package undertale.Utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 无锁三缓冲, 用于一个生产者线程向一个消费者线程传递 "最新一份" 数据(渲染快照、按键状态等)
+ * 生产者写 back 缓冲, publish() 时与 middle 交换; 消费者 update() 时若有新数据则把 front 与 middle 交换。
+ * 双方各自独占一个缓冲, 交换只是一次原子操作, 热路径上没有锁;
+ * 生产者比消费者快时中间的旧数据被直接覆盖, 消费者总是拿到最新发布的一份。
+ */
+public class TripleBuffer<T> {
+    private static final int INDEX_MASK = 0b011;
+    private static final int FRESH = 0b100;
+
+    private final Object[] buffers = new Object[3];
+    // 低两位为 middle 缓冲下标, FRESH 位表示 middle 中是否有消费者未读取的新数据
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;  // 仅生产者线程访问
+    private int front = 2; // 仅消费者线程访问
+
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = factory.get();
+        }
+    }
+
+    /**
+     * 生产者: 当前可写的缓冲
+     */
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) buffers[back];
+    }
+
+    /**
+     * 生产者: 发布写好的缓冲, 之后 getWriteBuffer() 返回另一份缓冲
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * 消费者: 若有新发布的数据则切换到它
+     * @return 是否切换到了新数据
+     */
+    public boolean update() {
+        if ((middle.get() & FRESH) == 0) return false;
+        front = middle.getAndSet(front) & INDEX_MASK;
+        return true;
+    }
+
+    /**
+     * 消费者: 最近一次 update() 拿到的缓冲
+     */
+    @SuppressWarnings("unchecked")
+    public T getReadBuffer() {
+        return (T) buffers[front];
+    }
+}
@@ -0,0 +1,16 @@
+#version 330 core
+
+in vec2 vTex;
+in vec4 vColor;
+in float vParam; // 内半径 / 外半径, 0 为实心圆
+out vec4 fragColor;
+
+void main() {
+  // 四边形的 uv 为 [0, 1], 映射到以圆心为原点、外半径为 1 的距离
+  float d = length(vTex * 2.0 - 1.0);
+  // 一个像素宽的抗锯齿边缘
+  float aa = fwidth(d);
+  float outer = 1.0 - smoothstep(1.0 - aa, 1.0, d);
+  float inner = vParam > 0.0 ? smoothstep(vParam - aa, vParam, d) : 1.0;
+  fragColor = vec4(clamp(vColor.rgb, 0.0, 1.0), vColor.a * outer * inner);
+}
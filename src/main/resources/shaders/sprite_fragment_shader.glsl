@@ -0,0 +1,15 @@
+#version 330 core
+
+in vec2 vTex;
+in vec4 vColor;
+in float vParam;
+out vec4 fragColor;
+
+uniform sampler2D uTexture;
+
+void main()
+{
+    vec4 texColor = texture(uTexture, vTex);
+    fragColor = texColor * vColor;
+    fragColor.rgb = clamp(fragColor.rgb, 0.0f, 1.0f);
+}
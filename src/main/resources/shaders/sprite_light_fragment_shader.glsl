@@ -0,0 +1,15 @@
+#version 330 core
+
+in vec2 vTex;
+in vec4 vColor;  // a 为单层光圈的透明度
+in float vParam; // 叠加的光圈层数
+out vec4 fragColor;
+
+void main() {
+  float d = length(vTex * 2.0 - 1.0);
+  // 半径按 sqrt 分布的 vParam 层圆叠加后, 距离 d 处被覆盖的层数为 vParam * (1 - d^2),
+  // 逐层 alpha 混合的结果为 1 - (1 - a)^层数
+  float layers = vParam * max(0.0, 1.0 - d * d);
+  float alpha = 1.0 - pow(1.0 - vColor.a, layers);
+  fragColor = vec4(clamp(vColor.rgb, 0.0, 1.0), alpha);
+}
@@ -0,0 +1,16 @@
+#version 330 core
+
+in vec2 vTex;
+in vec4 vColor;
+in float vParam; // 对应 titan_spawn_fragment_shader 的 uScale
+out vec4 fragColor;
+
+uniform sampler2D uTexture;
+
+void main() {
+  vec4 texColor = texture(uTexture, vTex);
+  float whiteMix = 1.0 - vParam * vParam;
+  vec3 highlightedColor = mix(texColor.rgb, vec3(1.0f), whiteMix);
+  fragColor = vec4(highlightedColor, texColor.a * vColor.a);
+  fragColor.rgb = clamp(fragColor.rgb, 0.0f, 1.0f);
+}
@@ -0,0 +1,16 @@
+#version 330 core
+
+in vec2 vTex;
+in vec4 vColor;
+in float vParam; // 对应 tp_fragment_shader 的 uWhiteStrength
+out vec4 fragColor;
+
+uniform sampler2D uTexture;
+
+void main() {
+  vec4 texColor = texture(uTexture, vTex);
+  float whiteMix = sqrt(vParam);
+  vec3 highlightedColor = mix(texColor.rgb * vColor.rgb, vec3(1.0f), whiteMix);
+  fragColor = vec4(highlightedColor, texColor.a * vColor.a);
+  fragColor.rgb = clamp(fragColor.rgb, 0.0f, 1.0f);
+}
@@ -0,0 +1,39 @@
+#version 330 core
+
+// 单位四边形的角, (0,0) 为左上, (1,1) 为右下
+layout(location = 0) in vec2 aCorner;
+// 逐实例属性
+layout(location = 1) in vec4 iRect;     // 中心x, 中心y, 宽, 高 (像素)
+layout(location = 2) in float iRotation; // 旋转角度(度)
+layout(location = 3) in vec4 iColor;
+layout(location = 4) in vec4 iUV;       // u0, v0, u1, v1, 与 Texture.drawTexture 的参数含义相同
+layout(location = 5) in float iParam;
+
+out vec2 vTex;
+out vec4 vColor;
+out float vParam;
+
+// 所有 program 共享, 由 ShaderManager 的 UBO 提供
+layout(std140) uniform Screen {
+    ivec2 uScreenSize;
+};
+
+void main()
+{
+    // 原先在 CPU 上计算的旋转: 以中心为原点旋转四个角
+    vec2 local = (aCorner - 0.5) * iRect.zw;
+    float rad = radians(iRotation);
+    float c = cos(rad);
+    float s = sin(rad);
+    vec2 pos = iRect.xy + vec2(local.x * c - local.y * s, local.x * s + local.y * c);
+
+    // 与 texture_vertex_shader 相同的屏幕坐标变换
+    float x = pos.x / float(uScreenSize.x) * 2.0 - 1.0;
+    float y = 1.0 - pos.y / float(uScreenSize.y) * 2.0;
+    gl_Position = vec4(x, y, 0.0, 1.0);
+
+    // 上边取 v1, 下边取 v0
+    vTex = vec2(mix(iUV.x, iUV.z, aCorner.x), mix(iUV.w, iUV.y, aCorner.y));
+    vColor = iColor;
+    vParam = iParam;
+}
@@ -0,0 +1,16 @@
+#version 330 core
+
+in vec2 vTex;
+out vec4 fragColor;
+
+uniform sampler2D uTexture; // 单通道距离场, 0.5 为字形边缘
+uniform vec4 uColor;
+
+void main()
+{
+    float distance = texture(uTexture, vTex).r;
+    // 过渡带宽度随屏幕上的缩放变化, 放大后边缘依然锐利
+    float width = max(fwidth(distance) * 0.7, 1e-4);
+    float coverage = smoothstep(0.5 - width, 0.5 + width, distance);
+    fragColor = vec4(clamp(uColor.rgb, 0.0, 1.0), uColor.a * coverage);
+}
@@ -5,7 +5,10 @@ layout(location = 1) in vec2 aTex;
 
 out vec2 vTex;
 
-uniform ivec2 uScreenSize;
+// 所有 program 共享, 由 ShaderManager 的 UBO 提供
+layout(std140) uniform Screen {
+    ivec2 uScreenSize;
+};
 
 void main()
 {
@@ -0,0 +1,62 @@
+package undertale.GameMain;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.lwjgl.glfw.GLFW.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+public class InputLogTest {
+    private static final int[] KEYS = {GLFW_KEY_UP, GLFW_KEY_DOWN, GLFW_KEY_LEFT, GLFW_KEY_RIGHT, GLFW_KEY_Z, GLFW_KEY_X};
+
+    @Test
+    public void replay_reproducesRecordedKeyStates() throws IOException {
+        int ticks = 5000;
+        boolean[][] recorded = new boolean[ticks][];
+        SplittableRandom random = new SplittableRandom(3);
+        boolean[] keys = new boolean[GLFW_KEY_LAST + 1];
+        int[] changed = new int[KEYS.length];
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (InputRecorder recorder = new InputRecorder(bytes, 1234L)) {
+            for (int tick = 0; tick < ticks; tick++) {
+                // 平均每 20 个 tick 按下或松开一个键, 偶尔同时翻转两个
+                int count = 0;
+                if (random.nextInt(20) == 0) changed[count++] = KEYS[random.nextInt(3)];
+                if (random.nextInt(200) == 0) changed[count++] = KEYS[3 + random.nextInt(3)];
+                for (int i = 0; i < count; i++) {
+                    keys[changed[i]] = !keys[changed[i]];
+                }
+                recorded[tick] = keys.clone();
+                recorder.record(changed, count);
+            }
+            assertEquals(ticks, recorder.getTickCount());
+        }
+        // 只记录变化: 远小于每 tick 一个按键位图
+        assertTrue(bytes.size() < ticks / 2, "log size " + bytes.size());
+
+        InputReplay replay = new InputReplay(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(1234L, replay.getSeed());
+        assertEquals(ticks, replay.getTickCount());
+        boolean[] replayed = new boolean[GLFW_KEY_LAST + 1];
+        int[] toggled = new int[GLFW_KEY_LAST + 1];
+        for (int tick = 0; tick < ticks; tick++) {
+            assertFalse(replay.isFinished());
+            int count = replay.next(toggled);
+            for (int i = 0; i < count; i++) {
+                replayed[toggled[i]] = !replayed[toggled[i]];
+            }
+            assertArrayEquals(recorded[tick], replayed, "tick " + tick);
+        }
+        assertTrue(replay.isFinished());
+    }
+
+    @Test
+    public void replay_rejectsOtherFiles() {
+        byte[] notALog = {'P', 'N', 'G', 0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        assertThrows(IOException.class, () -> new InputReplay(new ByteArrayInputStream(notALog)));
+    }
+}
@@ -0,0 +1,79 @@
+package undertale.GameMain;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.lwjgl.glfw.GLFW.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import undertale.Interfaces.InputObserver;
+
+public class InputManagerTest {
+    // 记录每个 tick 收到的按键事件和 Z 键的两帧状态
+    private static final class RecordingObserver implements InputObserver {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onKeyPressed(int key) {
+            events.add("+" + key);
+        }
+
+        @Override
+        public void onKeyReleased(int key) {
+            events.add("-" + key);
+        }
+
+        @Override
+        public void processInput(boolean[] preKeyStates, boolean[] currKeyStates) {
+            events.add("Z " + preKeyStates[GLFW_KEY_Z] + "->" + currKeyStates[GLFW_KEY_Z]);
+        }
+    }
+
+    @Test
+    public void keyEvents_updateStatesAndNotifyEdges() {
+        InputManager input = new InputManager(null);
+        RecordingObserver observer = new RecordingObserver();
+        input.addObserver(observer);
+
+        input.onKey(GLFW_KEY_Z, GLFW_PRESS);
+        input.onKey(GLFW_KEY_Z, GLFW_REPEAT);
+        input.onKey(GLFW_KEY_UNKNOWN, GLFW_PRESS);
+        input.processInput();
+        assertEquals(List.of("+" + GLFW_KEY_Z, "Z false->true"), observer.events);
+
+        // 按住期间没有事件
+        observer.events.clear();
+        input.processInput();
+        assertEquals(List.of("Z true->true"), observer.events);
+
+        observer.events.clear();
+        input.onKey(GLFW_KEY_Z, GLFW_RELEASE);
+        input.processInput();
+        assertEquals(List.of("-" + GLFW_KEY_Z, "Z true->false"), observer.events);
+    }
+
+    @Test
+    public void pressShorterThanATick_staysDownForOneTick() {
+        InputManager input = new InputManager(null);
+        RecordingObserver observer = new RecordingObserver();
+        input.addObserver(observer);
+
+        input.onKey(GLFW_KEY_Z, GLFW_PRESS);
+        input.onKey(GLFW_KEY_Z, GLFW_RELEASE);
+        input.onKey(GLFW_KEY_Z, GLFW_PRESS);
+        input.onKey(GLFW_KEY_Z, GLFW_RELEASE);
+        input.processInput();
+        input.processInput();
+        input.processInput();
+        input.processInput();
+        input.processInput();
+        assertEquals(List.of(
+            "+" + GLFW_KEY_Z, "Z false->true",
+            "-" + GLFW_KEY_Z, "Z true->false",
+            "+" + GLFW_KEY_Z, "Z false->true",
+            "-" + GLFW_KEY_Z, "Z true->false",
+            "Z false->false"), observer.events);
+    }
+}
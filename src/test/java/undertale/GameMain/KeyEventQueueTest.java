@@ -0,0 +1,53 @@
+package undertale.GameMain;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class KeyEventQueueTest {
+    @Test
+    public void fullQueue_dropsNewEvents() {
+        KeyEventQueue queue = new KeyEventQueue(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(65 + i, i % 2 == 0));
+        }
+        assertFalse(queue.offer(90, true));
+        assertEquals(1, queue.getDroppedCount());
+
+        for (int i = 0; i < 4; i++) {
+            int event = queue.poll();
+            assertEquals(65 + i, KeyEventQueue.key(event));
+            assertEquals(i % 2 == 0, KeyEventQueue.pressed(event));
+        }
+        assertEquals(KeyEventQueue.EMPTY, queue.poll());
+        assertThrows(IllegalArgumentException.class, () -> new KeyEventQueue(6));
+    }
+
+    @Test
+    public void producerThread_eventsArriveInOrder() throws InterruptedException {
+        KeyEventQueue queue = new KeyEventQueue(16);
+        int total = 20_000;
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                // 测试中队列满时等待消费者
+                while (!queue.offer(i % 300 + 32, (i & 1) != 0)) {
+                    Thread.yield();
+                }
+            }
+        });
+        producer.start();
+        int received = 0;
+        while (received < total) {
+            int event = queue.poll();
+            if (event == KeyEventQueue.EMPTY) {
+                Thread.yield();
+                continue;
+            }
+            assertEquals(received % 300 + 32, KeyEventQueue.key(event));
+            assertEquals((received & 1) != 0, KeyEventQueue.pressed(event));
+            received++;
+        }
+        producer.join();
+        assertEquals(KeyEventQueue.EMPTY, queue.poll());
+    }
+}
@@ -69,4 +69,23 @@ public class CompositePOCTest {
         assertNull(a.getParent(), "child a parent must be null after clearChildren");
         assertNull(b.getParent(), "child b parent must be null after clearChildren");
     }
+
+    @Test
+    public void interpolation_lerpsChildrenAndRestoresSimulatedPosition() {
+        GameObjectComposite root = new GameObjectComposite();
+        TestLeaf leaf = new TestLeaf();
+        root.addChild(leaf);
+
+        leaf.setPosition(0f, 10f);
+        root.storePreviousPosition();
+        leaf.setPosition(10f, 30f);
+
+        root.beginInterpolation(0.25f);
+        assertEquals(2.5f, leaf.getX(), 1e-5f);
+        assertEquals(15f, leaf.getY(), 1e-5f);
+        root.endInterpolation();
+
+        assertEquals(10f, leaf.getX());
+        assertEquals(30f, leaf.getY());
+    }
 }
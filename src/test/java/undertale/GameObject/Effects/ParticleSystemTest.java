@@ -0,0 +1,45 @@
+package undertale.GameObject.Effects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class ParticleSystemTest {
+
+    @Test
+    public void expiredParticles_areSwapRemoved_andSurvivorsKeepTheirData() {
+        TitanSpawnParticleSystem system = new TitanSpawnParticleSystem(8);
+        system.emit(0f, 0f, 0f);
+        system.update(0.3f);
+        // 后发射的两个粒子比第一个年轻 0.3 秒
+        system.emit(100f, 0f, 90f);
+        system.emit(200f, 0f, 90f);
+        assertEquals(3, system.getCount());
+
+        // 第一个粒子到期, 最后一个粒子被换到下标 0
+        system.update(0.25f);
+        assertEquals(2, system.getCount());
+        assertEquals(200f, system.getParticleX(0), 1e-4f);
+        assertEquals(100f, system.getParticleX(1), 1e-4f);
+        // 沿 90 度方向以 100 像素/秒移动了 0.25 秒
+        assertEquals(25f, system.getParticleY(0), 1e-3f);
+        assertTrue(system.getParticleScale(0) < 0.6f);
+    }
+
+    @Test
+    public void emitBeyondCapacity_isDroppedAndCounted() {
+        RippleEffectSystem system = new RippleEffectSystem(2);
+        system.emit(1f, 1f);
+        system.emit(2f, 2f);
+        system.emit(3f, 3f);
+
+        assertEquals(2, system.getCount());
+        assertEquals(1, system.getDropped());
+        assertEquals(2, system.getHighWater());
+
+        system.clear();
+        assertEquals(0, system.getCount());
+        system.emit(4f, 4f);
+        assertEquals(4f, system.getParticleX(0));
+    }
+}
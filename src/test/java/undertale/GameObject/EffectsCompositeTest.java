@@ -4,19 +4,21 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.Test;
 
-import undertale.GameObject.Effects.RippleEffect;
-import undertale.GameObject.Effects.TitanSpawnParticle;
+import undertale.GameObject.Effects.RippleEffectSystem;
+import undertale.GameObject.Effects.TitanSpawnParticleSystem;
 
 public class EffectsCompositeTest {
 
     @Test
-    public void rippleAndParticle_areGameObjects_and_layered() {
+    public void rippleAndParticleSystems_areGameObjects_and_layered() {
         GameObjectComposite layer = new GameObjectComposite();
-        RippleEffect r = new RippleEffect(100f, 200f);
-        TitanSpawnParticle p = new TitanSpawnParticle(10f, 20f, 45f);
+        RippleEffectSystem r = new RippleEffectSystem(8);
+        TitanSpawnParticleSystem p = new TitanSpawnParticleSystem(8);
+        r.emit(100f, 200f);
+        p.emit(10f, 20f, 45f);
 
-        assertTrue(r instanceof GameObject, "RippleEffect should extend GameObject");
-        assertTrue(p instanceof GameObject, "TitanSpawnParticle should extend GameObject");
+        assertTrue(r instanceof GameObject, "RippleEffectSystem should extend GameObject");
+        assertTrue(p instanceof GameObject, "TitanSpawnParticleSystem should extend GameObject");
 
         layer.addChild(r);
         layer.addChild(p);
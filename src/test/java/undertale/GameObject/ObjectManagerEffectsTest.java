@@ -4,40 +4,57 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.Test;
 
-import undertale.GameObject.Effects.RippleEffect;
-import undertale.GameObject.Effects.TitanSpawnParticle;
-
 public class ObjectManagerEffectsTest {
 
     @Test
-    public void addAndClearTitanSpawnParticles_updatesLayerAndList() {
+    public void spawnAndClearTitanSpawnParticles_keepsSingleLayerNode() {
         ObjectManager manager = new ObjectManager();
+        int layerSize = manager.getEffectsLayer().getChildren().size();
 
-        TitanSpawnParticle p = new TitanSpawnParticle(10f, 20f, 45f);
-        manager.addTitanSpawnParticle(p);
+        manager.spawnTitanSpawnParticle(10f, 20f, 45f);
+        manager.spawnTitanSpawnParticle(30f, 40f, 90f);
 
-        assertEquals(1, manager.getTitanSpawnParticlesCount());
-        assertEquals(1, manager.getEffectsLayer().getChildren().size());
+        assertEquals(2, manager.getTitanSpawnParticlesCount());
+        // 粒子存放在粒子系统中, 不再逐个加入 effectsLayer
+        assertEquals(layerSize, manager.getEffectsLayer().getChildren().size());
 
         manager.clearTitanSpawnParticles();
 
         assertEquals(0, manager.getTitanSpawnParticlesCount());
-        assertEquals(0, manager.getEffectsLayer().getChildren().size());
+        assertEquals(layerSize, manager.getEffectsLayer().getChildren().size());
     }
 
     @Test
-    public void addAndClearRipples_updatesLayerAndList() {
+    public void spawnAndClearRipples_updatesCount() {
         ObjectManager manager = new ObjectManager();
 
-        RippleEffect r = new RippleEffect(100f, 200f);
-        manager.addRippleEffect(r);
+        manager.spawnRippleEffect(100f, 200f);
 
         assertEquals(1, manager.getRippleEffectsCount());
-        assertEquals(1, manager.getEffectsLayer().getChildren().size());
+        assertTrue(manager.getEffectsLayer().getChildren().contains(manager.getRippleEffects()));
 
         manager.clearRipples();
 
         assertEquals(0, manager.getRippleEffectsCount());
-        assertEquals(0, manager.getEffectsLayer().getChildren().size());
+    }
+
+    @Test
+    public void effects_expireThroughUpdateFightScene() {
+        ObjectManager manager = new ObjectManager();
+
+        manager.spawnTitanSpawnParticle(10f, 20f, 45f);
+        manager.spawnRippleEffect(100f, 200f);
+        manager.updateFightScene(0.3f);
+
+        // 涟漪 0.4 秒、粒子 0.5 秒后消失
+        assertEquals(1, manager.getRippleEffectsCount());
+        assertEquals(1, manager.getTitanSpawnParticlesCount());
+
+        manager.updateFightScene(0.15f);
+        assertEquals(0, manager.getRippleEffectsCount());
+        assertEquals(1, manager.getTitanSpawnParticlesCount());
+
+        manager.updateFightScene(0.1f);
+        assertEquals(0, manager.getTitanSpawnParticlesCount());
     }
 }
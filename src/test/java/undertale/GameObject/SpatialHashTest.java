@@ -0,0 +1,137 @@
+package undertale.GameObject;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+public class SpatialHashTest {
+
+    static class Box extends GameObject {
+        final float size;
+
+        Box(float x, float y, float size) {
+            this.x = x;
+            this.y = y;
+            this.size = size;
+        }
+
+        @Override
+        public float getWidth() {
+            return size;
+        }
+
+        @Override
+        public float getHeight() {
+            return size;
+        }
+
+        @Override
+        public void update(float deltaTime) {}
+
+        @Override
+        public void render() {}
+    }
+
+    static class BigBox extends Box {
+        BigBox(float x, float y, float size) {
+            super(x, y, size);
+        }
+    }
+
+    @Test
+    public void query_returnsOnlyNearbyObjectsOfType_withoutDuplicates() {
+        SpatialHash hash = new SpatialHash(16f, 64);
+        Box near = new Box(10, 10, 8);
+        BigBox spanning = new BigBox(0, 0, 100);   // 覆盖多个格子
+        Box far = new Box(500, 500, 8);
+        Box offscreen = new Box(-300, -300, 8);
+        hash.insert(near);
+        hash.insert(spanning);
+        hash.insert(far);
+        hash.insert(offscreen);
+
+        ArrayList<GameObject> all = new ArrayList<>();
+        hash.query(0, 0, 40, 40, null, all);
+        assertEquals(2, all.size());
+        assertTrue(all.contains(near));
+        assertTrue(all.contains(spanning));
+
+        ArrayList<BigBox> big = new ArrayList<>();
+        assertEquals(1, hash.query(0, 0, 40, 40, BigBox.class, big));
+        assertSame(spanning, big.get(0));
+
+        ArrayList<GameObject> neg = new ArrayList<>();
+        hash.queryCircle(-296, -296, 4, null, neg);
+        assertEquals(1, neg.size());
+        assertSame(offscreen, neg.get(0));
+    }
+
+    @Test
+    public void clear_removesEverything_andGrowsPastInitialCapacity() {
+        SpatialHash hash = new SpatialHash(32f, 16);
+        for (int i = 0; i < 1000; i++) {
+            hash.insert(new Box(i * 3, i % 50, 4));
+        }
+        assertEquals(1000, hash.getObjectCount());
+        ArrayList<GameObject> out = new ArrayList<>();
+        hash.query(-10, -10, 4000, 100, null, out);
+        assertEquals(1000, out.size());
+
+        hash.clear();
+        out.clear();
+        hash.query(-10, -10, 4000, 100, null, out);
+        assertEquals(0, out.size());
+        assertEquals(0, hash.getObjectCount());
+    }
+
+    @Test
+    public void queryCandidates_excludesSelf_andCircleCheckUsesSquaredDistance() {
+        SpatialHash hash = new SpatialHash(16f, 64);
+        Box a = new Box(0, 0, 10);
+        Box b = new Box(9, 0, 10);
+        Box c = new Box(30, 0, 10);
+        hash.insert(a);
+        hash.insert(b);
+        hash.insert(c);
+
+        ArrayList<Box> candidates = new ArrayList<>();
+        CollisionDetector.queryCandidates(hash, a, 0f, Box.class, candidates);
+        assertFalse(candidates.contains(a));
+        assertTrue(candidates.contains(b));
+        assertFalse(candidates.contains(c));
+
+        assertTrue(CollisionDetector.checkCircleCollision(a, b));
+        assertFalse(CollisionDetector.checkCircleCollision(a, c));
+        // 负 padding 大于两半径之和时永远不碰撞
+        assertFalse(CollisionDetector.checkCircleCollision(a, a, -20f));
+    }
+
+    @Test
+    public void insertUnion_coversAllPartsButNotTheGaps() {
+        SpatialHash hash = new SpatialHash(16f, 64);
+        // 由两节组成的物体, 本身的位置远离各节
+        Box owner = new Box(1000, 1000, 4);
+        Box head = new Box(0, 0, 10);
+        Box tail = new Box(200, 0, 10);
+        hash.beginUnion();
+        hash.includeInUnion(head);
+        hash.includeInUnion(tail);
+        hash.endUnion(owner);
+        // 没有部分时不登记
+        hash.beginUnion();
+        hash.endUnion(new Box(0, 0, 4));
+        assertEquals(1, hash.getObjectCount());
+
+        ArrayList<Box> out = new ArrayList<>();
+        hash.query(205, 2, 206, 3, Box.class, out);
+        assertEquals(1, out.size());
+        assertSame(owner, out.get(0));
+        out.clear();
+        hash.query(0, 50, 210, 60, Box.class, out);
+        assertEquals(0, out.size());
+        hash.query(995, 995, 1010, 1010, Box.class, out);
+        assertEquals(0, out.size());
+    }
+}
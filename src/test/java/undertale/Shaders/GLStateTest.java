@@ -0,0 +1,81 @@
+package undertale.Shaders;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class GLStateTest {
+    // 与 GL 常量取值相同, 避免测试加载 LWJGL
+    private static final int GL_ARRAY_BUFFER = 0x8892;
+    private static final int GL_UNIFORM_BUFFER = 0x8A11;
+
+    private static class RecordingDriver implements GLState.Driver {
+        final List<String> calls = new ArrayList<>();
+        public void useProgram(int program) { calls.add("program " + program); }
+        public void activeTexture(int unit) { calls.add("unit " + unit); }
+        public void bindTexture(int target, int texture) { calls.add("texture " + texture); }
+        public void bindVertexArray(int vao) { calls.add("vao " + vao); }
+        public void bindBuffer(int target, int buffer) { calls.add("buffer " + target + " " + buffer); }
+        public void bindBufferBase(int target, int index, int buffer) { calls.add("base " + index + " " + buffer); }
+        public void blendFunc(int src, int dst) { calls.add("blend " + src + " " + dst); }
+    }
+
+    @Test
+    public void repeatedDrawStateIsBoundOnce() {
+        RecordingDriver driver = new RecordingDriver();
+        GLState state = new GLState(driver);
+
+        for (int i = 0; i < 3; i++) {
+            state.bindBuffer(GL_ARRAY_BUFFER, 5);
+            state.useProgram(2);
+            state.bindTexture(0, 7);
+            state.bindVertexArray(1);
+        }
+
+        assertEquals(List.of("buffer " + GL_ARRAY_BUFFER + " 5", "program 2", "unit 0", "texture 7", "vao 1"), driver.calls);
+        assertEquals(5, state.getCurrentBindsIssued());
+        assertEquals(8, state.getCurrentBindsAvoided());
+
+        state.endFrame();
+        assertEquals(5, state.getBindsIssued());
+        assertEquals(8, state.getBindsAvoided());
+        assertEquals(0, state.getCurrentBindsIssued());
+    }
+
+    @Test
+    public void texturesAreTrackedPerUnitAndBuffersPerTarget() {
+        RecordingDriver driver = new RecordingDriver();
+        GLState state = new GLState(driver);
+
+        state.bindTexture(0, 3);
+        state.bindTexture(1, 4);
+        // 单元 0 上仍是纹理 3, 不需要重新绑定
+        state.bindTexture(0, 3);
+        state.bindTexture(1, 4);
+        state.bindBuffer(GL_ARRAY_BUFFER, 9);
+        state.bindBuffer(GL_UNIFORM_BUFFER, 9);
+        // bindBufferBase 也改变通用绑定点
+        state.bindBufferBase(GL_UNIFORM_BUFFER, 0, 6);
+        state.bindBuffer(GL_UNIFORM_BUFFER, 6);
+        state.blendFunc(1, 2);
+        state.blendFunc(1, 2);
+        state.blendFunc(1, 3);
+
+        assertEquals(List.of("unit 0", "texture 3", "unit 1", "texture 4",
+            "buffer " + GL_ARRAY_BUFFER + " 9", "buffer " + GL_UNIFORM_BUFFER + " 9", "base 0 6",
+            "blend 1 2", "blend 1 3"), driver.calls);
+    }
+
+    @Test
+    public void invalidateForcesRebind() {
+        RecordingDriver driver = new RecordingDriver();
+        GLState state = new GLState(driver);
+        state.useProgram(2);
+        state.invalidate();
+        state.useProgram(2);
+        assertEquals(List.of("program 2", "program 2"), driver.calls);
+    }
+}
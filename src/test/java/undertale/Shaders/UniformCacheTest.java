@@ -0,0 +1,30 @@
+package undertale.Shaders;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class UniformCacheTest {
+
+    @Test
+    public void repeatedValuesAreSkippedPerUniform() {
+        UniformCache cache = new UniformCache(2);
+
+        // 第一次设置总是上传
+        assertTrue(cache.update(0, 1f, 1f, 1f, 1f));
+        assertFalse(cache.update(0, 1f, 1f, 1f, 1f));
+        // 任一分量变化都需要上传
+        assertTrue(cache.update(0, 1f, 1f, 1f, 0.5f));
+        // 不同 uniform 互不影响
+        assertTrue(cache.update(1, 1f, 1f, 1f, 0.5f));
+        assertFalse(cache.update(1, 1f, 1f, 1f, 0.5f));
+    }
+
+    @Test
+    public void invalidateForcesNextUpload() {
+        UniformCache cache = new UniformCache(1);
+        cache.update(0, 0f, 0f, 0f, 0f);
+        cache.invalidate();
+        assertTrue(cache.update(0, 0f, 0f, 0f, 0f));
+    }
+}
@@ -0,0 +1,150 @@
+package undertale.Sound;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class AudioMixerTest {
+
+    private static SoundBuffer constant(short value, int frames, int channels) {
+        short[] samples = new short[frames * channels];
+        Arrays.fill(samples, value);
+        return new SoundBuffer(samples, channels);
+    }
+
+    @Test
+    public void voicesAreMixedWithGainAndPan_andClampedTo16Bit() {
+        AudioMixer mixer = new AudioMixer(4, 8, 16);
+        int mono = mixer.register(constant((short) 1000, 8, 1));
+        int loud = mixer.register(constant((short) 30000, 8, 2));
+
+        short[] out = new short[8 * AudioMixer.CHANNELS];
+        assertTrue(mixer.play(mono, 0.5f, 1.0f)); // 全部在右声道
+        mixer.render(out, 4);
+        assertEquals(0, out[0]);
+        assertEquals(500, out[1]);
+        assertTrue(mixer.isPlaying(mono));
+
+        // 同一音效多实例叠加后超出 16 位范围被截断
+        mixer.play(loud, 1.0f, 0.0f);
+        mixer.play(loud, 1.0f, 0.0f);
+        mixer.render(out, 4);
+        assertEquals(Short.MAX_VALUE, out[0]);
+        assertEquals(Short.MAX_VALUE, out[1]);
+        assertFalse(mixer.isPlaying(mono)); // 8 帧已全部播放, voice 被释放
+
+        // 剩余 4 帧播放完后输出静音
+        mixer.render(out, 8);
+        assertEquals(Short.MAX_VALUE, out[6]);
+        assertEquals(0, out[8]);
+        assertFalse(mixer.isPlaying(loud));
+        assertEquals(0, mixer.getActiveVoiceCount());
+    }
+
+    @Test
+    public void fullVoicePool_stealsOldestVoice_andStopCommandsRelease() {
+        AudioMixer mixer = new AudioMixer(2, 8, 16);
+        int a = mixer.register(constant((short) 1, 100, 1));
+        int b = mixer.register(constant((short) 10, 100, 1));
+        int c = mixer.register(constant((short) 100, 100, 1));
+        short[] out = new short[AudioMixer.CHANNELS];
+
+        mixer.play(a, 1.0f, 0.0f);
+        mixer.play(b, 1.0f, 0.0f);
+        mixer.play(c, 1.0f, 0.0f);
+        mixer.render(out, 1);
+        assertFalse(mixer.isPlaying(a));
+        assertEquals(110, out[0]);
+        assertEquals(2, mixer.getActiveVoiceCount());
+
+        mixer.stop(b);
+        mixer.render(out, 1);
+        assertFalse(mixer.isPlaying(b));
+        assertEquals(100, out[0]);
+
+        mixer.stopAll();
+        mixer.render(out, 1);
+        assertEquals(0, out[0]);
+        assertEquals(0, mixer.getActiveVoiceCount());
+    }
+
+    @Test
+    public void isPlaying_countsQueuedPlays_untilTheirVoicesEnd() {
+        AudioMixer mixer = new AudioMixer(4, 8, 2);
+        int a = mixer.register(constant((short) 1, 4, 1));
+        short[] out = new short[4 * AudioMixer.CHANNELS];
+
+        // 混音线程处理命令之前已算作正在播放, 避免 "未播放则播放" 的调用方重复投递
+        assertTrue(mixer.play(a, 1.0f, 0.0f));
+        assertTrue(mixer.isPlaying(a));
+
+        // 队列已满被拒绝的播放不计入
+        assertTrue(mixer.play(a, 1.0f, 0.0f));
+        assertFalse(mixer.play(a, 1.0f, 0.0f));
+        mixer.render(out, 2);
+        assertEquals(2, mixer.getActiveVoiceCount());
+        assertTrue(mixer.isPlaying(a));
+
+        mixer.render(out, 2);
+        assertFalse(mixer.isPlaying(a));
+
+        // 未注册的音效被混音线程丢弃, 计数随之归零
+        assertTrue(mixer.play(5, 1.0f, 0.0f));
+        assertTrue(mixer.isPlaying(5));
+        mixer.render(out, 1);
+        assertFalse(mixer.isPlaying(5));
+    }
+
+    @Test
+    public void commandQueue_rejectsWhenFull_andPreservesOrderAcrossWraparound() throws InterruptedException {
+        AudioCommandQueue queue = new AudioCommandQueue(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(AudioCommandQueue.PLAY, i, 1.0f, 0.0f));
+        }
+        assertFalse(queue.offer(AudioCommandQueue.PLAY, 99, 1.0f, 0.0f));
+
+        // 多个生产者并发投递, 单个消费者收到的命令不丢失、不重复
+        final int perProducer = 5_000;
+        final AudioCommandQueue shared = new AudioCommandQueue(64);
+        Thread[] producers = new Thread[3];
+        for (int p = 0; p < producers.length; p++) {
+            final int id = p;
+            producers[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!shared.offer(AudioCommandQueue.PLAY, id, i, 0.0f)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            producers[p].start();
+        }
+        int[] next = new int[producers.length];
+        int received = 0;
+        while (received < perProducer * producers.length) {
+            if (shared.poll()) {
+                int id = shared.polledSoundId;
+                assertEquals(next[id], (int) shared.polledGain); // 每个生产者内部保持顺序
+                next[id]++;
+                received++;
+            }
+        }
+        for (Thread t : producers) {
+            t.join();
+        }
+        assertFalse(shared.poll());
+    }
+
+    @Test
+    public void resample_convertsRateAndKeepsChannelsInterleaved() {
+        short[] src = {0, 100, 1000, 1100};
+        short[] dst = SoundBuffer.resample(src, 2, 22050f, 44100f);
+        assertEquals(8, dst.length);
+        assertEquals(0, dst[0]);
+        assertEquals(100, dst[1]);
+        assertEquals(500, dst[2]);
+        assertEquals(600, dst[3]);
+        assertEquals(1000, dst[4]);
+    }
+}
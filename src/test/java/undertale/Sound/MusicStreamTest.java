@@ -0,0 +1,97 @@
+package undertale.Sound;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+
+import org.junit.jupiter.api.Test;
+
+public class MusicStreamTest {
+
+    // 44100Hz 单声道 16 位音频, 第 i 帧的采样值由 sample(i) 给出
+    private static AudioInputStream pcm(int frames, java.util.function.IntUnaryOperator sample) {
+        byte[] bytes = new byte[frames * 2];
+        for (int i = 0; i < frames; i++) {
+            int s = sample.applyAsInt(i);
+            bytes[2 * i] = (byte) s;
+            bytes[2 * i + 1] = (byte) (s >> 8);
+        }
+        AudioFormat format = new AudioFormat(AudioMixer.SAMPLE_RATE, 16, 1, true, false);
+        return new AudioInputStream(new ByteArrayInputStream(bytes), format, frames);
+    }
+
+    private static MusicStream constant(int value) throws Exception {
+        MusicStream stream = new MusicStream("constant", () -> pcm(64, i -> value), true, 0.0f, 0.0f);
+        stream.open();
+        while (stream.getBufferedFrames() < 32) stream.fill();
+        return stream;
+    }
+
+    @Test
+    public void loopPoints_jumpBackToLoopStart_andMonoIsDuplicatedToStereo() throws Exception {
+        float frame = 1.0f / AudioMixer.SAMPLE_RATE;
+        MusicStream stream = new MusicStream("ramp", () -> pcm(30, i -> i), true, 10 * frame, 20 * frame);
+        stream.open();
+        while (stream.getBufferedFrames() < 45) {
+            assertTrue(stream.fill());
+        }
+
+        short[] out = new short[45 * 2];
+        assertEquals(45, stream.read(out, 45));
+        for (int i = 0; i < 45; i++) {
+            int expected = i < 20 ? i : 10 + (i - 20) % 10;
+            assertEquals(expected, out[2 * i], "frame " + i);
+            assertEquals(expected, out[2 * i + 1], "frame " + i);
+        }
+    }
+
+    @Test
+    public void bufferedAudio_isBoundedByRing_regardlessOfTrackLength() throws Exception {
+        int frames = MusicStream.RING_FRAMES * 8;
+        MusicStream stream = new MusicStream("long", () -> pcm(frames, i -> i & 0x7fff), false, 0.0f, 0.0f);
+        stream.open();
+        while (stream.fill()) { }
+        assertTrue(stream.getBufferedFrames() <= MusicStream.RING_FRAMES);
+        assertTrue(stream.getBufferedFrames() > MusicStream.RING_FRAMES / 2);
+
+        // 读完整首后(非循环)曲目结束
+        short[] out = new short[4096 * 2];
+        int total = 0;
+        while (!stream.isEnded()) {
+            total += stream.read(out, 4096);
+            stream.fill();
+        }
+        assertEquals(frames - 1, total); // 线性插值在末尾少输出一帧
+    }
+
+    @Test
+    public void mixer_crossfadesBetweenTracks_andRampsVolume() throws Exception {
+        AudioMixer mixer = new AudioMixer(2, 4, 16);
+        short[] out = new short[8 * AudioMixer.CHANNELS];
+
+        mixer.playMusic(constant(1000), 1.0f, 0.0f);
+        mixer.render(out, 1);
+        assertEquals(1000, out[0]);
+
+        // 4 帧内交叉淡入淡出: 旧曲目增益 1 -> 0, 新曲目 0 -> 1
+        mixer.playMusic(constant(2000), 1.0f, 4 / AudioMixer.SAMPLE_RATE);
+        mixer.render(out, 6);
+        int[] expected = {1000, 1250, 1500, 1750, 2000, 2000};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], out[2 * i], 1, "frame " + i);
+        }
+
+        mixer.setMusicVolume(0.5f, 2 / AudioMixer.SAMPLE_RATE);
+        mixer.render(out, 3);
+        assertEquals(2000, out[0], 1);
+        assertEquals(1500, out[2], 1);
+        assertEquals(1000, out[4], 1);
+
+        mixer.stopMusic(0.0f);
+        mixer.render(out, 1);
+        assertEquals(0, out[0]);
+    }
+}
@@ -0,0 +1,76 @@
+package undertale.Texture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import undertale.Shaders.ShaderProgram;
+
+public class AllocationFreeDrawTest {
+    private static final String TEXT = "* You feel your sins crawling on your back.";
+    private static final Consumer<ShaderProgram> NO_UNIFORMS = program -> {};
+
+    @Test
+    public void representativeFrame_recordsWithoutAllocating() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        // 合成字形: 每个字符 8x16, 字距 9
+        GlyphCache glyphs = new GlyphCache((codepoint, metrics) -> {
+            metrics[0] = 9f;
+            metrics[2] = -12f;
+            metrics[3] = 8f;
+            metrics[4] = 16f;
+            return ByteBuffer.allocate(8 * 16);
+        }, 512);
+
+        // 排版在缓存未命中时创建, 这里预先建好, 帧内只绘制
+        TextLayout text = TextLayout.build(TEXT, 1f, 0f, 37f, 9, glyphs);
+        TextLayout dialog = TextLayout.build(TEXT + "\n" + TEXT, 1f, 200f, 37f, 9, glyphs);
+
+        int previousWhite = Texture.whiteTextureId;
+        Texture.whiteTextureId = 1;
+        RenderSnapshot snapshot = new RenderSnapshot();
+        try {
+            // 预热: 让暂存区和快照数组扩容到稳定大小
+            for (int i = 0; i < 50; i++) {
+                recordFrame(snapshot, text, dialog, i);
+            }
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < 100; i++) {
+                recordFrame(snapshot, text, dialog, i);
+            }
+            long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            assertEquals(0L, allocated);
+            assertTrue(snapshot.getCommandCount() > 0);
+        } finally {
+            Texture.whiteTextureId = previousWhite;
+        }
+    }
+
+    private static void recordFrame(RenderSnapshot snapshot, TextLayout text, TextLayout dialog, int frame) {
+        SpriteBatch batch = SpriteBatch.getInstance();
+        snapshot.clear();
+        batch.beginRecording(snapshot);
+
+        Texture.drawTexture(7, 10f, 10f, 32f, 32f, 0f, 1f, 1f, 1f, 1f);
+        Texture.drawTexture(7, 50f, 10f, 32f, 32f, 45f, 1f, 1f, 1f, 1f, 0f, 1f, 1f, 0f, "tp_shader", 0.5f);
+        Texture.drawTexture(8, 90f, 10f, 32f, 32f, 30f, 1f, 0f, 0f, 1f, 0f, 1f, 1f, 0f, "texture_shader", NO_UNIFORMS);
+        Texture.drawRect(0f, 0f, 640f, 480f, 0f, 0f, 0f, 1f);
+        Texture.drawHollowRect(32f, 250f, 576f, 140f, 1f, 1f, 1f, 1f, 5f);
+        Texture.drawCircle(320f, 240f, 40f, 1f, 1f, 0f, 1f);
+        Texture.drawHollowCircle(320f, 240f, 60f, 1f, 1f, 1f, 0.5f);
+
+        // 与 FontManager.drawText / TypeWriter 相同的路径, 字形表用合成数据代替 stb 烘焙结果
+        text.draw(52f, 270f, 1f, 1f, 1f, 1f);
+        dialog.drawPrefix(52f, 310f, frame % dialog.getCharCount(), 1f, 1f, 1f, 1f);
+
+        batch.endRecording();
+    }
+}
@@ -0,0 +1,44 @@
+package undertale.Texture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class AtlasPackerTest {
+
+    @Test
+    public void pack_placementsStayInsidePageAndDoNotOverlap() {
+        AtlasPacker packer = new AtlasPacker(64, 1);
+        int[] widths = {20, 30, 10, 40, 14, 22, 8};
+        int[] heights = {10, 20, 30, 12, 14, 22, 8};
+
+        AtlasPacker.Placement[] placements = packer.pack(widths, heights);
+
+        for (int i = 0; i < placements.length; i++) {
+            AtlasPacker.Placement a = placements[i];
+            assertTrue(a.page >= 0);
+            assertTrue(a.x >= 1 && a.x + widths[i] + 1 <= 64);
+            assertTrue(a.y >= 1 && a.y + heights[i] + 1 <= 64);
+            for (int j = i + 1; j < placements.length; j++) {
+                AtlasPacker.Placement b = placements[j];
+                if (a.page != b.page) continue;
+                boolean overlap = a.x - 1 < b.x + widths[j] + 1 && b.x - 1 < a.x + widths[i] + 1
+                    && a.y - 1 < b.y + heights[j] + 1 && b.y - 1 < a.y + heights[i] + 1;
+                assertFalse(overlap, "images " + i + " and " + j + " overlap");
+            }
+        }
+    }
+
+    @Test
+    public void pack_opensNewPageWhenFull_andSkipsOversizedImages() {
+        AtlasPacker packer = new AtlasPacker(32, 0);
+        int[] widths = {32, 32, 40};
+        int[] heights = {32, 16, 8};
+
+        AtlasPacker.Placement[] placements = packer.pack(widths, heights);
+
+        assertEquals(2, packer.getPageCount());
+        assertNotEquals(placements[0].page, placements[1].page);
+        assertEquals(-1, placements[2].page);
+    }
+}
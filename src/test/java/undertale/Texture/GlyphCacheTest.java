@@ -0,0 +1,69 @@
+package undertale.Texture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+public class GlyphCacheTest {
+
+    @Test
+    public void glyphsAreRasterizedOnceAndPackedIntoShelves() {
+        int[] rasterized = {0};
+        // 每个字形 10x10(含 1 像素间隔占 11x11), 32 像素宽的图集每行放 2 个
+        GlyphCache cache = new GlyphCache((codepoint, metrics) -> {
+            rasterized[0]++;
+            metrics[0] = 12f;
+            metrics[3] = 10f;
+            metrics[4] = 10f;
+            return ByteBuffer.allocate(100);
+        }, 32);
+
+        int a = cache.slot('a');
+        assertEquals(a, cache.slot('a'));
+        int b = cache.slot('b');
+        int han = cache.slot('字');
+        assertEquals(3, rasterized[0]);
+        assertEquals(3, cache.getSlotCount());
+        assertEquals(12f, cache.getAdvance(han));
+
+        ArrayList<GlyphCache.PendingGlyph> uploads = new ArrayList<>();
+        cache.drainPending(uploads::add);
+        assertFalse(cache.hasPending());
+        assertEquals(3, uploads.size());
+        assertEquals(0, uploads.get(0).x);
+        assertEquals(11, uploads.get(1).x);
+        // 第三个字形换到下一行
+        assertEquals(0, uploads.get(2).x);
+        assertEquals(11, uploads.get(2).y);
+
+        float[] glyphs = cache.getGlyphs();
+        int base = b * FontManager.GLYPH_FLOATS;
+        assertEquals(11f / 32f, glyphs[base + 4]);
+        assertEquals(21f / 32f, glyphs[base + 6]);
+        assertEquals(10f / 32f, glyphs[han * FontManager.GLYPH_FLOATS + 7] - glyphs[han * FontManager.GLYPH_FLOATS + 5]);
+    }
+
+    @Test
+    public void fullAtlasKeepsAdvanceButDropsBitmap() {
+        GlyphCache cache = new GlyphCache((codepoint, metrics) -> {
+            metrics[0] = 20f;
+            metrics[3] = 20f;
+            metrics[4] = 20f;
+            return ByteBuffer.allocate(400);
+        }, 32);
+
+        cache.slot('a');
+        int dropped = cache.slot('b');
+        assertEquals(20f, cache.getAdvance(dropped));
+        assertEquals(0f, cache.getGlyphs()[dropped * FontManager.GLYPH_FLOATS + 2]);
+
+        ArrayList<GlyphCache.PendingGlyph> uploads = new ArrayList<>();
+        cache.drainPending(uploads::add);
+        // 放不下的位图仍交给上传方释放, 但没有位置
+        assertEquals(2, uploads.size());
+        assertEquals(-1, uploads.get(1).x);
+    }
+}
@@ -0,0 +1,73 @@
+package undertale.Texture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class RenderSnapshotTest {
+
+    @Test
+    public void recording_capturesBatchesInOrderWithoutGL() {
+        SpriteBatch batch = SpriteBatch.getInstance();
+        RenderSnapshot snapshot = new RenderSnapshot();
+
+        batch.beginRecording(snapshot);
+        batch.draw(7, 0f, 0f, 10f, 20f, 0f, 1f, 1f, 1f, 1f, 0f, 1f, 1f, 0f);
+        batch.draw(7, 5f, 5f, 10f, 10f, 0f, 1f, 1f, 1f, 0.5f, 0f, 1f, 1f, 0f);
+        batch.draw(9, 0f, 0f, 4f, 4f, 0f, 1f, 1f, 1f, 1f, 0f, 1f, 1f, 0f, "tp_shader", 0.25f);
+        batch.endRecording();
+
+        assertNull(batch.getRecording());
+        assertEquals(0, batch.getPendingSpriteCount());
+        assertEquals(2, snapshot.getCommandCount());
+
+        assertEquals(RenderSnapshot.SPRITES, snapshot.getType(0));
+        assertEquals(7, snapshot.getTextureId(0));
+        assertEquals(2, snapshot.getCount(0));
+        // 第一个实例的中心点
+        assertEquals(5f, snapshot.getData(0, 0));
+        assertEquals(10f, snapshot.getData(0, 1));
+
+        assertEquals(9, snapshot.getTextureId(1));
+        assertEquals(1, snapshot.getCount(1));
+        assertEquals(0.25f, snapshot.getData(1, SpriteBatch.FLOATS_PER_INSTANCE - 1));
+
+        snapshot.clear();
+        assertEquals(0, snapshot.getCommandCount());
+    }
+
+    @Test
+    public void circlesAndLight_areBatchedAsSingleQuads() {
+        int previousWhite = Texture.whiteTextureId;
+        Texture.whiteTextureId = 1;
+        SpriteBatch batch = SpriteBatch.getInstance();
+        RenderSnapshot snapshot = new RenderSnapshot();
+        try {
+            batch.beginRecording(snapshot);
+            Texture.drawCircle(100f, 50f, 10f, 1f, 1f, 1f, 1f);
+            Texture.drawHollowCircle(0f, 0f, 20f, 1f, 1f, 0f, 1f, 5f);
+            // 半径为 0 的涟漪不绘制
+            Texture.drawHollowCircle(0f, 0f, 0f, 1f, 1f, 0f, 1f, 1f);
+            Texture.drawRadialLight(0f, 0f, 30f, 1f, 1f, 1f, 0.1f, 6);
+            batch.endRecording();
+        } finally {
+            Texture.whiteTextureId = previousWhite;
+        }
+
+        // 圆和圆环共用一个批次, 光晕单独一个批次, 都不产生三角形网格
+        assertEquals(2, snapshot.getCommandCount());
+        assertEquals(RenderSnapshot.SPRITES, snapshot.getType(0));
+        assertEquals(2, snapshot.getCount(0));
+        // 实心圆: 外接正方形的中心和尺寸, 内半径比为 0
+        assertEquals(100f, snapshot.getData(0, 0));
+        assertEquals(50f, snapshot.getData(0, 1));
+        assertEquals(20f, snapshot.getData(0, 2));
+        assertEquals(0f, snapshot.getData(0, SpriteBatch.FLOATS_PER_INSTANCE - 1));
+        // 圆环: 内半径 15 / 外半径 20
+        assertEquals(0.75f, snapshot.getData(0, 2 * SpriteBatch.FLOATS_PER_INSTANCE - 1));
+
+        assertEquals(1, snapshot.getCount(1));
+        assertEquals(60f, snapshot.getData(1, 2));
+        assertEquals(6f, snapshot.getData(1, SpriteBatch.FLOATS_PER_INSTANCE - 1));
+    }
+}
@@ -0,0 +1,37 @@
+package undertale.Texture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class StreamRingTest {
+
+    @Test
+    public void reservationsAreAlignedWithinTheCurrentRegion() {
+        StreamRing ring = new StreamRing(256, 3);
+
+        assertEquals(0, ring.reserve(40, 16));
+        // 40 对齐到 48
+        assertEquals(48, ring.reserve(56, 16));
+        // 4 字节对齐时紧接在后
+        assertEquals(104, ring.reserve(8, 4));
+        assertTrue(ring.isRegionUsed());
+        assertTrue(ring.fits(144, 4));
+        assertFalse(ring.fits(145, 4));
+        assertThrows(IllegalStateException.class, () -> ring.reserve(200, 4));
+    }
+
+    @Test
+    public void regionsWrapAround() {
+        StreamRing ring = new StreamRing(100, 3);
+        ring.reserve(10, 4);
+        ring.nextRegion();
+        assertFalse(ring.isRegionUsed());
+        assertEquals(100, ring.reserve(10, 4));
+        ring.nextRegion();
+        assertEquals(200, ring.reserve(10, 4));
+        ring.nextRegion();
+        assertEquals(0, ring.getRegion());
+        assertEquals(0, ring.reserve(10, 4));
+    }
+}
@@ -0,0 +1,103 @@
+package undertale.Texture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+public class TextLayoutTest {
+
+    // 合成字形: 空格没有位图, 其他字符宽 8 高 16, 字距 10
+    private static GlyphCache glyphs() {
+        return new GlyphCache((codepoint, metrics) -> {
+            metrics[0] = 10f;
+            if (codepoint == ' ') return null;
+            metrics[2] = -12f;
+            metrics[3] = 8f;
+            metrics[4] = 16f;
+            return ByteBuffer.allocate(8 * 16);
+        }, 256);
+    }
+
+    @Test
+    public void wrap_breaksAtSpacesAndKeepsParagraphStarts() {
+        // 宽 50 可容纳 5 个字符; 空段落不占行, 超宽单词先逐字符断开, 直到剩余部分放得下
+        TextLayout layout = TextLayout.build("ab cd ef\n\nabcdef", 1f, 50f, 37f, 1, glyphs());
+
+        assertEquals(4, layout.getLineCount());
+        // "ab cd " / "ef" / "a" / "bcdef"
+        assertEquals(6, layout.getLineLength(0));
+        assertEquals(2, layout.getLineLength(1));
+        assertEquals(1, layout.getLineLength(2));
+        assertEquals(5, layout.getLineLength(3));
+        assertTrue(layout.isParagraphStart(0));
+        assertFalse(layout.isParagraphStart(1));
+        assertTrue(layout.isParagraphStart(2));
+        assertFalse(layout.isParagraphStart(3));
+        assertEquals(14, layout.getCharCount());
+        assertEquals(60f, layout.getWidth());
+
+        // 前缀: 空格也有字形, 第 7 个字符是第二行的 'e'
+        assertEquals(7, layout.getQuadCount(7));
+        int e = 6 * TextLayout.FLOATS_PER_QUAD;
+        assertEquals(0f, layout.getVertex(e));
+        assertEquals(37f - 12f, layout.getVertex(e + 1));
+    }
+
+    @Test
+    public void singleLine_roundsToPixelsAndSkipsControlChars() {
+        GlyphCache glyphs = new GlyphCache((codepoint, metrics) -> {
+            metrics[0] = 10f;
+            metrics[1] = 1.25f;
+            metrics[2] = -10.5f;
+            metrics[3] = 6f;
+            metrics[4] = 12f;
+            return ByteBuffer.allocate(6 * 12);
+        }, 64);
+
+        // 非 ASCII 字符也有字形, 代理对只生成一个四边形, 控制字符不绘制、不占字距
+        TextLayout layout = TextLayout.build("A\u00e9\n\ud83d\ude00", 2f, 0f, 74f, 1, glyphs);
+        assertEquals(1, layout.getLineCount());
+        assertEquals(5, layout.getCharCount());
+        assertEquals(3, layout.getQuadCount(5));
+        assertEquals(3, layout.getQuadCount(4));
+        assertEquals(60f, layout.getWidth());
+
+        // x0 = floor(0 + 1.25 + 0.5) = 1, y0 = floor(-10.5 + 0.5) = -10, 尺寸按 scale 缩放
+        assertEquals(1f, layout.getVertex(0));
+        assertEquals(-10f, layout.getVertex(1));
+        assertEquals(0f, layout.getVertex(2));
+        assertEquals(0f, layout.getVertex(3));
+        assertEquals(13f, layout.getVertex(8));
+        assertEquals(14f, layout.getVertex(9));
+        // 第一个字形在图集左上角
+        assertEquals(6f / 64f, layout.getVertex(10));
+        assertEquals(12f / 64f, layout.getVertex(11));
+        // 第二个字形前进 10 * 2
+        assertEquals(21f, layout.getVertex(TextLayout.FLOATS_PER_QUAD));
+    }
+
+    @Test
+    public void cache_evictsLeastRecentlyUsed() {
+        TextLayoutCache cache = new TextLayoutCache(2);
+        TextLayout hp = TextLayout.build("HP", 1f, 0f, 37f, 1, glyphs());
+        TextLayout lv = TextLayout.build("LV 1", 1f, 0f, 37f, 1, glyphs());
+        TextLayout tp = TextLayout.build("TP", 1f, 0f, 37f, 1, glyphs());
+
+        cache.put("HP", "determination", 1f, 0f, hp);
+        cache.put("LV 1", "determination", 1f, 0f, lv);
+        // 不同的字体、缩放或换行宽度是不同的键
+        assertNull(cache.get("HP", "pixel", 1f, 0f));
+        assertNull(cache.get("HP", "determination", 1.3f, 0f));
+        assertNull(cache.get("HP", "determination", 1f, 100f));
+        // 用新构造的字符串查询也能命中, 并把 HP 标记为最近使用
+        assertSame(hp, cache.get(new String("HP"), "determination", 1f, 0f));
+
+        cache.put("TP", "determination", 1f, 0f, tp);
+        assertEquals(2, cache.size());
+        assertNull(cache.get("LV 1", "determination", 1f, 0f));
+        assertSame(hp, cache.get("HP", "determination", 1f, 0f));
+        assertSame(tp, cache.get("TP", "determination", 1f, 0f));
+    }
+}
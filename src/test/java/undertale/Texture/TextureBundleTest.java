@@ -0,0 +1,75 @@
+package undertale.Texture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class TextureBundleTest {
+
+    @Test
+    public void resolve_groupsByFirstMatchingBundleAndLeavesOthersResident() {
+        Map<String, String> textures = new LinkedHashMap<>();
+        textures.put("heart", "heart.png");
+        textures.put("titan_body", "titan/body.png");
+        textures.put("titan_star", "titan/star.png");
+        textures.put("main_menu_bg", "menu/bg.png");
+        textures.put("main_menu_bg_0", "menu/bg_0.png");
+        textures.put("ball_small", "ball.png");
+
+        Map<String, List<String>> patterns = new LinkedHashMap<>();
+        patterns.put("menu", List.of("main_menu_bg*"));
+        patterns.put("battle", List.of("titan_*", "ball_small", "titan_star"));
+        patterns.put("empty", List.of("missing"));
+
+        Map<String, Map<String, String>> bundles = TextureBundle.resolve(textures, patterns);
+
+        assertEquals(List.of("menu", "battle", "empty"), List.copyOf(bundles.keySet()));
+        assertEquals(Map.of("main_menu_bg", "menu/bg.png", "main_menu_bg_0", "menu/bg_0.png"), bundles.get("menu"));
+        assertEquals(Map.of("titan_body", "titan/body.png", "titan_star", "titan/star.png", "ball_small", "ball.png"), bundles.get("battle"));
+        assertTrue(bundles.get("empty").isEmpty());
+        for (Map<String, String> files : bundles.values()) {
+            assertFalse(files.containsKey("heart"));
+        }
+    }
+
+    @Test
+    public void canUnload_waitsForASnapshotRecordedAfterTheRelease() {
+        TextureBundle bundle = new TextureBundle("battle", Map.of());
+        bundle.refCount = 1;
+        assertFalse(bundle.canUnload(Long.MAX_VALUE));
+
+        // 第 3 份快照录制之后释放, 快照 1..3 仍可能引用其图集
+        bundle.refCount = 0;
+        bundle.releasedAtFrame = 3;
+        assertFalse(bundle.canUnload(2));
+        assertFalse(bundle.canUnload(3));
+        assertTrue(bundle.canUnload(4));
+        // 单线程模式不经过快照, 立即卸载
+        assertTrue(bundle.canUnload(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void matches_prefixOnlyWithTrailingStar() {
+        assertTrue(TextureBundle.matches("slice_*", "slice_3"));
+        assertFalse(TextureBundle.matches("slice_*", "slices"));
+        assertTrue(TextureBundle.matches("heart", "heart"));
+        assertFalse(TextureBundle.matches("heart", "heart_shard_0"));
+    }
+
+    @Test
+    public void fitPageSize_shrinksSmallBundlesAndCapsAtPageSize() {
+        // 6 张 80x80: 面积约 4.8 万像素, 256 的页即可容纳
+        int[] small = {80, 80, 80, 80, 80, 80};
+        assertEquals(256, TextureAtlas.fitPageSize(small, small));
+        // 单张 640x480 的背景需要边长 1024 的页
+        assertEquals(1024, TextureAtlas.fitPageSize(new int[]{640}, new int[]{480}));
+        // 总面积超过一页时不超过 PAGE_SIZE, 由装箱分页
+        int[] big = new int[8];
+        java.util.Arrays.fill(big, 1500);
+        assertEquals(TextureAtlas.PAGE_SIZE, TextureAtlas.fitPageSize(big, big));
+    }
+}
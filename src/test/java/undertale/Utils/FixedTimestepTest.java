@@ -0,0 +1,49 @@
+package undertale.Utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class FixedTimestepTest {
+    private long now = 0;
+
+    @Test
+    public void beginFrame_runsWholeStepsAndKeepsRemainderAsAlpha() {
+        FixedTimestep timestep = new FixedTimestep(100, 5, () -> now); // 10ms 一个 tick
+        assertEquals(0, timestep.beginFrame());
+
+        now += 25_000_000L; // 25ms
+        assertEquals(2, timestep.beginFrame());
+        assertEquals(0.5f, timestep.getAlpha(), 1e-4f);
+
+        now += 5_000_000L; // 余下的 5ms 加上新的 5ms 凑满一个 tick
+        assertEquals(1, timestep.beginFrame());
+        assertEquals(0.0f, timestep.getAlpha(), 1e-4f);
+        assertEquals(0.01f, timestep.getStepSeconds(), 1e-6f);
+    }
+
+    @Test
+    public void beginFrame_clampsCatchUpAndCountsDroppedSteps() {
+        FixedTimestep timestep = new FixedTimestep(100, 3, () -> now);
+        timestep.beginFrame();
+
+        now += 104_000_000L; // 卡顿 104ms = 10 个 tick + 4ms
+        assertEquals(3, timestep.beginFrame());
+        assertEquals(7, timestep.getDroppedSteps());
+        assertEquals(0.4f, timestep.getAlpha(), 1e-4f);
+    }
+
+    @Test
+    public void stats_arePublishedAfterOneSecond() {
+        FixedTimestep timestep = new FixedTimestep(50, 5, () -> now);
+        timestep.beginFrame();
+        for (int i = 0; i < 100; i++) {
+            now += 10_000_000L;
+            timestep.beginFrame();
+        }
+        assertEquals(100.0f, timestep.getFps(), 0.5f);
+        assertEquals(50.0f, timestep.getTicksPerSecond(), 0.5f);
+        assertEquals(10.0f, timestep.getAverageFrameMs(), 1e-3f);
+        assertEquals(10.0f, timestep.getMaxFrameMs(), 1e-3f);
+    }
+}
@@ -0,0 +1,81 @@
+package undertale.Utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+public class FrameProfilerTest {
+    private long now = 0;
+
+    @Test
+    public void nestedScopes_recordParentsAndPerFrameTimes() {
+        FrameProfiler profiler = new FrameProfiler(() -> now);
+        int update = profiler.scope("update");
+        int collision = profiler.scope("collision");
+        assertEquals(update, profiler.scope("update"));
+
+        // 未启用时不计时
+        profiler.begin(update);
+        now += 1_000_000L;
+        profiler.end(update);
+        profiler.endFrame();
+        assertEquals(0, profiler.getSampleCount());
+
+        profiler.setEnabled(true);
+        profiler.endFrame();
+        for (int frame = 0; frame < 2; frame++) {
+            profiler.begin(update);
+            now += 2_000_000L;
+            profiler.begin(collision);
+            now += (frame + 1) * 1_000_000L; // 1ms, 2ms
+            profiler.end(collision);
+            profiler.end(update);
+            now += 1_000_000L;
+            profiler.endFrame();
+        }
+
+        assertEquals(-1, profiler.getParent(FrameProfiler.FRAME));
+        assertEquals(FrameProfiler.FRAME, profiler.getParent(update));
+        assertEquals(update, profiler.getParent(collision));
+        assertEquals(2, profiler.getDepth(collision));
+
+        assertEquals(2, profiler.getSampleCount());
+        assertEquals(2f, profiler.getMillis(collision, 0), 1e-4f);
+        assertEquals(1f, profiler.getMillis(collision, 1), 1e-4f);
+        assertEquals(4f, profiler.getMillis(update, 0), 1e-4f);
+        assertEquals(5f, profiler.getMillis(FrameProfiler.FRAME, 0), 1e-4f);
+        assertEquals(1.5f, profiler.getAverageMillis(collision), 1e-4f);
+        assertEquals(2f, profiler.getMaxMillis(collision), 1e-4f);
+    }
+
+    @Test
+    public void history_keepsOnlyLatestFramesAndExportsCsv() throws IOException {
+        FrameProfiler profiler = new FrameProfiler(() -> now);
+        int gpu = profiler.scope("gpu");
+        profiler.setEnabled(true);
+        profiler.endFrame();
+        for (int frame = 0; frame < FrameProfiler.HISTORY + 10; frame++) {
+            profiler.record(gpu, frame < 10 ? 100_000_000L : 3_000_000L);
+            now += 10_000_000L;
+            profiler.endFrame();
+        }
+
+        // 前 10 帧的 100ms 已被环形缓冲覆盖
+        assertEquals(FrameProfiler.HISTORY, profiler.getSampleCount());
+        assertEquals(3f, profiler.getAverageMillis(gpu), 1e-4f);
+        assertEquals(3f, profiler.getMaxMillis(gpu), 1e-4f);
+
+        StringWriter out = new StringWriter();
+        profiler.export(out);
+        String[] rows = out.toString().split("\n");
+        assertEquals("scope,parent,depth,avg_ms,max_ms", rows[0]);
+        assertEquals("Frame,,0,10.000,10.000", rows[1]);
+        assertEquals("gpu,Frame,1,3.000,3.000", rows[2]);
+        assertEquals("frame,Frame,gpu", rows[4]);
+        assertEquals("0,10.000,3.000", rows[5]);
+        assertEquals(5 + FrameProfiler.HISTORY, rows.length);
+    }
+}
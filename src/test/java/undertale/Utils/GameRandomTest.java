@@ -0,0 +1,59 @@
+package undertale.Utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class GameRandomTest {
+    private static double[] draw(RandomStream stream, int count) {
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = stream.nextDouble();
+        }
+        return values;
+    }
+
+    @Test
+    public void sameSeed_reproducesEveryBattle() {
+        GameRandom a = new GameRandom(42L);
+        GameRandom b = new GameRandom(42L);
+        for (int battle = 0; battle < 3; battle++) {
+            assertEquals(a.newBattle(), b.newBattle());
+            for (GameRandom.Stream stream : GameRandom.Stream.values()) {
+                assertArrayEquals(draw(a.get(stream), 16), draw(b.get(stream), 16));
+            }
+        }
+
+        // 用打印出的战斗种子可以单独复现该场战斗
+        long seed = a.newBattle();
+        double[] expected = draw(a.get(GameRandom.Stream.ROUNDS), 16);
+        GameRandom replay = new GameRandom(seed);
+        assertEquals(seed, replay.newBattle());
+        assertArrayEquals(expected, draw(replay.get(GameRandom.Stream.ROUNDS), 16));
+    }
+
+    @Test
+    public void streams_areIndependent() {
+        GameRandom a = new GameRandom(7L);
+        GameRandom b = new GameRandom(7L);
+        a.newBattle();
+        b.newBattle();
+        // 某个子系统多取随机数不影响其他子系统
+        draw(a.get(GameRandom.Stream.EFFECTS), 100);
+        assertArrayEquals(draw(b.get(GameRandom.Stream.BULLETS), 16), draw(a.get(GameRandom.Stream.BULLETS), 16));
+        assertFalse(Arrays.equals(draw(a.get(GameRandom.Stream.ROUNDS), 16), draw(a.get(GameRandom.Stream.BULLETS), 16)));
+
+        // 新战斗重置所有流, 并换用新的种子
+        long first = a.getBattleSeed();
+        assertNotEquals(first, a.newBattle());
+        RandomStream stream = a.get(GameRandom.Stream.UI);
+        for (int i = 0; i < 1000; i++) {
+            float f = stream.nextFloat(2f, 3f);
+            assertTrue(f >= 2f && f < 3f);
+            int sign = stream.nextSign();
+            assertTrue(sign == 1 || sign == -1);
+        }
+    }
+}
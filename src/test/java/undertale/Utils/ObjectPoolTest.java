@@ -0,0 +1,38 @@
+package undertale.Utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class ObjectPoolTest {
+
+    @Test
+    public void acquireRelease_reusesObjectsAndTracksStats() {
+        ObjectPool<Object> pool = new ObjectPool<>("test", 4);
+
+        assertNull(pool.acquire());
+        assertNull(pool.acquire());
+        assertEquals(2, pool.getMisses());
+        assertEquals(2, pool.getHighWater());
+
+        Object a = new Object();
+        Object b = new Object();
+        pool.release(a);
+        pool.release(b);
+        assertEquals(0, pool.getInUse());
+        assertEquals(2, pool.getFreeCount());
+
+        assertSame(b, pool.acquire());
+        assertSame(a, pool.acquire());
+        assertEquals(2, pool.getHits());
+        assertEquals(2, pool.getHighWater());
+    }
+
+    @Test
+    public void release_dropsObjectsBeyondMaxSize() {
+        ObjectPool<Object> pool = new ObjectPool<>("test", 1);
+        pool.release(new Object());
+        pool.release(new Object());
+        assertEquals(1, pool.getFreeCount());
+    }
+}
@@ -0,0 +1,46 @@
+package undertale.Utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+public class PhaseTimerTest {
+
+    @Test
+    public void phasesAreTimedInOrder_andAsyncPhasesRecordOnCompletion() {
+        long[] now = {0};
+        PhaseTimer timer = new PhaseTimer(() -> now[0]);
+
+        CompletableFuture<String> decode = new CompletableFuture<>();
+        CompletableFuture<String> tracked = timer.track("decode", decode);
+
+        assertEquals("window", timer.time("window", () -> {
+            now[0] += 5_000_000L;
+            return "window";
+        }));
+        timer.time("shaders", () -> { now[0] += 2_500_000L; });
+        assertEquals(0.0f, timer.getMillis("decode"));
+
+        decode.complete("done");
+        assertEquals("done", tracked.join());
+        assertEquals(7.5f, timer.getMillis("decode"), 1e-4f);
+
+        // 同名阶段累加
+        timer.time("shaders", () -> { now[0] += 500_000L; });
+        assertEquals(3.0f, timer.getMillis("shaders"), 1e-4f);
+        assertEquals("window=5.0ms, shaders=3.0ms, decode=7.5ms, total=8.0ms", timer.report());
+    }
+
+    @Test
+    public void failedPhaseIsStillRecorded() {
+        long[] now = {0};
+        PhaseTimer timer = new PhaseTimer(() -> now[0]);
+        assertThrows(IllegalStateException.class, () -> timer.time("broken", () -> {
+            now[0] += 1_000_000L;
+            throw new IllegalStateException();
+        }));
+        assertEquals(1.0f, timer.getMillis("broken"), 1e-4f);
+    }
+}
@@ -0,0 +1,51 @@
+package undertale.Utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class TripleBufferTest {
+
+    @Test
+    public void consumerSeesLatestPublished_andBuffersNeverAlias() {
+        TripleBuffer<int[]> buffer = new TripleBuffer<>(() -> new int[1]);
+        assertFalse(buffer.update());
+
+        buffer.getWriteBuffer()[0] = 1;
+        buffer.publish();
+        buffer.getWriteBuffer()[0] = 2;
+        buffer.publish();
+
+        assertTrue(buffer.update());
+        assertEquals(2, buffer.getReadBuffer()[0]);
+        assertNotSame(buffer.getReadBuffer(), buffer.getWriteBuffer());
+        // 没有新发布时保持当前缓冲
+        assertFalse(buffer.update());
+        assertEquals(2, buffer.getReadBuffer()[0]);
+    }
+
+    @Test
+    public void concurrentProducer_neverTearsPublishedData() throws InterruptedException {
+        TripleBuffer<int[]> buffer = new TripleBuffer<>(() -> new int[2]);
+        final int count = 200_000;
+        Thread producer = new Thread(() -> {
+            for (int i = 1; i <= count; i++) {
+                int[] data = buffer.getWriteBuffer();
+                data[0] = i;
+                data[1] = -i;
+                buffer.publish();
+            }
+        });
+        producer.start();
+        int last = 0;
+        while (last < count) {
+            if (buffer.update()) {
+                int[] data = buffer.getReadBuffer();
+                assertEquals(data[0], -data[1]);
+                assertTrue(data[0] > last);
+                last = data[0];
+            }
+        }
+        producer.join();
+    }
+}